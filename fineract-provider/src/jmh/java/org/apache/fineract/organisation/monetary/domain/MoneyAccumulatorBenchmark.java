@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Money} chains with {@link MoneyAccumulator} on the running
+ * totals of a 360 installment declining balance schedule, the way
+ * <code>AbstractLoanScheduleGenerator</code> builds them.
+ * <p>
+ * Both variants are run once during setup and must end with the same totals,
+ * so the benchmark also guards that the accumulator stays bit-identical to
+ * {@link Money}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAccumulatorBenchmark {
+
+    private static final int NUMBER_OF_INSTALLMENTS = 360;
+    private static final BigDecimal PRINCIPAL = new BigDecimal("250000");
+    private static final BigDecimal MONTHLY_RATE = new BigDecimal("0.01");
+
+    /** USD has two decimals, JPY none, UGX rounds to multiples of 100 */
+    @Param({ "USD", "JPY", "UGX" })
+    private String currencyCode;
+
+    private MonetaryCurrency currency;
+    private Money principal;
+    private Money installmentAmount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final Field roundingMode = MoneyHelper.class.getDeclaredField("roundingMode");
+        roundingMode.setAccessible(true);
+        roundingMode.set(null, RoundingMode.HALF_EVEN);
+
+        if ("USD".equals(this.currencyCode)) {
+            this.currency = new MonetaryCurrency(this.currencyCode, 2, null);
+        } else if ("JPY".equals(this.currencyCode)) {
+            this.currency = new MonetaryCurrency(this.currencyCode, 0, null);
+        } else {
+            this.currency = new MonetaryCurrency(this.currencyCode, 0, 100);
+        }
+        this.principal = Money.of(this.currency, PRINCIPAL);
+
+        // EMI = P * r / (1 - (1 + r)^-n)
+        final MathContext mc = MathContext.DECIMAL64;
+        final BigDecimal discount = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(BigDecimal.ONE.add(MONTHLY_RATE).pow(
+                NUMBER_OF_INSTALLMENTS, mc), mc));
+        this.installmentAmount = Money.of(this.currency, PRINCIPAL.multiply(MONTHLY_RATE, mc).divide(discount, mc));
+
+        final Money[] expected = money();
+        final Money[] actual = accumulator();
+        for (int i = 0; i < expected.length; i++) {
+            if (!expected[i].getAmount().equals(actual[i].getAmount())) {
+                throw new IllegalStateException("Accumulator total " + actual[i] + " differs from Money total " + expected[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Money[] money() {
+        Money outstanding = this.principal;
+        Money totalPrincipal = Money.zero(this.currency);
+        Money totalInterest = Money.zero(this.currency);
+        Money totalRepayment = Money.zero(this.currency);
+        for (int period = 1; period <= NUMBER_OF_INSTALLMENTS; period++) {
+            final Money interest = Money.of(this.currency, outstanding.getAmount().multiply(MONTHLY_RATE));
+            Money principalPortion = this.installmentAmount.minus(interest);
+            if (period == NUMBER_OF_INSTALLMENTS || principalPortion.isGreaterThan(outstanding)) {
+                principalPortion = outstanding;
+            }
+            outstanding = outstanding.minus(principalPortion);
+            totalPrincipal = totalPrincipal.plus(principalPortion);
+            totalInterest = totalInterest.plus(interest);
+            totalRepayment = totalRepayment.plus(principalPortion).plus(interest);
+        }
+        return new Money[] { outstanding, totalPrincipal, totalInterest, totalRepayment };
+    }
+
+    @Benchmark
+    public Money[] accumulator() {
+        final MoneyAccumulator outstanding = MoneyAccumulator.of(this.principal);
+        final MoneyAccumulator totalPrincipal = MoneyAccumulator.zero(this.currency);
+        final MoneyAccumulator totalInterest = MoneyAccumulator.zero(this.currency);
+        final MoneyAccumulator totalRepayment = MoneyAccumulator.zero(this.currency);
+        for (int period = 1; period <= NUMBER_OF_INSTALLMENTS; period++) {
+            final Money interest = Money.of(this.currency, outstanding.getAmount().multiply(MONTHLY_RATE));
+            Money principalPortion = this.installmentAmount.minus(interest);
+            if (period == NUMBER_OF_INSTALLMENTS || principalPortion.isGreaterThan(outstanding.toMoney())) {
+                principalPortion = outstanding.toMoney();
+            }
+            outstanding.minus(principalPortion);
+            totalPrincipal.plus(principalPortion);
+            totalInterest.plus(interest);
+            totalRepayment.plus(principalPortion).plus(interest);
+        }
+        return new Money[] { outstanding.toMoney(), totalPrincipal.toMoney(), totalInterest.toMoney(), totalRepayment.toMoney() };
+    }
+}
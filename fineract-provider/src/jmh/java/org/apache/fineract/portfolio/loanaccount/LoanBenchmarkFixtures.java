@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.DisbursementData;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModelPeriod;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+
+/**
+ * Builds loans in memory for the benchmarks, no database or Spring context is
+ * needed: a monthly USD loan disbursed on {@link #DISBURSEMENT_DATE} with a
+ * 12% nominal annual interest rate and equal installments.
+ */
+public final class LoanBenchmarkFixtures {
+
+    public static final MathContext MATH_CONTEXT = new MathContext(12, RoundingMode.HALF_EVEN);
+    public static final LocalDate DISBURSEMENT_DATE = new LocalDate(2019, 1, 1);
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("100000");
+    private static final BigDecimal ANNUAL_NOMINAL_INTEREST_RATE = new BigDecimal("12");
+
+    private LoanBenchmarkFixtures() {
+        //
+    }
+
+    /**
+     * Sets the rounding mode {@link MoneyHelper} otherwise reads from the
+     * configuration of the tenant.
+     */
+    public static void initialiseMoneyHelper() throws ReflectiveOperationException {
+        final Field roundingMode = MoneyHelper.class.getDeclaredField("roundingMode");
+        roundingMode.setAccessible(true);
+        roundingMode.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    public static ApplicationCurrency applicationCurrency() throws ReflectiveOperationException {
+        final Constructor<ApplicationCurrency> constructor = ApplicationCurrency.class.getDeclaredConstructor(String.class,
+                String.class, int.class, Integer.class, String.class, String.class);
+        constructor.setAccessible(true);
+        final Integer inMultiplesOf = null;
+        return constructor.newInstance("USD", "US Dollar", 2, inMultiplesOf, "currency.USD", "$");
+    }
+
+    /**
+     * Holidays disabled and every day a working day, so schedule dates are not
+     * moved.
+     */
+    public static HolidayDetailDTO holidayDetails() {
+        final WorkingDays workingDays = new WorkingDays("FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU",
+                RepaymentRescheduleType.SAME_DAY.getValue(), false, false) {
+            //
+        };
+        return new HolidayDetailDTO(false, new ArrayList<>(), workingDays);
+    }
+
+    /**
+     * Terms are changed while a schedule is generated, so every generation
+     * needs its own instance.
+     */
+    public static LoanApplicationTerms loanApplicationTerms(final ApplicationCurrency currency, final HolidayDetailDTO holidayDetailDTO,
+            final int numberOfRepayments, final InterestMethod interestMethod, final boolean interestRecalculationEnabled,
+            final InterestRecalculationCompoundingMethod compoundingMethod) {
+        final InterestCalculationPeriodMethod interestCalculationPeriodMethod = interestRecalculationEnabled
+                ? InterestCalculationPeriodMethod.DAILY
+                : InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD;
+        final BigDecimal interestRatePerPeriod = ANNUAL_NOMINAL_INTEREST_RATE.divide(BigDecimal.valueOf(12));
+        final Money principal = Money.of(new MonetaryCurrency(currency.getCode(), currency.getDecimalPlaces(),
+                currency.getCurrencyInMultiplesOf()), PRINCIPAL);
+        final List<DisbursementData> disbursementDatas = new ArrayList<>();
+        return LoanApplicationTerms.assembleFrom(currency, numberOfRepayments, PeriodFrequencyType.MONTHS, numberOfRepayments, 1,
+                PeriodFrequencyType.MONTHS, null, null, AmortizationMethod.EQUAL_INSTALLMENTS, interestMethod, interestRatePerPeriod,
+                PeriodFrequencyType.MONTHS, ANNUAL_NOMINAL_INTEREST_RATE, interestCalculationPeriodMethod, false, principal,
+                DISBURSEMENT_DATE, null, null, 0, 0, 0, 0, null, principal.zero(), false, null, disbursementDatas, null, null,
+                DaysInMonthType.ACTUAL, DaysInYearType.ACTUAL, interestRecalculationEnabled,
+                RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD, null, compoundingMethod, null,
+                RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD, new BigDecimal("50"), null,
+                LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE, null, PRINCIPAL, new ArrayList<>(), false, null, false,
+                holidayDetailDTO, false, false);
+    }
+
+    /**
+     * Fresh installments for the repayment periods of <code>schedule</code>,
+     * the transaction processors update them in place.
+     */
+    public static List<LoanRepaymentScheduleInstallment> installments(final LoanScheduleModel schedule) {
+        final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<>();
+        for (final LoanScheduleModelPeriod period : schedule.getPeriods()) {
+            if (period.isRepaymentPeriod()) {
+                installments.add(new LoanRepaymentScheduleInstallment(null, period.periodNumber(), period.periodFromDate(),
+                        period.periodDueDate(), period.principalDue(), period.interestDue(), period.feeChargesDue(),
+                        period.penaltyChargesDue(), period.isRecalculatedInterestComponent(), period.getLoanCompoundingDetails()));
+            }
+        }
+        return installments;
+    }
+
+    /**
+     * <code>numberOfTransactions</code> equal repayments spread evenly between
+     * the disbursement and the last due date, together paying off
+     * <code>installments</code>.
+     */
+    public static List<LoanTransaction> repayments(final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final int numberOfTransactions) {
+        Money totalDue = Money.zero(currency);
+        LocalDate lastDueDate = DISBURSEMENT_DATE;
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            totalDue = totalDue.plus(installment.getPrincipal(currency)).plus(installment.getInterestCharged(currency));
+            lastDueDate = installment.getDueDate();
+        }
+        final int daysBetweenTransactions = Math.max(1, Days.daysBetween(DISBURSEMENT_DATE, lastDueDate).getDays() / numberOfTransactions);
+        final Money amount = Money.of(currency, totalDue.getAmount().divide(BigDecimal.valueOf(numberOfTransactions), MATH_CONTEXT));
+        final List<LoanTransaction> repayments = new ArrayList<>(numberOfTransactions);
+        for (int i = 1; i <= numberOfTransactions; i++) {
+            final LocalDate transactionDate = DISBURSEMENT_DATE.plusDays(i * daysBetweenTransactions);
+            repayments.add(LoanTransaction.repayment(null, amount, null, transactionDate, null,
+                    transactionDate.toLocalDateTime(LocalTime.MIDNIGHT), null));
+        }
+        return repayments;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.portfolio.loanaccount.LoanBenchmarkFixtures;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.FineractStyleLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.RBILoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures replaying all repayments of a loan against its schedule through
+ * each {@link LoanRepaymentScheduleTransactionProcessor}, as is done whenever
+ * a transaction is backdated, adjusted or reversed.
+ * <p>
+ * Processors update the installments and transactions, so fresh copies are
+ * made in the measured method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanRepaymentScheduleTransactionProcessorBenchmark {
+
+    /** the processing strategies of LoanRepaymentScheduleTransactionProcessorFactory */
+    public enum Strategy {
+        FINERACT_STYLE, HEAVENS_FAMILY, EARLY_PAYMENT, CREOCORE, RBI_INDIA, PRINCIPAL_INTEREST_PENALTIES_FEES,
+        INTEREST_PRINCIPAL_PENALTIES_FEES;
+
+        LoanRepaymentScheduleTransactionProcessor processor() {
+            switch (this) {
+                case FINERACT_STYLE:
+                    return new FineractStyleLoanRepaymentScheduleTransactionProcessor();
+                case HEAVENS_FAMILY:
+                    return new HeavensFamilyLoanRepaymentScheduleTransactionProcessor();
+                case EARLY_PAYMENT:
+                    return new EarlyPaymentLoanRepaymentScheduleTransactionProcessor();
+                case CREOCORE:
+                    return new CreocoreLoanRepaymentScheduleTransactionProcessor();
+                case RBI_INDIA:
+                    return new RBILoanRepaymentScheduleTransactionProcessor();
+                case INTEREST_PRINCIPAL_PENALTIES_FEES:
+                    return new InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+                default:
+                    return new PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor();
+            }
+        }
+    }
+
+    @Param
+    private Strategy strategy;
+
+    @Param({ "12", "60", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "12", "120", "1000" })
+    private int numberOfTransactions;
+
+    private MonetaryCurrency currency;
+    private LoanRepaymentScheduleTransactionProcessor processor;
+    private LoanScheduleModel schedule;
+    private List<LoanTransaction> repayments;
+    private final Set<LoanCharge> loanCharges = new HashSet<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        LoanBenchmarkFixtures.initialiseMoneyHelper();
+        final ApplicationCurrency applicationCurrency = LoanBenchmarkFixtures.applicationCurrency();
+        final HolidayDetailDTO holidayDetailDTO = LoanBenchmarkFixtures.holidayDetails();
+        this.currency = new MonetaryCurrency(applicationCurrency.getCode(), applicationCurrency.getDecimalPlaces(),
+                applicationCurrency.getCurrencyInMultiplesOf());
+        this.processor = this.strategy.processor();
+        this.schedule = new DefaultLoanScheduleGeneratorFactory().create(InterestMethod.DECLINING_BALANCE).generate(
+                LoanBenchmarkFixtures.MATH_CONTEXT,
+                LoanBenchmarkFixtures.loanApplicationTerms(applicationCurrency, holidayDetailDTO, this.numberOfRepayments,
+                        InterestMethod.DECLINING_BALANCE, false, InterestRecalculationCompoundingMethod.NONE),
+                this.loanCharges, holidayDetailDTO);
+        this.repayments = LoanBenchmarkFixtures.repayments(this.currency, LoanBenchmarkFixtures.installments(this.schedule),
+                this.numberOfTransactions);
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail replay() {
+        final List<LoanTransaction> transactions = new ArrayList<>(this.repayments.size());
+        for (final LoanTransaction repayment : this.repayments) {
+            transactions.add(LoanTransaction.copyTransactionProperties(repayment));
+        }
+        return this.processor.handleTransaction(LoanBenchmarkFixtures.DISBURSEMENT_DATE, transactions, this.currency,
+                LoanBenchmarkFixtures.installments(this.schedule), this.loanCharges);
+    }
+}
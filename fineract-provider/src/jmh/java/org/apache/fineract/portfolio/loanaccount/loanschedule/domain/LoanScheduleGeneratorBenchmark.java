@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.portfolio.loanaccount.LoanBenchmarkFixtures;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating a new schedule with
+ * {@link DecliningBalanceInterestLoanScheduleGenerator} and
+ * {@link FlatInterestLoanScheduleGenerator}. The {@link LoanApplicationTerms}
+ * are assembled in the measured method as generation changes them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanScheduleGeneratorBenchmark {
+
+    @Param({ "12", "60", "360" })
+    private int numberOfRepayments;
+
+    @Param({ "DECLINING_BALANCE", "FLAT" })
+    private InterestMethod interestMethod;
+
+    private ApplicationCurrency currency;
+    private HolidayDetailDTO holidayDetailDTO;
+    private LoanScheduleGenerator loanScheduleGenerator;
+    private final Set<LoanCharge> loanCharges = new HashSet<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        LoanBenchmarkFixtures.initialiseMoneyHelper();
+        this.currency = LoanBenchmarkFixtures.applicationCurrency();
+        this.holidayDetailDTO = LoanBenchmarkFixtures.holidayDetails();
+        this.loanScheduleGenerator = new DefaultLoanScheduleGeneratorFactory().create(this.interestMethod);
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        final LoanApplicationTerms loanApplicationTerms = LoanBenchmarkFixtures.loanApplicationTerms(this.currency,
+                this.holidayDetailDTO, this.numberOfRepayments, this.interestMethod, false, InterestRecalculationCompoundingMethod.NONE);
+        return this.loanScheduleGenerator.generate(LoanBenchmarkFixtures.MATH_CONTEXT, loanApplicationTerms, this.loanCharges,
+                this.holidayDetailDTO);
+    }
+}
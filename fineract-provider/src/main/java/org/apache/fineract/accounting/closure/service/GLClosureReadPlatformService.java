@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.accounting.closure.service;
 
+import java.util.Date;
 import java.util.List;
 import org.apache.fineract.accounting.closure.data.GLClosureData;
 
@@ -27,4 +28,11 @@ public interface GLClosureReadPlatformService {
 
     GLClosureData retrieveGLClosureById(long glClosureId);
 
+    /**
+     * Returns the closing date of the latest accounting closure of an office
+     * (or null if the office has never been closed), served from the per
+     * tenant <code>glClosures</code> cache
+     */
+    Date retrieveLatestClosingDateByBranch(Long officeId);
+
 }
@@ -21,6 +21,7 @@ package org.apache.fineract.accounting.closure.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import org.apache.fineract.accounting.closure.data.GLClosureData;
 import org.apache.fineract.accounting.closure.exception.GLClosureNotFoundException;
@@ -28,6 +29,7 @@ import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -110,4 +112,13 @@ public class GLClosureReadPlatformServiceImpl implements GLClosureReadPlatformSe
         }
     }
 
+    @Override
+    @Cacheable(value = "glClosures", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#officeId+'glc')")
+    public Date retrieveLatestClosingDateByBranch(final Long officeId) {
+        final String sql = "select max(glClosure.closing_date) from acc_gl_closure glClosure where glClosure.office_id = ?";
+        final Date closingDate = this.jdbcTemplate.queryForObject(sql, Date.class, officeId);
+        // normalize the JDBC timestamp so that it compares equal to plain dates
+        return closingDate == null ? null : new Date(closingDate.getTime());
+    }
+
 }
@@ -40,6 +40,7 @@ import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -63,6 +64,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
 
     @Transactional
     @Override
+    @CacheEvict(value = "glClosures", allEntries = true)
     public CommandProcessingResult createGLClosure(final JsonCommand command) {
         try {
             final GLClosureCommand closureCommand = this.fromApiJsonDeserializer.commandFromApiJson(command.json());
@@ -96,6 +98,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
 
     @Transactional
     @Override
+    @CacheEvict(value = "glClosures", allEntries = true)
     public CommandProcessingResult updateGLClosure(final Long glClosureId, final JsonCommand command) {
         final GLClosureCommand closureCommand = this.fromApiJsonDeserializer.commandFromApiJson(command.json());
         closureCommand.validateForUpdate();
@@ -115,6 +118,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
 
     @Transactional
     @Override
+    @CacheEvict(value = "glClosures", allEntries = true)
     public CommandProcessingResult deleteGLClosure(final Long glClosureId) {
         final GLClosure glClosure = this.glClosureRepository.findById(glClosureId)
                 .orElseThrow(() -> new GLClosureNotFoundException(glClosureId));
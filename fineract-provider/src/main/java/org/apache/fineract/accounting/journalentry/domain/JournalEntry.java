@@ -223,4 +223,12 @@ public class JournalEntry extends AbstractAuditableCustom<AppUser, Long> {
         return this.shareTransactionId;
     }
 
+    public String getDescription() {
+        return this.description;
+    }
+
+    public boolean isManualEntry() {
+        return this.manualEntry;
+    }
+
 }
\ No newline at end of file
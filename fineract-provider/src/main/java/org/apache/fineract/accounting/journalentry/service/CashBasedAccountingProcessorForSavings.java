@@ -21,7 +21,6 @@ package org.apache.fineract.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
-import org.apache.fineract.accounting.closure.domain.GLClosure;
 import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SAVINGS;
 import org.apache.fineract.accounting.common.AccountingConstants.FINANCIAL_ACTIVITY;
 import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
@@ -43,7 +42,7 @@ public class CashBasedAccountingProcessorForSavings implements AccountingProcess
 
     @Override
     public void createJournalEntriesForSavings(final SavingsDTO savingsDTO) {
-        final GLClosure latestGLClosure = this.helper.getLatestClosureByBranch(savingsDTO.getOfficeId());
+        final Date latestClosingDate = this.helper.getLatestClosingDateByBranch(savingsDTO.getOfficeId());
         final Long savingsProductId = savingsDTO.getSavingsProductId();
         final Long savingsId = savingsDTO.getSavingsId();
         final String currencyCode = savingsDTO.getCurrencyCode();
@@ -58,7 +57,7 @@ public class CashBasedAccountingProcessorForSavings implements AccountingProcess
             final List<ChargePaymentDTO> feePayments = savingsTransactionDTO.getFeePayments();
             final List<ChargePaymentDTO> penaltyPayments = savingsTransactionDTO.getPenaltyPayments();
 
-            this.helper.checkForBranchClosures(latestGLClosure, transactionDate);
+            this.helper.checkForBranchClosures(latestClosingDate, transactionDate);
 
             if (savingsTransactionDTO.getTransactionType().isWithdrawal() && savingsTransactionDTO.isOverdraftTransaction()) {
                 if (savingsTransactionDTO.isAccountTransfer()) {
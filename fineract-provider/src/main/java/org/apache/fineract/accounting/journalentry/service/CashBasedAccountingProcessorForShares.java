@@ -21,7 +21,6 @@ package org.apache.fineract.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
-import org.apache.fineract.accounting.closure.domain.GLClosure;
 import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SHARES;
 import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
 import org.apache.fineract.accounting.journalentry.data.SharesDTO;
@@ -42,7 +41,7 @@ public class CashBasedAccountingProcessorForShares implements AccountingProcesso
 
     @Override
     public void createJournalEntriesForShares(SharesDTO sharesDTO) {
-        final GLClosure latestGLClosure = this.helper.getLatestClosureByBranch(sharesDTO.getOfficeId());
+        final Date latestClosingDate = this.helper.getLatestClosingDateByBranch(sharesDTO.getOfficeId());
         final Long shareAccountId = sharesDTO.getShareAccountId();
         final Long shareProductId = sharesDTO.getShareProductId();
         final String currencyCode = sharesDTO.getCurrencyCode();
@@ -55,7 +54,7 @@ public class CashBasedAccountingProcessorForShares implements AccountingProcesso
             final BigDecimal chargeAmount = transactionDTO.getChargeAmount();
             final List<ChargePaymentDTO> feePayments = transactionDTO.getFeePayments();
 
-            this.helper.checkForBranchClosures(latestGLClosure, transactionDate);
+            this.helper.checkForBranchClosures(latestClosingDate, transactionDate);
 
             if (transactionDTO.getTransactionType().isPurchased()) {
                 createJournalEntriesForPurchase(shareAccountId, shareProductId, currencyCode, transactionDTO, transactionDate,
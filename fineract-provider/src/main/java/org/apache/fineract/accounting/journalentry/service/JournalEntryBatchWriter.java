@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit of work for system generated journal entries.
+ * <p>
+ * Instead of persisting (and flushing) every leg of a business transaction on
+ * its own, the legs written within a transaction are buffered and inserted
+ * into <code>acc_gl_journal_entry</code> with a single JDBC batch just before
+ * the transaction commits. Code that reads journal entries back within the
+ * same transaction has to call {@link #flush()} first.
+ */
+@Component
+public class JournalEntryBatchWriter {
+
+    private static final String INSERT_SQL = "insert into acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id,"
+            + " loan_transaction_id, savings_transaction_id, client_transaction_id, share_transaction_id, payment_details_id, reversed,"
+            + " manual_entry, entry_date, type_enum, amount, description, entity_type_enum, entity_id, ref_num, createdby_id,"
+            + " lastmodifiedby_id, created_date, lastmodified_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<AppUser> auditorAware;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public JournalEntryBatchWriter(final RoutingDataSource dataSource, final AuditorAware<AppUser> auditorAware) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Buffers the passed in (not yet persisted) journal entry until the
+     * current transaction commits, or inserts it right away when there is no
+     * transaction.
+     */
+    public void write(final JournalEntry journalEntry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(Collections.singletonList(journalEntry));
+            return;
+        }
+        JournalEntryBuffer buffer = (JournalEntryBuffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new JournalEntryBuffer();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        buffer.add(journalEntry);
+    }
+
+    /**
+     * Inserts the journal entries buffered so far in the current transaction.
+     */
+    public void flush() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            final JournalEntryBuffer buffer = (JournalEntryBuffer) TransactionSynchronizationManager.getResource(this);
+            if (buffer != null) {
+                buffer.flush();
+            }
+        }
+    }
+
+    private void insert(final List<JournalEntry> journalEntries) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // journal entries refer to payment details and transactions which
+            // may not have been written yet
+            this.entityManager.flush();
+        }
+        final AppUser currentUser = this.auditorAware.getCurrentAuditor().orElse(null);
+        final Long currentUserId = currentUser == null ? null : currentUser.getId();
+        final Date now = new Date();
+
+        final List<Object[]> batchArgs = new ArrayList<>(journalEntries.size());
+        for (final JournalEntry journalEntry : journalEntries) {
+            batchArgs.add(new Object[] { journalEntry.getGlAccount().getId(), journalEntry.getOffice().getId(),
+                    journalEntry.getCurrencyCode(), journalEntry.getTransactionId(),
+                    journalEntry.getLoanTransaction() == null ? null : journalEntry.getLoanTransaction().getId(),
+                    journalEntry.getSavingsTransaction() == null ? null : journalEntry.getSavingsTransaction().getId(),
+                    journalEntry.getClientTransaction() == null ? null : journalEntry.getClientTransaction().getId(),
+                    journalEntry.getShareTransactionId(),
+                    journalEntry.getPaymentDetails() == null ? null : journalEntry.getPaymentDetails().getId(),
+                    journalEntry.isManualEntry(), new java.sql.Date(journalEntry.getTransactionDate().getTime()), journalEntry.getType(),
+                    journalEntry.getAmount(), journalEntry.getDescription(), journalEntry.getEntityType(), journalEntry.getEntityId(),
+                    journalEntry.getReferenceNumber(), currentUserId, currentUserId, now, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    private final class JournalEntryBuffer extends TransactionSynchronizationAdapter {
+
+        private final List<JournalEntry> journalEntries = new ArrayList<>();
+
+        void add(final JournalEntry journalEntry) {
+            this.journalEntries.add(journalEntry);
+        }
+
+        void flush() {
+            if (!this.journalEntries.isEmpty()) {
+                final List<JournalEntry> pending = new ArrayList<>(this.journalEntries);
+                this.journalEntries.clear();
+                insert(pending);
+            }
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(JournalEntryBatchWriter.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(JournalEntryBatchWriter.this, this);
+        }
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            flush();
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(JournalEntryBatchWriter.this);
+            this.journalEntries.clear();
+        }
+    }
+}
@@ -24,18 +24,16 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.accounting.common.AccountingEnumerations;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
 import org.apache.fineract.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
@@ -45,16 +43,35 @@ import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
+/**
+ * Incremental running balance engine.
+ *
+ * Running balances only change from the first uncalculated entry of a GL
+ * account onwards, so balances are recomputed per (office, account) and per
+ * account starting at that date: the balance of the last entry before it is
+ * used as seed and the remaining entries are read in (entry_date, id) order,
+ * one balance at a time, and written back through parameterized batches. The
+ * Drizzle driver reads a whole result set into memory, so memory use is
+ * bounded by the entries of one account rather than by the whole journal.
+ * Office balances are computed first and checkpointed per office in
+ * <code>acc_gl_running_balance_checkpoint</code>; organization balances are
+ * written together with <code>is_running_balance_calculated</code>, so an
+ * interrupted run resumes where it stopped instead of starting over. Only the
+ * entries the office pass of the run covered, those of the offices pending at
+ * its start up to their highest entry id, are flagged as calculated; entries
+ * posted meanwhile are left to the next run.
+ */
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
     private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private static final int BATCH_UPDATE_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
 
     private final OfficeRepositoryWrapper officeRepositoryWrapper;
@@ -63,27 +80,32 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final FromJsonHelper fromApiJsonHelper;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
+    private final String pendingOfficesSql = "select je.office_id as officeId, max(je.id) as maxEntryId from acc_gl_journal_entry je "
+            + "where je.is_running_balance_calculated = 0 group by je.office_id";
+
+    private final String pendingOfficeAccountsSql = "select je.account_id as accountId, min(je.entry_date) as fromDate from acc_gl_journal_entry je "
+            + "where je.is_running_balance_calculated = 0 and je.office_id = ? group by je.account_id";
+
+    private final String pendingAccountsSql = "select je.account_id as accountId, min(je.entry_date) as fromDate from acc_gl_journal_entry je "
+            + "where je.is_running_balance_calculated = 0 group by je.account_id";
+
+    private final String officeSeedSql = "select je.office_running_balance from acc_gl_journal_entry je "
+            + "where je.office_id = ? and je.account_id = ? and je.entry_date < ? order by je.entry_date desc, je.id desc limit 1";
 
-    // if a limit is not added to the running balance select statements below and the resultset is more than 400,000,
-    // the script will eat up all of the server memory
-    private final String selectRunningBalanceSqlLimit = "limit 0, 10000";
+    private final String organizationSeedSql = "select je.organization_running_balance from acc_gl_journal_entry je "
+            + "where je.account_id = ? and je.entry_date < ? order by je.entry_date desc, je.id desc limit 1";
 
-    private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
+    private final String officeEntriesSql = "select je.id as id, je.type_enum as entryType, je.amount as amount from acc_gl_journal_entry je "
+            + "where je.office_id = ? and je.account_id = ? and je.entry_date >= ? order by je.entry_date, je.id";
 
-    private final String organizationRunningBalanceSql = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
+    private final String organizationEntriesSql = "select je.id as id, je.office_id as officeId, je.type_enum as entryType, je.amount as amount "
+            + "from acc_gl_journal_entry je where je.account_id = ? and je.entry_date >= ? order by je.entry_date, je.id";
 
-    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-            + "from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
+    private final String officeUpdateSql = "UPDATE acc_gl_journal_entry SET office_running_balance = ? WHERE id = ?";
+
+    // never clears the flag of an entry calculated before
+    private final String organizationUpdateSql = "UPDATE acc_gl_journal_entry SET organization_running_balance = ?, "
+            + "is_running_balance_calculated = greatest(is_running_balance_calculated, ?) WHERE id = ?";
 
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepositoryWrapper officeRepositoryWrapper,
@@ -97,14 +119,30 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
     public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=0 ";
-        try {
-            Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
+        final Map<Long, Long> pendingOffices = new LinkedHashMap<>();
+        this.jdbcTemplate.query(this.pendingOfficesSql, (RowCallbackHandler) rs -> pendingOffices.put(rs.getLong("officeId"),
+                rs.getLong("maxEntryId")));
+        if (pendingOffices.isEmpty()) {
             logger.debug("No results found for updation of running balance ");
+            return;
+        }
+
+        final Map<Long, Long> checkpoints = retrieveCheckpoints();
+        final Map<Long, Integer> accountTypes = retrieveAccountTypes();
+        for (final Map.Entry<Long, Long> office : pendingOffices.entrySet()) {
+            final Long officeId = office.getKey();
+            final Long maxEntryId = office.getValue();
+            final Long checkpoint = checkpoints.get(officeId);
+            if (checkpoint != null && checkpoint >= maxEntryId) {
+                logger.debug("Office running balances of office " + officeId + " already calculated up to entry " + checkpoint);
+                continue;
+            }
+            updateOfficeRunningBalances(officeId, accountTypes);
+            saveCheckpoint(officeId, maxEntryId);
         }
+
+        updateOrganizationRunningBalances(accountTypes, pendingOffices);
+        this.jdbcTemplate.update("delete from acc_gl_running_balance_checkpoint");
     }
 
     @Override
@@ -118,115 +156,82 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             updateRunningBalance();
         } else {
             this.officeRepositoryWrapper.findOneWithNotFoundDetection(officeId);
-            String dateFinder = "select MIN(je.entry_date) as entityDate " + "from acc_gl_journal_entry  je "
-                    + "where je.is_running_balance_calculated=0  and je.office_id=?";
-            try {
-                Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class, officeId);
-                updateRunningBalance(officeId, entityDate);
-            } catch (EmptyResultDataAccessException e) {
-                logger.debug("No results found for updation of office running balance with office id:" + officeId);
-            }
+            updateOfficeRunningBalances(officeId, retrieveAccountTypes());
             commandProcessingResultBuilder.withOfficeId(officeId);
         }
         return commandProcessingResultBuilder.build();
     }
 
-    private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString()); //Drizzle is returning Big Integer where as MySQL returns Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+    private void updateOfficeRunningBalances(final Long officeId, final Map<Long, Integer> accountTypes) {
+        final Map<Long, Date> pendingAccounts = retrievePendingAccounts(this.pendingOfficeAccountsSql, officeId);
+        if (pendingAccounts.isEmpty()) {
+            logger.debug("No results found for updation of office running balance with office id:" + officeId);
+            return;
         }
-
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+        final RunningBalanceBatchWriter writer = new RunningBalanceBatchWriter(this.officeUpdateSql);
+        for (final Map.Entry<Long, Date> pendingAccount : pendingAccounts.entrySet()) {
+            final Long accountId = pendingAccount.getKey();
+            final Date fromDate = pendingAccount.getValue();
+            final BigDecimal seed = retrieveSeed(this.officeSeedSql, officeId, accountId, fromDate);
+            final RunningBalanceAccumulator accumulator = new RunningBalanceAccumulator(accountTypes.get(accountId), seed, writer, null);
+            this.jdbcTemplate.query(this.officeEntriesSql, accumulator, officeId, accountId, fromDate);
         }
+        writer.flush();
+    }
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0 ; index < entryDatas.size() ; index++) {
-                JournalEntryData entryData = entryDatas.get(index) ;
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql.add(sql) ;
-                batchIndex++ ;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size()-1) {
-                    // run a batch update of the 1000 update SQL statements
-                    String[] batch = new String[updateSql.size()] ;
-                    updateSql.toArray(batch) ;
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
-                }
-            }
+    /**
+     * @param calculatedOffices
+     *            the highest entry id the office pass covered, per office
+     */
+    private void updateOrganizationRunningBalances(final Map<Long, Integer> accountTypes, final Map<Long, Long> calculatedOffices) {
+        final Map<Long, Date> pendingAccounts = retrievePendingAccounts(this.pendingAccountsSql);
+        final RunningBalanceBatchWriter writer = new RunningBalanceBatchWriter(this.organizationUpdateSql);
+        for (final Map.Entry<Long, Date> pendingAccount : pendingAccounts.entrySet()) {
+            final Long accountId = pendingAccount.getKey();
+            final Date fromDate = pendingAccount.getValue();
+            final BigDecimal seed = retrieveSeed(this.organizationSeedSql, accountId, fromDate);
+            final RunningBalanceAccumulator accumulator = new RunningBalanceAccumulator(accountTypes.get(accountId), seed, writer,
+                    calculatedOffices);
+            this.jdbcTemplate.query(this.organizationEntriesSql, accumulator, accountId, fromDate);
         }
+        writer.flush();
+    }
 
+    private Map<Long, Date> retrievePendingAccounts(final String sql, final Object... params) {
+        final Map<Long, Date> pendingAccounts = new LinkedHashMap<>();
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> pendingAccounts.put(rs.getLong("accountId"), rs.getDate("fromDate")),
+                params);
+        return pendingAccounts;
     }
 
-    private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+    private BigDecimal retrieveSeed(final String sql, final Object... params) {
+        final List<BigDecimal> seed = this.jdbcTemplate.queryForList(sql, BigDecimal.class, params);
+        return seed.isEmpty() ? BigDecimal.ZERO : seed.get(0);
+    }
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
-        }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
-        }
-        this.jdbcTemplate.batchUpdate(updateSql);
+    private Map<Long, Integer> retrieveAccountTypes() {
+        final Map<Long, Integer> accountTypes = new HashMap<>();
+        this.jdbcTemplate.query("select gl.id as id, gl.classification_enum as classification from acc_gl_account gl",
+                (RowCallbackHandler) rs -> accountTypes.put(rs.getLong("id"), JdbcSupport.getInteger(rs, "classification")));
+        return accountTypes;
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
-        }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+    private Map<Long, Long> retrieveCheckpoints() {
+        final Map<Long, Long> checkpoints = new HashMap<>();
+        this.jdbcTemplate.query("select cp.office_id as officeId, cp.max_journal_entry_id as maxEntryId from acc_gl_running_balance_checkpoint cp",
+                (RowCallbackHandler) rs -> checkpoints.put(rs.getLong("officeId"), rs.getLong("maxEntryId")));
+        return checkpoints;
+    }
+
+    private void saveCheckpoint(final Long officeId, final Long maxEntryId) {
+        this.jdbcTemplate.update("delete from acc_gl_running_balance_checkpoint where office_id = ?", officeId);
+        this.jdbcTemplate.update("insert into acc_gl_running_balance_checkpoint (office_id, max_journal_entry_id, created_date) values (?, ?, ?)",
+                officeId, maxEntryId, new Date());
+    }
+
+    private static boolean isIncrease(final GLAccountType accountType, final JournalEntryType entryType) {
         boolean isIncrease = false;
-        switch (accounttype) {
+        switch (accountType) {
             case ASSET:
                 if (entryType.isDebitType()) {
                     isIncrease = true;
@@ -253,46 +258,71 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 }
             break;
         }
-        if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
-        } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
-        }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
-        return runningBalance;
+        return isIncrease;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    /**
+     * Consumes the entries of one running balance (one account, optionally
+     * restricted to one office) in (entry_date, id) order. With
+     * <code>calculatedOffices</code> the organization balance is written
+     * together with whether the office balance of the entry is calculated.
+     */
+    private static final class RunningBalanceAccumulator implements RowCallbackHandler {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
-        }
+        private final GLAccountType accountType;
+        private final RunningBalanceBatchWriter writer;
+        private final Map<Long, Long> calculatedOffices;
+        private BigDecimal runningBalance;
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        RunningBalanceAccumulator(final Integer accountType, final BigDecimal seed, final RunningBalanceBatchWriter writer,
+                final Map<Long, Long> calculatedOffices) {
+            this.accountType = GLAccountType.fromInt(accountType);
+            this.runningBalance = seed;
+            this.writer = writer;
+            this.calculatedOffices = calculatedOffices;
         }
 
         @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
+        public void processRow(final ResultSet rs) throws SQLException {
+            final long id = rs.getLong("id");
+            final JournalEntryType entryType = JournalEntryType.fromInt(rs.getInt("entryType"));
             final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
-
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null, null);
+            if (isIncrease(this.accountType, entryType)) {
+                this.runningBalance = this.runningBalance.add(amount);
+            } else {
+                this.runningBalance = this.runningBalance.subtract(amount);
+            }
+            if (this.calculatedOffices == null) {
+                this.writer.add(this.runningBalance, id);
+            } else {
+                final Long calculatedUpTo = this.calculatedOffices.get(rs.getLong("officeId"));
+                final boolean calculated = calculatedUpTo != null && id <= calculatedUpTo;
+                this.writer.add(this.runningBalance, calculated ? 1 : 0, id);
+            }
         }
     }
 
+    private final class RunningBalanceBatchWriter {
+
+        private final String sql;
+        private final List<Object[]> batch = new ArrayList<>(BATCH_UPDATE_SIZE);
+
+        RunningBalanceBatchWriter(final String sql) {
+            this.sql = sql;
+        }
+
+        void add(final Object... params) {
+            this.batch.add(params);
+            if (this.batch.size() == BATCH_UPDATE_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!this.batch.isEmpty()) {
+                JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.batchUpdate(this.sql, this.batch);
+                this.batch.clear();
+            }
+        }
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.producttoaccountmapping.data;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all GL account mappings (rows of
+ * <code>acc_product_mapping</code>) of a single product, used for resolving
+ * the GL accounts of journal entry legs without querying the mapping table
+ * for every leg.
+ */
+public class ProductToGLAccountMappingData implements Serializable {
+
+    private final Map<String, Long> glAccountIds;
+
+    private ProductToGLAccountMappingData(final Map<String, Long> glAccountIds) {
+        this.glAccountIds = glAccountIds;
+    }
+
+    /**
+     * Returns the GL account of the core mapping (neither payment type nor
+     * charge specific) for the passed in financial account type.
+     */
+    public Long coreGLAccountId(final int financialAccountType) {
+        return this.glAccountIds.get(key(financialAccountType, null, null));
+    }
+
+    /**
+     * Returns the GL account mapped to the passed in payment type, falling
+     * back to the core mapping when there is no payment type specific one.
+     */
+    public Long paymentTypeGLAccountId(final int financialAccountType, final Long paymentTypeId) {
+        final Long glAccountId = paymentTypeId == null ? null : this.glAccountIds.get(key(financialAccountType, paymentTypeId, null));
+        return glAccountId == null ? coreGLAccountId(financialAccountType) : glAccountId;
+    }
+
+    /**
+     * Returns the GL account mapped to the passed in charge, falling back to
+     * the core mapping when there is no charge specific one.
+     */
+    public Long chargeGLAccountId(final int financialAccountType, final Long chargeId) {
+        final Long glAccountId = chargeId == null ? null : this.glAccountIds.get(key(financialAccountType, null, chargeId));
+        return glAccountId == null ? coreGLAccountId(financialAccountType) : glAccountId;
+    }
+
+    private static String key(final int financialAccountType, final Long paymentTypeId, final Long chargeId) {
+        return financialAccountType + "|" + paymentTypeId + "|" + chargeId;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Long> glAccountIds = new HashMap<>();
+
+        public Builder withMapping(final int financialAccountType, final Long paymentTypeId, final Long chargeId, final Long glAccountId) {
+            this.glAccountIds.put(key(financialAccountType, paymentTypeId, chargeId), glAccountId);
+            return this;
+        }
+
+        public ProductToGLAccountMappingData build() {
+            return new ProductToGLAccountMappingData(Collections.unmodifiableMap(new HashMap<>(this.glAccountIds)));
+        }
+    }
+}
@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Map;
 import org.apache.fineract.accounting.producttoaccountmapping.data.ChargeToGLAccountMapper;
 import org.apache.fineract.accounting.producttoaccountmapping.data.PaymentTypeToGLAccountMapper;
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductToGLAccountMappingData;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
 
 public interface ProductToGLAccountMappingReadPlatformService {
 
@@ -47,4 +49,11 @@ public interface ProductToGLAccountMappingReadPlatformService {
 
     public List<ChargeToGLAccountMapper> fetchFeeToIncomeAccountMappingsForShareProduct(final Long productId);
 
-}
\ No newline at end of file
+    /**
+     * Retrieves all GL account mappings of a product for resolving journal
+     * entry accounts, served from the per tenant
+     * <code>productToGLAccountMappings</code> cache
+     */
+    public ProductToGLAccountMappingData retrieveGLAccountMappings(final PortfolioProductType productType, final Long productId);
+
+}
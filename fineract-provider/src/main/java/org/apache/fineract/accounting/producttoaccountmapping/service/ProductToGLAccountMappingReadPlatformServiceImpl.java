@@ -35,12 +35,14 @@ import org.apache.fineract.accounting.common.AccountingRuleType;
 import org.apache.fineract.accounting.glaccount.data.GLAccountData;
 import org.apache.fineract.accounting.producttoaccountmapping.data.ChargeToGLAccountMapper;
 import org.apache.fineract.accounting.producttoaccountmapping.data.PaymentTypeToGLAccountMapper;
+import org.apache.fineract.accounting.producttoaccountmapping.data.ProductToGLAccountMappingData;
 import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.portfolio.charge.data.ChargeData;
 import org.apache.fineract.portfolio.paymenttype.data.PaymentTypeData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -375,4 +377,19 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
         return fetchChargeToIncomeAccountMappings(PortfolioProductType.SHARES, productId, false);
     }
 
-}
\ No newline at end of file
+    @Override
+    @Cacheable(value = "productToGLAccountMappings", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#productType.getValue()+'|'+#productId+'pgm')")
+    public ProductToGLAccountMappingData retrieveGLAccountMappings(final PortfolioProductType productType, final Long productId) {
+        final String sql = "select mapping.financial_account_type as financialAccountType, mapping.payment_type as paymentTypeId,"
+                + " mapping.charge_id as chargeId, mapping.gl_account_id as glAccountId from acc_product_mapping mapping"
+                + " where mapping.product_type = ? and mapping.product_id = ?";
+
+        final ProductToGLAccountMappingData.Builder builder = ProductToGLAccountMappingData.builder();
+        this.jdbcTemplate.query(sql, rs -> {
+            builder.withMapping(rs.getInt("financialAccountType"), JdbcSupport.getLong(rs, "paymentTypeId"),
+                    JdbcSupport.getLong(rs, "chargeId"), JdbcSupport.getLong(rs, "glAccountId"));
+        }, productType.getValue(), productId);
+        return builder.build();
+    }
+
+}
@@ -47,6 +47,20 @@ public interface BatchApiService {
      */
     List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
 
+    /**
+     * Same as
+     * {@link #handleBatchRequestsWithoutEnclosingTransaction(List, UriInfo)}
+     * but independent requests, i.e. every request without a reference
+     * together with the requests depending on it, are executed concurrently.
+     * Dependent requests are still executed after the request they reference.
+     * It will be used when the Query Parameter "parallel" is set to 'true'.
+     *
+     * @param requestList
+     * @param uriInfo
+     * @return List&lt;BatchResponse&gt;
+     */
+    List<BatchResponse> handleBatchRequestsInParallel(List<BatchRequest> requestList, UriInfo uriInfo);
+
     /**
      * returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s
      * by getting the appropriate CommandStrategy for every
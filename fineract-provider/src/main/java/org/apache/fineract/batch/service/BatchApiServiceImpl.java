@@ -23,6 +23,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -35,8 +45,13 @@ import org.apache.fineract.batch.exception.ClientDetailsNotFoundException;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
@@ -57,9 +72,27 @@ import org.springframework.transaction.support.TransactionTemplate;
 @Service
 public class BatchApiServiceImpl implements BatchApiService {
 
+    public final static String PARALLEL_THREADS = "fineract.batch.parallel.threads";
+    public final static String PARALLEL_QUEUE_CAPACITY = "fineract.batch.parallel.queue.capacity";
+
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
+    private ThreadPoolExecutor parallelExecutor;
+
+    /**
+     * Upper bound of root requests of all parallel batches executing at the
+     * same time.
+     */
+    @Value("${" + PARALLEL_THREADS + ":8}")
+    private int parallelThreads;
+
+    /**
+     * Root requests waiting for a free thread, once the queue is full the
+     * request thread of a batch executes its root requests itself.
+     */
+    @Value("${" + PARALLEL_QUEUE_CAPACITY + ":100}")
+    private int parallelQueueCapacity;
 
     /**
      * Constructs a 'BatchApiServiceImpl' with an argument of
@@ -77,6 +110,23 @@ public class BatchApiServiceImpl implements BatchApiService {
         this.transactionTemplate = transactionTemplate;
     }
 
+    @PostConstruct
+    public void start() {
+        final int threads = Math.max(1, this.parallelThreads);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.parallelExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, this.parallelQueueCapacity)), r -> {
+                    final Thread thread = new Thread(r, "batch-request-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.parallelExecutor.shutdownNow();
+    }
+
     /**
      * Returns the response list by getting a proper
      * {@link org.apache.fineract.batch.command.CommandStrategy}. execute() method
@@ -84,9 +134,11 @@ public class BatchApiServiceImpl implements BatchApiService {
      *
      * @param requestList
      * @param uriInfo
+     * @param parallel
      * @return List<BatchResponse>
      */
-    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+    private List<BatchResponse> handleBatchRequests(final List<BatchRequest> requestList, final UriInfo uriInfo,
+            final boolean parallel) {
 
         final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
 
@@ -99,14 +151,12 @@ public class BatchApiServiceImpl implements BatchApiService {
              responseList.add(response) ;
              return responseList ;
         }
-        for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(CommandContext
-                    .resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
-
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        if (parallel) {
+            responseList.addAll(this.processRootRequestsInParallel(batchRequestNodes, uriInfo));
+        } else {
+            for (BatchRequestNode rootNode : batchRequestNodes) {
+                responseList.addAll(this.processRootRequest(rootNode, uriInfo));
+            }
         }
 
         Collections.sort(responseList, new Comparator<BatchResponse>() {
@@ -121,6 +171,84 @@ public class BatchApiServiceImpl implements BatchApiService {
 
     }
 
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+
+        final List<BatchResponse> responseList = new ArrayList<>();
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(CommandContext
+                .resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
+
+        responseList.add(rootResponse);
+        responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+        return responseList;
+    }
+
+    /**
+     * Runs every root request together with its dependent requests on a
+     * worker of {@link #parallelExecutor}. The tenant, the authenticated user
+     * and the auth token of the calling thread are set on the worker, and as
+     * with the sequential handling each request commits on its own. Root
+     * requests that don't fit into the queue are executed by the calling
+     * thread.
+     */
+    private List<BatchResponse> processRootRequestsInParallel(final List<BatchRequestNode> batchRequestNodes, final UriInfo uriInfo) {
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        final List<Future<List<BatchResponse>>> futures = new ArrayList<>(batchRequestNodes.size());
+        for (final BatchRequestNode rootNode : batchRequestNodes) {
+            try {
+                futures.add(this.parallelExecutor.submit(() -> {
+                    try {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                        ThreadLocalContextUtil.setAuthToken(authToken);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        return this.processRootRequest(rootNode, uriInfo);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.setAuthToken(null);
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }));
+            } catch (final RejectedExecutionException e) {
+                // the calling thread already has the context set up
+                final FutureTask<List<BatchResponse>> task = new FutureTask<>(() -> this.processRootRequest(rootNode, uriInfo));
+                task.run();
+                futures.add(task);
+            }
+        }
+
+        final List<BatchResponse> responseList = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                responseList.addAll(futures.get(i).get());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                responseList.add(errorResponse(batchRequestNodes.get(i).getRequest(), e));
+            } catch (final ExecutionException e) {
+                responseList.add(errorResponse(batchRequestNodes.get(i).getRequest(), e.getCause()));
+            }
+        }
+        return responseList;
+    }
+
+    private static BatchResponse errorResponse(final BatchRequest request, final Throwable ex) {
+        final BatchResponse response = new BatchResponse();
+        response.setRequestId(request.getRequestId());
+        if (ex instanceof RuntimeException) {
+            final ErrorInfo e = ErrorHandler.handler((RuntimeException) ex);
+            response.setStatusCode(e.getStatusCode());
+            response.setBody(e.getMessage());
+        } else {
+            response.setStatusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            response.setBody(ex.getMessage());
+        }
+        return response;
+    }
+
     private List<BatchResponse> processChildRequests(final BatchRequestNode rootRequest, BatchResponse rootResponse, UriInfo uriInfo) {
 
         final List<BatchResponse> childResponses = new ArrayList<>();
@@ -172,7 +300,13 @@ public class BatchApiServiceImpl implements BatchApiService {
     @Override
     public List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(final List<BatchRequest> requestList, UriInfo uriInfo) {
 
-        return handleBatchRequests(requestList, uriInfo);
+        return handleBatchRequests(requestList, uriInfo, false);
+    }
+
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        return handleBatchRequests(requestList, uriInfo, true);
     }
 
     @Override
@@ -184,7 +318,7 @@ public class BatchApiServiceImpl implements BatchApiService {
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        responseList.addAll(handleBatchRequests(requestList, uriInfo));
+                        responseList.addAll(handleBatchRequests(requestList, uriInfo, false));
                         return responseList;
                     } catch (RuntimeException ex) {
 
@@ -41,6 +41,7 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.commands.data.AuditData;
 import org.apache.fineract.commands.data.AuditSearchData;
+import org.apache.fineract.commands.data.CommandResultData;
 import org.apache.fineract.commands.service.AuditReadPlatformService;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
@@ -73,16 +74,19 @@ public class AuditsApiResource {
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final DefaultToApiJsonSerializer<AuditData> toApiJsonSerializer;
     private final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate;
+    private final DefaultToApiJsonSerializer<CommandResultData> toApiJsonSerializerCommandResult;
 
     @Autowired
     public AuditsApiResource(final PlatformSecurityContext context, final AuditReadPlatformService auditReadPlatformService,
             final ApiRequestParameterHelper apiRequestParameterHelper, final DefaultToApiJsonSerializer<AuditData> toApiJsonSerializer,
-            final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate) {
+            final DefaultToApiJsonSerializer<AuditSearchData> toApiJsonSerializerSearchTemplate,
+            final DefaultToApiJsonSerializer<CommandResultData> toApiJsonSerializerCommandResult) {
         this.context = context;
         this.auditReadPlatformService = auditReadPlatformService;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.toApiJsonSerializerSearchTemplate = toApiJsonSerializerSearchTemplate;
+        this.toApiJsonSerializerCommandResult = toApiJsonSerializerCommandResult;
     }
 
     @GET
@@ -137,6 +141,18 @@ public class AuditsApiResource {
         return this.toApiJsonSerializer.serialize(settings, auditEntry, this.RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("{auditId}/result")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @ApiOperation(value = "Retrieve the Result of an Asynchronous Command", notes = "Status and result of a command submitted with the Fineract-Command-Async header, the auditId being the commandId it was acknowledged with. Makers can retrieve their own commands without audit permissions.\n" + "\n" + "Example Requests:\n" + "\n" + "audits/20/result")
+    public String retrieveCommandResult(@PathParam("auditId") @ApiParam(value = "auditId") final Long auditId) {
+
+        final CommandResultData commandResult = this.auditReadPlatformService.retrieveCommandResult(auditId);
+
+        return this.toApiJsonSerializerCommandResult.serialize(commandResult);
+    }
+
     @GET
     @Path("/searchtemplate")
     @Consumes({ MediaType.APPLICATION_JSON })
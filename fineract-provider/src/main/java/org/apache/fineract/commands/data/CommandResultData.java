@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.data;
+
+import com.google.gson.JsonElement;
+import org.apache.fineract.commands.domain.CommandProcessingResultType;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+
+/**
+ * Immutable data object for the outcome of an asynchronously processed
+ * command.
+ */
+public class CommandResultData {
+
+    private final Long commandId;
+    private final EnumOptionData status;
+    private final JsonElement result;
+
+    public static CommandResultData instance(final Long commandId, final Integer processingResult, final JsonElement result) {
+        final CommandProcessingResultType type = CommandProcessingResultType.fromInt(processingResult);
+        final EnumOptionData status = new EnumOptionData(type.getValue().longValue(), type.getCode(), type.name());
+        return new CommandResultData(commandId, status, result);
+    }
+
+    private CommandResultData(final Long commandId, final EnumOptionData status, final JsonElement result) {
+        this.commandId = commandId;
+        this.status = status;
+        this.result = result;
+    }
+
+    public Long getCommandId() {
+        return this.commandId;
+    }
+
+    public EnumOptionData getStatus() {
+        return this.status;
+    }
+
+    public JsonElement getResult() {
+        return this.result;
+    }
+}
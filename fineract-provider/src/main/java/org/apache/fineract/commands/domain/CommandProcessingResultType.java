@@ -23,7 +23,9 @@ public enum CommandProcessingResultType {
     INVALID(0, "commandProcessingResultType.invalid"), //
     PROCESSED(1, "commandProcessingResultType.processed"), //
     AWAITING_APPROVAL(2, "commandProcessingResultType.awaiting.approval"), //
-    REJECTED(3, "commandProcessingResultType.rejected");
+    REJECTED(3, "commandProcessingResultType.rejected"), //
+    RECEIVED(4, "commandProcessingResultType.received"), //
+    FAILED(5, "commandProcessingResultType.failed");
 
     private final Integer value;
     private final String code;
@@ -53,6 +55,12 @@ public enum CommandProcessingResultType {
             case 3:
                 type = REJECTED;
             break;
+            case 4:
+                type = RECEIVED;
+            break;
+            case 5:
+                type = FAILED;
+            break;
         }
         return type;
     }
@@ -100,6 +100,12 @@ public class CommandSource extends AbstractPersistableCustom<Long> {
     @Column(name="organisation_creditbureau_id")
     private Long organisationCreditBureauId;
 
+    @Column(name = "result")
+    private String result;
+
+    @Column(name = "callback_url", length = 500)
+    private String callbackUrl;
+
     public static CommandSource fullEntryFrom(final CommandWrapper wrapper, final JsonCommand command, final AppUser maker) {
         return new CommandSource(wrapper.actionName(), wrapper.entityName(), wrapper.getHref(), command.entityId(), command.subentityId(),
                 command.json(), maker, DateTime.now());
@@ -203,6 +209,45 @@ public class CommandSource extends AbstractPersistableCustom<Long> {
         this.processingResult = CommandProcessingResultType.AWAITING_APPROVAL.getValue();
     }
 
+    /**
+     * Accepted for asynchronous processing, the command is executed later by
+     * a worker and its outcome is kept in {@link #getResult()}.
+     */
+    public void markAsReceived(final String callbackUrl) {
+        this.processingResult = CommandProcessingResultType.RECEIVED.getValue();
+        this.callbackUrl = callbackUrl;
+    }
+
+    public boolean isMarkedAsReceived() {
+        return CommandProcessingResultType.RECEIVED.getValue().equals(this.processingResult);
+    }
+
+    public void markAsProcessed(final String result) {
+        this.processingResult = CommandProcessingResultType.PROCESSED.getValue();
+        this.result = result;
+    }
+
+    public void markAsFailed(final String result) {
+        this.processingResult = CommandProcessingResultType.FAILED.getValue();
+        this.result = result;
+    }
+
+    public String getResult() {
+        return this.result;
+    }
+
+    public String getCallbackUrl() {
+        return this.callbackUrl;
+    }
+
+    public AppUser getMaker() {
+        return this.maker;
+    }
+
+    public Integer getProcessingResult() {
+        return this.processingResult;
+    }
+
     public boolean isMarkedAsAwaitingApproval() {
         if (this.processingResult.equals(CommandProcessingResultType.AWAITING_APPROVAL.getValue())) { return true; }
 
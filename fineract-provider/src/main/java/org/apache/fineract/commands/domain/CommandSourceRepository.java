@@ -18,9 +18,22 @@
  */
 package org.apache.fineract.commands.domain;
 
+import java.util.Date;
+import java.util.List;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CommandSourceRepository extends JpaRepository<CommandSource, Long>, JpaSpecificationExecutor<CommandSource> {
-    // no added behaviour
+
+    @Lock(value = LockModeType.PESSIMISTIC_WRITE)
+    @Query("select commandSource from CommandSource commandSource where commandSource.id = :id")
+    CommandSource findByIdWithLock(@Param("id") Long id);
+
+    @Query("select commandSource.id from CommandSource commandSource where commandSource.processingResult = :processingResult and commandSource.madeOnDate < :madeBefore order by commandSource.id")
+    List<Long> findIdsByProcessingResultMadeBefore(@Param("processingResult") Integer processingResult,
+            @Param("madeBefore") Date madeBefore);
 }
\ No newline at end of file
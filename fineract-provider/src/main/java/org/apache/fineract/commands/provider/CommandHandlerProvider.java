@@ -19,17 +19,27 @@
 package org.apache.fineract.commands.provider;
 
 import com.google.common.base.Preconditions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +49,11 @@ import org.springframework.stereotype.Component;
  * <br>
  * A {@link NewCommandSourceHandler} can be registered and the annotation {@link CommandType} is used to determine
  * the entity and the action the handler is capable to process.
+ * <br>
+ * <br>
+ * Once the application context is refreshed the handlers are resolved into an immutable dispatch table, so a lookup
+ * is a single map access instead of a bean factory lookup. Handlers from the table are timed per handler bean with
+ * the <code>fineract.command.handler</code> timer.
  *
  * @author Markus Geiss
  * @version 1.0
@@ -48,12 +63,44 @@ import org.springframework.stereotype.Component;
  */
 @Component
 @Scope("singleton")
-public class CommandHandlerProvider implements ApplicationContextAware {
+public class CommandHandlerProvider implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CommandHandlerProvider.class);
 
+    private static final String DATATABLE_VARIANT = "DATATABLE";
+    private static final String NOTE_VARIANT = "NOTE";
+    private static final String SURVEY_VARIANT = "SURVEY";
+    private static final String DISBURSEMENTDETAIL_VARIANT = "DISBURSEMENTDETAIL";
+
+    /**
+     * Handlers of the resources that are dispatched by their href or by a
+     * group of entities rather than by a {@link CommandType}.
+     */
+    private static final Map<String, String> VARIANT_HANDLERS;
+    static {
+        final Map<String, String> variantHandlers = new HashMap<>();
+        variantHandlers.put(DATATABLE_VARIANT + "|CREATEDATATABLE", "createDatatableCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|DELETEDATATABLE", "deleteDatatableCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|UPDATEDATATABLE", "updateDatatableCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|CREATE", "createDatatableEntryCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|UPDATEMULTIPLE", "updateOneToManyDatatableEntryCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|UPDATEONETOONE", "updateOneToOneDatatableEntryCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|DELETEMULTIPLE", "deleteOneToManyDatatableEntryCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|DELETEONETOONE", "deleteOneToOneDatatableEntryCommandHandler");
+        variantHandlers.put(DATATABLE_VARIANT + "|REGISTERDATATABLE", "registerDatatableCommandHandler");
+        variantHandlers.put(NOTE_VARIANT + "|CREATE", "createNoteCommandHandler");
+        variantHandlers.put(NOTE_VARIANT + "|UPDATE", "updateNoteCommandHandler");
+        variantHandlers.put(NOTE_VARIANT + "|DELETE", "deleteNoteCommandHandler");
+        variantHandlers.put(SURVEY_VARIANT + "|REGISTER", "registerSurveyCommandHandler");
+        variantHandlers.put(SURVEY_VARIANT + "|CREATE", "fullFilSurveyCommandHandler");
+        variantHandlers.put(DISBURSEMENTDETAIL_VARIANT + "|UPDATEDISBURSEMENTDATE", "updateLoanDisbuseDateCommandHandler");
+        variantHandlers.put(DISBURSEMENTDETAIL_VARIANT + "|ADDANDDELETE", "addAndDeleteLoanDisburseDetailsCommandHandler");
+        VARIANT_HANDLERS = Collections.unmodifiableMap(variantHandlers);
+    }
+
     private ApplicationContext applicationContext;
     private HashMap<String, String> registeredHandlers;
+    private volatile Map<String, NewCommandSourceHandler> dispatchTable;
 
     CommandHandlerProvider() {
         super();
@@ -75,7 +122,77 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         if (!this.registeredHandlers.containsKey(key)) {
             throw new UnsupportedCommandException(key);
         }
-        return (NewCommandSourceHandler)this.applicationContext.getBean(this.registeredHandlers.get(key));
+        return lookup(key, this.registeredHandlers.get(key));
+    }
+
+    /**
+     * Returns the handler for the given command, including the commands on
+     * datatables, notes, surveys and disbursement details that are not
+     * dispatched by entity and action only.<br>
+     * <br>
+     * Throws an {@link UnsupportedCommandException} if no handler for the
+     * command can be found.
+     */
+    public NewCommandSourceHandler getHandler(final CommandWrapper wrapper) {
+        final String variant = variantOf(wrapper);
+        if (variant == null) { return getHandler(wrapper.entityName(), wrapper.actionName()); }
+
+        final String key = variant + "|" + variantActionOf(variant, wrapper);
+        final String beanName = VARIANT_HANDLERS.get(key);
+        if (beanName == null) { throw new UnsupportedCommandException(wrapper.commandName()); }
+        return lookup(key, beanName);
+    }
+
+    private static String variantOf(final CommandWrapper wrapper) {
+        if (wrapper.isDatatableResource()) { return DATATABLE_VARIANT; }
+        if (wrapper.isNoteResource()) { return NOTE_VARIANT; }
+        if (wrapper.isSurveyResource()) { return SURVEY_VARIANT; }
+        if (wrapper.isLoanDisburseDetailResource()) { return DISBURSEMENTDETAIL_VARIANT; }
+        return null;
+    }
+
+    /**
+     * Same precedence as the checks the variants were historically
+     * dispatched with.
+     */
+    private static String variantActionOf(final String variant, final CommandWrapper wrapper) {
+        switch (variant) {
+            case DATATABLE_VARIANT:
+                if (wrapper.isCreateDatatable()) { return "CREATEDATATABLE"; }
+                if (wrapper.isDeleteDatatable()) { return "DELETEDATATABLE"; }
+                if (wrapper.isUpdateDatatable()) { return "UPDATEDATATABLE"; }
+                if (wrapper.isCreate()) { return "CREATE"; }
+                if (wrapper.isUpdateMultiple()) { return "UPDATEMULTIPLE"; }
+                if (wrapper.isUpdateOneToOne()) { return "UPDATEONETOONE"; }
+                if (wrapper.isDeleteMultiple()) { return "DELETEMULTIPLE"; }
+                if (wrapper.isDeleteOneToOne()) { return "DELETEONETOONE"; }
+                if (wrapper.isRegisterDatatable()) { return "REGISTERDATATABLE"; }
+            break;
+            case NOTE_VARIANT:
+                if (wrapper.isCreate()) { return "CREATE"; }
+                if (wrapper.isUpdate()) { return "UPDATE"; }
+                if (wrapper.isDelete()) { return "DELETE"; }
+            break;
+            case SURVEY_VARIANT:
+                if (wrapper.isRegisterSurvey()) { return "REGISTER"; }
+                if (wrapper.isFullFilSurvey()) { return "CREATE"; }
+            break;
+            case DISBURSEMENTDETAIL_VARIANT:
+                if (wrapper.isUpdateDisbursementDate()) { return "UPDATEDISBURSEMENTDATE"; }
+                if (wrapper.addAndDeleteDisbursementDetails()) { return "ADDANDDELETE"; }
+            break;
+        }
+        return "UNSUPPORTED";
+    }
+
+    private NewCommandSourceHandler lookup(final String key, final String beanName) {
+        final Map<String, NewCommandSourceHandler> handlers = this.dispatchTable;
+        if (handlers != null) {
+            final NewCommandSourceHandler handler = handlers.get(key);
+            if (handler != null) { return handler; }
+        }
+        // context not refreshed yet
+        return (NewCommandSourceHandler) this.applicationContext.getBean(beanName);
     }
 
     private void initializeHandlerRegistry() {
@@ -102,4 +219,64 @@ public class CommandHandlerProvider implements ApplicationContextAware {
         this.applicationContext = applicationContext;
         this.initializeHandlerRegistry();
     }
+
+    /**
+     * Resolves every registered handler once all singletons exist, resolving
+     * them while this provider is created could close a dependency cycle.
+     */
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != this.applicationContext) { return; }
+
+        final MeterRegistry meterRegistry = this.applicationContext.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        final Map<String, NewCommandSourceHandler> handlers = new HashMap<>();
+        final Map<String, String> handlerBeans = new HashMap<>(this.registeredHandlers);
+        for (final Map.Entry<String, String> variantHandler : VARIANT_HANDLERS.entrySet()) {
+            if (this.applicationContext.containsBean(variantHandler.getValue())) {
+                handlerBeans.put(variantHandler.getKey(), variantHandler.getValue());
+            }
+        }
+        for (final Map.Entry<String, String> handlerBean : handlerBeans.entrySet()) {
+            final NewCommandSourceHandler handler = (NewCommandSourceHandler) this.applicationContext.getBean(handlerBean.getValue());
+            handlers.put(handlerBean.getKey(),
+                    meterRegistry == null ? handler : new TimedCommandHandler(handler, handlerBean.getValue(), meterRegistry));
+        }
+        this.dispatchTable = Collections.unmodifiableMap(handlers);
+        LOGGER.info("Resolved " + handlers.size() + " command handlers");
+    }
+
+    /**
+     * Counts and times the invocations of a handler, by outcome.
+     */
+    private static final class TimedCommandHandler implements NewCommandSourceHandler {
+
+        private final NewCommandSourceHandler delegate;
+        private final Timer succeededTimer;
+        private final Timer failedTimer;
+
+        TimedCommandHandler(final NewCommandSourceHandler delegate, final String handlerName, final MeterRegistry meterRegistry) {
+            this.delegate = delegate;
+            this.succeededTimer = handlerTimer(meterRegistry, handlerName, "success");
+            this.failedTimer = handlerTimer(meterRegistry, handlerName, "failure");
+        }
+
+        private static Timer handlerTimer(final MeterRegistry meterRegistry, final String handlerName, final String result) {
+            return Timer.builder("fineract.command.handler").tag("handler", handlerName).tag("result", result)
+                    .description("Time spent processing commands by a command handler").publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public CommandProcessingResult processCommand(final JsonCommand command) {
+            final long startTime = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                final CommandProcessingResult result = this.delegate.processCommand(command);
+                succeeded = true;
+                return result;
+            } finally {
+                (succeeded ? this.succeededTimer : this.failedTimer).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
 }
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Accepts commands for processing outside of the HTTP request.
+ *
+ * A submitted command is stored as received in
+ * <code>m_portfolio_command_source</code> and acknowledged with its command
+ * id. A worker executes it later through
+ * {@link CommandProcessingService#processAndLogCommand(CommandWrapper, JsonCommand, boolean)},
+ * one command at a time per loan, savings account, client or group, and keeps
+ * the outcome on the same row (see <code>/audits/{commandId}/result</code>).
+ */
+public interface AsynchronousCommandProcessingService {
+
+    /**
+     * Request header asking for a command to be processed asynchronously.
+     */
+    String ASYNC_COMMAND_HEADER = "Fineract-Command-Async";
+
+    /**
+     * Request header with an optional url the outcome of an asynchronous
+     * command is posted to, its host has to be one of the hosts configured
+     * in <code>fineract.async.command.callback.hosts</code>.
+     */
+    String ASYNC_COMMAND_CALLBACK_HEADER = "Fineract-Command-Callback";
+
+    CommandProcessingResult submit(CommandWrapper wrapper, JsonCommand command);
+}
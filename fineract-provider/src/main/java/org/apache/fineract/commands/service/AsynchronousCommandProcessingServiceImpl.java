@@ -0,0 +1,468 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.commands.data.CommandResultData;
+import org.apache.fineract.commands.domain.CommandProcessingResultType;
+import org.apache.fineract.commands.domain.CommandSource;
+import org.apache.fineract.commands.domain.CommandSourceRepository;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.processor.ProcessorHelper;
+import org.apache.fineract.infrastructure.hooks.processor.WebHookService;
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.exception.UserNotFoundException;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs submitted commands on a fixed set of single threaded workers.
+ *
+ * Commands are assigned to a worker by the loan, savings account, client or
+ * group they act on, so commands for the same account are executed in the
+ * order they were received on this node. The received row is the queue: a
+ * command is executed under a row lock and only while it is still marked as
+ * received, and rows left behind by a restart or by another node are picked
+ * up again by a periodic recovery run.
+ */
+@Service
+public class AsynchronousCommandProcessingServiceImpl implements AsynchronousCommandProcessingService {
+
+    private final static Logger logger = LoggerFactory.getLogger(AsynchronousCommandProcessingServiceImpl.class);
+
+    public final static String NUMBER_OF_WORKERS = "fineract.async.command.workers";
+    public final static String CALLBACK_HOSTS = "fineract.async.command.callback.hosts";
+
+    private static final long RECOVERY_INTERVAL_SECONDS = 60;
+    private static final long RECOVERY_MIN_AGE_SECONDS = 60;
+
+    private final PlatformSecurityContext context;
+    private final CommandSourceRepository commandSourceRepository;
+    private final CommandProcessingService commandProcessingService;
+    private final FromJsonHelper fromApiJsonHelper;
+    private final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer;
+    private final TenantDetailsService tenantDetailsService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+    private final AppUserRepository appUserRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+    private ExecutorService[] workers;
+    private final Set<String> dispatchedCommands = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService recovery = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "async-command-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${" + NUMBER_OF_WORKERS + ":8}")
+    private int numberOfWorkers;
+
+    /**
+     * Comma separated hosts outcomes may be posted to, callback urls to any
+     * other host are refused so that requests cannot be made to reach
+     * internal services.
+     */
+    @Value("${" + CALLBACK_HOSTS + ":}")
+    private String callbackHosts;
+
+    @Autowired
+    public AsynchronousCommandProcessingServiceImpl(final PlatformSecurityContext context,
+            final CommandSourceRepository commandSourceRepository, final CommandProcessingService commandProcessingService,
+            final FromJsonHelper fromApiJsonHelper, final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
+            final TenantDetailsService tenantDetailsService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService,
+            final AppUserRepository appUserRepository, final TransactionTemplate transactionTemplate) {
+        this.context = context;
+        this.commandSourceRepository = commandSourceRepository;
+        this.commandProcessingService = commandProcessingService;
+        this.fromApiJsonHelper = fromApiJsonHelper;
+        this.toApiResultJsonSerializer = toApiResultJsonSerializer;
+        this.tenantDetailsService = tenantDetailsService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+        this.appUserRepository = appUserRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.workers = new ExecutorService[Math.max(1, this.numberOfWorkers)];
+        for (int i = 0; i < this.workers.length; i++) {
+            final String threadName = "async-command-worker-" + i;
+            this.workers[i] = Executors.newSingleThreadExecutor(r -> {
+                final Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.recovery.scheduleWithFixedDelay(this::recoverReceivedCommands, RECOVERY_INTERVAL_SECONDS, RECOVERY_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.recovery.shutdownNow();
+        for (final ExecutorService worker : this.workers) {
+            worker.shutdownNow();
+        }
+    }
+
+    @Override
+    public CommandProcessingResult submit(final CommandWrapper wrapper, final JsonCommand command) {
+        final AppUser maker = this.context.authenticatedUser(wrapper);
+
+        final String callbackUrl = ThreadLocalContextUtil.getAsyncCommandCallbackUrl();
+        if (callbackUrl != null && !isAllowedCallbackUrl(callbackUrl)) {
+            final List<ApiParameterError> errors = new ArrayList<>();
+            errors.add(ApiParameterError.parameterError("validation.msg.async.command.callback.host.not.allowed",
+                    "The callback url must be an http or https url to one of the hosts configured in " + CALLBACK_HOSTS + ".",
+                    ASYNC_COMMAND_CALLBACK_HEADER, callbackUrl));
+            throw new PlatformApiDataValidationException(errors);
+        }
+
+        final CommandSource commandSource = CommandSource.fullEntryFrom(wrapper, command, maker);
+        commandSource.markAsReceived(callbackUrl);
+        commandSource.updateForAudit(null, wrapper.getGroupId(), wrapper.getClientId(), wrapper.getLoanId(), wrapper.getSavingsId(),
+                wrapper.getProductId(), wrapper.getTransactionId());
+        commandSource.setCreditBureauId(wrapper.getCreditBureauId());
+        commandSource.setOrganisationCreditBureauId(wrapper.getOrganisationCreditBureauId());
+        final CommandSource savedCommandSource = this.commandSourceRepository.save(commandSource);
+
+        dispatch(ThreadLocalContextUtil.getTenant(), savedCommandSource);
+
+        return new CommandProcessingResultBuilder().withCommandId(savedCommandSource.getId())
+                .withEntityId(savedCommandSource.getResourceId()).build();
+    }
+
+    private void dispatch(final FineractPlatformTenant tenant, final CommandSource commandSource) {
+        final String dispatchKey = tenant.getTenantIdentifier() + ":" + commandSource.getId();
+        if (!this.dispatchedCommands.add(dispatchKey)) { return; }
+
+        final ExecutorService worker = this.workers[Math.floorMod(orderingKey(tenant, commandSource).hashCode(), this.workers.length)];
+        try {
+            worker.execute(() -> {
+                try {
+                    process(tenant, commandSource.getId());
+                } finally {
+                    this.dispatchedCommands.remove(dispatchKey);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // shutting down, the command stays received for the recovery run
+            this.dispatchedCommands.remove(dispatchKey);
+        }
+    }
+
+    /**
+     * Commands with the same key are executed by the same worker and so in
+     * submission order.
+     */
+    private static String orderingKey(final FineractPlatformTenant tenant, final CommandSource commandSource) {
+        final String entityKey;
+        if (commandSource.getLoanId() != null) {
+            entityKey = "loan:" + commandSource.getLoanId();
+        } else if (commandSource.getSavingsId() != null) {
+            entityKey = "savings:" + commandSource.getSavingsId();
+        } else if (commandSource.getClientId() != null) {
+            entityKey = "client:" + commandSource.getClientId();
+        } else if (commandSource.getGroupId() != null) {
+            entityKey = "group:" + commandSource.getGroupId();
+        } else if (commandSource.resourceId() != null) {
+            entityKey = commandSource.getEntityName() + ":" + commandSource.resourceId();
+        } else {
+            entityKey = "command:" + commandSource.getId();
+        }
+        return tenant.getTenantIdentifier() + ":" + entityKey;
+    }
+
+    private void process(final FineractPlatformTenant tenant, final Long commandId) {
+        try {
+            ThreadLocalContextUtil.setTenant(tenant);
+
+            final CommandSource commandSource = this.transactionTemplate.execute(status -> {
+                final CommandSource received = this.commandSourceRepository.findById(commandId).orElse(null);
+                if (received == null || !received.isMarkedAsReceived()) { return null; }
+                return received;
+            });
+            if (commandSource == null) { return; }
+
+            final CommandWrapper wrapper = CommandWrapper.fromExistingCommand(commandId, commandSource.getActionName(),
+                    commandSource.getEntityName(), commandSource.resourceId(), commandSource.subresourceId(),
+                    commandSource.getResourceGetUrl(), commandSource.getProductId(), commandSource.getOfficeId(),
+                    commandSource.getGroupId(), commandSource.getClientId(), commandSource.getLoanId(), commandSource.getSavingsId(),
+                    commandSource.getTransactionId(), commandSource.getCreditBureauId(), commandSource.getOrganisationCreditBureauId());
+            final JsonElement parsedCommand = this.fromApiJsonHelper.parse(commandSource.json());
+            final JsonCommand command = JsonCommand.fromExistingCommand(commandId, commandSource.json(), parsedCommand,
+                    this.fromApiJsonHelper, commandSource.getEntityName(), commandSource.resourceId(), commandSource.subresourceId(),
+                    commandSource.getGroupId(), commandSource.getClientId(), commandSource.getLoanId(), commandSource.getSavingsId(),
+                    commandSource.getTransactionId(), commandSource.getResourceGetUrl(), commandSource.getProductId(),
+                    commandSource.getCreditBureauId(), commandSource.getOrganisationCreditBureauId());
+
+            CommandResultData outcome;
+            try {
+                authenticateMaker(commandSource.getMaker().getId(), wrapper);
+                final String result = processWithRetries(commandId, wrapper, command);
+                if (result == null) {
+                    // already processed by another node
+                    return;
+                }
+                outcome = CommandResultData.instance(commandId, CommandProcessingResultType.PROCESSED.getValue(),
+                        this.fromApiJsonHelper.parse(result));
+            } catch (final RollbackTransactionAsCommandIsNotApprovedByCheckerException e) {
+                this.commandProcessingService.logCommand(e.getCommandSourceResult());
+                outcome = CommandResultData.instance(commandId, CommandProcessingResultType.AWAITING_APPROVAL.getValue(), null);
+            } catch (final RuntimeException e) {
+                logger.warn("Asynchronous command " + commandId + " of tenant " + tenant.getTenantIdentifier() + " failed", e);
+                final JsonObject error = errorFrom(e);
+                markAsFailed(commandId, error.toString());
+                outcome = CommandResultData.instance(commandId, CommandProcessingResultType.FAILED.getValue(), error);
+            }
+
+            notifyCallback(tenant, commandSource, outcome);
+        } catch (final RuntimeException e) {
+            // the command stays received and is retried by the recovery run
+            logger.error("Failed to process asynchronous command " + commandId + " of tenant " + tenant.getTenantIdentifier(), e);
+        } finally {
+            SecurityContextHolder.clearContext();
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    /**
+     * Processes the command while holding the lock on its received row.
+     * Retried on deadlocks like the synchronous path.
+     *
+     * @return the serialized result or <code>null</code> when the command was
+     *         no longer received
+     */
+    private String processWithRetries(final Long commandId, final CommandWrapper wrapper, final JsonCommand command) {
+        final Integer maxNumberOfRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxRetriesOnDeadlock();
+        final Integer maxIntervalBetweenRetries = ThreadLocalContextUtil.getTenant().getConnection().getMaxIntervalBetweenRetries();
+        Integer numberOfRetries = 0;
+        while (true) {
+            try {
+                return this.transactionTemplate.execute(status -> {
+                    final CommandSource commandSource = this.commandSourceRepository.findByIdWithLock(commandId);
+                    if (commandSource == null || !commandSource.isMarkedAsReceived()) { return null; }
+                    final CommandProcessingResult result = this.commandProcessingService.processAndLogCommand(wrapper, command, false);
+                    final String serializedResult = this.toApiResultJsonSerializer.serialize(result);
+                    commandSource.markAsProcessed(serializedResult);
+                    this.commandSourceRepository.save(commandSource);
+                    return serializedResult;
+                });
+            } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
+                logger.info("The following command " + command.json() + " has been retried  " + numberOfRetries + " time(s)");
+                if (numberOfRetries >= maxNumberOfRetries) {
+                    logger.warn("The following command " + command.json() + " has been retried for the max allowed attempts of "
+                            + numberOfRetries + " and will be rolled back");
+                    throw (exception);
+                }
+                try {
+                    final int randomNum = new Random().nextInt(maxIntervalBetweenRetries + 1);
+                    Thread.sleep(1000 + (randomNum * 1000));
+                    numberOfRetries = numberOfRetries + 1;
+                } catch (InterruptedException e) {
+                    throw (exception);
+                }
+            }
+        }
+    }
+
+    private void markAsFailed(final Long commandId, final String error) {
+        this.newTransactionTemplate.execute(status -> {
+            final CommandSource commandSource = this.commandSourceRepository.findByIdWithLock(commandId);
+            if (commandSource != null && commandSource.isMarkedAsReceived()) {
+                commandSource.markAsFailed(error);
+                this.commandSourceRepository.save(commandSource);
+            }
+            return null;
+        });
+    }
+
+    private static JsonObject errorFrom(final RuntimeException e) {
+        final JsonObject error = new JsonObject();
+        String globalisationMessageCode = "error.msg.platform.server.side.error";
+        String defaultUserMessage = e.getMessage();
+        if (e instanceof PlatformApiDataValidationException) {
+            final PlatformApiDataValidationException validationException = (PlatformApiDataValidationException) e;
+            globalisationMessageCode = validationException.getGlobalisationMessageCode();
+            defaultUserMessage = validationException.getDefaultUserMessage();
+            error.add("errors", new Gson().toJsonTree(validationException.getErrors()));
+        } else if (e instanceof AbstractPlatformDomainRuleException) {
+            globalisationMessageCode = ((AbstractPlatformDomainRuleException) e).getGlobalisationMessageCode();
+            defaultUserMessage = ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage();
+        } else if (e instanceof AbstractPlatformResourceNotFoundException) {
+            globalisationMessageCode = ((AbstractPlatformResourceNotFoundException) e).getGlobalisationMessageCode();
+            defaultUserMessage = ((AbstractPlatformResourceNotFoundException) e).getDefaultUserMessage();
+        } else if (e instanceof PlatformDataIntegrityException) {
+            globalisationMessageCode = ((PlatformDataIntegrityException) e).getGlobalisationMessageCode();
+            defaultUserMessage = ((PlatformDataIntegrityException) e).getDefaultUserMessage();
+        } else if (e instanceof NoAuthorizationException) {
+            globalisationMessageCode = "error.msg.not.authorized";
+        }
+        error.addProperty("exception", e.getClass().getSimpleName());
+        error.addProperty("userMessageGlobalisationCode", globalisationMessageCode);
+        error.addProperty("defaultUserMessage", defaultUserMessage);
+        return error;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void notifyCallback(final FineractPlatformTenant tenant, final CommandSource commandSource, final CommandResultData outcome) {
+        final String callbackUrl = commandSource.getCallbackUrl();
+        if (callbackUrl == null || callbackUrl.isEmpty()) { return; }
+        if (!isAllowedCallbackUrl(callbackUrl)) {
+            logger.warn("Not posting the outcome of command " + commandSource.getId() + " to " + callbackUrl
+                    + ", the host is not in " + CALLBACK_HOSTS);
+            return;
+        }
+        try {
+            final WebHookService service = ProcessorHelper.createWebHookService(callbackUrl);
+            final JsonObject json = new Gson().toJsonTree(outcome).getAsJsonObject();
+            service.sendJsonRequest(commandSource.getEntityName(), commandSource.getActionName(), tenant.getTenantIdentifier(),
+                    System.getProperty("baseUrl"), json, ProcessorHelper.createCallback(callbackUrl));
+        } catch (final RuntimeException e) {
+            // the outcome can still be polled
+            logger.warn("Failed to post the outcome of command " + commandSource.getId() + " to " + callbackUrl, e);
+        }
+    }
+
+    private boolean isAllowedCallbackUrl(final String callbackUrl) {
+        final URI uri;
+        try {
+            uri = new URI(callbackUrl);
+        } catch (final URISyntaxException e) {
+            return false;
+        }
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) || uri.getHost() == null
+                || uri.getUserInfo() != null) { return false; }
+        for (final String host : this.callbackHosts.split(",")) {
+            if (!host.trim().isEmpty() && host.trim().equalsIgnoreCase(uri.getHost())) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Authenticates the maker as it is now rather than as it was when the
+     * command was received, the user may have been disabled, locked or lost
+     * the permission in the meantime; the command then fails.
+     */
+    private void authenticateMaker(final Long makerId, final CommandWrapper wrapper) {
+        this.transactionTemplate.execute(status -> {
+            final AppUser maker = this.appUserRepository.findById(makerId).orElseThrow(() -> new UserNotFoundException(makerId));
+            if (!maker.isEnabled() || !maker.isAccountNonLocked() || !maker.isAccountNonExpired()) {
+                throw new NoAuthorizationException("User " + maker.getUsername() + " is disabled, locked or expired");
+            }
+            maker.validateHasPermissionTo(wrapper.getTaskPermissionName());
+            authenticate(maker);
+            return null;
+        });
+    }
+
+    private void authenticate(final AppUser user) {
+        final UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, user.getPassword(),
+                this.authoritiesMapper.mapAuthorities(user.getAuthorities()));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    /**
+     * Dispatches the commands still marked as received some time after they
+     * were submitted, e.g. after a restart.
+     */
+    void recoverReceivedCommands() {
+        final Date madeBefore = DateTime.now().minusSeconds((int) RECOVERY_MIN_AGE_SECONDS).toDate();
+        final List<FineractPlatformTenant> tenants = new ArrayList<>();
+        try {
+            tenants.addAll(this.tenantDetailsService.findAllTenants());
+        } catch (final RuntimeException e) {
+            logger.error("Failed to load the tenants for asynchronous command recovery", e);
+            return;
+        }
+        for (final FineractPlatformTenant tenant : tenants) {
+            if (!this.tenantDatabaseUpgradeService.isTenantMigrated(tenant)) {
+                continue;
+            }
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                final List<CommandSource> receivedCommands = this.transactionTemplate.execute(status -> {
+                    final List<CommandSource> commandSources = new ArrayList<>();
+                    for (final Long commandId : this.commandSourceRepository.findIdsByProcessingResultMadeBefore(
+                            CommandProcessingResultType.RECEIVED.getValue(), madeBefore)) {
+                        this.commandSourceRepository.findById(commandId).ifPresent(commandSources::add);
+                    }
+                    return commandSources;
+                });
+                for (final CommandSource commandSource : receivedCommands) {
+                    dispatch(tenant, commandSource);
+                }
+            } catch (final RuntimeException e) {
+                logger.error("Failed to recover asynchronous commands of tenant " + tenant.getTenantIdentifier(), e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.fineract.commands.service;
 import java.util.Collection;
 import org.apache.fineract.commands.data.AuditData;
 import org.apache.fineract.commands.data.AuditSearchData;
+import org.apache.fineract.commands.data.CommandResultData;
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.service.Page;
 
@@ -35,4 +36,6 @@ public interface AuditReadPlatformService {
     AuditData retrieveAuditEntry(Long auditId);
 
     AuditSearchData retrieveSearchTemplate(String useType);
+
+    CommandResultData retrieveCommandResult(Long commandId);
 }
\ No newline at end of file
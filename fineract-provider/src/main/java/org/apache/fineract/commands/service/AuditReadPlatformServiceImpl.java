@@ -33,6 +33,8 @@ import java.util.Set;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.commands.data.AuditData;
 import org.apache.fineract.commands.data.AuditSearchData;
+import org.apache.fineract.commands.data.CommandResultData;
+import org.apache.fineract.commands.exception.CommandNotFoundException;
 import org.apache.fineract.commands.data.ProcessingResultLookup;
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.data.PaginationParametersDataValidator;
@@ -66,6 +68,7 @@ import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -294,6 +297,31 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         return replaceIdsOnAuditData(auditResult);
     }
 
+    @Override
+    public CommandResultData retrieveCommandResult(final Long commandId) {
+
+        final AppUser currentUser = this.context.authenticatedUser();
+
+        final String sql = "select aud.maker_id as makerId, aud.processing_result_enum as processingResult, aud.result as result"
+                + " from m_portfolio_command_source aud where aud.id = ?";
+        final Map<String, Object> row;
+        try {
+            row = this.jdbcTemplate.queryForMap(sql, commandId);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new CommandNotFoundException(commandId);
+        }
+
+        // makers can follow their own commands without audit permissions
+        final Number makerId = (Number) row.get("makerId");
+        if (makerId == null || makerId.longValue() != currentUser.getId()) {
+            currentUser.validateHasReadPermission("AUDIT");
+        }
+
+        final String result = (String) row.get("result");
+        final JsonElement resultJson = result == null ? null : this.fromApiJsonHelper.parse(result);
+        return CommandResultData.instance(commandId, ((Number) row.get("processingResult")).intValue(), resultJson);
+    }
+
     private AuditData replaceIdsOnAuditData(final AuditData auditResult) {
 
         final String auditAsJson = auditResult.getCommandAsJson();
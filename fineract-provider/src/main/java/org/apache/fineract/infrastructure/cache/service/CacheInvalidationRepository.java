@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stores cache invalidations in the <code>cache_invalidation</code> table of
+ * the tenants database, which every API node shares, so that other nodes can
+ * apply them to their local caches.
+ */
+@Repository
+public class CacheInvalidationRepository {
+
+    /**
+     * Keys longer than the column are broadcast as a clear of the whole cache.
+     */
+    static final int MAX_KEY_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public CacheInvalidationRepository(@Qualifier("tenantDataSourceJndi") final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    /**
+     * @param cacheKey
+     *            the evicted key or <code>null</code> if the whole cache was
+     *            cleared
+     */
+    public void publish(final String cacheName, final String cacheKey) {
+        this.jdbcTemplate.update("insert into cache_invalidation (node_id, cache_name, cache_key, created_date) values (?, ?, ?, now())",
+                this.nodeId, cacheName, cacheKey);
+    }
+
+    public long retrieveLatestId() {
+        final Long latestId = this.jdbcTemplate.queryForObject("select max(id) from cache_invalidation", Long.class);
+        return latestId == null ? 0L : latestId;
+    }
+
+    /**
+     * @return invalidations published by other nodes after the given id, in
+     *         the order they were published
+     */
+    public List<CacheInvalidation> retrieveInvalidationsFromOtherNodes(final long afterId) {
+        final String sql = "select id, cache_name, cache_key from cache_invalidation where id > ? and node_id <> ? order by id";
+        return this.jdbcTemplate.query(sql, new CacheInvalidationMapper(), afterId, this.nodeId);
+    }
+
+    public int deleteInvalidationsOlderThan(final int minutes) {
+        return this.jdbcTemplate.update("delete from cache_invalidation where created_date < date_sub(now(), interval ? minute)", minutes);
+    }
+
+    public static final class CacheInvalidation {
+
+        private final long id;
+        private final String cacheName;
+        private final String cacheKey;
+
+        CacheInvalidation(final long id, final String cacheName, final String cacheKey) {
+            this.id = id;
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+
+        public long getId() {
+            return this.id;
+        }
+
+        public String getCacheName() {
+            return this.cacheName;
+        }
+
+        public String getCacheKey() {
+            return this.cacheKey;
+        }
+
+        public boolean isClear() {
+            return this.cacheKey == null;
+        }
+    }
+
+    private static final class CacheInvalidationMapper implements RowMapper<CacheInvalidation> {
+
+        @Override
+        public CacheInvalidation mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new CacheInvalidation(rs.getLong("id"), rs.getString("cache_name"), rs.getString("cache_key"));
+        }
+    }
+}
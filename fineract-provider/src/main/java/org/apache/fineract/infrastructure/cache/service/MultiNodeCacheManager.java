@@ -0,0 +1,234 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.cache.service.CacheInvalidationRepository.CacheInvalidation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link CacheManager} for running several API nodes against the same
+ * databases.
+ *
+ * Entries are kept in the local {@link EhCacheCacheManager} as with the single
+ * node cache, but every evict or clear issued on this node (i.e. from the
+ * <code>@CacheEvict</code> sites) is also written to the
+ * <code>cache_invalidation</code> table. Each node polls that table and
+ * applies the invalidations of the other nodes to its own caches, so a stale
+ * entry survives on another node for at most one poll interval.
+ */
+@Component
+public class MultiNodeCacheManager implements CacheManager {
+
+    private final static Logger logger = LoggerFactory.getLogger(MultiNodeCacheManager.class);
+
+    private static final long POLL_INTERVAL_SECONDS = 5;
+    private static final int RETENTION_MINUTES = 60;
+    private static final int POLLS_BETWEEN_PURGES = 720;
+
+    private final EhCacheCacheManager ehcacheCacheManager;
+    private final CacheInvalidationRepository invalidationRepository;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "cache-invalidation-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> pollTask;
+    private volatile long lastAppliedId;
+    private int pollsSincePurge;
+
+    @Autowired
+    public MultiNodeCacheManager(final EhCacheCacheManager ehcacheCacheManager, final CacheInvalidationRepository invalidationRepository) {
+        this.ehcacheCacheManager = ehcacheCacheManager;
+        this.invalidationRepository = invalidationRepository;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        final Cache cache = this.ehcacheCacheManager.getCache(name);
+        return cache == null ? null : new InvalidationBroadcastingCache(cache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.ehcacheCacheManager.getCacheNames();
+    }
+
+    /**
+     * Starts applying invalidations of the other nodes. Anything published
+     * before this call is covered by the caller clearing the local caches.
+     */
+    public synchronized void startPolling() {
+        if (this.pollTask != null) { return; }
+        this.lastAppliedId = this.invalidationRepository.retrieveLatestId();
+        this.pollTask = this.poller.scheduleWithFixedDelay(this::applyInvalidationsFromOtherNodes, POLL_INTERVAL_SECONDS,
+                POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("Multi node cache enabled on node " + this.invalidationRepository.getNodeId());
+    }
+
+    public synchronized void stopPolling() {
+        if (this.pollTask == null) { return; }
+        this.pollTask.cancel(false);
+        this.pollTask = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopPolling();
+        this.poller.shutdownNow();
+    }
+
+    void applyInvalidationsFromOtherNodes() {
+        try {
+            final List<CacheInvalidation> invalidations = this.invalidationRepository
+                    .retrieveInvalidationsFromOtherNodes(this.lastAppliedId);
+            for (final CacheInvalidation invalidation : invalidations) {
+                final Cache cache = this.ehcacheCacheManager.getCache(invalidation.getCacheName());
+                if (cache != null) {
+                    if (invalidation.isClear()) {
+                        cache.clear();
+                    } else {
+                        cache.evict(invalidation.getCacheKey());
+                    }
+                }
+                this.lastAppliedId = invalidation.getId();
+            }
+
+            if (++this.pollsSincePurge >= POLLS_BETWEEN_PURGES) {
+                this.pollsSincePurge = 0;
+                this.invalidationRepository.deleteInvalidationsOlderThan(RETENTION_MINUTES);
+            }
+        } catch (final RuntimeException e) {
+            // keep polling, the next run picks up from the last applied id
+            logger.error("Failed to apply cache invalidations from other nodes", e);
+        }
+    }
+
+    private void publish(final String cacheName, final Object key) {
+        final String cacheKey;
+        if (key == null) {
+            cacheKey = null;
+        } else if (key instanceof String && ((String) key).length() <= CacheInvalidationRepository.MAX_KEY_LENGTH) {
+            cacheKey = (String) key;
+        } else {
+            // other nodes can only rebuild String keys, clear the whole
+            // cache there instead
+            cacheKey = null;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // other nodes must not reload the entry before the change is
+            // visible to them
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    MultiNodeCacheManager.this.invalidationRepository.publish(cacheName, cacheKey);
+                }
+            });
+        } else {
+            this.invalidationRepository.publish(cacheName, cacheKey);
+        }
+    }
+
+    private final class InvalidationBroadcastingCache implements Cache {
+
+        private final Cache delegate;
+
+        InvalidationBroadcastingCache(final Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return this.delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            return this.delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Class<T> type) {
+            return this.delegate.get(key, type);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Callable<T> valueLoader) {
+            return this.delegate.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(final Object key, final Object value) {
+            return this.delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(final Object key) {
+            this.delegate.evict(key);
+            publish(getName(), key);
+        }
+
+        @Override
+        public boolean evictIfPresent(final Object key) {
+            final boolean evicted = this.delegate.evictIfPresent(key);
+            publish(getName(), key);
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            this.delegate.clear();
+            publish(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            final boolean invalidated = this.delegate.invalidate();
+            publish(getName(), null);
+            return invalidated;
+        }
+    }
+}
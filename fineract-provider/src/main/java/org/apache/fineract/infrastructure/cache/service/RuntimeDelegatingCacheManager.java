@@ -46,12 +46,14 @@ import org.springframework.stereotype.Component;
 public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final EhCacheCacheManager ehcacheCacheManager;
+    private final MultiNodeCacheManager multiNodeCacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager) {
+    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager, final MultiNodeCacheManager multiNodeCacheManager) {
         this.ehcacheCacheManager = ehCacheCacheManager;
+        this.multiNodeCacheManager = multiNodeCacheManager;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
@@ -69,29 +71,26 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof EhCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof MultiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final boolean distributedCacheEnabled,
+            final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -100,6 +99,7 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                 if (!noCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                this.multiNodeCacheManager.stopPolling();
                 this.currentCacheManager = this.noOpCacheManager;
             break;
             case SINGLE_NODE:
@@ -107,12 +107,20 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                     clearEhCache();
                 }
+                this.multiNodeCacheManager.stopPolling();
                 this.currentCacheManager = this.ehcacheCacheManager;
             break;
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                // entries cached before polling starts may have missed
+                // invalidations from other nodes
+                if (!(this.currentCacheManager instanceof MultiNodeCacheManager)) {
+                    clearEhCache();
+                }
+                this.multiNodeCacheManager.startPolling();
+                this.currentCacheManager = this.multiNodeCacheManager;
             break;
         }
 
@@ -122,4 +130,4 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
     private void clearEhCache() {
         this.ehcacheCacheManager.getCacheManager().clearAll();
     }
-}
\ No newline at end of file
+}
@@ -39,6 +39,8 @@ public interface ConfigurationDomainService {
 
     boolean isEhcacheEnabled();
 
+    boolean isDistributedCacheEnabled();
+
     void updateCache(CacheType cacheType);
 
     Long retrievePenaltyWaitPeriod();
@@ -83,8 +85,18 @@ public interface ConfigurationDomainService {
 
     Long getDailyTPTLimit();
 
+    boolean isIncrementalLoanTransactionReplayEnabled();
+
+    boolean isIncrementalLoanTransactionReplayVerificationEnabled();
+
     void removeGlobalConfigurationPropertyDataFromCache(String propertyName);
 
+    /**
+     * Drops the current tenant's cached configuration and permission snapshot,
+     * it is reloaded on next access.
+     */
+    void invalidateConfigurationSnapshot();
+
     boolean isSMSOTPDeliveryEnabled();
 
     boolean isEmailOTPDeliveryEnabled();
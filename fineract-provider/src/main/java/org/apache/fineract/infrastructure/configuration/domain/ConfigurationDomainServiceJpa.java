@@ -18,49 +18,104 @@
  */
 package org.apache.fineract.infrastructure.configuration.domain;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCache;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCacheRepository;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.useradministration.domain.Permission;
 import org.apache.fineract.useradministration.domain.PermissionRepository;
 import org.apache.fineract.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Answers configuration and maker-checker lookups from a per tenant
+ * {@link GlobalConfigurationSnapshot}.
+ *
+ * With the platform cache enabled the snapshots are kept in the
+ * <code>configurationSnapshots</code> cache, so that with the multi node cache
+ * an eviction on one node is applied on the others as well. With caching
+ * switched off configurations are kept on this node, as they always were, and
+ * maker-checker flags are read from the database on every lookup.
+ */
 @Service
 public class ConfigurationDomainServiceJpa implements ConfigurationDomainService {
 
+    public static final String SNAPSHOT_CACHE_NAME = "configurationSnapshots";
+
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
-    private static Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final RuntimeDelegatingCacheManager cacheManager;
+    // used while the platform cache is switched off
+    private final ConcurrentMap<String, GlobalConfigurationSnapshot> localSnapshots = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final RoutingDataSource dataSource, final RuntimeDelegatingCacheManager cacheManager, final MeterRegistry meterRegistry) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cacheManager = cacheManager;
+        this.snapshotHits = Counter.builder("fineract.configuration.snapshot.lookups").tag("result", "hit")
+                .description("Configuration and permission lookups answered from the tenant snapshot").register(meterRegistry);
+        this.snapshotMisses = Counter.builder("fineract.configuration.snapshot.lookups").tag("result", "miss")
+                .description("Configuration and permission lookups that had to query the database").register(meterRegistry);
     }
 
     @Override
     public boolean isMakerCheckerEnabledForTask(final String taskPermissionCode) {
         if (StringUtils.isBlank(taskPermissionCode)) { throw new PermissionNotFoundException(taskPermissionCode); }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+        // permissions missing from the snapshot were added after it was taken
+        // (e.g. for a newly registered datatable) or don't match case exactly
+        final Supplier<Boolean> fromDatabase = () -> {
+            final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
+            if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+            return thisTask.hasMakerCheckerEnabled();
+        };
+        final boolean makerCheckerEnabled;
+        if (sharedSnapshotCache() == null) {
+            // a node local copy would miss permission changes made on other nodes
+            this.snapshotMisses.increment();
+            makerCheckerEnabled = fromDatabase.get();
+        } else {
+            makerCheckerEnabled = lookup(snapshot -> snapshot.isMakerCheckerEnabled(taskPermissionCode), fromDatabase);
+        }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
         final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return makerCheckerEnabled && property.isEnabled();
     }
 
     @Override
@@ -114,6 +169,11 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         return this.cacheTypeRepository.findById(1L).get().isEhcacheEnabled();
     }
 
+    @Override
+    public boolean isDistributedCacheEnabled() {
+        return this.cacheTypeRepository.findById(1L).get().isDistributedCacheEnabled();
+    }
+
     @Transactional
     @Override
     public void updateCache(final CacheType cacheType) {
@@ -280,10 +340,40 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     }
 
     @Override
-    public void removeGlobalConfigurationPropertyDataFromCache(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        configurations.remove(key);
+    public boolean isIncrementalLoanTransactionReplayEnabled() {
+        final String propertyName = "incremental-loan-transaction-replay";
+        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(propertyName);
+        return property.isEnabled();
+    }
+
+    @Override
+    public boolean isIncrementalLoanTransactionReplayVerificationEnabled() {
+        final String propertyName = "verify-incremental-loan-transaction-replay";
+        final GlobalConfigurationPropertyData property = getGlobalConfigurationPropertyData(propertyName);
+        return property.isEnabled();
+    }
+
+    @Override
+    public void removeGlobalConfigurationPropertyDataFromCache(@SuppressWarnings("unused") final String propertyName) {
+        invalidateConfigurationSnapshot();
+    }
+
+    @Override
+    public void invalidateConfigurationSnapshot() {
+        final String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        evictSnapshot(identifier);
+
+        // a snapshot rebuilt by another request before this transaction
+        // commits still holds the old values, so evict again once it is done
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    evictSnapshot(identifier);
+                }
+            });
+        }
     }
 
     @Override
@@ -324,12 +414,98 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     }
 
     private GlobalConfigurationPropertyData getGlobalConfigurationPropertyData(final String propertyName) {
-        String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
-        String key = identifier + "_" + propertyName;
-        if (!configurations.containsKey(key)) {
-            GlobalConfigurationProperty configuration = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
-            configurations.put(key, configuration.toData());
+        return lookup(snapshot -> snapshot.getConfiguration(propertyName),
+                () -> this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName).toData());
+    }
+
+    /**
+     * Answers a lookup from the tenant's snapshot, loading it if needed, or
+     * from the database if the snapshot doesn't hold the value. Each lookup is
+     * counted once, as a hit only if it didn't need any query.
+     */
+    private <T> T lookup(final Function<GlobalConfigurationSnapshot, T> fromSnapshot, final Supplier<T> fromDatabase) {
+        final String identifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Cache cache = sharedSnapshotCache();
+        GlobalConfigurationSnapshot snapshot = cache == null ? this.localSnapshots.get(identifier) : cache.get(identifier,
+                GlobalConfigurationSnapshot.class);
+        boolean hit = snapshot != null;
+        if (snapshot == null) {
+            snapshot = loadSnapshot(identifier, cache);
+        }
+
+        T value = fromSnapshot.apply(snapshot);
+        if (value == null) {
+            hit = false;
+            value = fromDatabase.get();
+        }
+        (hit ? this.snapshotHits : this.snapshotMisses).increment();
+        return value;
+    }
+
+    /**
+     * @return the cache holding the snapshots or <code>null</code> if the
+     *         platform cache is switched off
+     */
+    private Cache sharedSnapshotCache() {
+        final Cache cache = this.cacheManager.getCache(SNAPSHOT_CACHE_NAME);
+        return cache == null || cache instanceof NoOpCache ? null : cache;
+    }
+
+    private GlobalConfigurationSnapshot loadSnapshot(final String identifier, final Cache cache) {
+        final long invalidationsBeforeLoad = this.invalidationCount.get();
+        final GlobalConfigurationSnapshot loaded = loadSnapshot();
+        // don't publish a snapshot that may predate an invalidation which
+        // happened while it was being read
+        if (this.invalidationCount.get() == invalidationsBeforeLoad) {
+            if (cache == null) {
+                final GlobalConfigurationSnapshot existing = this.localSnapshots.putIfAbsent(identifier, loaded);
+                if (existing != null) { return existing; }
+            } else {
+                cache.put(identifier, loaded);
+                if (this.invalidationCount.get() != invalidationsBeforeLoad) {
+                    cache.evict(identifier);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void evictSnapshot(final String identifier) {
+        this.invalidationCount.incrementAndGet();
+        this.localSnapshots.remove(identifier);
+        final Cache cache = sharedSnapshotCache();
+        if (cache != null) {
+            cache.evict(identifier);
+        }
+    }
+
+    private GlobalConfigurationSnapshot loadSnapshot() {
+        final Map<String, GlobalConfigurationPropertyData> configurations = new HashMap<>();
+        this.jdbcTemplate.query("SELECT c.id, c.name, c.enabled, c.value, c.date_value, c.description, c.is_trap_door FROM c_configuration c",
+                (RowCallbackHandler) rs -> {
+                    final GlobalConfigurationPropertyData property = mapConfiguration(rs);
+                    configurations.put(property.getName(), property);
+                });
+
+        final Map<String, Boolean> makerCheckerByPermissionCode = new HashMap<>();
+        this.jdbcTemplate.query("SELECT p.code, p.can_maker_checker FROM m_permission p",
+                (RowCallbackHandler) rs -> makerCheckerByPermissionCode.put(rs.getString("code"), rs.getBoolean("can_maker_checker")));
+
+        return new GlobalConfigurationSnapshot(configurations, makerCheckerByPermissionCode);
+    }
+
+    private static GlobalConfigurationPropertyData mapConfiguration(final ResultSet rs) throws SQLException {
+        final String name = rs.getString("name");
+        final boolean enabled = rs.getBoolean("enabled");
+        // keep null values null, as GlobalConfigurationProperty#toData does
+        Long value = rs.getLong("value");
+        if (rs.wasNull()) {
+            value = null;
         }
-        return configurations.get(key);
+        final Date dateValue = rs.getDate("date_value");
+        final String description = rs.getString("description");
+        final Long id = rs.getLong("id");
+        final boolean isTrapDoor = rs.getBoolean("is_trap_door");
+        return new GlobalConfigurationPropertyData(name, enabled, value, dateValue, id, description, isTrapDoor);
     }
 }
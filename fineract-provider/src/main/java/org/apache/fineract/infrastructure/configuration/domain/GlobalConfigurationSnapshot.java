@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.domain;
+
+import java.util.Collections;
+import java.util.Map;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+
+/**
+ * Immutable, point in time copy of a tenant's <code>c_configuration</code>
+ * rows and the maker-checker flags of <code>m_permission</code>.
+ * {@link ConfigurationDomainServiceJpa} keeps one snapshot per tenant and
+ * replaces it as a whole when configuration or permissions change, so
+ * readers never see a half updated view.
+ */
+public final class GlobalConfigurationSnapshot {
+
+    private final Map<String, GlobalConfigurationPropertyData> configurations;
+    private final Map<String, Boolean> makerCheckerByPermissionCode;
+
+    public GlobalConfigurationSnapshot(final Map<String, GlobalConfigurationPropertyData> configurations,
+            final Map<String, Boolean> makerCheckerByPermissionCode) {
+        this.configurations = Collections.unmodifiableMap(configurations);
+        this.makerCheckerByPermissionCode = Collections.unmodifiableMap(makerCheckerByPermissionCode);
+    }
+
+    /**
+     * @return the property or <code>null</code> if it was not present when the
+     *         snapshot was taken
+     */
+    public GlobalConfigurationPropertyData getConfiguration(final String propertyName) {
+        return this.configurations.get(propertyName);
+    }
+
+    /**
+     * @return the maker-checker flag of the permission or <code>null</code> if
+     *         it was not present when the snapshot was taken
+     */
+    public Boolean isMakerCheckerEnabled(final String permissionCode) {
+        return this.makerCheckerByPermissionCode.get(permissionCode);
+    }
+}
@@ -104,6 +104,23 @@ public class ApiParameterHelper {
         return exportCsv;
     }
 
+    public static boolean streamJson(final MultivaluedMap<String, String> queryParams) {
+        boolean streamJson = false;
+        if (queryParams.getFirst("streamJSON") != null) {
+            final String streamJsonValue = queryParams.getFirst("streamJSON");
+            streamJson = "true".equalsIgnoreCase(streamJsonValue);
+        }
+        return streamJson;
+    }
+
+    public static Integer rowLimit(final MultivaluedMap<String, String> queryParams) {
+        Integer rowLimit = null;
+        if (queryParams.getFirst("rowLimit") != null) {
+            rowLimit = Integer.valueOf(queryParams.getFirst("rowLimit"));
+        }
+        return rowLimit;
+    }
+
     public static boolean exportPdf(final MultivaluedMap<String, String> queryParams) {
         boolean exportPDF = false;
         if (queryParams.getFirst("exportPDF") != null) {
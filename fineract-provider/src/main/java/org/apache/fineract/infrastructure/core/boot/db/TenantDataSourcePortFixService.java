@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.boot.db;
 
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSourceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,10 +65,13 @@ public class TenantDataSourcePortFixService {
     private @Autowired(required = false) DataSourceProperties dsp;
 
     private JdbcTemplate jdbcTemplate;
+    private final RoutingDataSourceService tenantPools;
 
     @Autowired
-    public TenantDataSourcePortFixService(@Qualifier("tenantDataSourceJndi") final DataSource dataSource) {
+    public TenantDataSourcePortFixService(@Qualifier("tenantDataSourceJndi") final DataSource dataSource,
+            @Qualifier("tomcatJdbcDataSourcePerTenantService") final RoutingDataSourceService tenantPools) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tenantPools = tenantPools;
     }
 
     public void fixUpTenantsSchemaServerPort() {
@@ -85,11 +89,17 @@ public class TenantDataSourcePortFixService {
                         dsp.getHost(), dsp.getPort(), dsp.getUsername(), dsp.getPassword());
     if ( r == 0 )
         logger.warn("UPDATE tenant_server_connections SET ... did not update ANY rows - something is probably wrong");
-    else
+    else {
             logger.info("Upated "
                     + r
                     + " rows in the tenant_server_connections table of the mifosplatform-tenants schema to the real current host: "
                     + dsp.getHost() + ", port: " + dsp.getPort());
+            // pools already opened against the old host/port are re-created
+            // from the updated connection details on next use
+            for (final Long connectionId : jdbcTemplate.queryForList("SELECT id FROM tenant_server_connections", Long.class)) {
+                tenantPools.evictDataSource(connectionId);
+            }
+    }
     }
 
 }
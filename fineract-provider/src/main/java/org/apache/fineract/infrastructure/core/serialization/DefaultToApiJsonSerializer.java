@@ -19,8 +19,13 @@
 package org.apache.fineract.infrastructure.core.serialization;
 
 import com.google.gson.Gson;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Set;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -109,6 +114,34 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
         return serializeWithSettings(delegatedSerializer, settings, singleObject);
     }
 
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Collection<T> collection,
+            final Set<String> supportedResponseParameters) {
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamWithSettings(delegatedSerializer, settings, collection.toArray());
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Page<T> page,
+            final Set<String> supportedResponseParameters) {
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamWithSettings(delegatedSerializer, settings, page);
+    }
+
+    private StreamingOutput streamWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object dataObject) {
+        return output -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (gson != null) {
+                gson.toJson(dataObject, writer);
+            } else if (settings.isPrettyPrint()) {
+                this.excludeNothingWithPrettyPrintingOn.serialize(dataObject, writer);
+            } else {
+                this.excludeNothingWithPrettyPrintingOff.serialize(dataObject, writer);
+            }
+            writer.flush();
+        };
+    }
+
     private String serializeWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object[] dataObject) {
         String json = null;
         if (gson != null) {
@@ -60,4 +60,8 @@ public final class ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson {
         }
         return returnedResult;
     }
-}
\ No newline at end of file
+
+    public void serialize(final Object result, final Appendable writer) {
+        this.gson.toJson(result, writer);
+    }
+}
@@ -56,4 +56,8 @@ public final class ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson {
     public String serialize(final Object result) {
         return this.gson.toJson(result);
     }
-}
\ No newline at end of file
+
+    public void serialize(final Object result, final Appendable writer) {
+        this.gson.toJson(result, writer);
+    }
+}
@@ -18,12 +18,19 @@
  */
 package org.apache.fineract.infrastructure.core.serialization;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaLocalDateAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaMonthDayAdapter;
@@ -37,10 +44,18 @@ import org.springframework.stereotype.Service;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
+ *
+ * Gson instances are thread safe, the ones configured for partial responses
+ * (<code>fields=</code>) are cached by pretty printing and field set.
  */
 @Service
 public final class GoogleGsonSerializerHelper {
 
+    private static final int MAX_CACHED_SERIALIZERS = 512;
+
+    private final Cache<String, Gson> partialResponseSerializers = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SERIALIZERS)
+            .build();
+
     public Gson createGsonBuilder(final boolean prettyPrint) {
         final GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
@@ -53,6 +68,12 @@ public final class GoogleGsonSerializerHelper {
     }
 
     public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
+        final Set<String> parametersToInclude = Collections.unmodifiableSet(new TreeSet<>(responseParameters));
+        return cachedSerializer("include", prettyPrint, parametersToInclude,
+                () -> buildGsonForPartialResponseFiltering(prettyPrint, parametersToInclude));
+    }
+
+    private Gson buildGsonForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
 
         final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
 
@@ -85,6 +106,13 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
+        final Set<String> parametersToSkip = Collections.unmodifiableSet(new TreeSet<>(parameterNamesToSkip));
+        return cachedSerializer("exclude", prettyPrint, parametersToSkip,
+                () -> buildGsonWithParameterExclusionSerializationStrategy(prettyPrint, parametersToSkip));
+    }
+
+    private Gson buildGsonWithParameterExclusionSerializationStrategy(final boolean prettyPrint, final Set<String> parameterNamesToSkip) {
+
         final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
 
         final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
@@ -97,6 +125,16 @@ public final class GoogleGsonSerializerHelper {
         return builder.create();
     }
 
+    private Gson cachedSerializer(final String strategy, final boolean prettyPrint, final Set<String> sortedParameters,
+            final Callable<Gson> serializerBuilder) {
+        final String key = strategy + (prettyPrint ? ":pretty:" : ":compact:") + String.join(",", sortedParameters);
+        try {
+            return this.partialResponseSerializers.get(key, serializerBuilder);
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
         return serializer.toJson(dataObjects);
     }
@@ -20,6 +20,7 @@ package org.apache.fineract.infrastructure.core.serialization;
 
 import java.util.Collection;
 import java.util.Set;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.fineract.infrastructure.core.service.Page;
 
 public interface ToApiJsonSerializer<T> {
@@ -46,4 +47,15 @@ public interface ToApiJsonSerializer<T> {
     String serialize(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
 
     String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters);
-}
\ No newline at end of file
+
+    /**
+     * Like {@link #serialize(ApiRequestJsonSerializationSettings, Collection, Set)}
+     * but writes the JSON straight to the response instead of building it in
+     * memory first. Unsupported <code>fields</code> are still reported before
+     * anything is written.
+     */
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Collection<T> collection,
+            Set<String> supportedResponseParameters);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Page<T> page, Set<String> supportedResponseParameters);
+}
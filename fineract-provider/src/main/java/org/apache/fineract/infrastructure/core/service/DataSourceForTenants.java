@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.service;
 
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -41,4 +42,14 @@ public class DataSourceForTenants implements RoutingDataSourceService {
         return this.tenantDataSource;
     }
 
+    @Override
+    public void evictDataSource(@SuppressWarnings("unused") final Long connectionId) {
+        // the tenants data source is not kept per tenant connection
+    }
+
+    @Override
+    public void refreshDataSource(@SuppressWarnings("unused") final FineractPlatformTenantConnection tenantConnection) {
+        // the tenants data source is not kept per tenant connection
+    }
+
 }
@@ -23,19 +23,36 @@ import java.util.List;
 
 public class Page<E> implements Serializable {
 
-    private final int totalFilteredRecords;
+    private final Integer totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, Integer.valueOf(totalFilteredRecords), null);
+    }
+
+    /**
+     * @param totalFilteredRecords
+     *            <code>null</code> when the count was not requested
+     * @param nextCursor
+     *            token for the page after this one when keyset paginated,
+     *            <code>null</code> on the last page
+     */
+    public Page(final List<E> pageItems, final Integer totalFilteredRecords, final String nextCursor) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextCursor = nextCursor;
     }
 
-    public int getTotalFilteredRecords() {
+    public Integer getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
     public List<E> getPageItems() {
         return this.pageItems;
     }
-}
\ No newline at end of file
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+
+/**
+ * Opaque <code>after</code> token for keyset pagination: the sort key and id
+ * of the last row of a page. The next page continues with the rows that sort
+ * after it, instead of skipping an offset.
+ *
+ * Queries select the keyset columns through {@link #keysetColumns(String, String)}
+ * and order by the sort key and then the id, in the same direction. The sort
+ * key is always one of the columns a query allows, see
+ * {@link #sortExpression(SearchParameters, Map, String)}.
+ */
+public final class PaginationCursor {
+
+    static final String ID_COLUMN = "keyset_id";
+    static final String SORT_VALUE_COLUMN = "keyset_sort_value";
+
+    private static final String NULL_SORT_VALUE = "N";
+    private static final String SORT_VALUE = "V";
+
+    private final String sortValue;
+    private final Long id;
+
+    private PaginationCursor(final String sortValue, final Long id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    /**
+     * Columns a query can be keyset paginated by, each reachable by its
+     * qualified expression or by its bare column name.
+     */
+    public static Map<String, String> sortColumns(final String... columnExpressions) {
+        final Map<String, String> sortColumns = new HashMap<>();
+        for (final String columnExpression : columnExpressions) {
+            sortColumns.put(columnExpression, columnExpression);
+            sortColumns.put(columnExpression.substring(columnExpression.indexOf('.') + 1), columnExpression);
+        }
+        return sortColumns;
+    }
+
+    /**
+     * Sort expression of a keyset page: the column the requested
+     * <code>orderBy</code> maps to in <code>sortColumns</code>, or the id if
+     * no order is requested. The expression also ends up in the condition of
+     * the next page, so any other <code>orderBy</code> is rejected.
+     */
+    public static String sortExpression(final SearchParameters searchParameters, final Map<String, String> sortColumns,
+            final String idExpression) {
+        if (searchParameters == null || !searchParameters.isOrderByRequested()) { return idExpression; }
+        final String sortExpression = sortColumns.get(searchParameters.getOrderBy().trim());
+        if (sortExpression != null) { return sortExpression; }
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.pagination.orderBy.not.supported",
+                "The parameter `orderBy` must be one of " + new ArrayList<>(sortColumns.keySet()) + " when `after` is used.",
+                "orderBy", searchParameters.getOrderBy()));
+        throw new PlatformApiDataValidationException(dataValidationErrors);
+    }
+
+    public static String keysetColumns(final String sortExpression, final String idExpression) {
+        return idExpression + " as " + ID_COLUMN + ", " + sortExpression + " as " + SORT_VALUE_COLUMN + ", ";
+    }
+
+    public static String encode(final String sortValue, final Long id) {
+        final String payload = sortValue == null ? NULL_SORT_VALUE + ":" + id : SORT_VALUE + ":" + id + ":" + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return <code>null</code> for a blank token, i.e. the first page
+     */
+    public static PaginationCursor decode(final String token) {
+        if (token == null || token.trim().isEmpty()) { return null; }
+        try {
+            final String payload = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            final String[] parts = payload.split(":", 3);
+            if (NULL_SORT_VALUE.equals(parts[0]) && parts.length == 2) { return new PaginationCursor(null, Long.valueOf(parts[1])); }
+            if (SORT_VALUE.equals(parts[0]) && parts.length == 3) { return new PaginationCursor(parts[2], Long.valueOf(parts[1])); }
+        } catch (final IllegalArgumentException e) {
+            // reported below
+        }
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        dataValidationErrors.add(ApiParameterError.parameterError("validation.msg.pagination.after.invalid",
+                "The parameter `after` must be a token returned as `nextCursor` of a previous page.", "after", token));
+        throw new PlatformApiDataValidationException(dataValidationErrors);
+    }
+
+    /**
+     * Condition selecting the rows after this cursor, adding its parameters
+     * to <code>params</code>. Null sort keys sort first ascending and last
+     * descending, as in MySQL.
+     */
+    public String condition(final String sortExpression, final String idExpression, final boolean descending,
+            final List<Object> params) {
+        final String comparison = descending ? " < " : " > ";
+        if (sortExpression.equals(idExpression)) {
+            params.add(this.id);
+            return "(" + idExpression + comparison + "?)";
+        }
+        if (this.sortValue == null) {
+            params.add(this.id);
+            if (descending) { return "(" + sortExpression + " is null and " + idExpression + " < ?)"; }
+            return "(" + sortExpression + " is not null or " + idExpression + " > ?)";
+        }
+        params.add(this.sortValue);
+        params.add(this.sortValue);
+        params.add(this.id);
+        final String condition = "(" + sortExpression + comparison + "? or (" + sortExpression + " = ? and " + idExpression + comparison
+                + "?)";
+        return descending ? condition + " or " + sortExpression + " is null)" : condition + ")";
+    }
+}
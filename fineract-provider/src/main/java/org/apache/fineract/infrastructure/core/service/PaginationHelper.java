@@ -25,17 +25,44 @@ import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
+    /**
+     * @param sqlCountRows
+     *            <code>null</code> to skip counting the available rows
+     */
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
             final RowMapper<E> rowMapper) {
 
         final List<E> items = jt.query(sqlFetchRows, args, rowMapper);
 
+        if (sqlCountRows == null) { return new Page<>(items, null, null); }
+
         // determine how many rows are available
         final int totalFilteredRecords = jt.queryForObject(sqlCountRows, Integer.class);
 
         return new Page<>(items, totalFilteredRecords);
     }
 
+    /**
+     * Fetches a keyset paginated page, <code>sqlFetchRows</code> must select
+     * the {@link PaginationCursor#keysetColumns(String, String)}. Keyset pages
+     * are not counted.
+     */
+    public Page<E> fetchKeysetPage(final JdbcTemplate jt, final String sqlFetchRows, final Object args[], final RowMapper<E> rowMapper,
+            final Integer limit) {
+        final String[] lastKey = new String[2];
+        final List<E> items = jt.query(sqlFetchRows, args, (rs, rowNum) -> {
+            lastKey[0] = rs.getString(PaginationCursor.SORT_VALUE_COLUMN);
+            lastKey[1] = rs.getString(PaginationCursor.ID_COLUMN);
+            return rowMapper.mapRow(rs, rowNum);
+        });
+
+        String nextCursor = null;
+        if (limit != null && items.size() == limit) {
+            nextCursor = PaginationCursor.encode(lastKey[0], Long.valueOf(lastKey[1]));
+        }
+        return new Page<>(items, null, nextCursor);
+    }
+
     public Page<Long> fetchPage(JdbcTemplate jdbcTemplate, String sql, String sqlCountRows, Class<Long> type) {
         final List<Long> items = jdbcTemplate.queryForList(sql, type);
 
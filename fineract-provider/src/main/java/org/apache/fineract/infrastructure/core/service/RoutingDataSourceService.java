@@ -19,6 +19,7 @@
 package org.apache.fineract.infrastructure.core.service;
 
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 
 /**
  * A service for getting hold of the appropriate {@link DataSource} connection
@@ -27,4 +28,16 @@ import javax.sql.DataSource;
 public interface RoutingDataSourceService {
 
     DataSource retrieveDataSource();
+
+    /**
+     * Closes the pool kept for the given tenant connection, if any, so that
+     * the next request re-creates it from the then current connection details.
+     */
+    void evictDataSource(Long connectionId);
+
+    /**
+     * Replaces the pool kept for the given tenant connection with one built
+     * from the given connection details.
+     */
+    void refreshDataSource(FineractPlatformTenantConnection tenantConnection);
 }
\ No newline at end of file
@@ -49,6 +49,10 @@ public final class SearchParameters {
     private final Long categoryId;
     private final boolean isSelfUser;
 
+    // keyset pagination
+    private final String after;
+    private final boolean countRequested;
+
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
@@ -265,7 +269,8 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
-
+        this.after = null;
+        this.countRequested = true;
     }
 
     private SearchParameters(final Long provisioningEntryId, final Long officeId, final Long productId, final Long categoryId,
@@ -291,7 +296,8 @@ public final class SearchParameters {
         this.productId = productId;
         this.categoryId = categoryId;
         this.isSelfUser = false;
-
+        this.after = null;
+        this.countRequested = true;
     }
 
     public SearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String name,
@@ -319,6 +325,46 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = false;
+        this.after = null;
+        this.countRequested = true;
+    }
+
+    private SearchParameters(final SearchParameters searchParameters, final String after, final boolean countRequested) {
+        this.sqlSearch = searchParameters.sqlSearch;
+        this.officeId = searchParameters.officeId;
+        this.externalId = searchParameters.externalId;
+        this.name = searchParameters.name;
+        this.hierarchy = searchParameters.hierarchy;
+        this.firstname = searchParameters.firstname;
+        this.lastname = searchParameters.lastname;
+        this.offset = searchParameters.offset;
+        this.limit = searchParameters.limit;
+        this.orderBy = searchParameters.orderBy;
+        this.sortOrder = searchParameters.sortOrder;
+        this.staffId = searchParameters.staffId;
+        this.accountNo = searchParameters.accountNo;
+        this.loanId = searchParameters.loanId;
+        this.savingsId = searchParameters.savingsId;
+        this.orphansOnly = searchParameters.orphansOnly;
+        this.currencyCode = searchParameters.currencyCode;
+        this.provisioningEntryId = searchParameters.provisioningEntryId;
+        this.productId = searchParameters.productId;
+        this.categoryId = searchParameters.categoryId;
+        this.isSelfUser = searchParameters.isSelfUser;
+        this.after = after;
+        this.countRequested = countRequested;
+    }
+
+    /**
+     * @param after
+     *            <code>nextCursor</code> of the previous page, blank for the
+     *            first page, <code>null</code> for offset pagination
+     * @param count
+     *            <code>false</code> to skip counting the available rows,
+     *            keyset paginated pages are never counted
+     */
+    public SearchParameters withPaginationMode(final String after, final Boolean count) {
+        return new SearchParameters(this, after, count == null || count);
     }
 
     public boolean isOrderByRequested() {
@@ -474,6 +520,22 @@ public final class SearchParameters {
         return this.isSelfUser;
     }
 
+    public boolean isKeysetPaginationRequested() {
+        return this.after != null;
+    }
+
+    public String getAfter() {
+        return this.after;
+    }
+
+    public boolean isCountRequested() {
+        return this.countRequested && !isKeysetPaginationRequested();
+    }
+
+    public boolean isSortOrderDescending() {
+        return isSortOrderProvided() && "desc".equalsIgnoreCase(this.sortOrder.trim());
+    }
+
     /**
      * creates an instance of the SearchParameters from a request for the report mailing job run history
      *
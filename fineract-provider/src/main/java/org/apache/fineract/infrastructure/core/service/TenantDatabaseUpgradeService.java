@@ -22,8 +22,22 @@ import com.google.common.collect.ImmutableMap;
 import com.googlecode.flyway.core.Flyway;
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
 import org.apache.fineract.infrastructure.core.boot.db.TenantDataSourcePortFixService;
@@ -34,23 +48,59 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * A service that picks up on tenants that are configured to auto-update their
  * specific schema on application startup.
+ *
+ * The tenant schemas are upgraded one after another by default. With
+ * <code>fineract.tenant.migration.mode=parallel</code> they are upgraded on
+ * <code>fineract.tenant.migration.threads</code> threads before the
+ * application starts, and with <code>lazy</code> the application starts
+ * straight away while the schemas are upgraded in the background, a tenant
+ * being moved to the front on its first request. Requests for a tenant that
+ * has not been upgraded yet are answered with a 503, and its scheduler jobs and
+ * pollers wait until it is.
  */
 @Service
 public class TenantDatabaseUpgradeService {
 
     private final static Logger LOG = LoggerFactory.getLogger(TenantDatabaseUpgradeService.class);
 
+    public final static String MIGRATION_MODE = "fineract.tenant.migration.mode";
+    public final static String MIGRATION_THREADS = "fineract.tenant.migration.threads";
+
+    private enum MigrationMode {
+        SEQUENTIAL, PARALLEL, LAZY
+    }
+
+    private enum MigrationStatus {
+        PENDING, MIGRATING, MIGRATED, FAILED
+    }
+
     private final TenantDetailsService tenantDetailsService;
     protected final DataSource tenantDataSource;
     protected final TenantDataSourcePortFixService tenantDataSourcePortFixService;
 
     @Autowired private JDBCDriverConfig driverConfig;
 
+    @Value("${" + MIGRATION_MODE + ":sequential}")
+    private String migrationMode;
+
+    @Value("${" + MIGRATION_THREADS + ":4}")
+    private int migrationThreads;
+
+    /**
+     * The tenants upgraded in lazy mode, by tenant identifier. Tenants missing
+     * from it are not upgraded by this node.
+     */
+    private final Map<String, TenantMigration> lazyMigrations = new ConcurrentHashMap<>();
+    private final AtomicInteger completedLazyMigrations = new AtomicInteger();
+    private ExecutorService sweepExecutor;
+    private ExecutorService onDemandExecutor;
+
     @Autowired
     public TenantDatabaseUpgradeService(final TenantDetailsService detailsService,
             @Qualifier("tenantDataSourceJndi") final DataSource dataSource, TenantDataSourcePortFixService tenantDataSourcePortFixService) {
@@ -61,28 +111,212 @@ public class TenantDatabaseUpgradeService {
 
     @PostConstruct
     public void upgradeAllTenants() {
+        final MigrationMode mode = migrationMode(this.migrationMode);
         upgradeTenantDB();
-        final List<FineractPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
-        for (final FineractPlatformTenant tenant : tenants) {
-            final FineractPlatformTenantConnection connection = tenant.getConnection();
-            if (connection.isAutoUpdateEnabled()) {
-                final Flyway flyway = new Flyway();
-                String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(), connection.getSchemaName()) ;
-                DriverDataSource source = new DriverDataSource(driverConfig.getDriverClassName(), connectionProtocol, connection.getSchemaUsername(), connection.getSchemaPassword()) ;
-                flyway.setDataSource(source);
-                flyway.setLocations("sql/migrations/core_db");
-                flyway.setOutOfOrder(true);
+        final List<FineractPlatformTenant> tenants = new ArrayList<>();
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            if (tenant.getConnection().isAutoUpdateEnabled()) {
+                tenants.add(tenant);
+            }
+        }
+
+        LOG.info("Upgrading {} tenant databases, mode {}", tenants.size(), mode);
+        switch (mode) {
+            case PARALLEL:
+                upgradeTenantsInParallel(tenants);
+            break;
+            case LAZY:
+                upgradeTenantsLazily(tenants);
+            break;
+            default:
+                for (final FineractPlatformTenant tenant : tenants) {
+                    upgradeTenant(tenant);
+                }
+            break;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.sweepExecutor != null) {
+            this.sweepExecutor.shutdownNow();
+            this.onDemandExecutor.shutdownNow();
+        }
+    }
+
+    private static MigrationMode migrationMode(final String value) {
+        try {
+            return MigrationMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            final List<String> modes = new ArrayList<>();
+            for (final MigrationMode mode : MigrationMode.values()) {
+                modes.add(mode.name().toLowerCase(Locale.ROOT));
+            }
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + MIGRATION_MODE + ", expected one of " + modes, e);
+        }
+    }
+
+    /**
+     * Returns whether requests for the tenant can be served, starting the
+     * upgrade of its database if it is still waiting for the background sweep.
+     */
+    public boolean isTenantReady(final FineractPlatformTenant tenant) {
+        final TenantMigration migration = this.lazyMigrations.get(tenant.getTenantIdentifier());
+        if (migration == null) { return true; }
+
+        final MigrationStatus status = migration.status;
+        if (status == MigrationStatus.MIGRATED) { return true; }
+        if (status == MigrationStatus.PENDING && migration.requested.compareAndSet(false, true)) {
+            try {
+                this.onDemandExecutor.execute(() -> runLazyMigration(migration));
+            } catch (final RejectedExecutionException e) {
+                // shutting down
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the database of the tenant is upgraded, without moving
+     * it ahead of the background sweep. Scheduler jobs and pollers skip the
+     * tenants for which it returns false.
+     */
+    public boolean isTenantMigrated(final FineractPlatformTenant tenant) {
+        final TenantMigration migration = this.lazyMigrations.get(tenant.getTenantIdentifier());
+        return migration == null || migration.status == MigrationStatus.MIGRATED;
+    }
+
+    /**
+     * Runs the action once the database of the tenant is upgraded, straight
+     * away if it already is. The action is dropped if the upgrade fails.
+     */
+    public void whenTenantMigrated(final FineractPlatformTenant tenant, final Runnable action) {
+        final TenantMigration migration = this.lazyMigrations.get(tenant.getTenantIdentifier());
+        if (migration != null) {
+            synchronized (migration) {
+                if (migration.status == MigrationStatus.FAILED) { return; }
+                if (migration.status != MigrationStatus.MIGRATED) {
+                    migration.onMigrated.add(action);
+                    return;
+                }
+            }
+        }
+        action.run();
+    }
+
+    private void upgradeTenantsInParallel(final List<FineractPlatformTenant> tenants) {
+        final ExecutorService executor = Executors.newFixedThreadPool(this.migrationThreads, migrationThreadFactory("tenant-migration-"));
+        try {
+            final Map<String, Future<?>> migrations = new LinkedHashMap<>();
+            for (final FineractPlatformTenant tenant : tenants) {
+                migrations.put(tenant.getTenantIdentifier(), executor.submit(() -> upgradeTenant(tenant)));
+            }
+
+            final List<String> failedTenants = new ArrayList<>();
+            FlywayException firstFailure = null;
+            int completed = 0;
+            for (final Map.Entry<String, Future<?>> migration : migrations.entrySet()) {
                 try {
-                    flyway.migrate();
-                } catch (FlywayException e) {
-                    String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
-                            + connection.getSchemaUsername();
-                    throw new FlywayException(betterMessage, e.getCause());
+                    migration.getValue().get();
+                    LOG.info("Upgraded tenant {} ({} of {})", migration.getKey(), ++completed, migrations.size());
+                } catch (final ExecutionException e) {
+                    LOG.error("Upgrading tenant " + migration.getKey() + " failed (" + ++completed + " of " + migrations.size() + ")",
+                            e.getCause());
+                    failedTenants.add(migration.getKey());
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause() instanceof FlywayException ? (FlywayException) e.getCause()
+                                : new FlywayException(e.getCause().getMessage(), e.getCause());
+                    }
                 }
             }
+            if (firstFailure != null) { throw new FlywayException("Upgrading tenants " + failedTenants + " failed; first failure: "
+                    + firstFailure.getMessage(), firstFailure); }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while upgrading tenant databases", e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private void upgradeTenantsLazily(final List<FineractPlatformTenant> tenants) {
+        this.sweepExecutor = Executors.newFixedThreadPool(this.migrationThreads, migrationThreadFactory("tenant-migration-sweep-"));
+        this.onDemandExecutor = Executors.newCachedThreadPool(migrationThreadFactory("tenant-migration-on-demand-"));
+        for (final FineractPlatformTenant tenant : tenants) {
+            this.lazyMigrations.put(tenant.getTenantIdentifier(), new TenantMigration(tenant));
+        }
+        for (final FineractPlatformTenant tenant : tenants) {
+            final TenantMigration migration = this.lazyMigrations.get(tenant.getTenantIdentifier());
+            this.sweepExecutor.execute(() -> runLazyMigration(migration));
+        }
+        this.sweepExecutor.shutdown();
+    }
+
+    private void runLazyMigration(final TenantMigration migration) {
+        synchronized (migration) {
+            if (migration.status != MigrationStatus.PENDING) { return; }
+            migration.status = MigrationStatus.MIGRATING;
+        }
+
+        final String tenantIdentifier = migration.tenant.getTenantIdentifier();
+        final List<Runnable> actions;
+        try {
+            upgradeTenant(migration.tenant);
+            synchronized (migration) {
+                migration.status = MigrationStatus.MIGRATED;
+                actions = new ArrayList<>(migration.onMigrated);
+                migration.onMigrated.clear();
+            }
+            LOG.info("Upgraded tenant {} ({} of {})", tenantIdentifier, this.completedLazyMigrations.incrementAndGet(),
+                    this.lazyMigrations.size());
+        } catch (final RuntimeException e) {
+            // the tenant stays unavailable on this node until it is restarted
+            synchronized (migration) {
+                migration.status = MigrationStatus.FAILED;
+                migration.onMigrated.clear();
+            }
+            LOG.error("Upgrading tenant " + tenantIdentifier + " failed (" + this.completedLazyMigrations.incrementAndGet() + " of "
+                    + this.lazyMigrations.size() + ")", e);
+            return;
+        }
+
+        for (final Runnable action : actions) {
+            try {
+                action.run();
+            } catch (final RuntimeException e) {
+                LOG.error("Running an action after upgrading tenant " + tenantIdentifier + " failed", e);
+            }
+        }
+    }
+
+    private void upgradeTenant(final FineractPlatformTenant tenant) {
+        final FineractPlatformTenantConnection connection = tenant.getConnection();
+        final long startTime = System.currentTimeMillis();
+        final Flyway flyway = new Flyway();
+        String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(), connection.getSchemaName()) ;
+        DriverDataSource source = new DriverDataSource(driverConfig.getDriverClassName(), connectionProtocol, connection.getSchemaUsername(), connection.getSchemaPassword()) ;
+        flyway.setDataSource(source);
+        flyway.setLocations("sql/migrations/core_db");
+        flyway.setOutOfOrder(true);
+        try {
+            flyway.migrate();
+        } catch (FlywayException e) {
+            String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
+                    + connection.getSchemaUsername();
+            throw new FlywayException(betterMessage, e.getCause());
+        }
+        LOG.debug("Upgraded tenant {} in {} ms", tenant.getTenantIdentifier(), System.currentTimeMillis() - startTime);
+    }
+
+    private static ThreadFactory migrationThreadFactory(final String namePrefix) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, namePrefix + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     /**
      * Initializes, and if required upgrades (using Flyway) the Tenant DB
      * itself.
@@ -115,4 +349,16 @@ public class TenantDatabaseUpgradeService {
         }
         return value;
     }
+
+    private static final class TenantMigration {
+
+        private final FineractPlatformTenant tenant;
+        private final AtomicBoolean requested = new AtomicBoolean();
+        private final List<Runnable> onMigrated = new ArrayList<>();
+        private volatile MigrationStatus status = MigrationStatus.PENDING;
+
+        TenantMigration(final FineractPlatformTenant tenant) {
+            this.tenant = tenant;
+        }
+    }
 }
@@ -34,6 +34,10 @@ public class ThreadLocalContextUtil {
 
     private static final ThreadLocal<String> authTokenContext = new ThreadLocal<>();
 
+    private static final ThreadLocal<Boolean> asyncCommandContext = new ThreadLocal<>();
+
+    private static final ThreadLocal<String> asyncCommandCallbackContext = new ThreadLocal<>();
+
     public static void setTenant(final FineractPlatformTenant tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
         tenantcontext.set(tenant);
@@ -67,4 +71,26 @@ public class ThreadLocalContextUtil {
         return authTokenContext.get();
     }
 
+    /**
+     * Records whether commands of the current request are to be processed
+     * asynchronously, and where to post their results.
+     */
+    public static void setAsyncCommandRequest(final boolean async, final String callbackUrl) {
+        asyncCommandContext.set(async);
+        asyncCommandCallbackContext.set(async ? callbackUrl : null);
+    }
+
+    public static boolean isAsyncCommandRequested() {
+        return Boolean.TRUE.equals(asyncCommandContext.get());
+    }
+
+    public static String getAsyncCommandCallbackUrl() {
+        return asyncCommandCallbackContext.get();
+    }
+
+    public static void clearAsyncCommandRequest() {
+        asyncCommandContext.remove();
+        asyncCommandCallbackContext.remove();
+    }
+
 }
\ No newline at end of file
@@ -18,16 +18,32 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.stereotype.Service;
 
 /**
@@ -37,19 +53,31 @@ import org.springframework.stereotype.Service;
  *
  * {@link ThreadLocalContextUtil} is used to retrieve the
  * {@link FineractPlatformTenant} for the request.
+ *
+ * Pools are kept in a {@link ConcurrentMap} so that looking up an existing pool
+ * does not lock; a pool is created once, on first use, per tenant connection.
+ * Pools can be evicted (and so re-created from the current tenant connection
+ * details on next use) at runtime. Every pool publishes its active, idle and
+ * waiting connection gauges, the connection wait time and the number of borrow
+ * timeouts, tagged with the tenant schema name.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
     private JDBCDriverConfig driverConfig ;
 
     @Autowired
-    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource,
+            final MeterRegistry meterRegistry) {
         this.tenantDataSource = tenantDataSource;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -61,26 +89,67 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         if (tenant != null) {
             final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to
-                // appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenantConnection.getConnectionId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+            // if tenantConnection information available switch to appropriate
+            // datasource for that tenant; the plain get() keeps the common
+            // path free of any locking
+            tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (tenantDataSource == null) {
+                tenantDataSource = this.tenantToDataSourceMap.computeIfAbsent(tenantConnection.getConnectionId(),
+                        connectionId -> createNewDataSourceFor(tenantConnection));
             }
         }
 
         return tenantDataSource;
     }
 
+    /**
+     * Closes and removes the pool of the given tenant connection; the next
+     * request for that tenant creates a new pool with the connection details
+     * it carries. Connections currently borrowed are closed when returned.
+     */
+    @Override
+    public void evictDataSource(final Long connectionId) {
+        final TenantDataSource dataSource = this.tenantToDataSourceMap.remove(connectionId);
+        if (dataSource != null) {
+            logger.info("Evicting connection pool " + dataSource.getPoolName());
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Replaces the pool of the given tenant connection with a new one built
+     * from the given connection details.
+     *
+     * Both pools are tagged with the same tenant, and the meter registry hands
+     * back already registered meters instead of new ones, so the meters of the
+     * old pool are removed before the new pool registers its own; the old pool
+     * itself is only closed once the new one is in place.
+     */
+    @Override
+    public void refreshDataSource(final FineractPlatformTenantConnection tenantConnection) {
+        final List<TenantDataSource> replaced = new ArrayList<>(1);
+        this.tenantToDataSourceMap.compute(tenantConnection.getConnectionId(), (connectionId, oldDataSource) -> {
+            if (oldDataSource != null) {
+                oldDataSource.removeMeters();
+                replaced.add(oldDataSource);
+            }
+            return createNewDataSourceFor(tenantConnection);
+        });
+        for (final TenantDataSource oldDataSource : replaced) {
+            logger.info("Refreshing connection pool " + oldDataSource.getPoolName());
+            oldDataSource.closePool();
+        }
+    }
+
+    @PreDestroy
+    public void closeAllDataSources() {
+        for (final Long connectionId : new ArrayList<>(this.tenantToDataSourceMap.keySet())) {
+            evictDataSource(connectionId);
+        }
+    }
+
     // creates the data source oltp and report databases
-    private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+    private TenantDataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
         // see
         // http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 
@@ -106,21 +175,96 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setAbandonWhenPercentageFull(tenantConnectionObj.getAbandonWhenPercentageFull());
         poolConfiguration.setDefaultAutoCommit(true);
 
-        /**
-         * Vishwas- Do we need to enable the below properties and add
-         * ResetAbandonedTimer for long running batch Jobs?
-         **/
-        // poolConfiguration.setMaxActive(tenant.getMaxActive());
-        // poolConfiguration.setMinIdle(tenant.getMinIdle());
-        // poolConfiguration.setMaxIdle(tenant.getMaxIdle());
-
-        // poolConfiguration.setSuspectTimeout(tenant.getSuspectTimeout());
-        // poolConfiguration.setTimeBetweenEvictionRunsMillis(tenant.getTimeBetweenEvictionRunsMillis());
-        // poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
+        // sizing and eviction settings of tenant_server_connections; columns
+        // left NULL keep the tomcat jdbc pool defaults
+        if (tenantConnectionObj.getMaxActive() > 0) {
+            poolConfiguration.setMaxActive(tenantConnectionObj.getMaxActive());
+        }
+        if (tenantConnectionObj.getMinIdle() > 0) {
+            poolConfiguration.setMinIdle(tenantConnectionObj.getMinIdle());
+        }
+        if (tenantConnectionObj.getMaxIdle() > 0) {
+            poolConfiguration.setMaxIdle(Math.max(tenantConnectionObj.getMaxIdle(), poolConfiguration.getMinIdle()));
+        }
+        if (tenantConnectionObj.getSuspectTimeout() > 0) {
+            poolConfiguration.setSuspectTimeout(tenantConnectionObj.getSuspectTimeout());
+        }
+        if (tenantConnectionObj.getTimeBetweenEvictionRunsMillis() > 0) {
+            poolConfiguration.setTimeBetweenEvictionRunsMillis(tenantConnectionObj.getTimeBetweenEvictionRunsMillis());
+        }
+        if (tenantConnectionObj.getMinEvictableIdleTimeMillis() > 0) {
+            poolConfiguration.setMinEvictableIdleTimeMillis(tenantConnectionObj.getMinEvictableIdleTimeMillis());
+        }
 
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
 
-        return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
+        return new TenantDataSource(new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration), tenantConnectionObj.getSchemaName(),
+                this.meterRegistry);
+    }
+
+    /**
+     * Tomcat jdbc pool of one tenant connection, instrumented with the pool
+     * gauges and the connection borrow metrics.
+     */
+    private static final class TenantDataSource extends DelegatingDataSource {
+
+        private final org.apache.tomcat.jdbc.pool.DataSource pool;
+        private final String tenantSchemaName;
+        private final MeterRegistry meterRegistry;
+        private final List<Meter> meters = new ArrayList<>();
+        private final Timer waitTimer;
+        private final Counter borrowTimeouts;
+
+        TenantDataSource(final org.apache.tomcat.jdbc.pool.DataSource pool, final String tenantSchemaName,
+                final MeterRegistry meterRegistry) {
+            super(pool);
+            this.pool = pool;
+            this.tenantSchemaName = tenantSchemaName;
+            this.meterRegistry = meterRegistry;
+            final Tags tags = Tags.of("tenant", tenantSchemaName);
+            this.meters.add(Gauge.builder("fineract.datasource.connections.active", pool, p -> p.getActive()).tags(tags)
+                    .register(meterRegistry));
+            this.meters.add(Gauge.builder("fineract.datasource.connections.idle", pool, p -> p.getIdle()).tags(tags)
+                    .register(meterRegistry));
+            this.meters.add(Gauge.builder("fineract.datasource.connections.pending", pool, p -> p.getWaitCount()).tags(tags)
+                    .register(meterRegistry));
+            this.waitTimer = Timer.builder("fineract.datasource.connections.wait").tags(tags).register(meterRegistry);
+            this.borrowTimeouts = Counter.builder("fineract.datasource.connections.timeout").tags(tags).register(meterRegistry);
+            this.meters.add(this.waitTimer);
+            this.meters.add(this.borrowTimeouts);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final long start = System.nanoTime();
+            try {
+                return super.getConnection();
+            } catch (final PoolExhaustedException e) {
+                this.borrowTimeouts.increment();
+                throw e;
+            } finally {
+                this.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        String getPoolName() {
+            return this.tenantSchemaName + "_pool";
+        }
+
+        void close() {
+            removeMeters();
+            closePool();
+        }
+
+        void removeMeters() {
+            for (final Meter meter : this.meters) {
+                this.meterRegistry.remove(meter);
+            }
+        }
+
+        void closePool() {
+            this.pool.close();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.data;
+
+import java.io.Serializable;
+
+/**
+ * Immutable data object describing a datatable column and the code its values
+ * come from, if any.
+ */
+public class DatatableColumnData implements Serializable {
+
+    private final String columnName;
+    private final String columnType;
+    private final Long columnLength;
+    private final boolean columnNullable;
+    private final boolean columnPrimaryKey;
+    private final String codeName;
+    private final Integer codeId;
+
+    public DatatableColumnData(final String columnName, final String columnType, final Long columnLength, final boolean columnNullable,
+            final boolean columnPrimaryKey, final String codeName, final Integer codeId) {
+        this.columnName = columnName;
+        this.columnType = columnType;
+        this.columnLength = columnLength;
+        this.columnNullable = columnNullable;
+        this.columnPrimaryKey = columnPrimaryKey;
+        this.codeName = codeName;
+        this.codeId = codeId;
+    }
+
+    public String getColumnName() {
+        return this.columnName;
+    }
+
+    public String getColumnType() {
+        return this.columnType;
+    }
+
+    public Long getColumnLength() {
+        return this.columnLength;
+    }
+
+    public boolean isColumnNullable() {
+        return this.columnNullable;
+    }
+
+    public boolean isColumnPrimaryKey() {
+        return this.columnPrimaryKey;
+    }
+
+    public String getCodeName() {
+        return this.codeName;
+    }
+
+    /**
+     * The code mapped to the column in <code>x_table_column_code_mappings</code>,
+     * used when the column name does not follow the <code>_cv</code> or
+     * <code>_cd</code> naming of code columns.
+     */
+    public Integer getCodeId() {
+        return this.codeId;
+    }
+}
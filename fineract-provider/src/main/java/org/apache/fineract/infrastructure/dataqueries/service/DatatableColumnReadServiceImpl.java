@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.data.DatatableColumnData;
+import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DatatableColumnReadServiceImpl implements DatatableColumnReadService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatatableColumnReadServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    @Cacheable(value = "datatables", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#datatable+'dtc')")
+    public List<DatatableColumnData> retrieveDatatableColumns(final String datatable) {
+
+        final String sql = "select COLUMN_NAME, IS_NULLABLE, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, COLUMN_KEY"
+                + " from INFORMATION_SCHEMA.COLUMNS where TABLE_SCHEMA = schema() and TABLE_NAME = ? order by ORDINAL_POSITION";
+
+        final List<Object[]> columnDefinitions = this.jdbcTemplate.query(sql,
+                (rs, rowNum) -> new Object[] { rs.getString("COLUMN_NAME"), rs.getString("IS_NULLABLE"), rs.getString("DATA_TYPE"),
+                        rs.getLong("CHARACTER_MAXIMUM_LENGTH"), rs.getString("COLUMN_KEY") },
+                datatable);
+        if (columnDefinitions.isEmpty()) { throw new DatatableNotFoundException(datatable); }
+
+        final Map<String, Integer> codeIdsByColumn = new HashMap<>();
+        final Map<String, String> codeNamesByColumn = new HashMap<>();
+        retrieveColumnCodeMappings(datatable, columnDefinitions, codeIdsByColumn, codeNamesByColumn);
+
+        final List<DatatableColumnData> columns = new ArrayList<>(columnDefinitions.size());
+        for (final Object[] columnDefinition : columnDefinitions) {
+            final String columnName = (String) columnDefinition[0];
+            final String columnType = (String) columnDefinition[2];
+            final Long columnLength = (Long) columnDefinition[3];
+            final boolean columnNullable = "YES".equalsIgnoreCase((String) columnDefinition[1]);
+            final boolean columnIsPrimaryKey = "PRI".equalsIgnoreCase((String) columnDefinition[4]);
+
+            String codeName = null;
+            Integer codeId = null;
+            if ("varchar".equalsIgnoreCase(columnType)) {
+                final int codePosition = columnName.indexOf("_cv");
+                if (codePosition > 0) {
+                    codeName = columnName.substring(0, codePosition);
+                }
+            } else if ("int".equalsIgnoreCase(columnType)) {
+                final int codePosition = columnName.indexOf("_cd");
+                if (codePosition > 0) {
+                    codeName = columnName.substring(0, codePosition);
+                }
+            }
+            if (codeName == null) {
+                codeId = codeIdsByColumn.get(columnName);
+                codeName = codeNamesByColumn.get(columnName);
+            }
+
+            columns.add(new DatatableColumnData(columnName, columnType, columnLength, columnNullable, columnIsPrimaryKey, codeName,
+                    codeId));
+        }
+
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Looks up the codes mapped to the columns of the datatable under the
+     * constraint approach in one query.
+     */
+    private void retrieveColumnCodeMappings(final String datatable, final List<Object[]> columnDefinitions,
+            final Map<String, Integer> codeIdsByColumn, final Map<String, String> codeNamesByColumn) {
+
+        final String aliasPrefix = datatable.toLowerCase().replaceAll("\\s", "_") + "_";
+        final Map<String, String> columnsByAlias = new HashMap<>();
+        final StringBuilder placeholders = new StringBuilder();
+        for (final Object[] columnDefinition : columnDefinitions) {
+            final String columnName = (String) columnDefinition[0];
+            columnsByAlias.put((aliasPrefix + columnName).toLowerCase(), columnName);
+            placeholders.append(placeholders.length() == 0 ? "?" : ", ?");
+        }
+
+        final String sql = "select xcc.column_alias_name, mc.id, mc.code_name from m_code mc"
+                + " join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name in (" + placeholders + ")";
+
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            final String columnName = columnsByAlias.get(rs.getString("column_alias_name").toLowerCase());
+            if (columnName != null) {
+                codeIdsByColumn.put(columnName, rs.getInt("id"));
+                codeNamesByColumn.put(columnName, rs.getString("code_name"));
+            }
+        }, columnsByAlias.keySet().toArray());
+    }
+}
@@ -23,11 +23,11 @@ import java.util.List;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.dataqueries.data.DatatableColumnData;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
-import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.slf4j.Logger;
@@ -44,12 +44,14 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
+    private final DatatableColumnReadService datatableColumnReadService;
     private final static Logger logger = LoggerFactory.getLogger(GenericDataServiceImpl.class);
 
     @Autowired
-    public GenericDataServiceImpl(final RoutingDataSource dataSource) {
+    public GenericDataServiceImpl(final RoutingDataSource dataSource, final DatatableColumnReadService datatableColumnReadService) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.datatableColumnReadService = datatableColumnReadService;
 
     }
 
@@ -199,53 +201,22 @@ public class GenericDataServiceImpl implements GenericDataService {
 
         logger.debug("::3 Was inside the fill ResultSetColumnHeader");
 
-        final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
+        final List<DatatableColumnData> columns = this.datatableColumnReadService.retrieveDatatableColumns(datatable);
 
-        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
-
-        columnDefinitions.beforeFirst();
-        while (columnDefinitions.next()) {
-            final String columnName = columnDefinitions.getString("COLUMN_NAME");
-            final String isNullable = columnDefinitions.getString("IS_NULLABLE");
-            final String isPrimaryKey = columnDefinitions.getString("COLUMN_KEY");
-            final String columnType = columnDefinitions.getString("DATA_TYPE");
-            final Long columnLength = columnDefinitions.getLong("CHARACTER_MAXIMUM_LENGTH");
-
-            final boolean columnNullable = "YES".equalsIgnoreCase(isNullable);
-            final boolean columnIsPrimaryKey = "PRI".equalsIgnoreCase(isPrimaryKey);
-
-            List<ResultsetColumnValueData> columnValues = new ArrayList<>();
-            String codeName = null;
-            if ("varchar".equalsIgnoreCase(columnType)) {
-
-                final int codePosition = columnName.indexOf("_cv");
-                if (codePosition > 0) {
-                    codeName = columnName.substring(0, codePosition);
-
-                    columnValues = retreiveColumnValues(codeName);
-                }
-
-            } else if ("int".equalsIgnoreCase(columnType)) {
-
-                final int codePosition = columnName.indexOf("_cd");
-                if (codePosition > 0) {
-                    codeName = columnName.substring(0, codePosition);
-                    columnValues = retreiveColumnValues(codeName);
-                }
-            }
-            if (codeName == null) {
-                final SqlRowSet rsValues = getDatatableCodeData(datatable, columnName);
-                Integer codeId = null;
-                while (rsValues.next()) {
-                    codeId = rsValues.getInt("id");
-                    codeName = rsValues.getString("code_name");
-                }
-                columnValues = retreiveColumnValues(codeId);
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columns.size());
+        for (final DatatableColumnData column : columns) {
 
+            final List<ResultsetColumnValueData> columnValues;
+            if (column.getCodeId() != null) {
+                columnValues = retreiveColumnValues(column.getCodeId());
+            } else if (column.getCodeName() != null) {
+                columnValues = retreiveColumnValues(column.getCodeName());
+            } else {
+                columnValues = new ArrayList<>();
             }
 
-            final ResultsetColumnHeaderData rsch = ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable,
-                    columnIsPrimaryKey, columnValues, codeName);
+            final ResultsetColumnHeaderData rsch = ResultsetColumnHeaderData.detailed(column.getColumnName(), column.getColumnType(),
+                    column.getColumnLength(), column.isColumnNullable(), column.isColumnPrimaryKey(), columnValues, column.getCodeName());
 
             columnHeaders.add(rsch);
         }
@@ -259,61 +230,19 @@ public class GenericDataServiceImpl implements GenericDataService {
      */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
-        final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
-
         final String sql = "select v.id, v.code_score, v.code_value from m_code m " + " join m_code_value v on v.code_id = m.id "
-                + " where m.code_name = '" + codeName + "' order by v.order_position, v.id";
-
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+                + " where m.code_name = ? order by v.order_position, v.id";
 
-        rsValues.beforeFirst();
-        while (rsValues.next()) {
-            final Integer id = rsValues.getInt("id");
-            final String codeValue = rsValues.getString("code_value");
-            final Integer score = rsValues.getInt("code_score");
-
-            columnValues.add(new ResultsetColumnValueData(id, codeValue, score));
-        }
-
-        return columnValues;
+        return this.jdbcTemplate.query(sql,
+                (rs, rowNum) -> new ResultsetColumnValueData(rs.getInt("id"), rs.getString("code_value"), rs.getInt("code_score")),
+                codeName);
     }
 
     private List<ResultsetColumnValueData> retreiveColumnValues(final Integer codeId) {
 
-        final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
-        if (codeId != null) {
-            final String sql = "select v.id, v.code_value from m_code_value v where v.code_id =" + codeId
-                    + " order by v.order_position, v.id";
-            final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
-            rsValues.beforeFirst();
-            while (rsValues.next()) {
-                final Integer id = rsValues.getInt("id");
-                final String codeValue = rsValues.getString("code_value");
-                columnValues.add(new ResultsetColumnValueData(id, codeValue));
-            }
-        }
-
-        return columnValues;
-    }
-
-    private SqlRowSet getDatatableMetaData(final String datatable) {
-
-        final String sql = "select COLUMN_NAME, IS_NULLABLE, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, COLUMN_KEY"
-                + " from INFORMATION_SCHEMA.COLUMNS " + " where TABLE_SCHEMA = schema() and TABLE_NAME = '" + datatable
-                + "'order by ORDINAL_POSITION";
-
-        final SqlRowSet columnDefinitions = this.jdbcTemplate.queryForRowSet(sql);
-        if (columnDefinitions.next()) { return columnDefinitions; }
-
-        throw new DatatableNotFoundException(datatable);
-    }
-
-    private SqlRowSet getDatatableCodeData(final String datatable, final String columnName) {
-
-        final String sql = "select mc.id,mc.code_name from m_code mc join x_table_column_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name='"
-                + datatable.toLowerCase().replaceAll("\\s", "_") + "_" + columnName + "'";
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+        final String sql = "select v.id, v.code_value from m_code_value v where v.code_id = ? order by v.order_position, v.id";
 
-        return rsValues;
+        return this.jdbcTemplate.query(sql, (rs, rowNum) -> new ResultsetColumnValueData(rs.getInt("id"), rs.getString("code_value")),
+                codeId);
     }
 }
\ No newline at end of file
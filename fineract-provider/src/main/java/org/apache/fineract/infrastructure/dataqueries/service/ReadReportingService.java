@@ -30,7 +30,8 @@ import org.apache.fineract.useradministration.domain.AppUser;
 
 public interface ReadReportingService {
 
-    StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
+    StreamingOutput retrieveReportStream(String name, String type, Map<String, String> extractedQueryParams,
+            boolean isSelfServiceUserReport, boolean exportJson, Integer rowLimit);
 
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams, boolean isSelfServiceUserReport);
 
@@ -22,14 +22,14 @@ import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -58,8 +58,10 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
@@ -68,6 +70,7 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
     private final static Logger logger = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
     private final static String REPORT_NAME_REGEX_PATTERN = "^[a-zA-Z][a-zA-Z0-9\\-_\\s]{0,48}[a-zA-Z0-9]$";
+    private final static int REPORT_FETCH_SIZE = 1000;
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
@@ -90,30 +93,23 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
-    public StreamingOutput retrieveReportCSV(final String name, final String type,
-            final Map<String, String> queryParams, final boolean isSelfServiceUserReport) {
+    public StreamingOutput retrieveReportStream(final String name, final String type, final Map<String, String> queryParams,
+            final boolean isSelfServiceUserReport, final boolean exportJson, final Integer rowLimit) {
 
         return new StreamingOutput() {
 
             @Override
             public void write(final OutputStream out) {
                 try {
+                    final long startTime = System.currentTimeMillis();
+                    logger.info("STARTING REPORT: " + name + "   Type: " + type);
 
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams, isSelfServiceUserReport);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
-
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
+                    final String sql = getSQLtoRun(name, type, queryParams, isSelfServiceUserReport);
+                    final ResultsetStreamWriter writer = exportJson ? ResultsetStreamWriter.json(out) : ResultsetStreamWriter.csv(out);
+                    streamResultset(sql, rowLimit, writer);
 
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
+                    final long elapsed = System.currentTimeMillis() - startTime;
+                    logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Elapsed Time: " + elapsed);
                 } catch (final Exception e) {
                     throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
                 }
@@ -122,53 +118,38 @@ public class ReadReportingServiceImpl implements ReadReportingService {
 
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
-
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
-
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
+    /**
+     * Runs the report sql on a forward-only cursor and hands the rows to the
+     * writer as they are fetched. If the client goes away while the report is
+     * written, the query is cancelled instead of reading the remaining rows.
+     * <p>
+     * The fetch size is only a hint. The Drizzle driver configured by default
+     * ignores it and reads the whole result into memory on executeQuery, so
+     * with it the rows are not held twice and reach the client while being
+     * written, but the driver's copy is only bounded by the row limit. Drivers
+     * with cursor fetching stream the rows in chunks of the fetch size.
+     */
+    private void streamResultset(final String sql, final Integer rowLimit, final ResultsetStreamWriter writer) {
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            final Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ResultSet rs = null;
+            try {
+                statement.setFetchSize(REPORT_FETCH_SIZE);
+                if (rowLimit != null && rowLimit > 0) {
+                    statement.setMaxRows(rowLimit);
                 }
+                rs = statement.executeQuery(sql);
+                final long rowCount = writer.write(rs);
+                logger.info("NO. of Rows: " + rowCount);
+            } catch (final IOException e) {
+                logger.info("Client disconnected while streaming report, cancelling query: " + e.getMessage());
+                statement.cancel();
+            } finally {
+                JdbcUtils.closeResultSet(rs);
+                JdbcUtils.closeStatement(statement);
             }
-            writer.append('\n');
-        }
-
-        return writer;
+            return null;
+        });
     }
 
     @Override
@@ -70,6 +70,7 @@ import org.joda.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -211,6 +212,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void registerDatatable(final String dataTableName, final String applicationTableName) {
 
         Integer category = DataTableApiConstant.CATEGORY_DEFAULT;
@@ -222,6 +224,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void registerDatatable(final JsonCommand command) {
 
         final String applicationTableName = this.getTableName(command.getUrl());
@@ -237,6 +240,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void registerDatatable(final JsonCommand command, final String permissionSql) {
         final String applicationTableName = this.getTableName(command.getUrl());
         final String dataTableName = this.getDataTableName(command.getUrl());
@@ -347,6 +351,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void deregisterDatatable(final String datatable) {
         validateDatatableName(datatable);
         final String permissionList = "('CREATE_" + datatable + "', 'CREATE_" + datatable + "_CHECKER', 'READ_" + datatable + "', 'UPDATE_"
@@ -549,6 +554,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public CommandProcessingResult createDatatable(final JsonCommand command) {
 
         String datatableName = null;
@@ -803,12 +809,10 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         final String datatableAlias = datatableName.toLowerCase().replaceAll("\\s", "_");
         final String name = (column.has("name")) ? column.get("name").getAsString() : null;
         //sqlBuilder = sqlBuilder.append(", DROP COLUMN `" + name + "`");
-        final StringBuilder findFKSql = new StringBuilder();
-        findFKSql.append("SELECT count(*)").append("FROM information_schema.TABLE_CONSTRAINTS i")
-                .append(" WHERE i.CONSTRAINT_TYPE = 'FOREIGN KEY'").append(" AND i.TABLE_SCHEMA = DATABASE()")
-                .append(" AND i.TABLE_NAME = '").append(datatableName).append("' AND i.CONSTRAINT_NAME = 'fk_").append(datatableAlias)
-                .append("_").append(name).append("' ");
-        final int count = this.jdbcTemplate.queryForObject(findFKSql.toString(), Integer.class);
+        final String findFKSql = "SELECT count(*) FROM information_schema.TABLE_CONSTRAINTS i"
+                + " WHERE i.CONSTRAINT_TYPE = 'FOREIGN KEY' AND i.TABLE_SCHEMA = DATABASE() AND i.TABLE_NAME = ? AND i.CONSTRAINT_NAME = ?";
+        final int count = this.jdbcTemplate.queryForObject(findFKSql, Integer.class, datatableName,
+                "fk_" + datatableAlias + "_" + name);
         if (count > 0) {
             codeMappings.add(datatableAlias + "_" + name);
             constrainBuilder.append(", DROP FOREIGN KEY `fk_").append(datatableAlias).append("_").append(name).append("` ");
@@ -869,6 +873,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void updateDatatable(final String datatableName, final JsonCommand command) {
 
         try {
@@ -1045,6 +1050,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     @Transactional
     @Override
+    @CacheEvict(value = "datatables", allEntries = true)
     public void deleteDatatable(final String datatableName) {
 
         try {
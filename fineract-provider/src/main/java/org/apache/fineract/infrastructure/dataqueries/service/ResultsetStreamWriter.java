@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a forward-only {@link ResultSet} straight to an {@link OutputStream},
+ * one row at a time, so that the memory used does not depend on the size of
+ * the report.
+ */
+public abstract class ResultsetStreamWriter {
+
+    protected final Writer writer;
+
+    protected ResultsetStreamWriter(final OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public static ResultsetStreamWriter csv(final OutputStream out) {
+        return new CsvResultsetStreamWriter(out);
+    }
+
+    /**
+     * Writes the same structure as a serialized {@link GenericResultsetData}.
+     */
+    public static ResultsetStreamWriter json(final OutputStream out) {
+        return new JsonResultsetStreamWriter(out);
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public long write(final ResultSet rs) throws SQLException, IOException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(rsmd.getColumnCount());
+        for (int i = 0; i < rsmd.getColumnCount(); i++) {
+            columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnName(i + 1), rsmd.getColumnTypeName(i + 1)));
+        }
+
+        writeHeader(columnHeaders);
+        long rowCount = 0;
+        while (rs.next()) {
+            writeRow(rs, columnHeaders);
+            rowCount++;
+        }
+        writeFooter();
+        this.writer.flush();
+        return rowCount;
+    }
+
+    protected abstract void writeHeader(List<ResultsetColumnHeaderData> columnHeaders) throws IOException;
+
+    protected abstract void writeRow(ResultSet rs, List<ResultsetColumnHeaderData> columnHeaders) throws SQLException, IOException;
+
+    protected abstract void writeFooter() throws IOException;
+
+    private static final class CsvResultsetStreamWriter extends ResultsetStreamWriter {
+
+        private static final String DOUBLE_QUOTE = "\"";
+        private static final String TWO_DOUBLE_QUOTES = DOUBLE_QUOTE + DOUBLE_QUOTE;
+
+        CsvResultsetStreamWriter(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        protected void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            for (int i = 0; i < columnHeaders.size(); i++) {
+                if (i > 0) {
+                    this.writer.write(',');
+                }
+                this.writer.write('"' + columnHeaders.get(i).getColumnName() + '"');
+            }
+            this.writer.write('\n');
+        }
+
+        @Override
+        protected void writeRow(final ResultSet rs, final List<ResultsetColumnHeaderData> columnHeaders) throws SQLException, IOException {
+            for (int i = 0; i < columnHeaders.size(); i++) {
+                if (i > 0) {
+                    this.writer.write(',');
+                }
+                final String currVal = rs.getString(i + 1);
+                if (currVal != null) {
+                    final String currColType = columnHeaders.get(i).getColumnType();
+                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                        this.writer.write(currVal);
+                    } else {
+                        this.writer.write('"' + currVal.replace(DOUBLE_QUOTE, TWO_DOUBLE_QUOTES) + '"');
+                    }
+                }
+            }
+            this.writer.write('\n');
+        }
+
+        @Override
+        protected void writeFooter() {
+            // CSV has no footer
+        }
+    }
+
+    private static final class JsonResultsetStreamWriter extends ResultsetStreamWriter {
+
+        private final JsonWriter jsonWriter;
+
+        JsonResultsetStreamWriter(final OutputStream out) {
+            super(out);
+            this.jsonWriter = new JsonWriter(this.writer);
+        }
+
+        @Override
+        protected void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+            this.jsonWriter.beginObject();
+            this.jsonWriter.name("columnHeaders");
+            this.jsonWriter.jsonValue(new Gson().toJson(columnHeaders));
+            this.jsonWriter.name("data");
+            this.jsonWriter.beginArray();
+        }
+
+        @Override
+        protected void writeRow(final ResultSet rs, final List<ResultsetColumnHeaderData> columnHeaders) throws SQLException, IOException {
+            this.jsonWriter.beginObject();
+            this.jsonWriter.name("row");
+            this.jsonWriter.beginArray();
+            for (int i = 0; i < columnHeaders.size(); i++) {
+                this.jsonWriter.value(rs.getString(i + 1));
+            }
+            this.jsonWriter.endArray();
+            this.jsonWriter.endObject();
+        }
+
+        @Override
+        protected void writeFooter() throws IOException {
+            this.jsonWriter.endArray();
+            this.jsonWriter.endObject();
+            this.jsonWriter.flush();
+        }
+    }
+}
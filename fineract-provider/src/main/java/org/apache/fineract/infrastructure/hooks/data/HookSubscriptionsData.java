@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The active hooks of a tenant, indexed by the entity and action they listen
+ * to.
+ */
+public class HookSubscriptionsData implements Serializable {
+
+    private final Map<String, List<Long>> hookIdsByEvent;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private HookSubscriptionsData(final Map<String, List<Long>> hookIdsByEvent) {
+        this.hookIdsByEvent = hookIdsByEvent;
+    }
+
+    public boolean hasHooksListeningTo(final String entityName, final String actionName) {
+        return this.hookIdsByEvent.containsKey(eventKey(entityName, actionName));
+    }
+
+    public List<Long> hookIdsListeningTo(final String entityName, final String actionName) {
+        final List<Long> hookIds = this.hookIdsByEvent.get(eventKey(entityName, actionName));
+        return hookIds == null ? Collections.<Long> emptyList() : hookIds;
+    }
+
+    private static String eventKey(final String entityName, final String actionName) {
+        return entityName + ":" + actionName;
+    }
+
+    public static class Builder {
+
+        private final Map<String, List<Long>> hookIdsByEvent = new HashMap<>();
+
+        public Builder withSubscription(final Long hookId, final String entityName, final String actionName) {
+            final String key = eventKey(entityName, actionName);
+            List<Long> hookIds = this.hookIdsByEvent.get(key);
+            if (hookIds == null) {
+                hookIds = new ArrayList<>();
+                this.hookIdsByEvent.put(key, hookIds);
+            }
+            if (!hookIds.contains(hookId)) {
+                hookIds.add(hookId);
+            }
+            return this;
+        }
+
+        public HookSubscriptionsData build() {
+            final Map<String, List<Long>> hookIdsByEvent = new HashMap<>();
+            for (final Map.Entry<String, List<Long>> entry : this.hookIdsByEvent.entrySet()) {
+                hookIdsByEvent.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+            return new HookSubscriptionsData(Collections.unmodifiableMap(hookIdsByEvent));
+        }
+    }
+}
@@ -21,30 +21,27 @@ package org.apache.fineract.infrastructure.hooks.listener;
 import java.util.List;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
-import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
-import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class FineractHookListener implements HookListener {
 
-    private final HookProcessorProvider hookProcessorProvider;
     private final HookReadPlatformService hookReadPlatformService;
+    private final HookDeliveryService hookDeliveryService;
     private final TenantDetailsService tenantDetailsService;
 
     @Autowired
-    public FineractHookListener(final HookProcessorProvider hookProcessorProvider,
-            final HookReadPlatformService hookReadPlatformService,
+    public FineractHookListener(final HookReadPlatformService hookReadPlatformService,
+            final HookDeliveryService hookDeliveryService,
             final TenantDetailsService tenantDetailsService) {
         this.hookReadPlatformService = hookReadPlatformService;
-        this.hookProcessorProvider = hookProcessorProvider;
+        this.hookDeliveryService = hookDeliveryService;
         this.tenantDetailsService = tenantDetailsService;
     }
 
@@ -52,28 +49,24 @@ public class FineractHookListener implements HookListener {
     public void onApplicationEvent(final HookEvent event) {
 
         final String tenantIdentifier = event.getTenantIdentifier();
-        final FineractPlatformTenant tenant = this.tenantDetailsService
-                .loadTenantById(tenantIdentifier);
-        ThreadLocalContextUtil.setTenant(tenant);
-
-        final AppUser appUser = event.getAppUser();
-        final String authToken = event.getAuthToken();
+        final FineractPlatformTenant currentTenant = ThreadLocalContextUtil.getTenant();
+        if (currentTenant == null
+                || !currentTenant.getTenantIdentifier().equals(tenantIdentifier)) {
+            final FineractPlatformTenant tenant = this.tenantDetailsService
+                    .loadTenantById(tenantIdentifier);
+            ThreadLocalContextUtil.setTenant(tenant);
+        }
 
         final HookEventSource hookEventSource = event.getSource();
         final String entityName = hookEventSource.getEntityName();
         final String actionName = hookEventSource.getActionName();
-        final String payload = event.getPayload();
 
-        final List<Hook> hooks = this.hookReadPlatformService
-                .retrieveHooksByEvent(hookEventSource.getEntityName(),
-                        hookEventSource.getActionName());
+        final List<Long> hookIds = this.hookReadPlatformService
+                .retrieveHookSubscriptions()
+                .hookIdsListeningTo(entityName, actionName);
 
-        for (final Hook hook : hooks) {
-            final HookProcessor processor = this.hookProcessorProvider
-                    .getProcessor(hook);
-            processor.process(hook, appUser, payload, entityName, actionName,
-                    tenantIdentifier, authToken);
-        }
+        this.hookDeliveryService.enqueue(entityName, actionName, hookIds,
+                event.getPayload(), event.getAppUser(), event.getAuthToken());
     }
 
 }
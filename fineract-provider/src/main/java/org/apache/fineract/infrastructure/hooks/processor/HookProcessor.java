@@ -23,6 +23,10 @@ import org.apache.fineract.useradministration.domain.AppUser;
 
 public interface HookProcessor {
 
+    /**
+     * Delivers the event to the hook endpoint, returning once it has been
+     * accepted and throwing if the delivery failed.
+     */
     void process(Hook hook, AppUser appUser, String payload, String entityName,
             String actionName, String tenantIdentifier, String authToken);
 
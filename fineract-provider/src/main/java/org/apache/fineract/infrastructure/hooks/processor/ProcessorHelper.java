@@ -22,6 +22,7 @@ import com.squareup.okhttp.OkHttpClient;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
@@ -41,6 +42,9 @@ public class ProcessorHelper {
     private final static Logger logger = LoggerFactory
             .getLogger(ProcessorHelper.class);
 
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+
     @SuppressWarnings("null")
     public static OkHttpClient configureClient(final OkHttpClient client) {
         final TrustManager[] certs = new TrustManager[] { new X509TrustManager() {
@@ -86,6 +90,8 @@ public class ProcessorHelper {
 
     public static OkHttpClient createClient() {
         final OkHttpClient client = new OkHttpClient();
+        client.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        client.setReadTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
         return configureClient(client);
     }
 
@@ -106,6 +112,10 @@ public class ProcessorHelper {
         };
     }
 
+    public static void logResponse(final String url, final Response response) {
+        logger.info("URL : " + url + "\tStatus : " + response.getStatus());
+    }
+
     public static WebHookService createWebHookService(final String url) {
 
         final OkHttpClient client = ProcessorHelper.createClient();
@@ -37,7 +37,7 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
+import retrofit.client.Response;
 
 @Service
 public class TwilioHookProcessor implements HookProcessor {
@@ -79,10 +79,6 @@ public class TwilioHookProcessor implements HookProcessor {
         final WebHookService service = ProcessorHelper
                 .createWebHookService(smsProviderData.getUrl());
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = ProcessorHelper
-                .createCallback(smsProviderData.getUrl());
-
         String apiKey = this.hookConfigurationRepository
                 .findOneByHookIdAndFieldName(hook.getId(), apiKeyName);
         if (apiKey == null) {
@@ -108,8 +104,9 @@ public class TwilioHookProcessor implements HookProcessor {
             } else {
                 json = new JsonParser().parse(payload).getAsJsonObject();
             }
-            service.sendSmsBridgeRequest(entityName, actionName,
-                    tenantIdentifier, apiKey, json, callback);
+            final Response response = service.sendSmsBridgeRequest(
+                    entityName, actionName, tenantIdentifier, apiKey, json);
+            ProcessorHelper.logResponse(smsProviderData.getUrl(), response);
         }
 
     }
@@ -31,7 +31,7 @@ import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.stereotype.Service;
-import retrofit.Callback;
+import retrofit.client.Response;
 
 @Service
 public class WebHookProcessor implements HookProcessor {
@@ -73,21 +73,20 @@ public class WebHookProcessor implements HookProcessor {
         final WebHookService service = ProcessorHelper
                 .createWebHookService(url);
 
-        @SuppressWarnings("rawtypes")
-        final Callback callback = ProcessorHelper.createCallback(url);
-
+        final Response response;
         if (contentType.equalsIgnoreCase("json")
                 || contentType.contains("json")) {
             final JsonObject json = new JsonParser().parse(payload)
                     .getAsJsonObject();
-            service.sendJsonRequest(entityName, actionName, tenantIdentifier,
-                    fineractEndpointUrl, json, callback);
+            response = service.sendJsonRequest(entityName, actionName,
+                    tenantIdentifier, fineractEndpointUrl, json);
         } else {
             Map<String, String> map = new HashMap<>();
             map = new Gson().fromJson(payload, map.getClass());
-            service.sendFormRequest(entityName, actionName, tenantIdentifier,
-                    fineractEndpointUrl, map, callback);
+            response = service.sendFormRequest(entityName, actionName,
+                    tenantIdentifier, fineractEndpointUrl, map);
         }
+        ProcessorHelper.logResponse(url, response);
 
     }
 
@@ -0,0 +1,452 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.domain.HookOutboxStatus;
+import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessor;
+import org.apache.fineract.infrastructure.hooks.processor.HookProcessorProvider;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers hook events from the <code>m_hook_outbox</code> table on a bounded
+ * pool of workers.
+ *
+ * Each hook endpoint is drained by at most one worker at a time, in batches of
+ * events claimed in the order they were raised. A failed delivery is retried
+ * with an exponentially growing delay and holds back the later events of the
+ * same endpoint until it succeeds or runs out of attempts. Events that could
+ * not be handed to a worker, or that were left behind by a restart or by
+ * another node, are picked up by a periodic poll. Events that ran out of
+ * attempts are purged once they are older than the retention period.
+ */
+@Service
+public class HookDeliveryServiceImpl implements HookDeliveryService {
+
+    private final static Logger logger = LoggerFactory.getLogger(HookDeliveryServiceImpl.class);
+
+    public final static String NUMBER_OF_WORKERS = "fineract.hook.delivery.workers";
+    public final static String BATCH_SIZE = "fineract.hook.delivery.batch.size";
+    public final static String FAILED_RETENTION_DAYS = "fineract.hook.delivery.failed.retention.days";
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long INITIAL_RETRY_DELAY_SECONDS = 30;
+    private static final long MAX_RETRY_DELAY_SECONDS = 6 * 60 * 60;
+    private static final long CLAIM_SECONDS = 5 * 60;
+    private static final long POLL_INTERVAL_SECONDS = 30;
+    private static final long PURGE_INTERVAL_SECONDS = 60 * 60;
+    private static final int PURGE_CHUNK_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String INSERT_SQL = "insert into m_hook_outbox (hook_id, entity_name, action_name, payload, appuser_id, "
+            + "status_enum, attempts, next_attempt_time, created_date) values (?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HookRepository hookRepository;
+    private final AppUserRepository appUserRepository;
+    private final HookProcessorProvider hookProcessorProvider;
+    private final TenantDetailsService tenantDetailsService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationContext applicationContext;
+    private final String nodeId = UUID.randomUUID().toString();
+    /**
+     * Endpoints handed to a worker, mapped to whether new events arrived since
+     * the worker last looked for them.
+     */
+    private final Map<String, Boolean> scheduledEndpoints = new ConcurrentHashMap<>();
+    /**
+     * The latest authentication token seen per endpoint, only ever kept in
+     * memory.
+     */
+    private final Map<String, String> authTokens = new ConcurrentHashMap<>();
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private ThreadPoolExecutor workers;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "hook-delivery-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MeterRegistry meterRegistry;
+
+    @Value("${" + NUMBER_OF_WORKERS + ":4}")
+    private int numberOfWorkers;
+
+    @Value("${" + BATCH_SIZE + ":50}")
+    private int batchSize;
+
+    /**
+     * Days events that ran out of attempts are kept for inspection after
+     * their last attempt, they are kept forever if it is not positive.
+     */
+    @Value("${" + FAILED_RETENTION_DAYS + ":30}")
+    private int failedRetentionDays;
+
+    @Autowired
+    public HookDeliveryServiceImpl(final RoutingDataSource dataSource, final HookRepository hookRepository,
+            final AppUserRepository appUserRepository, final HookProcessorProvider hookProcessorProvider,
+            final TenantDetailsService tenantDetailsService, final TenantDatabaseUpgradeService tenantDatabaseUpgradeService,
+            final TransactionTemplate transactionTemplate, final ApplicationContext applicationContext) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.hookRepository = hookRepository;
+        this.appUserRepository = appUserRepository;
+        this.hookProcessorProvider = hookProcessorProvider;
+        this.tenantDetailsService = tenantDetailsService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationContext = applicationContext;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.meterRegistry = this.applicationContext.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        this.batchSize = Math.max(1, this.batchSize);
+        final int poolSize = Math.max(1, this.numberOfWorkers);
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), r -> {
+                    final Thread thread = new Thread(r, "hook-delivery-worker-" + this.workerCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.poller.scheduleWithFixedDelay(this::pollPendingEvents, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (this.failedRetentionDays > 0) {
+            this.poller.scheduleWithFixedDelay(this::purgeFailedEvents, PURGE_INTERVAL_SECONDS, PURGE_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.poller.shutdownNow();
+        if (this.workers != null) {
+            this.workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public void enqueue(final String entityName, final String actionName, final List<Long> hookIds, final String payload,
+            final AppUser appUser, final String authToken) {
+        if (hookIds.isEmpty()) { return; }
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Date now = new Date();
+        final Long appUserId = appUser == null ? null : appUser.getId();
+        final List<Object[]> rows = new ArrayList<>(hookIds.size());
+        for (final Long hookId : hookIds) {
+            rows.add(new Object[] { hookId, entityName, actionName, payload, appUserId, HookOutboxStatus.PENDING.getValue(), now, now });
+            if (authToken != null) {
+                this.authTokens.put(endpointKey(tenant, hookId), authToken);
+            }
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    dispatch(tenant, hookIds);
+                }
+            });
+        } else {
+            dispatch(tenant, hookIds);
+        }
+    }
+
+    private void dispatch(final FineractPlatformTenant tenant, final List<Long> hookIds) {
+        for (final Long hookId : hookIds) {
+            dispatch(tenant, hookId);
+        }
+    }
+
+    private void dispatch(final FineractPlatformTenant tenant, final Long hookId) {
+        final String endpointKey = endpointKey(tenant, hookId);
+        // a worker already draining the endpoint looks again before it stops
+        if (this.scheduledEndpoints.put(endpointKey, Boolean.TRUE) != null) { return; }
+
+        try {
+            this.workers.execute(() -> deliverPendingEvents(tenant, hookId, endpointKey));
+        } catch (final RejectedExecutionException e) {
+            // workers busy or shutting down, the events stay pending for the poll
+            this.scheduledEndpoints.remove(endpointKey);
+            logger.warn("Hook delivery queue is full, deferring events of hook " + hookId + " of tenant "
+                    + tenant.getTenantIdentifier());
+        }
+    }
+
+    private void deliverPendingEvents(final FineractPlatformTenant tenant, final Long hookId, final String endpointKey) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            boolean moreEvents;
+            do {
+                this.scheduledEndpoints.put(endpointKey, Boolean.FALSE);
+                moreEvents = deliverBatch(tenant, hookId, endpointKey);
+            } while (moreEvents || !this.scheduledEndpoints.remove(endpointKey, Boolean.FALSE));
+        } catch (final RuntimeException e) {
+            this.scheduledEndpoints.remove(endpointKey);
+            logger.error("Delivering events of hook " + hookId + " of tenant " + tenant.getTenantIdentifier() + " failed", e);
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    /**
+     * Claims the next batch of due events of the hook and delivers them in
+     * order, stopping at the first failure.
+     *
+     * @return true if the batch was full and delivered, so more events may be
+     *         due
+     */
+    private boolean deliverBatch(final FineractPlatformTenant tenant, final Long hookId, final String endpointKey) {
+        final List<OutboxEvent> events = claimDueEvents(hookId);
+        if (events.isEmpty()) { return false; }
+
+        final Hook hook = this.transactionTemplate.execute(status -> this.hookRepository.findById(hookId).orElse(null));
+        final HookProcessor processor = hook == null ? null : this.hookProcessorProvider.getProcessor(hook);
+        if (processor == null) {
+            logger.warn("Discarding " + events.size() + " events of hook " + hookId + " which has no processor");
+            for (final OutboxEvent event : events) {
+                this.jdbcTemplate.update("delete from m_hook_outbox where id = ?", event.id);
+            }
+            return events.size() == this.batchSize;
+        }
+
+        final String authToken = this.authTokens.get(endpointKey);
+        final Map<Long, AppUser> appUsers = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            final OutboxEvent event = events.get(i);
+            final long startTime = System.nanoTime();
+            try {
+                processor.process(hook, appUser(appUsers, event.appUserId), event.payload, event.entityName, event.actionName,
+                        tenant.getTenantIdentifier(), authToken);
+                recordDelivery(tenant, hook, "success", startTime);
+                this.jdbcTemplate.update("delete from m_hook_outbox where id = ?", event.id);
+            } catch (final RuntimeException e) {
+                recordDelivery(tenant, hook, "failure", startTime);
+                retryLater(hookId, event, e);
+                releaseEvents(events.subList(i + 1, events.size()));
+                return false;
+            }
+        }
+        return events.size() == this.batchSize;
+    }
+
+    /**
+     * Leases the oldest due events of the hook to this node. Events behind one
+     * that is waiting for a retry, or leased to another node, are not due so
+     * an endpoint receives its events in order.
+     */
+    private List<OutboxEvent> claimDueEvents(final Long hookId) {
+        final Date now = new Date();
+        final Date leaseExpiry = new Date(now.getTime() + TimeUnit.SECONDS.toMillis(CLAIM_SECONDS));
+        final Integer pending = HookOutboxStatus.PENDING.getValue();
+
+        final Integer claimed = this.transactionTemplate.execute(status -> {
+            // serializes claims of the same endpoint across nodes
+            final List<Long> lockedHook = this.jdbcTemplate.queryForList("select id from m_hook where id = ? for update", Long.class,
+                    hookId);
+            if (lockedHook.isEmpty()) { return 0; }
+            final Long blockedFromId = this.jdbcTemplate.queryForObject(
+                    "select min(id) from m_hook_outbox where hook_id = ? and status_enum = ? and next_attempt_time > ?", Long.class,
+                    hookId, pending, now);
+            return this.jdbcTemplate.update("update m_hook_outbox set claimed_by = ?, next_attempt_time = ? where hook_id = ?"
+                    + " and status_enum = ? and next_attempt_time <= ? and id < ? order by id limit " + this.batchSize, this.nodeId,
+                    leaseExpiry, hookId, pending, now, blockedFromId == null ? Long.MAX_VALUE : blockedFromId);
+        });
+        if (claimed == null || claimed == 0) { return Collections.emptyList(); }
+
+        return this.jdbcTemplate.query(
+                "select id, entity_name, action_name, payload, appuser_id, attempts from m_hook_outbox"
+                        + " where hook_id = ? and claimed_by = ? and status_enum = ? order by id",
+                (rs, rowNum) -> new OutboxEvent(rs.getLong("id"), rs.getString("entity_name"), rs.getString("action_name"),
+                        rs.getString("payload"), JdbcSupport.getLong(rs, "appuser_id"), rs.getInt("attempts")),
+                hookId, this.nodeId, pending);
+    }
+
+    private void retryLater(final Long hookId, final OutboxEvent event, final RuntimeException e) {
+        final int attempts = event.attempts + 1;
+        String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= MAX_ATTEMPTS) {
+            logger.warn("Giving up delivering event " + event.id + " of hook " + hookId + " after " + attempts + " attempts: " + error);
+            this.jdbcTemplate.update(
+                    "update m_hook_outbox set status_enum = ?, attempts = ?, claimed_by = null, last_error = ? where id = ?",
+                    HookOutboxStatus.FAILED.getValue(), attempts, error, event.id);
+            return;
+        }
+
+        final long delaySeconds = Math.min(INITIAL_RETRY_DELAY_SECONDS << Math.min(attempts - 1, 30), MAX_RETRY_DELAY_SECONDS);
+        final Date nextAttemptTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delaySeconds));
+        logger.info("Delivering event " + event.id + " of hook " + hookId + " failed, retrying in " + delaySeconds + " seconds: "
+                + error);
+        this.jdbcTemplate.update(
+                "update m_hook_outbox set attempts = ?, next_attempt_time = ?, claimed_by = null, last_error = ? where id = ?", attempts,
+                nextAttemptTime, error, event.id);
+    }
+
+    private void releaseEvents(final List<OutboxEvent> events) {
+        if (events.isEmpty()) { return; }
+        final Date now = new Date();
+        final List<Object[]> rows = new ArrayList<>(events.size());
+        for (final OutboxEvent event : events) {
+            rows.add(new Object[] { now, event.id });
+        }
+        this.jdbcTemplate.batchUpdate("update m_hook_outbox set claimed_by = null, next_attempt_time = ? where id = ?", rows);
+    }
+
+    private AppUser appUser(final Map<Long, AppUser> appUsers, final Long appUserId) {
+        if (appUserId == null) { return null; }
+        if (!appUsers.containsKey(appUserId)) {
+            appUsers.put(appUserId, this.appUserRepository.findById(appUserId).orElse(null));
+        }
+        return appUsers.get(appUserId);
+    }
+
+    private void recordDelivery(final FineractPlatformTenant tenant, final Hook hook, final String result, final long startTime) {
+        if (this.meterRegistry == null) { return; }
+        Timer.builder("fineract.hook.delivery").tag("tenant", tenant.getTenantIdentifier()).tag("hook", hook.getId().toString())
+                .tag("template", hook.getHookTemplate().getName()).tag("result", result)
+                .description("Time spent delivering events to a hook endpoint").publishPercentileHistogram()
+                .register(this.meterRegistry).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    private void pollPendingEvents() {
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                if (!this.tenantDatabaseUpgradeService.isTenantMigrated(tenant)) {
+                    continue;
+                }
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    final List<Long> hookIds = this.jdbcTemplate.queryForList(
+                            "select distinct hook_id from m_hook_outbox where status_enum = ? and next_attempt_time <= ?", Long.class,
+                            HookOutboxStatus.PENDING.getValue(), new Date());
+                    dispatch(tenant, hookIds);
+                } catch (final RuntimeException e) {
+                    logger.error("Polling the hook outbox of tenant " + tenant.getTenantIdentifier() + " failed", e);
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.error("Polling the hook outbox failed", e);
+        }
+    }
+
+    /**
+     * Deletes the events that ran out of attempts longer than the retention
+     * period ago, in chunks so that the outbox is not locked for long.
+     */
+    private void purgeFailedEvents() {
+        final Date purgeBefore = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(this.failedRetentionDays));
+        try {
+            for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+                if (!this.tenantDatabaseUpgradeService.isTenantMigrated(tenant)) {
+                    continue;
+                }
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    int purged = 0;
+                    int deleted;
+                    do {
+                        // the time of the last attempt is kept in next_attempt_time
+                        deleted = this.jdbcTemplate.update(
+                                "delete from m_hook_outbox where status_enum = ? and next_attempt_time < ? limit " + PURGE_CHUNK_SIZE,
+                                HookOutboxStatus.FAILED.getValue(), purgeBefore);
+                        purged += deleted;
+                    } while (deleted == PURGE_CHUNK_SIZE);
+                    if (purged > 0) {
+                        logger.info("Purged " + purged + " failed hook events of tenant " + tenant.getTenantIdentifier());
+                    }
+                } catch (final RuntimeException e) {
+                    logger.error("Purging the hook outbox of tenant " + tenant.getTenantIdentifier() + " failed", e);
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.error("Purging the hook outbox failed", e);
+        }
+    }
+
+    private static String endpointKey(final FineractPlatformTenant tenant, final Long hookId) {
+        return tenant.getTenantIdentifier() + ":" + hookId;
+    }
+
+    private static final class OutboxEvent {
+
+        private final Long id;
+        private final String entityName;
+        private final String actionName;
+        private final String payload;
+        private final Long appUserId;
+        private final int attempts;
+
+        OutboxEvent(final Long id, final String entityName, final String actionName, final String payload, final Long appUserId,
+                final int attempts) {
+            this.id = id;
+            this.entityName = entityName;
+            this.actionName = actionName;
+            this.payload = payload;
+            this.appUserId = appUserId;
+            this.attempts = attempts;
+        }
+    }
+}
@@ -19,9 +19,8 @@
 package org.apache.fineract.infrastructure.hooks.service;
 
 import java.util.Collection;
-import java.util.List;
 import org.apache.fineract.infrastructure.hooks.data.HookData;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
+import org.apache.fineract.infrastructure.hooks.data.HookSubscriptionsData;
 
 public interface HookReadPlatformService {
 
@@ -29,7 +28,11 @@ public interface HookReadPlatformService {
 
     HookData retrieveHook(Long hookId);
 
-    List<Hook> retrieveHooksByEvent(final String actionName, final String entityName);
+    /**
+     * Returns the active hooks of the current tenant indexed by the events
+     * they are registered for, kept in the hooks cache until a hook changes.
+     */
+    HookSubscriptionsData retrieveHookSubscriptions();
 
     HookData retrieveNewHookDetails(String templateName);
 }
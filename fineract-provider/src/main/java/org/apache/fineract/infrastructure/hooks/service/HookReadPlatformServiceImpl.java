@@ -29,9 +29,8 @@ import org.apache.fineract.infrastructure.hooks.data.EventResultSetExtractor;
 import org.apache.fineract.infrastructure.hooks.data.Field;
 import org.apache.fineract.infrastructure.hooks.data.Grouping;
 import org.apache.fineract.infrastructure.hooks.data.HookData;
+import org.apache.fineract.infrastructure.hooks.data.HookSubscriptionsData;
 import org.apache.fineract.infrastructure.hooks.data.HookTemplateData;
-import org.apache.fineract.infrastructure.hooks.domain.Hook;
-import org.apache.fineract.infrastructure.hooks.domain.HookRepository;
 import org.apache.fineract.infrastructure.hooks.exception.HookNotFoundException;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.joda.time.LocalDate;
@@ -39,6 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -46,15 +46,12 @@ import org.springframework.stereotype.Service;
 public class HookReadPlatformServiceImpl implements HookReadPlatformService {
 
     private final JdbcTemplate jdbcTemplate;
-    private final HookRepository hookRepository;
     private final PlatformSecurityContext context;
 
     @Autowired
     public HookReadPlatformServiceImpl(final PlatformSecurityContext context,
-            final HookRepository hookRepository,
             final RoutingDataSource dataSource) {
         this.context = context;
-        this.hookRepository = hookRepository;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
@@ -83,12 +80,15 @@ public class HookReadPlatformServiceImpl implements HookReadPlatformService {
     }
 
     @Override
-    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('HK')")
-    public List<Hook> retrieveHooksByEvent(final String actionName,
-            final String entityName) {
-
-        return this.hookRepository.findAllHooksListeningToEvent(actionName,
-                entityName);
+    @Cacheable(value = "hooks", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat('HS')")
+    public HookSubscriptionsData retrieveHookSubscriptions() {
+        final String sql = "select re.hook_id as hookId, re.entity_name as entityName, re.action_name as actionName"
+                + " from m_hook_registered_events re join m_hook h on h.id = re.hook_id where h.is_active = 1 order by re.hook_id";
+
+        final HookSubscriptionsData.Builder builder = HookSubscriptionsData.builder();
+        this.jdbcTemplate.query(sql, (RowCallbackHandler) rs -> builder.withSubscription(rs.getLong("hookId"),
+                rs.getString("entityName"), rs.getString("actionName")));
+        return builder.build();
     }
 
     @Override
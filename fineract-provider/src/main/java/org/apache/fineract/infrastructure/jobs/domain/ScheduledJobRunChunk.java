@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.domain;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * Progress record of one id-range chunk processed by a partitioned job on a
+ * given business date. A chunk in {@link #STATUS_SUCCESS} is skipped when the
+ * job is restarted on the same business date. The entities a chunk failed
+ * on are recorded as {@link ScheduledJobRunFailure}.
+ */
+@Entity
+@Table(name = "job_run_chunk")
+public class ScheduledJobRunChunk extends AbstractPersistableCustom<Long> {
+
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_FAILED = "failed";
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "business_date", nullable = false)
+    @Temporal(TemporalType.DATE)
+    private Date businessDate;
+
+    @Column(name = "chunk_start", nullable = false)
+    private Long chunkStart;
+
+    @Column(name = "chunk_end", nullable = false)
+    private Long chunkEnd;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount;
+
+    @Column(name = "completed_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date completedTime;
+
+    protected ScheduledJobRunChunk() {
+
+    }
+
+    private ScheduledJobRunChunk(final Long jobId, final Date businessDate, final Long chunkStart, final Long chunkEnd) {
+        this.jobId = jobId;
+        this.businessDate = businessDate;
+        this.chunkStart = chunkStart;
+        this.chunkEnd = chunkEnd;
+        this.processedCount = 0;
+        this.failedCount = 0;
+    }
+
+    public static ScheduledJobRunChunk instance(final Long jobId, final Date businessDate, final Long chunkStart, final Long chunkEnd) {
+        return new ScheduledJobRunChunk(jobId, businessDate, chunkStart, chunkEnd);
+    }
+
+    public void markCompleted(final int processedCount, final int failedCount) {
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.status = failedCount > 0 ? STATUS_FAILED : STATUS_SUCCESS;
+        this.completedTime = new Date();
+    }
+
+    public Long getJobId() {
+        return this.jobId;
+    }
+
+    public Long getChunkStart() {
+        return this.chunkStart;
+    }
+
+    public Long getChunkEnd() {
+        return this.chunkEnd;
+    }
+
+    public boolean isSuccess() {
+        return STATUS_SUCCESS.equals(this.status);
+    }
+
+    public Integer getProcessedCount() {
+        return this.processedCount;
+    }
+
+    public Integer getFailedCount() {
+        return this.failedCount;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.domain;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+
+/**
+ * A single entity (loan, savings account, ...) a job failed to process on a
+ * given business date, kept so failures can be queried instead of being
+ * concatenated into the job run's error log.
+ */
+@Entity
+@Table(name = "job_run_failure")
+public class ScheduledJobRunFailure extends AbstractPersistableCustom<Long> {
+
+    public static final String ENTITY_TYPE_LOAN = "loan";
+    public static final String ENTITY_TYPE_SAVINGS_ACCOUNT = "savings_account";
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "business_date", nullable = false)
+    @Temporal(TemporalType.DATE)
+    private Date businessDate;
+
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "error_message", nullable = true)
+    private String errorMessage;
+
+    @Column(name = "failure_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date failureTime;
+
+    protected ScheduledJobRunFailure() {
+
+    }
+
+    private ScheduledJobRunFailure(final Long jobId, final Date businessDate, final String entityType, final Long entityId,
+            final String errorMessage) {
+        this.jobId = jobId;
+        this.businessDate = businessDate;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.errorMessage = errorMessage;
+        this.failureTime = new Date();
+    }
+
+    public static ScheduledJobRunFailure instance(final Long jobId, final Date businessDate, final String entityType, final Long entityId,
+            final String errorMessage) {
+        return new ScheduledJobRunFailure(jobId, businessDate, entityType, entityId, errorMessage);
+    }
+
+    public Long getJobId() {
+        return this.jobId;
+    }
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public String getErrorMessage() {
+        return this.errorMessage;
+    }
+}
@@ -23,13 +23,17 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.PostConstruct;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
@@ -68,6 +72,13 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
 
     private final static Logger logger = LoggerFactory.getLogger(JobRegisterServiceImpl.class);
 
+    // jobs whose Map<String, String> overload of the @CronTarget method is
+    // invoked with their job_parameters, all others keep running their
+    // parameterless overload
+    private final static Set<String> PARAMETERIZED_JOB_NAMES = new HashSet<>(Arrays.asList(
+            JobName.POST_INTEREST_FOR_SAVINGS.toString(), JobName.ADD_PERIODIC_ACCRUAL_ENTRIES.toString(),
+            JobName.UPDATE_LOAN_ARREARS_AGEING.toString(), JobName.UPDATE_TRAIL_BALANCE_DETAILS.toString()));
+
     // MIFOSX-1184: This class cannot use constructor injection, because one of
     // its dependencies (SchedulerStopListener) has a circular dependency to
     // itself. So, slightly differently from how it's done elsewhere in this
@@ -81,8 +92,10 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     private SchedulerStopListener schedulerStopListener;
     private SchedulerTriggerListener globalSchedulerTriggerListener;
     private JobParameterRepository jobParameterRepository;
+    private TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
 
-    private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
+    // tenants upgraded lazily have their jobs loaded on the upgrade threads
+    private final Map<String, Scheduler> schedulers = new ConcurrentHashMap<>(4);
 
     @Autowired
     public void setApplicationContext(ApplicationContext applicationContext) {
@@ -119,11 +132,25 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.jobParameterRepository=jobParameterRepository;
     }
 
+    @Autowired
+    public void setTenantDatabaseUpgradeService(TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
     @PostConstruct
     public void loadAllJobs() {
         final List<FineractPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
         for (final FineractPlatformTenant tenant : allTenants) {
-            ThreadLocalContextUtil.setTenant(tenant);
+            // with lazy tenant upgrades the jobs of a tenant are only
+            // scheduled once its database has been upgraded
+            this.tenantDatabaseUpgradeService.whenTenantMigrated(tenant, () -> loadTenantJobs(tenant));
+        }
+    }
+
+    private void loadTenantJobs(final FineractPlatformTenant tenant) {
+        final FineractPlatformTenant callerTenant = ThreadLocalContextUtil.getTenant();
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
             final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
             for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
                 scheduleJob(jobDetails);
@@ -135,6 +162,12 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
                 schedulerDetail.updateSuspendedState(false);
                 this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
             }
+        } finally {
+            if (callerTenant == null) {
+                ThreadLocalContextUtil.clearTenant();
+            } else {
+                ThreadLocalContextUtil.setTenant(callerTenant);
+            }
         }
     }
 
@@ -358,6 +391,12 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         jobDetailFactoryBean.setTargetMethod(jobDetails.methodName);
         jobDetailFactoryBean.setGroup(scheduledJobDetail.getGroupName());
         jobDetailFactoryBean.setConcurrent(false);
+        if (PARAMETERIZED_JOB_NAMES.contains(scheduledJobDetail.getJobName())) {
+            final Map<String, String> jobParameters = getJobParameter(scheduledJobDetail);
+            if (!jobParameters.isEmpty()) {
+                jobDetailFactoryBean.setArguments(jobParameters);
+            }
+        }
         jobDetailFactoryBean.afterPropertiesSet();
         return jobDetailFactoryBean.getObject();
     }
@@ -24,11 +24,13 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.time.StopWatch;
+import org.apache.fineract.commands.service.AsynchronousCommandProcessingService;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
@@ -68,12 +70,14 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
 
     private static boolean firstRequestProcessed = false;
     private final static Logger logger = LoggerFactory.getLogger(TenantAwareBasicAuthenticationFilter.class);
+    private static final String TENANT_UPGRADE_RETRY_AFTER_SECONDS = "30";
 
     private final BasicAuthTenantDetailsService basicAuthTenantDetailsService;
     private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
     private final NotificationReadPlatformService notificationReadPlatformService;
+    private final TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
     private final String tenantRequestHeader = "Fineract-Platform-TenantId";
     private final boolean exceptionIfHeaderMissing = true;
 
@@ -82,13 +86,15 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             final AuthenticationEntryPoint authenticationEntryPoint, final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
             final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
             final CacheWritePlatformService cacheWritePlatformService,
-            final NotificationReadPlatformService notificationReadPlatformService) {
+            final NotificationReadPlatformService notificationReadPlatformService,
+            final TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
         super(authenticationManager, authenticationEntryPoint);
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
         this.notificationReadPlatformService = notificationReadPlatformService;
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
     }
 
     @Override
@@ -120,8 +126,17 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     isReportRequest = true;
                 }
                 final FineractPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier, isReportRequest);
+                if (!this.tenantDatabaseUpgradeService.isTenantReady(tenant)) {
+                    response.addHeader("Retry-After", TENANT_UPGRADE_RETRY_AFTER_SECONDS);
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The database of tenant " + tenantIdentifier
+                            + " is being upgraded.");
+                    return;
+                }
 
                 ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.setAsyncCommandRequest(
+                        "true".equalsIgnoreCase(request.getHeader(AsynchronousCommandProcessingService.ASYNC_COMMAND_HEADER)),
+                        request.getHeader(AsynchronousCommandProcessingService.ASYNC_COMMAND_CALLBACK_HEADER));
                 String authToken = request.getHeader("Authorization");
 
                 if (authToken != null && authToken.startsWith("Basic ")) {
@@ -133,7 +148,10 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     System.setProperty("baseUrl", baseUrl);
 
                     final boolean ehcacheEnabled = this.configurationDomainService.isEhcacheEnabled();
-                    if (ehcacheEnabled) {
+                    final boolean distributedCacheEnabled = this.configurationDomainService.isDistributedCacheEnabled();
+                    if (distributedCacheEnabled) {
+                        this.cacheWritePlatformService.switchToCache(CacheType.MULTI_NODE);
+                    } else if (ehcacheEnabled) {
                         this.cacheWritePlatformService.switchToCache(CacheType.SINGLE_NODE);
                     } else {
                         this.cacheWritePlatformService.switchToCache(CacheType.NO_CACHE);
@@ -151,6 +169,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
             task.stop();
+            ThreadLocalContextUtil.clearAsyncCommandRequest();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.debug(this.toApiJsonSerializer.serialize(log));
         }
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Short lived cache of successful basic auth results, so that repeated
+ * requests with the same credentials don't pay for the password hash on every
+ * call.
+ *
+ * Entries are kept in the <code>authentications</code> cache of the platform
+ * cache (see ehcache.xml for their time to live), keyed by tenant and a keyed
+ * hash of the submitted credentials, the credentials themselves are never
+ * stored. Any change to users or roles drops all entries; with the multi node
+ * cache that is broadcast to the other nodes like any other cache eviction.
+ * With caching switched off nothing is cached.
+ */
+@Component
+public class AuthenticationResultCache {
+
+    public static final String CACHE_NAME = "authentications";
+
+    private static final String HASH_ALGORITHM = "HmacSHA256";
+
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final SecretKeySpec hashKey;
+
+    @Autowired
+    public AuthenticationResultCache(final RuntimeDelegatingCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        final byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.hashKey = new SecretKeySpec(secret, HASH_ALGORITHM);
+    }
+
+    /**
+     * @return the cached authentication or <code>null</code> if the
+     *         credentials have not been authenticated recently
+     */
+    public Authentication get(final String key) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        return cache == null ? null : cache.get(key, Authentication.class);
+    }
+
+    /**
+     * Marks the start of an authentication, pass the returned value to
+     * {@link #put(String, Authentication, long)}.
+     */
+    public long beginAuthentication() {
+        return this.invalidationCount.get();
+    }
+
+    /**
+     * Caches the result unless users or roles changed while it was being
+     * authenticated.
+     */
+    public void put(final String key, final Authentication authentication, final long invalidationCountAtStart) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache == null) { return; }
+        cache.put(key, authentication);
+        if (this.invalidationCount.get() != invalidationCountAtStart) {
+            cache.evict(key);
+        }
+    }
+
+    public String key(final String username, final String password) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        try {
+            final Mac mac = Mac.getInstance(HASH_ALGORITHM);
+            mac.init(this.hashKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return tenantIdentifier + ":" + Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Drops all cached authentications. When called within a transaction they
+     * are dropped again once it completes, so that a request authenticated
+     * against the old state in the meantime is not kept.
+     */
+    public void invalidate() {
+        clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        this.invalidationCount.incrementAndGet();
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
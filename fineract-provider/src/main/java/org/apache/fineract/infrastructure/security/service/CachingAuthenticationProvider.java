@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Used in securityContext.xml (basicauth profile) in front of the
+ * <code>customAuthenticationProvider</code>.
+ *
+ * Basic auth sends the credentials with every request, so without this every
+ * API call loads the user and runs the password encoder. Successful results
+ * are served from the {@link AuthenticationResultCache} for a short time,
+ * failures are never cached. Time spent here is published as the
+ * <code>fineract.authentication</code> timer.
+ */
+@Service(value = "cachingAuthenticationProvider")
+@Profile("basicauth")
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationResultCache authenticationResultCache;
+    private final Timer cachedTimer;
+    private final Timer authenticatedTimer;
+    private final Timer failedTimer;
+
+    @Autowired
+    public CachingAuthenticationProvider(@Qualifier("customAuthenticationProvider") final AuthenticationProvider delegate,
+            final AuthenticationResultCache authenticationResultCache, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.authenticationResultCache = authenticationResultCache;
+        this.cachedTimer = authenticationTimer(meterRegistry, "cached");
+        this.authenticatedTimer = authenticationTimer(meterRegistry, "authenticated");
+        this.failedTimer = authenticationTimer(meterRegistry, "failed");
+    }
+
+    private static Timer authenticationTimer(final MeterRegistry meterRegistry, final String result) {
+        return Timer.builder("fineract.authentication").tag("result", result)
+                .description("Time spent authenticating basic auth credentials").register(meterRegistry);
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+        final long startTime = System.nanoTime();
+
+        final Object credentials = authentication.getCredentials();
+        if (credentials == null) { return authenticateWithDelegate(authentication, null, startTime); }
+
+        final String key = this.authenticationResultCache.key(authentication.getName(), credentials.toString());
+        final Authentication cached = this.authenticationResultCache.get(key);
+        if (cached != null) {
+            this.cachedTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        return authenticateWithDelegate(authentication, key, startTime);
+    }
+
+    private Authentication authenticateWithDelegate(final Authentication authentication, final String key, final long startTime) {
+        final long invalidationCount = this.authenticationResultCache.beginAuthentication();
+        try {
+            final Authentication result = this.delegate.authenticate(authentication);
+            if (result != null && result.isAuthenticated() && key != null) {
+                this.authenticationResultCache.put(key, result, invalidationCount);
+            }
+            this.authenticatedTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (final AuthenticationException e) {
+            this.failedTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication) && this.delegate.supports(authentication);
+    }
+}
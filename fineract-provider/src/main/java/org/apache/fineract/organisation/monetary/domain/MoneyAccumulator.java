@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total of {@link Money} amounts for the loops of the loan
+ * schedule generators and transaction processors.
+ * <p>
+ * Amounts are kept as a <code>long</code> of minor units, so adding or
+ * subtracting does not allocate. Whenever that is not exact, because an
+ * operand has more digits than the currency, the total overflows, or the
+ * currency rounds to multiples, the operation is delegated to {@link Money}
+ * itself. Every intermediate total is therefore the same as the one the
+ * equivalent chain of {@link Money#plus(Money)} and {@link Money#minus(Money)}
+ * calls produces.
+ */
+public final class MoneyAccumulator {
+
+    /** bound keeping the sum of two totals within a long */
+    private static final long MAX_MINOR_UNITS = Long.MAX_VALUE >> 1;
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final boolean roundsToMultiples;
+
+    /** the total in minor units, valid while {@link #amount} is null */
+    private long minorUnits;
+    private BigDecimal amount;
+    private Money money;
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(Money.zero(currency));
+    }
+
+    public static MoneyAccumulator of(final Money money) {
+        return new MoneyAccumulator(money);
+    }
+
+    private MoneyAccumulator(final Money money) {
+        this.currency = money.getCurrency();
+        this.digitsAfterDecimal = money.getCurrencyDigitsAfterDecimal();
+        final Integer inMultiplesOf = money.getCurrencyInMultiplesOf();
+        this.roundsToMultiples = this.digitsAfterDecimal == 0 && inMultiplesOf != null && inMultiplesOf > 0;
+        updateAmount(money.getAmount());
+        this.money = money;
+    }
+
+    public MoneyAccumulator plus(final Money moneyToAdd) {
+        return plus(checkCurrencyEqual(moneyToAdd).getAmount());
+    }
+
+    public MoneyAccumulator plus(final BigDecimal amountToAdd) {
+        if (amountToAdd == null || amountToAdd.signum() == 0) { return this; }
+        if (this.amount == null && isExactInMinorUnits(amountToAdd)) {
+            updateMinorUnits(this.minorUnits + amountToAdd.unscaledValue().longValue());
+            return this;
+        }
+        updateAmount(Money.of(this.currency, getAmount().add(amountToAdd)).getAmount());
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money moneyToSubtract) {
+        return minus(checkCurrencyEqual(moneyToSubtract).getAmount());
+    }
+
+    public MoneyAccumulator minus(final BigDecimal amountToSubtract) {
+        if (amountToSubtract == null || amountToSubtract.signum() == 0) { return this; }
+        return plus(amountToSubtract.negate());
+    }
+
+    public boolean isZero() {
+        return this.amount == null ? this.minorUnits == 0 : this.amount.signum() == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return this.amount == null ? this.minorUnits > 0 : this.amount.signum() > 0;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount == null ? BigDecimal.valueOf(this.minorUnits, this.digitsAfterDecimal) : this.amount;
+    }
+
+    /**
+     * The total as {@link Money}, the instance is reused until the total
+     * changes.
+     */
+    public Money toMoney() {
+        if (this.money == null) {
+            this.money = Money.of(this.currency, getAmount());
+        }
+        return this.money;
+    }
+
+    private void updateMinorUnits(final long total) {
+        this.money = null;
+        if (this.roundsToMultiples && total > 0) {
+            updateAmount(Money.of(this.currency, BigDecimal.valueOf(total)).getAmount());
+        } else if (total > MAX_MINOR_UNITS || total < -MAX_MINOR_UNITS) {
+            // overflow fallback, the next operations go through Money
+            this.amount = BigDecimal.valueOf(total, this.digitsAfterDecimal);
+        } else {
+            this.minorUnits = total;
+            this.amount = null;
+        }
+    }
+
+    private void updateAmount(final BigDecimal newAmount) {
+        this.money = null;
+        if (isExactInMinorUnits(newAmount)) {
+            this.minorUnits = newAmount.unscaledValue().longValue();
+            this.amount = null;
+        } else {
+            this.amount = newAmount;
+        }
+    }
+
+    /**
+     * Only amounts already at the scale of the currency are added in minor
+     * units, anything else needs the rounding of {@link Money}.
+     */
+    private boolean isExactInMinorUnits(final BigDecimal value) {
+        return value != null && value.scale() == this.digitsAfterDecimal && value.unscaledValue().bitLength() < 63;
+    }
+
+    private Money checkCurrencyEqual(final Money other) {
+        if (!this.currency.getCode().equals(other.getCurrencyCode())) {
+            throw new UnsupportedOperationException("currencies are different.");
+        }
+        return other;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.codes.data.CodeValueData;
 import org.apache.fineract.infrastructure.codes.service.CodeValueReadPlatformService;
@@ -33,6 +34,7 @@ import org.apache.fineract.infrastructure.configuration.service.ConfigurationRea
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PaginationCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -72,6 +74,9 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class ClientReadPlatformServiceImpl implements ClientReadPlatformService {
 
+    private static final Map<String, String> KEYSET_SORT_COLUMNS = PaginationCursor.sortColumns("c.id", "c.account_no", "c.external_id",
+            "c.display_name");
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final OfficeReadPlatformService officeReadPlatformService;
@@ -185,8 +190,18 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
         List<Object> paramList = new ArrayList<>(Arrays.asList(underHierarchySearchString, underHierarchySearchString));
+        final boolean keysetPaginated = searchParameters != null && searchParameters.isKeysetPaginationRequested();
+        final boolean countRequested = searchParameters == null || searchParameters.isCountRequested();
+        final String sortExpression = PaginationCursor.sortExpression(searchParameters, KEYSET_SORT_COLUMNS, "c.id");
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (countRequested) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
+        if (keysetPaginated) {
+            sqlBuilder.append(PaginationCursor.keysetColumns(sortExpression, "c.id"));
+        }
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
 
@@ -202,7 +217,18 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 sqlBuilder.append(" and (").append(extraCriteria).append(")");
             }
 
-            if (searchParameters.isOrderByRequested()) {
+            if (keysetPaginated) {
+                final PaginationCursor cursor = PaginationCursor.decode(searchParameters.getAfter());
+                if (cursor != null) {
+                    sqlBuilder.append(" and ").append(
+                            cursor.condition(sortExpression, "c.id", searchParameters.isSortOrderDescending(), paramList));
+                }
+                final String direction = searchParameters.isSortOrderDescending() ? " desc" : " asc";
+                sqlBuilder.append(" order by ").append(sortExpression).append(direction).append(", c.id").append(direction);
+                if (searchParameters.isLimited()) {
+                    sqlBuilder.append(" limit ").append(searchParameters.getLimit());
+                }
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
                 if (searchParameters.isSortOrderProvided()) {
@@ -211,14 +237,16 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
                 }
             }
 
-            if (searchParameters.isLimited()) {
+            if (!keysetPaginated && searchParameters.isLimited()) {
                 sqlBuilder.append(" limit ").append(searchParameters.getLimit());
                 if (searchParameters.isOffset()) {
                     sqlBuilder.append(" offset ").append(searchParameters.getOffset());
                 }
             }
         }
-        final String sqlCountRows = "SELECT FOUND_ROWS()";
+        if (keysetPaginated) { return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(),
+                this.clientMapper, searchParameters.getLimit()); }
+        final String sqlCountRows = countRequested ? "SELECT FOUND_ROWS()" : null;
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), paramList.toArray(), this.clientMapper);
     }
 
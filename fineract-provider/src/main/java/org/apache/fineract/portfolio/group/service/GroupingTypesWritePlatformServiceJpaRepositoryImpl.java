@@ -82,6 +82,7 @@ import org.apache.fineract.portfolio.note.domain.Note;
 import org.apache.fineract.portfolio.note.domain.NoteRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
@@ -116,6 +117,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
     private final AccountNumberGenerator accountNumberGenerator;
     private final EntityDatatableChecksWritePlatformService entityDatatableChecksWritePlatformService;
     private final BusinessEventNotifierService businessEventNotifierService;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
 
     @Autowired
     public GroupingTypesWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -128,7 +130,8 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
             final LoanRepositoryWrapper loanRepositoryWrapper,
             final AccountNumberFormatRepositoryWrapper accountNumberFormatRepository, final AccountNumberGenerator accountNumberGenerator,
             final EntityDatatableChecksWritePlatformService entityDatatableChecksWritePlatformService,
-            final BusinessEventNotifierService businessEventNotifierService) {
+            final BusinessEventNotifierService businessEventNotifierService,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.context = context;
         this.groupRepository = groupRepository;
         this.clientRepositoryWrapper = clientRepositoryWrapper;
@@ -147,6 +150,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
         this.accountNumberGenerator = accountNumberGenerator;
         this.entityDatatableChecksWritePlatformService = entityDatatableChecksWritePlatformService;
         this.businessEventNotifierService = businessEventNotifierService;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
     }
 
     private CommandProcessingResult createGroupingType(final JsonCommand command, final GroupTypes groupingType, final Long centerId) {
@@ -231,6 +235,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
 
             this.groupRepository.saveAndFlush(newGroup);
             newGroup.captureStaffHistoryDuringCenterCreation(staff, activationDate);
+            this.searchIndexWritePlatformService.indexGroup(newGroup.getId());
 
             if (newGroup.isGroup()) {
                 if (command.parameterExists(GroupingTypesApiConstants.datatables)) {
@@ -473,6 +478,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
              */
 
             this.groupRepository.saveAndFlush(groupForUpdate);
+            this.searchIndexWritePlatformService.indexGroup(groupForUpdate.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -3083,12 +3083,18 @@ public class Loan extends AbstractPersistableCustom<Long> {
             }
         }
         if (reprocess) {
+            // transactions before the earliest affected date are restored
+            // rather than replayed, unless the schedule is regenerated
+            LocalDate replayFrom = null;
             if (this.repaymentScheduleDetail().isInterestRecalculationEnabled()) {
                 regenerateRepaymentScheduleWithInterestRecalculation(scheduleGeneratorDTO, currentUser);
+            } else if (this.transactionProcessorFactory.isIncrementalReplayEnabled()) {
+                replayFrom = recalculateFrom;
             }
+            final boolean verifyReplay = replayFrom != null && this.transactionProcessorFactory.isIncrementalReplayVerificationEnabled();
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
-            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
+            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(), replayFrom,
+                    verifyReplay, allNonContraTransactionsPostDisbursement, getCurrency(), getRepaymentScheduleInstallments(), charges());
             for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
                 mapEntry.getValue().updateLoan(this);
             }
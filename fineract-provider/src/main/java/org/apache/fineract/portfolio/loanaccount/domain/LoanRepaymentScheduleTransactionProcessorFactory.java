@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.loanaccount.domain;
 
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.EarlyPaymentLoanRepaymentScheduleTransactionProcessor;
@@ -27,11 +28,31 @@ import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.imp
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.RBILoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanproduct.domain.LoanTransactionProcessingStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class LoanRepaymentScheduleTransactionProcessorFactory {
 
+    private final ConfigurationDomainService configurationDomainService;
+
+    @Autowired
+    public LoanRepaymentScheduleTransactionProcessorFactory(final ConfigurationDomainService configurationDomainService) {
+        this.configurationDomainService = configurationDomainService;
+    }
+
+    /**
+     * Whether re-processing after a backdated transaction or an adjustment
+     * may restore the earlier transactions instead of replaying them.
+     */
+    public boolean isIncrementalReplayEnabled() {
+        return this.configurationDomainService.isIncrementalLoanTransactionReplayEnabled();
+    }
+
+    public boolean isIncrementalReplayVerificationEnabled() {
+        return this.configurationDomainService.isIncrementalLoanTransactionReplayVerificationEnabled();
+    }
+
     public LoanRepaymentScheduleTransactionProcessor determineProcessor(
             final LoanTransactionProcessingStrategy transactionProcessingStrategy) {
 
@@ -23,7 +23,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import org.apache.fineract.portfolio.loanaccount.exception.LoanNotFoundException;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.OpenJPAQuery;
+import org.apache.openjpa.persistence.jdbc.FetchMode;
+import org.apache.openjpa.persistence.jdbc.JDBCFetchPlan;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Service;
@@ -40,6 +46,9 @@ public class LoanRepositoryWrapper {
 
     private final LoanRepository repository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public LoanRepositoryWrapper(final LoanRepository repository) {
         this.repository = repository;
@@ -59,6 +68,24 @@ public class LoanRepositoryWrapper {
         return loan;
     }
 
+    /**
+     * Loads the passed in loans along with the collections initialized by
+     * {@link Loan#initializeLazyCollections()}, issuing one query per
+     * collection for all loans (OpenJPA parallel eager fetching) instead of
+     * one query per loan and collection. Loans later looked up by id within the
+     * same transaction are served from the persistence context.
+     */
+    public List<Loan> prefetchWithLazyCollections(final Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) { return new ArrayList<>(); }
+        final OpenJPAQuery<Loan> query = OpenJPAPersistence.cast(this.entityManager.createQuery(
+                "select loan from Loan loan where loan.id in :ids", Loan.class));
+        final JDBCFetchPlan fetchPlan = (JDBCFetchPlan) query.getFetchPlan();
+        fetchPlan.setEagerFetchMode(FetchMode.PARALLEL);
+        fetchPlan.addFields(Loan.class, "charges", "trancheCharges", "repaymentScheduleInstallments", "loanTransactions",
+                "disbursementDetails", "loanTermVariations", "collateral", "loanOfficerHistory");
+        return query.setParameter("ids", ids).getResultList();
+    }
+
     //Root Entities are enough
     public Collection<Loan> findActiveLoansByLoanIdAndGroupId(Long clientId, Long groupId) {
         final Collection<Integer> loanStatuses = new ArrayList<>(Arrays.asList(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
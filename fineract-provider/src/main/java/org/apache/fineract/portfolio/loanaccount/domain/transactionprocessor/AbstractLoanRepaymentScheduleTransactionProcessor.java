@@ -23,10 +23,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.data.LoanChargePaidDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
@@ -41,6 +43,8 @@ import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.imp
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor;
 import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Abstract implementation of {@link LoanRepaymentScheduleTransactionProcessor}
@@ -53,6 +57,16 @@ import org.joda.time.LocalDate;
  */
 public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implements LoanRepaymentScheduleTransactionProcessor {
 
+    private final static Logger logger = LoggerFactory.getLogger(AbstractLoanRepaymentScheduleTransactionProcessor.class);
+
+    private static final Comparator<LoanRepaymentScheduleInstallment> byDueDate = new Comparator<LoanRepaymentScheduleInstallment>() {
+
+        @Override
+        public int compare(LoanRepaymentScheduleInstallment ord1, LoanRepaymentScheduleInstallment ord2) {
+            return ord1.getDueDate().compareTo(ord2.getDueDate());
+        }
+    };
+
     /**
      * Provides support for passing all {@link LoanTransaction}'s so it will
      * completely re-process the entire loan schedule. This is required in cases
@@ -65,6 +79,76 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        final LocalDate replayFrom = null;
+        final boolean verifyReplay = false;
+        return handleTransaction(disbursementDate, replayFrom, verifyReplay, transactionsPostDisbursement, currency, installments,
+                charges);
+    }
+
+    /**
+     * Same as the complete re-process, except that the transactions dated
+     * before <code>replayFrom</code> are not replayed: their effect on the
+     * installments and charges is restored from the repayment schedule
+     * mappings recorded when they were last processed, and only the
+     * transactions from the first one that cannot be restored onwards are
+     * replayed.
+     *
+     * When <code>verifyReplay</code> is set the restored state is compared
+     * with the state a complete re-process reaches at the same point, a
+     * mismatch is logged and the result of the complete re-process is kept.
+     */
+    @Override
+    public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate, final LocalDate replayFrom,
+            final boolean verifyReplay, final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+
+        List<LoanTransaction> transactionstoBeProcessed = resetAndProcessChargePayments(disbursementDate, transactionsPostDisbursement,
+                currency, installments, charges);
+
+        int restoredTransactions = 0;
+        if (replayFrom != null && isRestoreFromRepaymentScheduleMappingsSupported()) {
+            restoredTransactions = restoreTransactionsBefore(replayFrom, transactionstoBeProcessed, currency, installments, charges);
+            if (restoredTransactions < 0) {
+                // recorded mappings no longer fit the schedule, start over
+                transactionstoBeProcessed = resetAndProcessChargePayments(disbursementDate, transactionsPostDisbursement, currency,
+                        installments, charges);
+                restoredTransactions = 0;
+            }
+        }
+
+        final ChangedTransactionDetail changedTransactionDetail = new ChangedTransactionDetail();
+        if (verifyReplay && restoredTransactions > 0) {
+            final LoanRepaymentScheduleStateSnapshot restoredState = LoanRepaymentScheduleStateSnapshot.of(currency, installments,
+                    charges);
+            transactionstoBeProcessed = resetAndProcessChargePayments(disbursementDate, transactionsPostDisbursement, currency,
+                    installments, charges);
+            for (final LoanTransaction loanTransaction : transactionstoBeProcessed.subList(0, restoredTransactions)) {
+                replayTransaction(loanTransaction, currency, installments, charges, changedTransactionDetail);
+            }
+            final String difference = restoredState.firstDifference(LoanRepaymentScheduleStateSnapshot.of(currency, installments,
+                    charges));
+            if (difference != null) {
+                logger.warn("Incremental replay from " + replayFrom + " does not match the complete replay of loan "
+                        + loanIdOf(transactionstoBeProcessed) + ", first difference in " + difference
+                        + ", keeping the complete replay");
+            }
+        }
+
+        for (final LoanTransaction loanTransaction : transactionstoBeProcessed.subList(restoredTransactions,
+                transactionstoBeProcessed.size())) {
+            replayTransaction(loanTransaction, currency, installments, charges, changedTransactionDetail);
+        }
+        return changedTransactionDetail;
+    }
+
+    /**
+     * Resets the derived components of the installments and charges and
+     * processes the charge payments, which always go first. Returns the
+     * remaining transactions in the order they are to be replayed.
+     */
+    private List<LoanTransaction> resetAndProcessChargePayments(final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
 
         if (charges != null) {
             for (final LoanCharge loanCharge : charges) {
@@ -84,7 +168,6 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
         wrapper.reprocess(currency, disbursementDate, installments, charges);
 
-        final ChangedTransactionDetail changedTransactionDetail = new ChangedTransactionDetail();
         final List<LoanTransaction> transactionstoBeProcessed = new ArrayList<>();
         for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
             if (loanTransaction.isChargePayment()) {
@@ -139,62 +222,170 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                 transactionstoBeProcessed.add(loanTransaction);
             }
         }
+        return transactionstoBeProcessed;
+    }
 
-        for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
+    private void replayTransaction(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges,
+            final ChangedTransactionDetail changedTransactionDetail) {
 
-            if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
-                final Comparator<LoanRepaymentScheduleInstallment> byDate = new Comparator<LoanRepaymentScheduleInstallment>() {
+        if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
+            Collections.sort(installments, byDueDate);
+        }
 
-                    @Override
-                    public int compare(LoanRepaymentScheduleInstallment ord1, LoanRepaymentScheduleInstallment ord2) {
-                        return ord1.getDueDate().compareTo(ord2.getDueDate());
-                    }
-                };
-                Collections.sort(installments, byDate);
+        if (loanTransaction.isRepayment() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment()) {
+            // pass through for new transactions
+            if (loanTransaction.getId() == null) {
+                handleTransaction(loanTransaction, currency, installments, charges);
+                loanTransaction.adjustInterestComponent(currency);
+            } else {
+                /**
+                 * For existing transactions, check if the re-payment breakup
+                 * (principal, interest, fees, penalties) has changed.<br>
+                 **/
+                final LoanTransaction newLoanTransaction = LoanTransaction.copyTransactionProperties(loanTransaction);
+
+                // Reset derived component of new loan transaction and
+                // re-process transaction
+                handleTransaction(newLoanTransaction, currency, installments, charges);
+                newLoanTransaction.adjustInterestComponent(currency);
+                /**
+                 * Check if the transaction amounts have changed. If so,
+                 * reverse the original transaction and update
+                 * changedTransactionDetail accordingly
+                 **/
+                if (LoanTransaction.transactionAmountsMatch(currency, loanTransaction, newLoanTransaction)) {
+                    loanTransaction.updateLoanTransactionToRepaymentScheduleMappings(newLoanTransaction
+                            .getLoanTransactionToRepaymentScheduleMappings());
+                } else {
+                    loanTransaction.reverse();
+                    loanTransaction.updateExternalId(null);
+                    changedTransactionDetail.getNewTransactionMappings().put(loanTransaction.getId(), newLoanTransaction);
+                }
             }
 
-            if (loanTransaction.isRepayment() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment()) {
-                // pass through for new transactions
-                if (loanTransaction.getId() == null) {
-                    handleTransaction(loanTransaction, currency, installments, charges);
-                    loanTransaction.adjustInterestComponent(currency);
-                } else {
-                    /**
-                     * For existing transactions, check if the re-payment
-                     * breakup (principal, interest, fees, penalties) has
-                     * changed.<br>
-                     **/
-                    final LoanTransaction newLoanTransaction = LoanTransaction.copyTransactionProperties(loanTransaction);
-
-                    // Reset derived component of new loan transaction and
-                    // re-process transaction
-                    handleTransaction(newLoanTransaction, currency, installments, charges);
-                    newLoanTransaction.adjustInterestComponent(currency);
-                    /**
-                     * Check if the transaction amounts have changed. If so,
-                     * reverse the original transaction and update
-                     * changedTransactionDetail accordingly
-                     **/
-                    if (LoanTransaction.transactionAmountsMatch(currency, loanTransaction, newLoanTransaction)) {
-                        loanTransaction.updateLoanTransactionToRepaymentScheduleMappings(newLoanTransaction
-                                .getLoanTransactionToRepaymentScheduleMappings());
-                    } else {
-                        loanTransaction.reverse();
-                        loanTransaction.updateExternalId(null);
-                        changedTransactionDetail.getNewTransactionMappings().put(loanTransaction.getId(), newLoanTransaction);
-                    }
+        } else if (loanTransaction.isWriteOff()) {
+            loanTransaction.resetDerivedComponents();
+            handleWriteOff(loanTransaction, currency, installments);
+        } else if (loanTransaction.isRefundForActiveLoan()) {
+            loanTransaction.resetDerivedComponents();
+
+            handleRefund(loanTransaction, currency, installments, charges);
+        }
+    }
+
+    /**
+     * Restores the leading transactions dated before <code>replayFrom</code>
+     * from their repayment schedule mappings, stopping at the first one that
+     * has to be replayed. Returns the number of transactions restored, or -1
+     * if a mapping did not fit the installments and the partially restored
+     * state has to be discarded.
+     */
+    private int restoreTransactionsBefore(final LocalDate replayFrom, final List<LoanTransaction> transactions,
+            final MonetaryCurrency currency, final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+
+        final Set<LoanRepaymentScheduleInstallment> currentInstallments = Collections
+                .newSetFromMap(new IdentityHashMap<LoanRepaymentScheduleInstallment, Boolean>());
+        currentInstallments.addAll(installments);
+
+        int restoredTransactions = 0;
+        for (final LoanTransaction loanTransaction : transactions) {
+            if (!loanTransaction.getTransactionDate().isBefore(replayFrom)) {
+                break;
+            }
+            if (loanTransaction.isRepayment() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment()
+                    || loanTransaction.isWriteOff() || loanTransaction.isRefundForActiveLoan()) {
+                if (!isRestorableFromRepaymentScheduleMappings(loanTransaction, currency, currentInstallments)) {
+                    break;
                 }
+                if (!restoreFromRepaymentScheduleMappings(loanTransaction, currency, charges)) { return -1; }
+            }
+            restoredTransactions++;
+        }
+        if (restoredTransactions > 0) {
+            Collections.sort(installments, byDueDate);
+        }
+        return restoredTransactions;
+    }
 
-            } else if (loanTransaction.isWriteOff()) {
-                loanTransaction.resetDerivedComponents();
-                handleWriteOff(loanTransaction, currency, installments);
-            } else if (loanTransaction.isRefundForActiveLoan()) {
-                loanTransaction.resetDerivedComponents();
+    /**
+     * Only existing repayments and interest waivers whose recorded mappings
+     * point at the current installments and add up to the transaction
+     * portions can be restored, anything else is replayed.
+     */
+    private boolean isRestorableFromRepaymentScheduleMappings(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final Set<LoanRepaymentScheduleInstallment> currentInstallments) {
+        if (loanTransaction.getId() == null || !(loanTransaction.isRepayment() || loanTransaction.isInterestWaiver())
+                || loanTransaction.getUnrecognizedIncomePortion(currency).isGreaterThanZero()) { return false; }
+
+        final MoneyAccumulator principal = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interest = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeCharges = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltyCharges = MoneyAccumulator.zero(currency);
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : loanTransaction.getLoanTransactionToRepaymentScheduleMappings()) {
+            if (!currentInstallments.contains(mapping.getLoanRepaymentScheduleInstallment())) { return false; }
+            principal.plus(mapping.getPrincipalPortion(currency));
+            interest.plus(mapping.getInterestPortion(currency));
+            feeCharges.plus(mapping.getFeeChargesPortion(currency));
+            penaltyCharges.plus(mapping.getPenaltyChargesPortion(currency));
+        }
 
-                handleRefund(loanTransaction, currency, installments, charges);
+        if (loanTransaction.isInterestWaiver()) { return principal.toMoney().isZero() && feeCharges.toMoney().isZero()
+                && penaltyCharges.toMoney().isZero() && interest.toMoney().isEqualTo(loanTransaction.getAmount(currency))
+                && interest.toMoney().isEqualTo(loanTransaction.getInterestPortion(currency)); }
+
+        final Money total = principal.toMoney().plus(interest.toMoney()).plus(feeCharges.toMoney()).plus(penaltyCharges.toMoney())
+                .plus(loanTransaction.getOverPaymentPortion(currency));
+        return principal.toMoney().isEqualTo(loanTransaction.getPrincipalPortion(currency))
+                && interest.toMoney().isEqualTo(loanTransaction.getInterestPortion(currency))
+                && feeCharges.toMoney().isEqualTo(loanTransaction.getFeeChargesPortion(currency))
+                && penaltyCharges.toMoney().isEqualTo(loanTransaction.getPenaltyChargesPortion(currency))
+                && total.isEqualTo(loanTransaction.getAmount(currency));
+    }
+
+    /**
+     * Applies the recorded mappings of the transaction to the installments
+     * and the charges, the transaction itself is left untouched. Returns
+     * false if an installment could not absorb its recorded portion.
+     */
+    private boolean restoreFromRepaymentScheduleMappings(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final Set<LoanCharge> charges) {
+        final LocalDate transactionDate = loanTransaction.getTransactionDate();
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : loanTransaction.getLoanTransactionToRepaymentScheduleMappings()) {
+            final LoanRepaymentScheduleInstallment installment = mapping.getLoanRepaymentScheduleInstallment();
+            final Money principal = mapping.getPrincipalPortion(currency);
+            final Money interest = mapping.getInterestPortion(currency);
+            final Money feeCharges = mapping.getFeeChargesPortion(currency);
+            final Money penaltyCharges = mapping.getPenaltyChargesPortion(currency);
+            if (loanTransaction.isInterestWaiver()) {
+                if (!installment.waiveInterestComponent(transactionDate, interest).isEqualTo(interest)) { return false; }
+                continue;
             }
+            if (penaltyCharges.isGreaterThanZero()
+                    && !installment.payPenaltyChargesComponent(transactionDate, penaltyCharges).isEqualTo(penaltyCharges)) { return false; }
+            if (feeCharges.isGreaterThanZero() && !installment.payFeeChargesComponent(transactionDate, feeCharges).isEqualTo(feeCharges)) { return false; }
+            if (interest.isGreaterThanZero() && !installment.payInterestComponent(transactionDate, interest).isEqualTo(interest)) { return false; }
+            if (principal.isGreaterThanZero() && !installment.payPrincipalComponent(transactionDate, principal).isEqualTo(principal)) { return false; }
         }
-        return changedTransactionDetail;
+
+        if (loanTransaction.isNotWaiver()) {
+            final Integer installmentNumber = null;
+            final boolean recordChargesPaidBy = false;
+            final Money feeCharges = loanTransaction.getFeeChargesPortion(currency);
+            if (feeCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, feeCharges, extractFeeCharges(charges), installmentNumber, recordChargesPaidBy);
+            }
+            final Money penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
+            if (penaltyCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, penaltyCharges, extractPenaltyCharges(charges), installmentNumber,
+                        recordChargesPaidBy);
+            }
+        }
+        return true;
+    }
+
+    private static Long loanIdOf(final List<LoanTransaction> transactions) {
+        return transactions.isEmpty() || transactions.get(0).getLoan() == null ? null : transactions.get(0).getLoan().getId();
     }
 
     /**
@@ -329,8 +520,19 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
 
     private void updateChargesPaidAmountBy(final LoanTransaction loanTransaction, final Money feeCharges, final Set<LoanCharge> charges,
             final Integer installmentNumber) {
+        final boolean recordChargesPaidBy = true;
+        updateChargesPaidAmountBy(loanTransaction, feeCharges, charges, installmentNumber, recordChargesPaidBy);
+    }
 
-        Money amountRemaining = feeCharges;
+    /**
+     * When <code>recordChargesPaidBy</code> is not set only the paid amounts
+     * of the charges are updated, used when restoring a transaction whose
+     * {@link LoanChargePaidBy} records already exist.
+     */
+    private void updateChargesPaidAmountBy(final LoanTransaction loanTransaction, final Money feeCharges, final Set<LoanCharge> charges,
+            final Integer installmentNumber, final boolean recordChargesPaidBy) {
+
+        final MoneyAccumulator amountRemaining = MoneyAccumulator.of(feeCharges);
         while (amountRemaining.isGreaterThanZero()) {
             final LoanCharge unpaidCharge = findEarliestUnpaidChargeFromUnOrderedSet(charges, feeCharges.getCurrency());
             Money feeAmount = feeCharges.zero();
@@ -338,7 +540,8 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                 feeAmount = feeCharges;
             }
             if (unpaidCharge == null) break; // All are trache charges
-            final Money amountPaidTowardsCharge = unpaidCharge.updatePaidAmountBy(amountRemaining, installmentNumber, feeAmount);
+            final Money amountPaidTowardsCharge = unpaidCharge.updatePaidAmountBy(amountRemaining.toMoney(), installmentNumber,
+                    feeAmount);
             if (!amountPaidTowardsCharge.isZero()) {
                 Set<LoanChargePaidBy> chargesPaidBies = loanTransaction.getLoanChargesPaid();
                 if (loanTransaction.isChargePayment()) {
@@ -348,12 +551,12 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                             chargePaidBy.setAmount(amountPaidTowardsCharge.getAmount());
                         }
                     }
-                } else {
+                } else if (recordChargesPaidBy) {
                     final LoanChargePaidBy loanChargePaidBy = new LoanChargePaidBy(loanTransaction, unpaidCharge,
                             amountPaidTowardsCharge.getAmount(), installmentNumber);
                     chargesPaidBies.add(loanChargePaidBy);
                 }
-                amountRemaining = amountRemaining.minus(amountPaidTowardsCharge);
+                amountRemaining.minus(amountPaidTowardsCharge);
             }
         }
 
@@ -392,25 +595,25 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             final List<LoanRepaymentScheduleInstallment> installments) {
 
         final LocalDate transactionDate = loanTransaction.getTransactionDate();
-        Money principalPortion = Money.zero(currency);
-        Money interestPortion = Money.zero(currency);
-        Money feeChargesPortion = Money.zero(currency);
-        Money penaltychargesPortion = Money.zero(currency);
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeChargesPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltychargesPortion = MoneyAccumulator.zero(currency);
 
         // determine how much is written off in total and breakdown for
         // principal, interest and charges
         for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
 
             if (currentInstallment.isNotFullyPaidOff()) {
-                principalPortion = principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
-                interestPortion = interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
-                feeChargesPortion = feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
-                penaltychargesPortion = penaltychargesPortion.plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate,
-                        currency));
+                principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
+                interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
+                feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
+                penaltychargesPortion.plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
             }
         }
 
-        loanTransaction.updateComponentsAndTotal(principalPortion, interestPortion, feeChargesPortion, penaltychargesPortion);
+        loanTransaction.updateComponentsAndTotal(principalPortion.toMoney(), interestPortion.toMoney(), feeChargesPortion.toMoney(),
+                penaltychargesPortion.toMoney());
     }
 
     // abstract interface
@@ -510,6 +713,16 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         return false;
     }
 
+    /**
+     * Whether the effect of a processed transaction on the installments is
+     * fully described by its repayment schedule mappings, so that it can be
+     * restored instead of replayed. Strategies with side effects that are not
+     * recorded in the mappings must return false.
+     */
+    protected boolean isRestoreFromRepaymentScheduleMappingsSupported() {
+        return true;
+    }
+
     @Override
     public void handleRefund(LoanTransaction loanTransaction, MonetaryCurrency currency,
             List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
@@ -573,22 +786,22 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     private void undoChargesPaidAmountBy(final LoanTransaction loanTransaction, final Money feeCharges, final Set<LoanCharge> charges,
             final Integer installmentNumber) {
 
-        Money amountRemaining = feeCharges;
+        final MoneyAccumulator amountRemaining = MoneyAccumulator.of(feeCharges);
         while (amountRemaining.isGreaterThanZero()) {
             final LoanCharge paidCharge = findLatestPaidChargeFromUnOrderedSet(charges, feeCharges.getCurrency());
 
             if (paidCharge != null) {
                 Money feeAmount = feeCharges.zero();
 
-                final Money amountDeductedTowardsCharge = paidCharge.undoPaidOrPartiallyAmountBy(amountRemaining, installmentNumber,
-                        feeAmount);
+                final Money amountDeductedTowardsCharge = paidCharge.undoPaidOrPartiallyAmountBy(amountRemaining.toMoney(),
+                        installmentNumber, feeAmount);
                 if (amountDeductedTowardsCharge.isGreaterThanZero()) {
 
                     final LoanChargePaidBy loanChargePaidBy = new LoanChargePaidBy(loanTransaction, paidCharge, amountDeductedTowardsCharge
                             .getAmount().multiply(new BigDecimal(-1)), null);
                     loanTransaction.getLoanChargesPaid().add(loanChargePaidBy);
 
-                    amountRemaining = amountRemaining.minus(amountDeductedTowardsCharge);
+                    amountRemaining.minus(amountDeductedTowardsCharge);
                 }
             }
         }
@@ -638,51 +851,44 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
 
     private void processTransactionFromDerivedFields(final LoanTransaction loanTransaction, MonetaryCurrency currency,
             List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
-        Money principal = loanTransaction.getPrincipalPortion(currency);
-        Money interest = loanTransaction.getInterestPortion(currency);
-        if (loanTransaction.isInterestWaiver()) {
-            interest = loanTransaction.getAmount(currency);
-        }
-        Money feeCharges = loanTransaction.getFeeChargesPortion(currency);
-        Money penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
+        final MoneyAccumulator principal = MoneyAccumulator.of(loanTransaction.getPrincipalPortion(currency));
+        final MoneyAccumulator interest = MoneyAccumulator.of(loanTransaction.isInterestWaiver() ? loanTransaction.getAmount(currency)
+                : loanTransaction.getInterestPortion(currency));
+        final MoneyAccumulator feeCharges = MoneyAccumulator.of(loanTransaction.getFeeChargesPortion(currency));
+        final MoneyAccumulator penaltyCharges = MoneyAccumulator.of(loanTransaction.getPenaltyChargesPortion(currency));
         final LocalDate transactionDate = loanTransaction.getTransactionDate();
         if (principal.isGreaterThanZero() || interest.isGreaterThanZero() || feeCharges.isGreaterThanZero()
                 || penaltyCharges.isGreaterThanZero()) {
             for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
                 if (currentInstallment.isNotFullyPaidOff()) {
                     if (penaltyCharges.isGreaterThanZero()) {
-                        Money penaltyChargesPortion = Money.zero(currency);
                         if (loanTransaction.isWaiver()) {
-                            penaltyChargesPortion = currentInstallment.waivePenaltyChargesComponent(transactionDate, penaltyCharges);
+                            penaltyCharges.minus(currentInstallment.waivePenaltyChargesComponent(transactionDate,
+                                    penaltyCharges.toMoney()));
                         } else {
-                            penaltyChargesPortion = currentInstallment.payPenaltyChargesComponent(transactionDate, penaltyCharges);
+                            penaltyCharges.minus(currentInstallment.payPenaltyChargesComponent(transactionDate,
+                                    penaltyCharges.toMoney()));
                         }
-                        penaltyCharges = penaltyCharges.minus(penaltyChargesPortion);
                     }
 
                     if (feeCharges.isGreaterThanZero()) {
-                        Money feeChargesPortion = Money.zero(currency);
                         if (loanTransaction.isWaiver()) {
-                            feeChargesPortion = currentInstallment.waiveFeeChargesComponent(transactionDate, feeCharges);
+                            feeCharges.minus(currentInstallment.waiveFeeChargesComponent(transactionDate, feeCharges.toMoney()));
                         } else {
-                            feeChargesPortion = currentInstallment.payFeeChargesComponent(transactionDate, feeCharges);
+                            feeCharges.minus(currentInstallment.payFeeChargesComponent(transactionDate, feeCharges.toMoney()));
                         }
-                        feeCharges = feeCharges.minus(feeChargesPortion);
                     }
 
                     if (interest.isGreaterThanZero()) {
-                        Money interestPortion = Money.zero(currency);
                         if (loanTransaction.isWaiver()) {
-                            interestPortion = currentInstallment.waiveInterestComponent(transactionDate, interest);
+                            interest.minus(currentInstallment.waiveInterestComponent(transactionDate, interest.toMoney()));
                         } else {
-                            interestPortion = currentInstallment.payInterestComponent(transactionDate, interest);
+                            interest.minus(currentInstallment.payInterestComponent(transactionDate, interest.toMoney()));
                         }
-                        interest = interest.minus(interestPortion);
                     }
 
                     if (principal.isGreaterThanZero()) {
-                        Money principalPortion = currentInstallment.payPrincipalComponent(transactionDate, principal);
-                        principal = principal.minus(principalPortion);
+                        principal.minus(currentInstallment.payPrincipalComponent(transactionDate, principal.toMoney()));
                     }
                 }
                 if (!(principal.isGreaterThanZero() || interest.isGreaterThanZero() || feeCharges.isGreaterThanZero() || penaltyCharges
@@ -700,14 +906,14 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
         }
 
         if (loanTransaction.isNotWaiver()) {
-            feeCharges = loanTransaction.getFeeChargesPortion(currency);
-            penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
-            if (feeCharges.isGreaterThanZero()) {
-                updateChargesPaidAmountBy(loanTransaction, feeCharges, loanFees, installmentNumber);
+            final Money feeChargesPortion = loanTransaction.getFeeChargesPortion(currency);
+            final Money penaltyChargesPortion = loanTransaction.getPenaltyChargesPortion(currency);
+            if (feeChargesPortion.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, feeChargesPortion, loanFees, installmentNumber);
             }
 
-            if (penaltyCharges.isGreaterThanZero()) {
-                updateChargesPaidAmountBy(loanTransaction, penaltyCharges, loanPenalties, installmentNumber);
+            if (penaltyChargesPortion.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, penaltyChargesPortion, loanPenalties, installmentNumber);
             }
         }
     }
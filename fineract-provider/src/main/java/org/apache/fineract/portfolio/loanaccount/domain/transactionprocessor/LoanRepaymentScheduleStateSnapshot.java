@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanInstallmentCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+
+/**
+ * Captures the derived (paid, waived, written off) state of the repayment
+ * schedule and the loan charges at one point of transaction processing, so
+ * that an incremental replay can be checked against a full replay.
+ */
+public final class LoanRepaymentScheduleStateSnapshot {
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    private LoanRepaymentScheduleStateSnapshot() {
+        //
+    }
+
+    public static LoanRepaymentScheduleStateSnapshot of(final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        final LoanRepaymentScheduleStateSnapshot snapshot = new LoanRepaymentScheduleStateSnapshot();
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            final String key = "installment[" + installment.getInstallmentNumber() + "].";
+            snapshot.put(key + "principalCompleted", installment.getPrincipalCompleted(currency));
+            snapshot.put(key + "principalWrittenOff", installment.getPrincipalWrittenOff(currency));
+            snapshot.put(key + "interestPaid", installment.getInterestPaid(currency));
+            snapshot.put(key + "interestWaived", installment.getInterestWaived(currency));
+            snapshot.put(key + "interestWrittenOff", installment.getInterestWrittenOff(currency));
+            snapshot.put(key + "feeChargesPaid", installment.getFeeChargesPaid(currency));
+            snapshot.put(key + "feeChargesWaived", installment.getFeeChargesWaived(currency));
+            snapshot.put(key + "feeChargesWrittenOff", installment.getFeeChargesWrittenOff(currency));
+            snapshot.put(key + "penaltyChargesPaid", installment.getPenaltyChargesPaid(currency));
+            snapshot.put(key + "penaltyChargesWaived", installment.getPenaltyChargesWaived(currency));
+            snapshot.put(key + "penaltyChargesWrittenOff", installment.getPenaltyChargesWrittenOff(currency));
+            snapshot.put(key + "totalPaidInAdvance", installment.getTotalPaidInAdvance(currency));
+            snapshot.put(key + "totalPaidLate", installment.getTotalPaidLate(currency));
+            snapshot.values.put(key + "obligationsMet", installment.isObligationsMet());
+            snapshot.values.put(key + "obligationsMetOnDate", installment.getObligationsMetOnDate());
+        }
+        if (charges != null) {
+            int chargeIndex = 0;
+            for (final LoanCharge charge : charges) {
+                final String key = "charge[" + chargeIndex++ + "].";
+                snapshot.put(key + "amountPaid", charge.getAmountPaid(currency));
+                snapshot.put(key + "amountOutstanding", charge.getAmountOutstanding(currency));
+                for (final LoanInstallmentCharge installmentCharge : charge.installmentCharges()) {
+                    snapshot.put(key + "installment[" + installmentCharge.getRepaymentInstallment().getInstallmentNumber() + "].amountPaid",
+                            installmentCharge.getAmountPaid(currency));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void put(final String key, final Money value) {
+        this.values.put(key, value.getAmount());
+    }
+
+    /**
+     * Returns the name of the first value that differs between the two
+     * snapshots, or <code>null</code> if they are identical.
+     */
+    public String firstDifference(final LoanRepaymentScheduleStateSnapshot other) {
+        for (final Map.Entry<String, Object> entry : this.values.entrySet()) {
+            if (!other.values.containsKey(entry.getKey()) || !valuesMatch(entry.getValue(), other.values.get(entry.getKey()))) { return entry
+                    .getKey(); }
+        }
+        for (final String key : other.values.keySet()) {
+            if (!this.values.containsKey(key)) { return key; }
+        }
+        return null;
+    }
+
+    private static boolean valuesMatch(final Object value, final Object otherValue) {
+        if (value instanceof BigDecimal && otherValue instanceof BigDecimal) { return ((BigDecimal) value).compareTo((BigDecimal) otherValue) == 0; }
+        return Objects.equals(value, otherValue);
+    }
+}
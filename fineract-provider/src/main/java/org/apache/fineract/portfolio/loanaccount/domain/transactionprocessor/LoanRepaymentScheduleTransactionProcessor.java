@@ -36,6 +36,17 @@ public interface LoanRepaymentScheduleTransactionProcessor {
     ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
             MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
 
+    /**
+     * Re-processes the transactions, restoring those dated before
+     * <code>replayFrom</code> from their recorded repayment schedule mappings
+     * and replaying only the rest. A null <code>replayFrom</code> replays
+     * everything, <code>verifyReplay</code> checks the restored state against
+     * a complete re-process.
+     */
+    ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, LocalDate replayFrom, boolean verifyReplay,
+            List<LoanTransaction> repaymentsOrWaivers, MonetaryCurrency currency,
+            List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
+
     void handleWriteOff(LoanTransaction loanTransaction, MonetaryCurrency loanCurrency,
             List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments);
 
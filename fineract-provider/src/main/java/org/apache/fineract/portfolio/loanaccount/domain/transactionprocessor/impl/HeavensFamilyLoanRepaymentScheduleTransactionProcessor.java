@@ -203,6 +203,15 @@ public class HeavensFamilyLoanRepaymentScheduleTransactionProcessor extends Abst
         return transactionAmountRemaining;
     }
 
+    /**
+     * Interest is auto waived when the principal of an installment is
+     * completed, which is not recorded in the mappings.
+     */
+    @Override
+    protected boolean isRestoreFromRepaymentScheduleMappingsSupported() {
+        return false;
+    }
+
     @Override
     protected void onLoanOverpayment(final LoanTransaction loanTransaction, final Money loanOverPaymentAmount) {}
 
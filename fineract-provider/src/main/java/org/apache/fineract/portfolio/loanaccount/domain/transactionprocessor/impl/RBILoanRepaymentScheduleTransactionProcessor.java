@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.im
 import java.util.List;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionToRepaymentScheduleMapping;
@@ -118,19 +119,20 @@ public class RBILoanRepaymentScheduleTransactionProcessor extends AbstractLoanRe
             final LoanRepaymentScheduleInstallment currentInstallmentBasedOnTransactionDate = nearestInstallment(
                     loanTransaction.getTransactionDate(), installments);
 
+            final MoneyAccumulator amountRemaining = MoneyAccumulator.of(transactionAmountRemaining);
             for (final LoanRepaymentScheduleInstallment installment : installments) {
                 if ((installment.isInterestDue(currency) || installment.getFeeChargesOutstanding(currency).isGreaterThanZero() || installment
                         .getPenaltyChargesOutstanding(currency).isGreaterThanZero())
                         && (installment.isOverdueOn(loanTransaction.getTransactionDate()) || installment.getInstallmentNumber().equals(
                                 currentInstallmentBasedOnTransactionDate.getInstallmentNumber()))) {
-                    penaltyChargesPortion = installment.payPenaltyChargesComponent(transactionDate, transactionAmountRemaining);
-                    transactionAmountRemaining = transactionAmountRemaining.minus(penaltyChargesPortion);
+                    penaltyChargesPortion = installment.payPenaltyChargesComponent(transactionDate, amountRemaining.toMoney());
+                    amountRemaining.minus(penaltyChargesPortion);
 
-                    feeChargesPortion = installment.payFeeChargesComponent(transactionDate, transactionAmountRemaining);
-                    transactionAmountRemaining = transactionAmountRemaining.minus(feeChargesPortion);
+                    feeChargesPortion = installment.payFeeChargesComponent(transactionDate, amountRemaining.toMoney());
+                    amountRemaining.minus(feeChargesPortion);
 
-                    final Money interestPortion = installment.payInterestComponent(transactionDate, transactionAmountRemaining);
-                    transactionAmountRemaining = transactionAmountRemaining.minus(interestPortion);
+                    final Money interestPortion = installment.payInterestComponent(transactionDate, amountRemaining.toMoney());
+                    amountRemaining.minus(interestPortion);
 
                     final Money principalPortion = Money.zero(currency);
                     loanTransaction.updateComponents(principalPortion, interestPortion, feeChargesPortion, penaltyChargesPortion);
@@ -144,9 +146,9 @@ public class RBILoanRepaymentScheduleTransactionProcessor extends AbstractLoanRe
             // With whatever is remaining, pay off principal components of
             // installments
             for (final LoanRepaymentScheduleInstallment installment : installments) {
-                if (installment.isPrincipalNotCompleted(currency) && transactionAmountRemaining.isGreaterThanZero()) {
-                    final Money principalPortion = installment.payPrincipalComponent(transactionDate, transactionAmountRemaining);
-                    transactionAmountRemaining = transactionAmountRemaining.minus(principalPortion);
+                if (installment.isPrincipalNotCompleted(currency) && amountRemaining.isGreaterThanZero()) {
+                    final Money principalPortion = installment.payPrincipalComponent(transactionDate, amountRemaining.toMoney());
+                    amountRemaining.minus(principalPortion);
 
                     final Money interestPortion = Money.zero(currency);
                     loanTransaction.updateComponents(principalPortion, interestPortion, Money.zero(currency), Money.zero(currency));
@@ -167,6 +169,7 @@ public class RBILoanRepaymentScheduleTransactionProcessor extends AbstractLoanRe
                     }
                 }
             }
+            transactionAmountRemaining = amountRemaining.toMoney();
         }
 
         return transactionAmountRemaining;
@@ -252,6 +255,15 @@ public class RBILoanRepaymentScheduleTransactionProcessor extends AbstractLoanRe
         // dont do anything for with loan over-payment
     }
 
+    /**
+     * Late repayments are spread over several installments from within one
+     * installment step, so the recorded mappings can be merged.
+     */
+    @Override
+    protected boolean isRestoreFromRepaymentScheduleMappingsSupported() {
+        return false;
+    }
+
     @Override
     public boolean isInterestFirstRepaymentScheduleTransactionProcessor() {
         return true;
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.RecalculationDetail;
@@ -41,12 +42,12 @@ public class LoanScheduleParams {
     private LocalDate periodStartDate;
     private LocalDate actualRepaymentDate;
 
-    // variables for cumulative totals
-    private Money totalCumulativePrincipal;
-    private Money totalCumulativeInterest;
-    private Money totalFeeChargesCharged;
-    private Money totalPenaltyChargesCharged;
-    private Money totalRepaymentExpected;
+    // variables for cumulative totals, summed in place
+    private MoneyAccumulator totalCumulativePrincipal;
+    private MoneyAccumulator totalCumulativeInterest;
+    private MoneyAccumulator totalFeeChargesCharged;
+    private MoneyAccumulator totalPenaltyChargesCharged;
+    private MoneyAccumulator totalRepaymentExpected;
     private Money totalOutstandingInterestPaymentDueToGrace;
 
     // early payments will be added here and as per the selected strategy
@@ -115,11 +116,11 @@ public class LoanScheduleParams {
         this.loanTermInDays = loanTermInDays;
         this.periodStartDate = periodStartDate;
         this.actualRepaymentDate = actualRepaymentDate;
-        this.totalCumulativePrincipal = totalCumulativePrincipal;
-        this.totalCumulativeInterest = totalCumulativeInterest;
-        this.totalFeeChargesCharged = totalFeeChargesCharged;
-        this.totalPenaltyChargesCharged = totalPenaltyChargesCharged;
-        this.totalRepaymentExpected = totalRepaymentExpected;
+        this.totalCumulativePrincipal = accumulatorOf(totalCumulativePrincipal);
+        this.totalCumulativeInterest = accumulatorOf(totalCumulativeInterest);
+        this.totalFeeChargesCharged = accumulatorOf(totalFeeChargesCharged);
+        this.totalPenaltyChargesCharged = accumulatorOf(totalPenaltyChargesCharged);
+        this.totalRepaymentExpected = accumulatorOf(totalRepaymentExpected);
         this.totalOutstandingInterestPaymentDueToGrace = totalOutstandingInterestPaymentDueToGrace;
         this.reducePrincipal = reducePrincipal;
         this.principalPortionMap = principalPortionMap;
@@ -267,6 +268,10 @@ public class LoanScheduleParams {
         return this.periodNumber;
     }
 
+    private static MoneyAccumulator accumulatorOf(final Money money) {
+        return money == null ? null : MoneyAccumulator.of(money);
+    }
+
     public int getInstalmentNumber() {
         return this.instalmentNumber;
     }
@@ -276,43 +281,43 @@ public class LoanScheduleParams {
     }
 
     public Money getTotalCumulativePrincipal() {
-        return this.totalCumulativePrincipal;
+        return this.totalCumulativePrincipal == null ? null : this.totalCumulativePrincipal.toMoney();
     }
 
     public void addTotalCumulativePrincipal(final Money totalCumulativePrincipal) {
-        this.totalCumulativePrincipal = this.totalCumulativePrincipal.plus(totalCumulativePrincipal);
+        this.totalCumulativePrincipal.plus(totalCumulativePrincipal);
     }
 
     public Money getTotalCumulativeInterest() {
-        return this.totalCumulativeInterest;
+        return this.totalCumulativeInterest == null ? null : this.totalCumulativeInterest.toMoney();
     }
 
     public void addTotalCumulativeInterest(final Money totalCumulativeInterest) {
-        this.totalCumulativeInterest = this.totalCumulativeInterest.plus(totalCumulativeInterest);
+        this.totalCumulativeInterest.plus(totalCumulativeInterest);
     }
 
     public Money getTotalFeeChargesCharged() {
-        return this.totalFeeChargesCharged;
+        return this.totalFeeChargesCharged == null ? null : this.totalFeeChargesCharged.toMoney();
     }
 
     public void addTotalFeeChargesCharged(final Money totalFeeChargesCharged) {
-        this.totalFeeChargesCharged = this.totalFeeChargesCharged.plus(totalFeeChargesCharged);
+        this.totalFeeChargesCharged.plus(totalFeeChargesCharged);
     }
 
     public Money getTotalPenaltyChargesCharged() {
-        return this.totalPenaltyChargesCharged;
+        return this.totalPenaltyChargesCharged == null ? null : this.totalPenaltyChargesCharged.toMoney();
     }
 
     public void addTotalPenaltyChargesCharged(final Money totalPenaltyChargesCharged) {
-        this.totalPenaltyChargesCharged = this.totalPenaltyChargesCharged.plus(totalPenaltyChargesCharged);
+        this.totalPenaltyChargesCharged.plus(totalPenaltyChargesCharged);
     }
 
     public Money getTotalRepaymentExpected() {
-        return this.totalRepaymentExpected;
+        return this.totalRepaymentExpected == null ? null : this.totalRepaymentExpected.toMoney();
     }
 
     public void addTotalRepaymentExpected(final Money totalRepaymentExpected) {
-        this.totalRepaymentExpected = this.totalRepaymentExpected.plus(totalRepaymentExpected);
+        this.totalRepaymentExpected.plus(totalRepaymentExpected);
     }
 
     public Money getReducePrincipal() {
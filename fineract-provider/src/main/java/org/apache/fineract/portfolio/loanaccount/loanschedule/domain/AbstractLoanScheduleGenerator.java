@@ -33,6 +33,7 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.organisation.workingdays.data.AdjustedDateDetailsDTO;
 import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
 import org.apache.fineract.portfolio.calendar.domain.CalendarInstance;
@@ -67,6 +68,17 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
         return generate(mc, loanApplicationTerms, loanCharges, holidayDetailDTO, loanScheduleRecalculationDTO);
     }
 
+    @Override
+    public LoanScheduleModel generate(final MathContext mc, final LoanApplicationTerms loanApplicationTerms,
+            final Set<LoanCharge> loanCharges, final HolidayDetailDTO holidayDetailDTO,
+            final Collection<RecalculationDetail> recalculationDetails,
+            final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor) {
+        final LocalDate scheduleTillDate = null;
+        final LoanScheduleParams loanScheduleParams = LoanScheduleParams.createLoanScheduleParamsForCompleteUpdate(recalculationDetails,
+                loanRepaymentScheduleTransactionProcessor, scheduleTillDate, loanApplicationTerms.isInterestRecalculationEnabled());
+        return generate(mc, loanApplicationTerms, loanCharges, holidayDetailDTO, loanScheduleParams);
+    }
+
     private LoanScheduleModel generate(final MathContext mc, final LoanApplicationTerms loanApplicationTerms,
             final Set<LoanCharge> loanCharges, final HolidayDetailDTO holidayDetailDTO, final LoanScheduleParams loanScheduleParams) {
 
@@ -1396,12 +1408,13 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
 
                 if(loanApplicationTerms.getInterestRecalculationCompoundingMethod().isCompoundingEnabled()) {
                     Money uncompounded = params.getUnCompoundedAmount();
-                    Money compounded = uncompounded.zero();
+                    final MoneyAccumulator compoundedTotal = MoneyAccumulator.zero(uncompounded.getCurrency());
                     for (Map.Entry<LocalDate, Money> mapEntry : params.getCompoundingMap().entrySet()) {
                         if (mapEntry.getKey().isAfter(params.getPeriodStartDate())) {
-                            compounded = compounded.plus(mapEntry.getValue());
+                            compoundedTotal.plus(mapEntry.getValue());
                         }
                     }
+                    Money compounded = compoundedTotal.toMoney();
                     if (compounded.isGreaterThanZero() && startDate.isEqual(additionalPeriodsStartDate)) {
                         params.setCompoundedInLastInstallment(uncompoundedFromLastInstallment);// uncompounded in last installment
                         additionalPeriodsStartDate = additionalPeriodsStartDate.plusDays(1);
@@ -1519,13 +1532,13 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
     private Money updateBalanceForInterestCalculation(final Map<LocalDate, Money> principalPortionMap, final LocalDate scheduledDueDate,
             final Money outstandingBalanceAsPerRest, boolean addMapDetails) {
         List<LocalDate> removeFromprincipalPortionMap = new ArrayList<>();
-        Money outstandingBalance = outstandingBalanceAsPerRest;
+        final MoneyAccumulator outstandingBalance = MoneyAccumulator.of(outstandingBalanceAsPerRest);
         for (Map.Entry<LocalDate, Money> principal : principalPortionMap.entrySet()) {
             if (!principal.getKey().isAfter(scheduledDueDate)) {
                 if (addMapDetails) {
-                    outstandingBalance = outstandingBalance.plus(principal.getValue());
+                    outstandingBalance.plus(principal.getValue());
                 } else {
-                    outstandingBalance = outstandingBalance.minus(principal.getValue());
+                    outstandingBalance.minus(principal.getValue());
                 }
                 removeFromprincipalPortionMap.add(principal.getKey());
             }
@@ -1533,7 +1546,7 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
         for (LocalDate date : removeFromprincipalPortionMap) {
             principalPortionMap.remove(date);
         }
-        return outstandingBalance;
+        return outstandingBalance.toMoney();
     }
 
     // this is to make sure even paid late payments(principal and compounded
@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.util.Collection;
+import java.util.Map;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
@@ -32,6 +33,11 @@ public interface LoanAccrualPlatformService {
     void addAccrualAccounting() throws JobExecutionException;
 
     void addPeriodicAccruals() throws JobExecutionException;
+
+    void addPeriodicAccruals(Map<String, String> jobParameters) throws JobExecutionException;
+
+    void addPeriodicAccruals(LocalDate tilldate, int threadPoolSize, int batchSize) throws JobExecutionException;
+
     void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions() throws JobExecutionException;
 
 }
@@ -20,27 +20,55 @@ package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunFailure;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunFailureRepository;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(LoanAccrualPlatformServiceImpl.class);
+
+    private static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    private static final String BATCH_SIZE_PARAMETER = "batch-size";
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final ScheduledJobDetailRepository scheduledJobDetailRepository;
+    private final ScheduledJobRunFailureRepository scheduledJobRunFailureRepository;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService,
+            final ScheduledJobDetailRepository scheduledJobDetailRepository,
+            final ScheduledJobRunFailureRepository scheduledJobRunFailureRepository) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.scheduledJobDetailRepository = scheduledJobDetailRepository;
+        this.scheduledJobRunFailureRepository = scheduledJobRunFailureRepository;
     }
 
     @Override
@@ -81,6 +109,132 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
+    @Override
+    @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
+    public void addPeriodicAccruals(final Map<String, String> jobParameters) throws JobExecutionException {
+        final int threadPoolSize = Integer.parseInt(jobParameters.get(THREAD_POOL_SIZE_PARAMETER));
+        final int batchSize = Integer.parseInt(jobParameters.get(BATCH_SIZE_PARAMETER));
+        addPeriodicAccruals(LocalDate.now(), threadPoolSize, batchSize);
+    }
+
+    /**
+     * Pages through the loans with pending periodic accruals by loan id and
+     * accrues each page on a pool of <code>threadPoolSize</code> workers, in
+     * batches of <code>batchSize</code> loans, each loan in its own
+     * transaction. Workers record the loans that fail in
+     * {@link ScheduledJobRunFailure} themselves, so a failure never takes the
+     * other loans of its batch with it.
+     *
+     * Accrued loans drop out of the pending query, so a run that is restarted
+     * only sees the loans it has not accrued yet (and the ones that failed).
+     */
+    @Override
+    public void addPeriodicAccruals(final LocalDate tilldate, final int threadPoolSize, final int batchSize) throws JobExecutionException {
+        final Long jobId = this.scheduledJobDetailRepository.findByJobName(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES.toString()).getId();
+        final Date businessDate = DateUtils.getLocalDateOfTenant().toDate();
+        // failures of an earlier run on the same day are retried by this run
+        this.scheduledJobRunFailureRepository.deleteAll(this.scheduledJobRunFailureRepository.findFailures(jobId, businessDate));
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final int pageSize = threadPoolSize * batchSize;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        final StringBuilder sb = new StringBuilder();
+        int accruedCount = 0;
+        int failedCount = 0;
+        try {
+            List<Long> loanIds = this.loanReadPlatformService.retrievePeriodicAccrualLoanIds(tilldate, 0L, pageSize);
+            while (!loanIds.isEmpty()) {
+                final List<List<Long>> batches = new ArrayList<>();
+                final List<Callable<Integer>> accruers = new ArrayList<>();
+                for (int fromIndex = 0; fromIndex < loanIds.size(); fromIndex += batchSize) {
+                    final List<Long> batch = new ArrayList<>(loanIds.subList(fromIndex, Math.min(fromIndex + batchSize, loanIds.size())));
+                    batches.add(batch);
+                    accruers.add(() -> {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                        try {
+                            return addPeriodicAccruals(tilldate, batch, jobId, businessDate);
+                        } finally {
+                            ThreadLocalContextUtil.clearTenant();
+                        }
+                    });
+                }
+
+                final List<Future<Integer>> responses = executorService.invokeAll(accruers);
+                for (int i = 0; i < responses.size(); i++) {
+                    try {
+                        final int batchFailedCount = responses.get(i).get();
+                        failedCount += batchFailedCount;
+                        accruedCount += batches.get(i).size() - batchFailedCount;
+                    } catch (final ExecutionException e) {
+                        // only errors escape a worker, the loans it did not get
+                        // to are still pending and picked up by the next run
+                        logger.error("Execution exception while adding periodic accruals", e);
+                        sb.append("failed to add accural transactions for loans from id ").append(batches.get(i).get(0))
+                                .append(" with message ").append(e.getCause().getMessage());
+                    }
+                }
+
+                final Long lastLoanId = loanIds.get(loanIds.size() - 1);
+                loanIds = this.loanReadPlatformService.retrievePeriodicAccrualLoanIds(tilldate, lastLoanId, pageSize);
+            }
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while adding periodic accruals", e);
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while adding periodic accruals after " + accruedCount + " loans");
+        } finally {
+            executorService.shutdownNow();
+        }
+        logger.info("Added periodic accruals for " + accruedCount + " loans, " + failedCount + " failed");
+
+        if (failedCount > 0) {
+            sb.append("failed to add accural transaction for ").append(failedCount).append(" loans, see job_run_failure for job ")
+                    .append(jobId).append(" and business date ").append(new LocalDate(businessDate));
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+    }
+
+    /**
+     * @return the number of loans of the batch that failed, each of them
+     *         recorded in {@link ScheduledJobRunFailure}
+     */
+    private int addPeriodicAccruals(final LocalDate tilldate, final List<Long> loanIds, final Long jobId, final Date businessDate) {
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = null;
+        try {
+            loanDataMap = groupByLoan(this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, loanIds));
+        } catch (final Exception e) {
+            logger.warn("Reading periodic accrual data for loans from id " + loanIds.get(0) + " failed, reading it loan by loan", e);
+        }
+
+        int failedCount = 0;
+        for (final Long loanId : loanIds) {
+            try {
+                final Collection<LoanScheduleAccrualData> accrualDatas = loanDataMap == null ? groupByLoan(
+                        this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, Collections.singletonList(loanId))).get(loanId)
+                        : loanDataMap.get(loanId);
+                if (accrualDatas != null) {
+                    this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId, accrualDatas);
+                }
+            } catch (Exception e) {
+                Throwable realCause = e;
+                if (e.getCause() != null) {
+                    realCause = e.getCause();
+                }
+                failedCount++;
+                this.scheduledJobRunFailureRepository.save(ScheduledJobRunFailure.instance(jobId, businessDate,
+                        ScheduledJobRunFailure.ENTITY_TYPE_LOAN, loanId, realCause.getMessage()));
+            }
+        }
+        return failedCount;
+    }
+
+    private static Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> accrualDatas) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+        for (final LoanScheduleAccrualData accrualData : accrualDatas) {
+            loanDataMap.computeIfAbsent(accrualData.getLoanId(), loanId -> new ArrayList<>()).add(accrualData);
+        }
+        return loanDataMap;
+    }
+
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate) {
         Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -58,6 +59,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, BusinessEventListner {
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
+    private static final String INCREMENTAL_PARAMETER = "incremental";
+    private static final int INCREMENTAL_BATCH_SIZE = 1000;
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final JdbcTemplate jdbcTemplate;
@@ -87,9 +90,53 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
     public void updateLoanArrearsAgeingDetails() {
+        final Timestamp runStartTime = retrieveDatabaseTime();
+        final String loanIdsAsString = null;
+        final int result = refreshLoanArrearsAgeingDetails(loanIdsAsString);
+        saveWatermark(runStartTime);
 
-        this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
+
+    @Transactional
+    @Override
+    @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
+    public void updateLoanArrearsAgeingDetails(final Map<String, String> jobParameters) {
+        final boolean incremental = "true".equalsIgnoreCase(jobParameters.get(INCREMENTAL_PARAMETER));
+        if (!incremental) {
+            updateLoanArrearsAgeingDetails();
+            return;
+        }
 
+        final Timestamp runStartTime = retrieveDatabaseTime();
+        final Timestamp watermark = retrieveWatermark();
+        if (watermark == null) {
+            // nothing to be incremental on yet
+            updateLoanArrearsAgeingDetails();
+            return;
+        }
+
+        final List<Long> loanIds = retrieveLoansWithChangedArrears(watermark);
+        int result = 0;
+        for (int fromIndex = 0; fromIndex < loanIds.size(); fromIndex += INCREMENTAL_BATCH_SIZE) {
+            final List<Long> batch = loanIds.subList(fromIndex, Math.min(fromIndex + INCREMENTAL_BATCH_SIZE, loanIds.size()));
+            final String loanIdsAsString = batch.toString().substring(1, batch.toString().length() - 1);
+            result += refreshLoanArrearsAgeingDetails(loanIdsAsString);
+        }
+        saveWatermark(runStartTime);
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Loans with changed arrears since " + watermark + ": "
+                + loanIds.size() + ", results affected by update: " + result);
+    }
+
+    /**
+     * Recomputes the arrears of the given loans (all loans when
+     * <code>null</code>) in place: rows are upserted and rows of loans that
+     * are no longer in arrears are deleted, so within the surrounding
+     * transaction readers keep seeing the previous ageing instead of an empty
+     * table.
+     */
+    private int refreshLoanArrearsAgeingDetails(final String loanIdsAsString) {
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         final String principalOverdueCalculationSql = "SUM(ifnull(mr.principal_amount, 0) - ifnull(mr.principal_completed_derived, 0) - ifnull(mr.principal_writtenoff_derived, 0))";
         final String interestOverdueCalculationSql = "SUM(ifnull(mr.interest_amount, 0) - ifnull(mr.interest_writtenoff_derived, 0) - ifnull(mr.interest_waived_derived, 0) - "
@@ -116,17 +163,71 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         updateSqlBuilder.append(" and mr.completed_derived is false ");
         updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
         updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = 0 or prd.arrears_based_on_original_schedule is null) ");
+        if (loanIdsAsString != null) {
+            updateSqlBuilder.append(" and ml.id IN (").append(loanIdsAsString).append(") ");
+        }
         updateSqlBuilder.append(" GROUP BY ml.id");
+        updateSqlBuilder.append(" ON DUPLICATE KEY UPDATE principal_overdue_derived = VALUES(principal_overdue_derived),");
+        updateSqlBuilder.append(" interest_overdue_derived = VALUES(interest_overdue_derived),");
+        updateSqlBuilder.append(" fee_charges_overdue_derived = VALUES(fee_charges_overdue_derived),");
+        updateSqlBuilder.append(" penalty_charges_overdue_derived = VALUES(penalty_charges_overdue_derived),");
+        updateSqlBuilder.append(" total_overdue_derived = VALUES(total_overdue_derived),");
+        updateSqlBuilder.append(" overdue_since_date_derived = VALUES(overdue_since_date_derived)");
+
+        final StringBuilder deleteSqlBuilder = new StringBuilder(500);
+        deleteSqlBuilder.append("DELETE FROM m_loan_arrears_aging WHERE NOT EXISTS (select 1 FROM m_loan ml ");
+        deleteSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        deleteSqlBuilder.append(" WHERE ml.id = m_loan_arrears_aging.loan_id and ml.loan_status_id = 300 ");
+        deleteSqlBuilder.append(" and mr.completed_derived is false ");
+        deleteSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day)) ");
+        if (loanIdsAsString != null) {
+            deleteSqlBuilder.append(" and loan_id IN (").append(loanIdsAsString).append(") ");
+        }
 
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
+        List<String> statements = updateLoanArrearsAgeingDetailsWithOriginalSchedule(loanIdsAsString);
+        statements.add(0, updateSqlBuilder.toString());
+        statements.add(0, deleteSqlBuilder.toString());
+        final int[] results = this.jdbcTemplate.batchUpdate(statements.toArray(new String[0]));
         int result = 0;
         for (int i : results) {
             result += i;
         }
+        return result;
+    }
 
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    /**
+     * Loans whose ageing may differ from what the previous run computed:
+     * schedule or transactions changed since then, an installment passed its
+     * arrears cut-off date since then, or the loan is no longer active.
+     */
+    private List<Long> retrieveLoansWithChangedArrears(final Timestamp watermark) {
+        final StringBuilder sqlBuilder = new StringBuilder(900);
+        sqlBuilder.append("select mr.loan_id from m_loan_repayment_schedule mr where mr.lastmodified_date >= ? ");
+        sqlBuilder.append(" union select mt.loan_id from m_loan_transaction mt where mt.created_date >= ? ");
+        sqlBuilder.append(" union select ml.id from m_loan ml INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        sqlBuilder.append(" where ml.loan_status_id = 300 and mr.completed_derived is false ");
+        sqlBuilder.append(" and mr.duedate >= SUBDATE(DATE(?),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append(" union select mla.loan_id from m_loan_arrears_aging mla INNER JOIN m_loan ml on ml.id = mla.loan_id ");
+        sqlBuilder.append(" where ml.loan_status_id <> 300 ");
+        sqlBuilder.append(" order by 1");
+        return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, watermark, watermark, watermark);
+    }
+
+    private Timestamp retrieveDatabaseTime() {
+        return this.jdbcTemplate.queryForObject("select now()", Timestamp.class);
+    }
+
+    private Timestamp retrieveWatermark() {
+        final List<Timestamp> watermarks = this.jdbcTemplate.queryForList(
+                "select w.watermark from job_run_watermark w INNER JOIN job j on j.id = w.job_id where j.name = ?", Timestamp.class,
+                JobName.UPDATE_LOAN_ARREARS_AGEING.toString());
+        return watermarks.isEmpty() ? null : watermarks.get(0);
+    }
+
+    private void saveWatermark(final Timestamp watermark) {
+        this.jdbcTemplate.update("INSERT INTO job_run_watermark (job_id, watermark) select j.id, ? from job j where j.name = ? "
+                + "ON DUPLICATE KEY UPDATE watermark = VALUES(watermark)", watermark, JobName.UPDATE_LOAN_ARREARS_AGEING.toString());
     }
 
     @Override
@@ -196,7 +297,7 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         return updateSql;
     }
 
-    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule() {
+    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule(final String loanIdsToRefresh) {
         List<String> insertStatement = new ArrayList<>();
 
         final StringBuilder loanIdentifier = new StringBuilder();
@@ -205,7 +306,11 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         loanIdentifier
                 .append("inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = 1  ");
         loanIdentifier
-                .append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) group by ml.id");
+                .append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        if (loanIdsToRefresh != null) {
+            loanIdentifier.append("and ml.id IN (").append(loanIdsToRefresh).append(") ");
+        }
+        loanIdentifier.append("group by ml.id");
         List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
         if (!loanIds.isEmpty()) {
             String loanIdsAsString = loanIds.toString();
@@ -216,6 +321,9 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
 
             List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
             updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
+            // rows of these loans are rewritten within the same transaction,
+            // also dropping the ones without principal overdue any more
+            insertStatement.add("DELETE FROM m_loan_arrears_aging WHERE loan_id IN (" + loanIdsAsString + ")");
             createInsertStatements(insertStatement, scheduleDate, true);
         }
 
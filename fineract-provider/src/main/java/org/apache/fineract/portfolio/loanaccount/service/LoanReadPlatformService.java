@@ -109,6 +109,14 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, Collection<Long> loanIds);
+
+    /**
+     * Keyset page of the ids of loans with periodic accruals pending till the
+     * given date, in ascending order.
+     */
+    List<Long> retrievePeriodicAccrualLoanIds(LocalDate tillDate, Long afterLoanId, int limit);
+
     Collection<Long> fetchLoansForInterestRecalculation();
 
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
@@ -40,6 +40,7 @@ import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PaginationCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -132,6 +133,8 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
+    private static final Map<String, String> KEYSET_SORT_COLUMNS = PaginationCursor.sortColumns("l.id", "l.account_no", "l.external_id");
+
     private final JdbcTemplate jdbcTemplate;
     private final PlatformSecurityContext context;
     private final LoanRepositoryWrapper loanRepositoryWrapper ;
@@ -283,8 +286,18 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
+        final boolean keysetPaginated = searchParameters != null && searchParameters.isKeysetPaginationRequested();
+        final boolean countRequested = searchParameters == null || searchParameters.isCountRequested();
+        final String sortExpression = PaginationCursor.sortExpression(searchParameters, KEYSET_SORT_COLUMNS, "l.id");
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (countRequested) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
+        if (keysetPaginated) {
+            sqlBuilder.append(PaginationCursor.keysetColumns(sortExpression, "l.id"));
+        }
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -328,7 +341,19 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 arrayPos = arrayPos + 1;
             }
 
-            if (searchParameters.isOrderByRequested()) {
+            if (keysetPaginated) {
+                final PaginationCursor cursor = PaginationCursor.decode(searchParameters.getAfter());
+                if (cursor != null) {
+                    sqlBuilder.append(" and ").append(
+                            cursor.condition(sortExpression, "l.id", searchParameters.isSortOrderDescending(), extraCriterias));
+                    arrayPos = extraCriterias.size();
+                }
+                final String direction = searchParameters.isSortOrderDescending() ? " desc" : " asc";
+                sqlBuilder.append(" order by ").append(sortExpression).append(direction).append(", l.id").append(direction);
+                if (searchParameters.isLimited()) {
+                    sqlBuilder.append(" limit ").append(searchParameters.getLimit());
+                }
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
 
@@ -338,7 +363,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 }
             }
 
-            if (searchParameters.isLimited()) {
+            if (!keysetPaginated && searchParameters.isLimited()) {
                 sqlBuilder.append(" limit ").append(searchParameters.getLimit());
                 if (searchParameters.isOffset()) {
                     sqlBuilder.append(" offset ").append(searchParameters.getOffset());
@@ -347,7 +372,9 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         }
         final Object[] objectArray = extraCriterias.toArray();
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        final String sqlCountRows = "SELECT FOUND_ROWS()";
+        if (keysetPaginated) { return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray,
+                this.loaanLoanMapper, searchParameters.getLimit()); }
+        final String sqlCountRows = countRequested ? "SELECT FOUND_ROWS()" : null;
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray,
                 this.loaanLoanMapper);
     }
@@ -1625,13 +1652,51 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+        final Collection<Long> loanIds = null;
+        return retrivePeriodicAccrualData(tillDate, loanIds);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final Collection<Long> loanIds) {
 
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
+        final Map<String, Object> paramMap = new HashMap<>(5);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select ").append(mapper.schema()).append(periodicAccrualCondition(tillDate, paramMap));
+        if (loanIds != null) {
+            if (loanIds.isEmpty()) { return new ArrayList<>(); }
+            sqlBuilder.append(" and loan.id in (:loanIds) ");
+            paramMap.put("loanIds", loanIds);
+        }
+        sqlBuilder.append(" order by loan.id,ls.duedate ");
+
+        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+    }
+
+    @Override
+    public List<Long> retrievePeriodicAccrualLoanIds(final LocalDate tillDate, final Long afterLoanId, final int limit) {
+        final Map<String, Object> paramMap = new HashMap<>(6);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select distinct loan.id from m_loan_repayment_schedule ls ")
+                .append(" join m_loan loan on loan.id=ls.loan_id ")
+                .append(" join m_product_loan mpl on mpl.id = loan.product_id")
+                .append(" left join m_loan_recalculation_details as recaldet on loan.id = recaldet.loan_id ")
+                .append(periodicAccrualCondition(tillDate, paramMap))
+                .append(" and loan.id > :afterLoanId order by loan.id limit :limit");
+        paramMap.put("afterLoanId", afterLoanId);
+        paramMap.put("limit", limit);
+
+        return this.namedParameterJdbcTemplate.queryForList(sqlBuilder.toString(), paramMap, Long.class);
+    }
+
+    /**
+     * Where clause selecting the schedule installments with periodic accruals
+     * pending till the given date, shared by the data and the loan id queries.
+     */
+    private String periodicAccrualCondition(final LocalDate tillDate, final Map<String, Object> paramMap) {
         Date organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
         final StringBuilder sqlBuilder = new StringBuilder(400);
         sqlBuilder
-                .append("select ")
-                .append(mapper.schema())
                 .append(" where  (recaldet.is_compounding_to_be_posted_as_transaction is null or recaldet.is_compounding_to_be_posted_as_transaction = 0) ")
                 .append(" and (((ls.fee_charges_amount <> if(ls.accrual_fee_charges_derived is null,0, ls.accrual_fee_charges_derived))")
                 .append(" or (ls.penalty_charges_amount <> if(ls.accrual_penalty_charges_derived is null,0,ls.accrual_penalty_charges_derived))")
@@ -1641,14 +1706,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         if(organisationStartDate != null){
             sqlBuilder.append(" and ls.duedate > :organisationstartdate ");
         }
-        sqlBuilder.append(" order by loan.id,ls.duedate ");
-        Map<String, Object> paramMap = new HashMap<>(4);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tilldate", formatter.print(tillDate));
         paramMap.put("organisationstartdate", formatter.print(new LocalDate(organisationStartDate)));
-
-        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+        return sqlBuilder.toString();
     }
 
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
@@ -836,6 +836,21 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         HolidayDetailDTO holidayDetailDTO = null;
         Boolean isHolidayValidationDone = false;
         final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
+
+        // load all loans of the collection sheet upfront, so that each
+        // repayment below finds its loan in the persistence context. The
+        // repayments themselves still go through the loan domain one by one:
+        // each flush assigns the transaction id its journal entries and
+        // accruals refer to, and the schedule and interest recalculation only
+        // exists there. Only the loading is set based, the writes are not.
+        final Set<Long> loanIds = new HashSet<>();
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+            if (singleLoanRepaymentCommand != null) {
+                loanIds.add(singleLoanRepaymentCommand.getLoanId());
+            }
+        }
+        this.loanRepositoryWrapper.prefetchWithLazyCollections(loanIds);
+
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
                 Loan loan = this.loanRepositoryWrapper.findOneWithNotFoundDetection(singleLoanRepaymentCommand.getLoanId());
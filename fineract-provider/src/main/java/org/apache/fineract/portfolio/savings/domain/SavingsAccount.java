@@ -99,6 +99,7 @@ import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
 import org.apache.fineract.portfolio.savings.SavingsPeriodFrequencyType;
 import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
+import org.apache.fineract.portfolio.savings.domain.interest.CompoundInterestValues;
 import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
 import org.apache.fineract.portfolio.savings.exception.InsufficientAccountBalanceException;
 import org.apache.fineract.portfolio.savings.exception.SavingsAccountBlockedException;
@@ -294,6 +295,9 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
     @Embedded
     protected SavingsAccountSummary summary;
 
+    @Embedded
+    protected SavingsAccountBalanceCheckpoint balanceCheckpoint;
+
     @OrderBy(value = "dateOf, createdDate, id")
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "savingsAccount", orphanRemoval = true, fetch=FetchType.LAZY)
     protected List<SavingsAccountTransaction> transactions = new ArrayList<>();
@@ -562,7 +566,103 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
             recalculateDailyBalances(openingAccountBalance, interestPostingUpToDate);
         }
 
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions, this.balanceCheckpoint);
+        updateBalanceCheckpoint(postingPeriods, interestPostingUpToDate);
+    }
+
+    /**
+     * Moves the balance checkpoint to the day before the last interest posting
+     * up to <code>interestPostingUpToDate</code>, but never to today or later
+     * so that the day's transactions do not invalidate it straight away.
+     */
+    void updateBalanceCheckpoint(final List<PostingPeriod> postingPeriods, final LocalDate interestPostingUpToDate) {
+        LocalDate checkpointDate = null;
+        for (final PostingPeriod interestPostingPeriod : postingPeriods) {
+            final LocalDate interestPostingTransactionDate = interestPostingPeriod.dateOfPostingTransaction();
+            if (!interestPostingTransactionDate.isAfter(interestPostingUpToDate)) {
+                checkpointDate = interestPostingTransactionDate.minusDays(1);
+            }
+        }
+        if (checkpointDate == null) { return; }
+        final LocalDate yesterday = DateUtils.getLocalDateOfTenant().minusDays(1);
+        if (checkpointDate.isAfter(yesterday)) {
+            checkpointDate = yesterday;
+        }
+        updateBalanceCheckpoint(checkpointDate);
+
+        // the interest calculation state after the last posting period whose
+        // posting is covered by the checkpoint, posting periods not evaluated
+        // in this calculation keep the state the checkpoint already has
+        PostingPeriod lastCoveredPostingPeriod = null;
+        Money interestEarnedAfterCoveredPeriod = Money.zero(this.currency);
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            if (!postingPeriod.dateOfPostingTransaction().isAfter(checkpointDate)) {
+                lastCoveredPostingPeriod = postingPeriod;
+                interestEarnedAfterCoveredPeriod = Money.zero(this.currency);
+            } else if (postingPeriod.interest() != null) {
+                interestEarnedAfterCoveredPeriod = interestEarnedAfterCoveredPeriod.plus(postingPeriod.interest());
+            }
+        }
+        if (lastCoveredPostingPeriod != null) {
+            this.balanceCheckpoint.updateInterest(lastCoveredPostingPeriod.endDate(), lastCoveredPostingPeriod.closingBalance(),
+                    lastCoveredPostingPeriod.getCompoundedInterestCarriedForward(),
+                    lastCoveredPostingPeriod.getUncompoundedInterestCarriedForward(),
+                    this.summary.getTotalInterestEarned(this.currency).minus(interestEarnedAfterCoveredPeriod));
+        }
+    }
+
+    /**
+     * Sets the balance checkpoint to the running balance and the summary
+     * totals of the transactions on or before <code>checkpointDate</code>. A
+     * valid checkpoint is moved forward by adding the transactions since its
+     * date only.
+     */
+    void updateBalanceCheckpoint(final LocalDate checkpointDate) {
+        LocalDate currentCheckpointDate = null;
+        Money balance = Money.zero(this.currency);
+        if (hasValidBalanceCheckpoint() && !checkpointDate.isBefore(this.balanceCheckpoint.getCheckpointLocalDate())) {
+            currentCheckpointDate = this.balanceCheckpoint.getCheckpointLocalDate();
+            balance = this.balanceCheckpoint.getBalance(this.currency);
+        }
+
+        final List<SavingsAccountTransaction> transactionsToCheckpoint = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (!transaction.transactionLocalDate().isAfter(checkpointDate)
+                    && (currentCheckpointDate == null || transaction.transactionLocalDate().isAfter(currentCheckpointDate))) {
+                transactionsToCheckpoint.add(transaction);
+            }
+        }
+        transactionsToCheckpoint.sort(new SavingsAccountTransactionComparator());
+        for (final SavingsAccountTransaction transaction : transactionsToCheckpoint) {
+            if (transaction.isNotReversed()) {
+                balance = transaction.getRunningBalance(this.currency);
+            }
+        }
+
+        if (this.balanceCheckpoint == null) {
+            this.balanceCheckpoint = new SavingsAccountBalanceCheckpoint();
+        }
+        if (currentCheckpointDate == null) {
+            this.balanceCheckpoint.update(this.currency, this.savingsAccountTransactionSummaryWrapper, checkpointDate, balance,
+                    transactionsToCheckpoint);
+        } else {
+            this.balanceCheckpoint.advance(this.currency, this.savingsAccountTransactionSummaryWrapper, checkpointDate, balance,
+                    transactionsToCheckpoint);
+        }
+    }
+
+    private boolean hasValidBalanceCheckpoint() {
+        return this.balanceCheckpoint != null && this.balanceCheckpoint.isValid();
+    }
+
+    /**
+     * Invalidates the balance checkpoint when a transaction dated on or before
+     * it is added, reversed or has its amount changed.
+     */
+    void invalidateBalanceCheckpoint(final LocalDate transactionDate) {
+        if (this.balanceCheckpoint != null && this.balanceCheckpoint.covers(transactionDate)) {
+            this.balanceCheckpoint.invalidate();
+        }
     }
 
     protected List<SavingsAccountTransaction> findWithHoldTransactions() {
@@ -743,6 +843,25 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         } else
             periodStartingBalance = Money.zero(this.currency);
 
+        // posting periods up to the one the balance checkpoint holds the
+        // interest calculation state of are not evaluated again, the
+        // evaluation starts after it with the interest carried forward
+        LocalDate interestPeriodEndDate = null;
+        Money interestEarnedBeforePeriods = Money.zero(this.currency);
+        CompoundInterestValues compoundInterestValues = new CompoundInterestValues(BigDecimal.ZERO, BigDecimal.ZERO);
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions;
+        if (canCalculateInterestFromBalanceCheckpoint(postingPeriodIntervals, upToInterestCalculationDate, postInterestOnDate)) {
+            interestPeriodEndDate = this.balanceCheckpoint.getInterestPeriodEndLocalDate();
+            periodStartingBalance = this.balanceCheckpoint.getInterestClosingBalance(this.currency);
+            interestEarnedBeforePeriods = this.balanceCheckpoint.getInterestEarned(this.currency);
+            compoundInterestValues = new CompoundInterestValues(this.balanceCheckpoint.getCompoundedInterest(),
+                    this.balanceCheckpoint.getUncompoundedInterest());
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions(
+                    retreiveListOfTransactionsReachingPast(interestPeriodEndDate));
+        } else {
+            orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
+        }
+
         final SavingsInterestCalculationType interestCalculationType = SavingsInterestCalculationType.fromInt(this.interestCalculationType);
         final BigDecimal interestRateAsFraction = getEffectiveInterestRateAsFraction(mc, upToInterestCalculationDate);
         final BigDecimal overdraftInterestRateAsFraction = getEffectiveOverdraftInterestRateAsFraction(mc);
@@ -751,6 +870,9 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         final Money minOverdraftForInterestCalculation = Money.of(getCurrency(), this.minOverdraftForInterestCalculation);
 
         for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
+            if (interestPeriodEndDate != null && !periodInterval.endDate().isAfter(interestPeriodEndDate)) {
+                continue;
+            }
 
             boolean isUserPosting = false;
             if(postedAsOnDates.contains(periodInterval.endDate().plusDays(1))){
@@ -758,7 +880,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
             }
 
             final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
+                    orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
                     interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
                     isInterestTransfer, minBalanceForInterestCalculation, isSavingsInterestPostingAtCurrentPeriodEnd,
                     overdraftInterestRateAsFraction, minOverdraftForInterestCalculation, isUserPosting, financialYearBeginningMonth);
@@ -769,14 +891,37 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         }
 
         this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
+                isTransferInterestToOtherAccount(), compoundInterestValues);
 
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods, interestEarnedBeforePeriods);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions, this.balanceCheckpoint);
 
         return allPostingPeriods;
     }
 
+    /**
+     * Interest is only calculated from the balance checkpoint for savings
+     * accounts, whose interest terms do not change once active, when the
+     * checkpoint holds the interest calculation state at the end of one of
+     * the <code>postingPeriodIntervals</code> and no interest is posted on a
+     * date the checkpoint covers.
+     */
+    private boolean canCalculateInterestFromBalanceCheckpoint(final List<LocalDateInterval> postingPeriodIntervals,
+            final LocalDate upToInterestCalculationDate, final LocalDate postInterestOnDate) {
+        if (!depositAccountType().isSavingsDeposit() || this.balanceCheckpoint == null || !this.balanceCheckpoint.hasInterestState()) {
+            return false;
+        }
+        final LocalDate interestPeriodEndDate = this.balanceCheckpoint.getInterestPeriodEndLocalDate();
+        if (!upToInterestCalculationDate.isAfter(interestPeriodEndDate)
+                || (postInterestOnDate != null && this.balanceCheckpoint.covers(postInterestOnDate))) {
+            return false;
+        }
+        for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
+            if (periodInterval.endDate().isEqual(interestPeriodEndDate)) { return true; }
+        }
+        return false;
+    }
+
     private BigDecimal getEffectiveOverdraftInterestRateAsFraction(MathContext mc) {
         return this.nominalAnnualInterestRateOverdraft.divide(BigDecimal.valueOf(100l), mc);
     }
@@ -787,8 +932,11 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
     }
 
     protected List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactions() {
-        final List<SavingsAccountTransaction> listOfTransactionsSorted = retreiveListOfTransactions();
+        return retreiveOrderedNonInterestPostingTransactions(retreiveListOfTransactions());
+    }
 
+    private List<SavingsAccountTransaction> retreiveOrderedNonInterestPostingTransactions(
+            final List<SavingsAccountTransaction> listOfTransactionsSorted) {
         final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = new ArrayList<>();
 
         for (final SavingsAccountTransaction transaction : listOfTransactionsSorted) {
@@ -810,13 +958,50 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         return listOfTransactionsSorted;
     }
 
+    /**
+     * The transactions after <code>date</code> in order, preceded by the last
+     * non interest posting transaction on or before it as its balance reaches
+     * past <code>date</code>; the transactions before are not sorted at all.
+     */
+    private List<SavingsAccountTransaction> retreiveListOfTransactionsReachingPast(final LocalDate date) {
+        final SavingsAccountTransactionComparator transactionComparator = new SavingsAccountTransactionComparator();
+        final List<SavingsAccountTransaction> listOfTransactionsSorted = new ArrayList<>();
+        SavingsAccountTransaction lastTransactionOnOrBefore = null;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.transactionLocalDate().isAfter(date)) {
+                listOfTransactionsSorted.add(transaction);
+            } else if (transaction.isNotReversed()
+                    && !(transaction.isInterestPostingAndNotReversed() || transaction.isOverdraftInterestAndNotReversed())
+                    && (lastTransactionOnOrBefore == null || transactionComparator.compare(transaction, lastTransactionOnOrBefore) >= 0)) {
+                lastTransactionOnOrBefore = transaction;
+            }
+        }
+        if (lastTransactionOnOrBefore != null) {
+            listOfTransactionsSorted.add(lastTransactionOnOrBefore);
+        }
+        Collections.sort(listOfTransactionsSorted, transactionComparator);
+        return listOfTransactionsSorted;
+    }
+
     protected void recalculateDailyBalances(final Money openingAccountBalance, final LocalDate interestPostingUpToDate) {
 
         Money runningBalance = openingAccountBalance.copy();
 
-        List<SavingsAccountTransaction> accountTransactionsSorted = retreiveListOfTransactions();
+        // transactions up to a valid checkpoint keep their balances, replay
+        // from the checkpoint balance
+        LocalDate checkpointDate = null;
+        if (hasValidBalanceCheckpoint()) {
+            checkpointDate = this.balanceCheckpoint.getCheckpointLocalDate();
+            runningBalance = runningBalance.plus(this.balanceCheckpoint.getBalance(this.currency));
+        }
+
+        List<SavingsAccountTransaction> accountTransactionsSorted = checkpointDate == null ? retreiveListOfTransactions()
+                : retreiveListOfTransactionsReachingPast(checkpointDate);
         boolean isTransactionsModified = false;
         for (final SavingsAccountTransaction transaction : accountTransactionsSorted) {
+            if (checkpointDate != null && !transaction.transactionLocalDate().isAfter(checkpointDate)) {
+                continue;
+            }
             if (transaction.isReversed()) {
                 transaction.zeroBalanceFields();
             } else {
@@ -870,13 +1055,25 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         }
 
         if (isTransactionsModified) {
-            accountTransactionsSorted = retreiveListOfTransactions();
+            accountTransactionsSorted = checkpointDate == null ? retreiveListOfTransactions()
+                    : retreiveListOfTransactionsReachingPast(checkpointDate);
         }
-        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate);
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate, checkpointDate);
     }
 
     protected void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
             final LocalDate interestPostingUpToDate) {
+        resetAccountTransactionsEndOfDayBalances(accountTransactionsSorted, interestPostingUpToDate, null);
+    }
+
+    /**
+     * @param checkpointDate
+     *            when not <code>null</code>, stops after the last transaction
+     *            on or before this date, the end of balance dates of the
+     *            earlier ones do not change.
+     */
+    private void resetAccountTransactionsEndOfDayBalances(final List<SavingsAccountTransaction> accountTransactionsSorted,
+            final LocalDate interestPostingUpToDate, final LocalDate checkpointDate) {
         // loop over transactions in reverse
         LocalDate endOfBalanceDate = interestPostingUpToDate;
         for (int i = accountTransactionsSorted.size() - 1; i >= 0; i--) {
@@ -887,6 +1084,9 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
                 // this transactions transaction date is end of balance date for
                 // previous transaction.
                 endOfBalanceDate = transaction.transactionLocalDate().minusDays(1);
+                if (checkpointDate != null && !transaction.transactionLocalDate().isAfter(checkpointDate)) {
+                    break;
+                }
             }
         }
     }
@@ -946,7 +1146,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
                 transactionDTO.getTransactionDate(), amount, transactionDTO.getCreatedDate(), transactionDTO.getAppUser(),
                 savingsAccountTransactionType);
         addTransaction(transaction);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions, this.balanceCheckpoint);
 
         if(this.sub_status.equals(SavingsAccountSubStatusEnum.INACTIVE.getValue())
                 || this.sub_status.equals(SavingsAccountSubStatusEnum.DORMANT.getValue())){
@@ -2356,6 +2556,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
     }
 
     public void addTransaction(final SavingsAccountTransaction transaction) {
+        invalidateBalanceCheckpoint(transaction.transactionLocalDate());
         this.transactions.add(transaction);
     }
 
@@ -2645,7 +2846,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         final SavingsAccountChargePaidBy chargePaidBy = SavingsAccountChargePaidBy.instance(transaction, savingsAccountCharge, transaction
                 .getAmount(this.getCurrency()).getAmount());
         transaction.getSavingsAccountChargesPaid().add(chargePaidBy);
-        this.transactions.add(transaction);
+        addTransaction(transaction);
     }
 
     private SavingsAccountCharge getCharge(final Long savingsAccountChargeId) {
@@ -2883,7 +3084,7 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
             }
         }
         recalculateDailyBalances(Money.zero(this.currency), transactionDate);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions, this.balanceCheckpoint);
     }
 
 
@@ -2900,10 +3101,10 @@ public class SavingsAccount extends AbstractPersistableCustom<Long> {
         LocalDate transactionDate = DateUtils.getLocalDateOfTenant();
         if(this.getSummary().getAccountBalance(this.getCurrency()).isGreaterThanZero()){
             SavingsAccountTransaction transaction = SavingsAccountTransaction.escheat(this, transactionDate, appUser, postInterestAsOnDate);
-            this.transactions.add(transaction);
+            addTransaction(transaction);
         }
         recalculateDailyBalances(Money.zero(this.currency), transactionDate);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions, this.balanceCheckpoint);
     }
 
     public void loadLazyCollections() {
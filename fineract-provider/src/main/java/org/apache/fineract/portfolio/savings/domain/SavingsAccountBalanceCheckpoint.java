@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.joda.time.LocalDate;
+
+/**
+ * {@link SavingsAccountBalanceCheckpoint} holds the closing balance and the
+ * summary totals of a {@link SavingsAccount} as of a date, so that balance and
+ * summary recalculations only need to replay the transactions after it.
+ *
+ * A checkpoint is invalidated when a transaction on or before its date is
+ * added or reversed.
+ *
+ * It also holds the interest calculation state at the end of the last posting
+ * period whose interest posting falls on or before its date, so that interest
+ * calculation only needs to evaluate the posting periods after it.
+ */
+@Embeddable
+public final class SavingsAccountBalanceCheckpoint {
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "checkpoint_date")
+    private Date checkpointDate;
+
+    @Column(name = "checkpoint_balance_derived", scale = 6, precision = 19)
+    private BigDecimal balance;
+
+    @Column(name = "checkpoint_total_deposits_derived", scale = 6, precision = 19)
+    private BigDecimal totalDeposits;
+
+    @Column(name = "checkpoint_total_withdrawals_derived", scale = 6, precision = 19)
+    private BigDecimal totalWithdrawals;
+
+    @Column(name = "checkpoint_total_interest_posted_derived", scale = 6, precision = 19)
+    private BigDecimal totalInterestPosted;
+
+    @Column(name = "checkpoint_total_withdrawal_fees_derived", scale = 6, precision = 19)
+    private BigDecimal totalWithdrawalFees;
+
+    @Column(name = "checkpoint_total_annual_fees_derived", scale = 6, precision = 19)
+    private BigDecimal totalAnnualFees;
+
+    @Column(name = "checkpoint_total_fees_charge_derived", scale = 6, precision = 19)
+    private BigDecimal totalFeeCharge;
+
+    @Column(name = "checkpoint_total_penalty_charge_derived", scale = 6, precision = 19)
+    private BigDecimal totalPenaltyCharge;
+
+    @Column(name = "checkpoint_total_fees_charge_waived_derived", scale = 6, precision = 19)
+    private BigDecimal totalFeeChargesWaived;
+
+    @Column(name = "checkpoint_total_penalty_charge_waived_derived", scale = 6, precision = 19)
+    private BigDecimal totalPenaltyChargesWaived;
+
+    @Column(name = "checkpoint_total_overdraft_interest_derived", scale = 6, precision = 19)
+    private BigDecimal totalOverdraftInterest;
+
+    @Column(name = "checkpoint_total_withhold_tax_derived", scale = 6, precision = 19)
+    private BigDecimal totalWithholdTax;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "checkpoint_interest_period_end_date")
+    private Date interestPeriodEndDate;
+
+    @Column(name = "checkpoint_interest_closing_balance_derived", scale = 6, precision = 19)
+    private BigDecimal interestClosingBalance;
+
+    @Column(name = "checkpoint_interest_compounded_derived", scale = 20, precision = 38)
+    private BigDecimal compoundedInterest;
+
+    @Column(name = "checkpoint_interest_uncompounded_derived", scale = 20, precision = 38)
+    private BigDecimal uncompoundedInterest;
+
+    @Column(name = "checkpoint_interest_earned_derived", scale = 6, precision = 19)
+    private BigDecimal interestEarned;
+
+    protected SavingsAccountBalanceCheckpoint() {
+        //
+    }
+
+    /**
+     * @param transactionsUpToCheckpoint
+     *            all transactions dated on or before
+     *            <code>checkpointDate</code>, reversed ones included
+     */
+    public void update(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final LocalDate checkpointDate, final Money balance, final List<SavingsAccountTransaction> transactionsUpToCheckpoint) {
+        this.checkpointDate = checkpointDate.toDate();
+        this.balance = balance.getAmount();
+        this.totalDeposits = wrapper.calculateTotalDeposits(currency, transactionsUpToCheckpoint);
+        this.totalWithdrawals = wrapper.calculateTotalWithdrawals(currency, transactionsUpToCheckpoint);
+        this.totalInterestPosted = wrapper.calculateTotalInterestPosted(currency, transactionsUpToCheckpoint);
+        this.totalWithdrawalFees = wrapper.calculateTotalWithdrawalFees(currency, transactionsUpToCheckpoint);
+        this.totalAnnualFees = wrapper.calculateTotalAnnualFees(currency, transactionsUpToCheckpoint);
+        this.totalFeeCharge = wrapper.calculateTotalFeesCharge(currency, transactionsUpToCheckpoint);
+        this.totalPenaltyCharge = wrapper.calculateTotalPenaltyCharge(currency, transactionsUpToCheckpoint);
+        this.totalFeeChargesWaived = wrapper.calculateTotalFeesChargeWaived(currency, transactionsUpToCheckpoint);
+        this.totalPenaltyChargesWaived = wrapper.calculateTotalPenaltyChargeWaived(currency, transactionsUpToCheckpoint);
+        this.totalOverdraftInterest = wrapper.calculateTotalOverdraftInterest(currency, transactionsUpToCheckpoint);
+        this.totalWithholdTax = wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactionsUpToCheckpoint);
+        this.interestPeriodEndDate = null;
+    }
+
+    /**
+     * Moves a valid checkpoint forward to <code>checkpointDate</code>, the
+     * interest calculation state is kept as it is.
+     *
+     * @param transactionsSinceCheckpoint
+     *            all transactions dated after the current checkpoint date and
+     *            on or before <code>checkpointDate</code>, reversed ones
+     *            included
+     */
+    public void advance(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final LocalDate checkpointDate, final Money balance, final List<SavingsAccountTransaction> transactionsSinceCheckpoint) {
+        this.checkpointDate = checkpointDate.toDate();
+        this.balance = balance.getAmount();
+        this.totalDeposits = plus(currency, this.totalDeposits,
+                wrapper.calculateTotalDeposits(currency, transactionsSinceCheckpoint));
+        this.totalWithdrawals = plus(currency, this.totalWithdrawals,
+                wrapper.calculateTotalWithdrawals(currency, transactionsSinceCheckpoint));
+        this.totalInterestPosted = plus(currency, this.totalInterestPosted,
+                wrapper.calculateTotalInterestPosted(currency, transactionsSinceCheckpoint));
+        this.totalWithdrawalFees = plus(currency, this.totalWithdrawalFees,
+                wrapper.calculateTotalWithdrawalFees(currency, transactionsSinceCheckpoint));
+        this.totalAnnualFees = plus(currency, this.totalAnnualFees,
+                wrapper.calculateTotalAnnualFees(currency, transactionsSinceCheckpoint));
+        this.totalFeeCharge = plus(currency, this.totalFeeCharge,
+                wrapper.calculateTotalFeesCharge(currency, transactionsSinceCheckpoint));
+        this.totalPenaltyCharge = plus(currency, this.totalPenaltyCharge,
+                wrapper.calculateTotalPenaltyCharge(currency, transactionsSinceCheckpoint));
+        this.totalFeeChargesWaived = plus(currency, this.totalFeeChargesWaived,
+                wrapper.calculateTotalFeesChargeWaived(currency, transactionsSinceCheckpoint));
+        this.totalPenaltyChargesWaived = plus(currency, this.totalPenaltyChargesWaived,
+                wrapper.calculateTotalPenaltyChargeWaived(currency, transactionsSinceCheckpoint));
+        this.totalOverdraftInterest = plus(currency, this.totalOverdraftInterest,
+                wrapper.calculateTotalOverdraftInterest(currency, transactionsSinceCheckpoint));
+        this.totalWithholdTax = plus(currency, this.totalWithholdTax,
+                wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactionsSinceCheckpoint));
+    }
+
+    private static BigDecimal plus(final MonetaryCurrency currency, final BigDecimal total, final BigDecimal amount) {
+        return Money.of(currency, total).plus(Money.of(currency, amount)).getAmountDefaultedToNullIfZero();
+    }
+
+    /**
+     * Sets the interest calculation state at the end of the posting period
+     * ending on <code>periodEndDate</code>, which must not be after the
+     * checkpoint date.
+     *
+     * @param closingBalance
+     *            the balance of the non interest posting transactions at the
+     *            end of the period
+     * @param interestEarned
+     *            the interest earned in this and all earlier posting periods
+     */
+    public void updateInterest(final LocalDate periodEndDate, final Money closingBalance, final BigDecimal compoundedInterest,
+            final BigDecimal uncompoundedInterest, final Money interestEarned) {
+        this.interestPeriodEndDate = periodEndDate.toDate();
+        this.interestClosingBalance = closingBalance.getAmount();
+        this.compoundedInterest = compoundedInterest;
+        this.uncompoundedInterest = uncompoundedInterest;
+        this.interestEarned = interestEarned.getAmount();
+    }
+
+    public void invalidate() {
+        this.checkpointDate = null;
+    }
+
+    public boolean isValid() {
+        return this.checkpointDate != null;
+    }
+
+    public LocalDate getCheckpointLocalDate() {
+        LocalDate checkpointLocalDate = null;
+        if (this.checkpointDate != null) {
+            checkpointLocalDate = new LocalDate(this.checkpointDate);
+        }
+        return checkpointLocalDate;
+    }
+
+    public boolean hasInterestState() {
+        return isValid() && this.interestPeriodEndDate != null;
+    }
+
+    public LocalDate getInterestPeriodEndLocalDate() {
+        LocalDate interestPeriodEndLocalDate = null;
+        if (this.interestPeriodEndDate != null) {
+            interestPeriodEndLocalDate = new LocalDate(this.interestPeriodEndDate);
+        }
+        return interestPeriodEndLocalDate;
+    }
+
+    public Money getInterestClosingBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestClosingBalance);
+    }
+
+    public BigDecimal getCompoundedInterest() {
+        return this.compoundedInterest == null ? BigDecimal.ZERO : this.compoundedInterest;
+    }
+
+    public BigDecimal getUncompoundedInterest() {
+        return this.uncompoundedInterest == null ? BigDecimal.ZERO : this.uncompoundedInterest;
+    }
+
+    public Money getInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.interestEarned);
+    }
+
+    public boolean covers(final LocalDate transactionDate) {
+        return isValid() && !transactionDate.isAfter(getCheckpointLocalDate());
+    }
+
+    public List<SavingsAccountTransaction> transactionsAfterCheckpoint(final List<SavingsAccountTransaction> transactions) {
+        final LocalDate checkpointLocalDate = getCheckpointLocalDate();
+        final List<SavingsAccountTransaction> transactionsAfterCheckpoint = new ArrayList<>();
+        for (final SavingsAccountTransaction transaction : transactions) {
+            if (transaction.transactionLocalDate().isAfter(checkpointLocalDate)) {
+                transactionsAfterCheckpoint.add(transaction);
+            }
+        }
+        return transactionsAfterCheckpoint;
+    }
+
+    public Money getBalance(final MonetaryCurrency currency) {
+        return Money.of(currency, this.balance);
+    }
+
+    public Money getTotalDeposits(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalDeposits);
+    }
+
+    public Money getTotalWithdrawals(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalWithdrawals);
+    }
+
+    public Money getTotalInterestPosted(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalInterestPosted);
+    }
+
+    public Money getTotalWithdrawalFees(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalWithdrawalFees);
+    }
+
+    public Money getTotalAnnualFees(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalAnnualFees);
+    }
+
+    public Money getTotalFeeCharge(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalFeeCharge);
+    }
+
+    public Money getTotalPenaltyCharge(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalPenaltyCharge);
+    }
+
+    public Money getTotalFeeChargesWaived(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalFeeChargesWaived);
+    }
+
+    public Money getTotalPenaltyChargesWaived(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalPenaltyChargesWaived);
+    }
+
+    public Money getTotalOverdraftInterest(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalOverdraftInterest);
+    }
+
+    public Money getTotalWithholdTax(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalWithholdTax);
+    }
+}
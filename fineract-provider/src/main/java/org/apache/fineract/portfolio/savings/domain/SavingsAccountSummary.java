@@ -102,15 +102,67 @@ public final class SavingsAccountSummary {
         this.totalOverdraftInterestDerived = wrapper.calculateTotalOverdraftInterest(currency, transactions);
         this.totalWithholdTax = wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactions);
 
+        updateAccountBalance(currency);
+    }
+
+    /**
+     * Same as {@link #updateSummary(MonetaryCurrency, SavingsAccountTransactionSummaryWrapper, List)}
+     * but starting from the totals of a valid <code>checkpoint</code>, only
+     * summing the transactions after it.
+     */
+    public void updateSummary(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> transactions, final SavingsAccountBalanceCheckpoint checkpoint) {
+        if (checkpoint == null || !checkpoint.isValid()) {
+            updateSummary(currency, wrapper, transactions);
+            return;
+        }
+
+        final List<SavingsAccountTransaction> transactionsAfterCheckpoint = checkpoint.transactionsAfterCheckpoint(transactions);
+        this.totalDeposits = checkpoint.getTotalDeposits(currency)
+                .plus(wrapper.calculateTotalDeposits(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalWithdrawals = checkpoint.getTotalWithdrawals(currency)
+                .plus(wrapper.calculateTotalWithdrawals(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalInterestPosted = checkpoint.getTotalInterestPosted(currency)
+                .plus(wrapper.calculateTotalInterestPosted(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalWithdrawalFees = checkpoint.getTotalWithdrawalFees(currency)
+                .plus(wrapper.calculateTotalWithdrawalFees(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalAnnualFees = checkpoint.getTotalAnnualFees(currency)
+                .plus(wrapper.calculateTotalAnnualFees(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalFeeCharge = checkpoint.getTotalFeeCharge(currency)
+                .plus(wrapper.calculateTotalFeesCharge(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalPenaltyCharge = checkpoint.getTotalPenaltyCharge(currency)
+                .plus(wrapper.calculateTotalPenaltyCharge(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalFeeChargesWaived = checkpoint.getTotalFeeChargesWaived(currency)
+                .plus(wrapper.calculateTotalFeesChargeWaived(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalPenaltyChargesWaived = checkpoint.getTotalPenaltyChargesWaived(currency)
+                .plus(wrapper.calculateTotalPenaltyChargeWaived(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalOverdraftInterestDerived = checkpoint.getTotalOverdraftInterest(currency)
+                .plus(wrapper.calculateTotalOverdraftInterest(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+        this.totalWithholdTax = checkpoint.getTotalWithholdTax(currency)
+                .plus(wrapper.calculateTotalWithholdTaxWithdrawal(currency, transactionsAfterCheckpoint)).getAmountDefaultedToNullIfZero();
+
+        updateAccountBalance(currency);
+    }
 
+    private void updateAccountBalance(final MonetaryCurrency currency) {
         this.accountBalance = Money.of(currency, this.totalDeposits).plus(this.totalInterestPosted).minus(this.totalWithdrawals)
                 .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).minus(this.totalFeeCharge).minus(this.totalPenaltyCharge)
                 .minus(totalOverdraftInterestDerived).minus(totalWithholdTax).getAmount();
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * @param interestEarnedBeforePeriods
+     *            the interest earned in the posting periods before
+     *            <code>allPostingPeriods</code>
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBeforePeriods) {
 
-        Money totalEarned = Money.zero(currency);
+        Money totalEarned = interestEarnedBeforePeriods;
         LocalDate interestCalculationDate = DateUtils.getLocalDateOfTenant();
         for (final PostingPeriod period : allPostingPeriods) {
             Money interestEarned = period.interest();
@@ -126,6 +178,10 @@ public final class SavingsAccountSummary {
         return accountBalance.isGreaterThanOrEqualTo(amount);
     }
 
+    public Money getTotalInterestEarned(final MonetaryCurrency currency) {
+        return Money.of(currency, this.totalInterestEarned);
+    }
+
     public Money getAccountBalance(final MonetaryCurrency currency) {
         return Money.of(currency, this.accountBalance);
     }
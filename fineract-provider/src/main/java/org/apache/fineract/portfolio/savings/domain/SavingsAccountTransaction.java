@@ -317,6 +317,9 @@ public final class SavingsAccountTransaction extends AbstractPersistableCustom<L
 
     public void reverse() {
         this.reversed = true;
+        if (this.savingsAccount != null) {
+            this.savingsAccount.invalidateBalanceCheckpoint(transactionLocalDate());
+        }
     }
 
     public Money getAmount(final MonetaryCurrency currency) {
@@ -761,6 +764,9 @@ public final class SavingsAccountTransaction extends AbstractPersistableCustom<L
 
     public void updateAmount(final Money amount) {
         this.amount = amount.getAmount();
+        if (this.savingsAccount != null) {
+            this.savingsAccount.invalidateBalanceCheckpoint(transactionLocalDate());
+        }
     }
 
     public Integer getTypeOf() {
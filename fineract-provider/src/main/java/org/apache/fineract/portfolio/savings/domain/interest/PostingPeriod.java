@@ -47,6 +47,10 @@ public class PostingPeriod {
     private BigDecimal interestEarnedUnrounded;
     private Money interestEarnedRounded;
 
+    // interest carried forward to the next posting period
+    private BigDecimal compoundedInterestCarriedForward;
+    private BigDecimal uncompoundedInterestCarriedForward;
+
     // opening/closing details
     private final Money openingBalance;
     private final Money closingBalance;
@@ -197,6 +201,23 @@ public class PostingPeriod {
         return this.openingBalance;
     }
 
+    public LocalDate endDate() {
+        return this.periodInterval.endDate();
+    }
+
+    void carryForward(final CompoundInterestValues compoundInterestValues) {
+        this.compoundedInterestCarriedForward = compoundInterestValues.getcompoundedInterest();
+        this.uncompoundedInterestCarriedForward = compoundInterestValues.getuncompoundedInterest();
+    }
+
+    public BigDecimal getCompoundedInterestCarriedForward() {
+        return this.compoundedInterestCarriedForward;
+    }
+
+    public BigDecimal getUncompoundedInterestCarriedForward() {
+        return this.uncompoundedInterestCarriedForward;
+    }
+
     public BigDecimal calculateInterest(final CompoundInterestValues compoundInterestValues) {
         BigDecimal interestEarned = BigDecimal.ZERO;
 
@@ -57,6 +57,11 @@ public interface SavingsAccountReadPlatformService {
     List<Long> retrieveSavingsIdsPendingDormant(LocalDate tenantLocalDate);
 
     List<Long> retrieveSavingsIdsPendingEscheat(LocalDate tenantLocalDate);
+
+    List<Long> retrieveActiveSavingsAccountChunkStarts(int chunkSize);
+
+    List<Long> retrieveActiveSavingsAccountIdsInRange(Long fromId, Long toId);
+
     boolean isAccountBelongsToClient(final Long clientId, final Long accountId, final DepositAccountType depositAccountType, final String currencyCode) ;
 
     String retrieveAccountNumberByAccountId(Long accountId);
@@ -22,14 +22,15 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.core.service.PaginationCursor;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -86,6 +87,8 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountReadPlatformService {
 
+    private static final Map<String, String> KEYSET_SORT_COLUMNS = PaginationCursor.sortColumns("sa.id", "sa.account_no", "sa.external_id");
+
     private final PlatformSecurityContext context;
     private final JdbcTemplate jdbcTemplate;
     private final ClientReadPlatformService clientReadPlatformService;
@@ -167,16 +170,25 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
+        final boolean keysetPaginated = searchParameters != null && searchParameters.isKeysetPaginationRequested();
+        final boolean countRequested = searchParameters == null || searchParameters.isCountRequested();
+        final String sortExpression = PaginationCursor.sortExpression(searchParameters, KEYSET_SORT_COLUMNS, "sa.id");
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (countRequested) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
+        if (keysetPaginated) {
+            sqlBuilder.append(PaginationCursor.keysetColumns(sortExpression, "sa.id"));
+        }
         sqlBuilder.append(this.savingAccountMapper.schema());
 
         sqlBuilder.append(" join m_office o on o.id = c.office_id");
         sqlBuilder.append(" where o.hierarchy like ?");
 
-        final Object[] objectArray = new Object[2];
-        objectArray[0] = hierarchySearchString;
-        int arrayPos = 1;
+        final List<Object> paramList = new ArrayList<>();
+        paramList.add(hierarchySearchString);
         if(searchParameters!=null) {
             String sqlQueryCriteria = searchParameters.getSqlSearch();
             if (StringUtils.isNotBlank(sqlQueryCriteria)) {
@@ -187,15 +199,24 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
 
             if (StringUtils.isNotBlank(searchParameters.getExternalId())) {
                 sqlBuilder.append(" and sa.external_id = ?");
-                objectArray[arrayPos] = searchParameters.getExternalId();
-                arrayPos = arrayPos + 1;
+                paramList.add(searchParameters.getExternalId());
             }
             if(searchParameters.getOfficeId()!=null){
                 sqlBuilder.append("and c.office_id =?");
-                objectArray[arrayPos]=searchParameters.getOfficeId();
-                arrayPos = arrayPos + 1;
+                paramList.add(searchParameters.getOfficeId());
             }
-            if (searchParameters.isOrderByRequested()) {
+            if (keysetPaginated) {
+                final PaginationCursor cursor = PaginationCursor.decode(searchParameters.getAfter());
+                if (cursor != null) {
+                    sqlBuilder.append(" and ").append(
+                            cursor.condition(sortExpression, "sa.id", searchParameters.isSortOrderDescending(), paramList));
+                }
+                final String direction = searchParameters.isSortOrderDescending() ? " desc" : " asc";
+                sqlBuilder.append(" order by ").append(sortExpression).append(direction).append(", sa.id").append(direction);
+                if (searchParameters.isLimited()) {
+                    sqlBuilder.append(" limit ").append(searchParameters.getLimit());
+                }
+            } else if (searchParameters.isOrderByRequested()) {
                 sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
                 this.columnValidator.validateSqlInjection(sqlBuilder.toString(), searchParameters.getOrderBy());
 
@@ -205,16 +226,17 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
                 }
             }
 
-            if (searchParameters.isLimited()) {
+            if (!keysetPaginated && searchParameters.isLimited()) {
                 sqlBuilder.append(" limit ").append(searchParameters.getLimit());
                 if (searchParameters.isOffset()) {
                     sqlBuilder.append(" offset ").append(searchParameters.getOffset());
                 }
             }
         }
-        final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
-        final String sqlCountRows = "SELECT FOUND_ROWS()";
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray,
+        if (keysetPaginated) { return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), paramList.toArray(),
+                this.savingAccountMapper, searchParameters.getLimit()); }
+        final String sqlCountRows = countRequested ? "SELECT FOUND_ROWS()" : null;
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), paramList.toArray(),
                 this.savingAccountMapper);
     }
 
@@ -1207,6 +1229,24 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
         return ret;
     }
 
+    @Override
+    public List<Long> retrieveActiveSavingsAccountChunkStarts(final int chunkSize) {
+        // chunks are aligned to multiples of the chunk size so that a
+        // restarted run partitions the id space exactly like the failed one
+        final StringBuilder sql = new StringBuilder("select distinct floor(sa.id / ?) * ? as chunk_start ");
+        sql.append(" from m_savings_account sa ");
+        sql.append(" where sa.status_enum = ? ");
+        sql.append(" order by chunk_start ");
+        return this.jdbcTemplate.queryForList(sql.toString(), Long.class,
+                new Object[] { chunkSize, chunkSize, SavingsAccountStatusType.ACTIVE.getValue() });
+    }
+
+    @Override
+    public List<Long> retrieveActiveSavingsAccountIdsInRange(final Long fromId, final Long toId) {
+        final String sql = "select sa.id from m_savings_account sa where sa.status_enum = ? and sa.id between ? and ? order by sa.id";
+        return this.jdbcTemplate.queryForList(sql, Long.class, new Object[] { SavingsAccountStatusType.ACTIVE.getValue(), fromId, toId });
+    }
+
     @Override
     public boolean isAccountBelongsToClient(final Long clientId, final Long accountId, final DepositAccountType depositAccountType,
             final String currencyCode) {
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
+import java.util.Map;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
 
@@ -25,6 +26,10 @@ public interface SavingsSchedularService {
 
     void postInterestForAccounts() throws JobExecutionException;
 
+    void postInterestForAccounts(Map<String, String> jobParameters) throws JobExecutionException;
+
+    void postInterestForAccounts(int threadPoolSize, int chunkSize) throws JobExecutionException;
+
     void updateSavingsDormancyStatus() throws JobExecutionException;
 
 }
@@ -18,9 +18,27 @@
  */
 package org.apache.fineract.portfolio.savings.service;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetailRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunk;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunkRepository;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunFailure;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunFailureRepository;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
@@ -28,27 +46,46 @@ import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
 import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    private final static Logger logger = LoggerFactory.getLogger(SavingsSchedularServiceImpl.class);
+
+    private static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
+    private static final String CHUNK_SIZE_PARAMETER = "batch-size";
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
     private final SavingsAccountRepositoryWrapper savingsAccountRepository;
+    private final ScheduledJobDetailRepository scheduledJobDetailRepository;
+    private final ScheduledJobRunChunkRepository scheduledJobRunChunkRepository;
+    private final ScheduledJobRunFailureRepository scheduledJobRunFailureRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountReadPlatformService savingAccountReadPlatformService, final SavingsAccountRepositoryWrapper savingsAccountRepository) {
+            final SavingsAccountReadPlatformService savingAccountReadPlatformService, final SavingsAccountRepositoryWrapper savingsAccountRepository,
+            final ScheduledJobDetailRepository scheduledJobDetailRepository,
+            final ScheduledJobRunChunkRepository scheduledJobRunChunkRepository,
+            final ScheduledJobRunFailureRepository scheduledJobRunFailureRepository, final TransactionTemplate transactionTemplate) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingAccountReadPlatformService = savingAccountReadPlatformService;
         this.savingsAccountRepository = savingsAccountRepository;
+        this.scheduledJobDetailRepository = scheduledJobDetailRepository;
+        this.scheduledJobRunChunkRepository = scheduledJobRunChunkRepository;
+        this.scheduledJobRunFailureRepository = scheduledJobRunFailureRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
@@ -85,6 +122,144 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
     }
 
+    @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
+    @Override
+    public void postInterestForAccounts(final Map<String, String> jobParameters) throws JobExecutionException {
+        final int threadPoolSize = Integer.parseInt(jobParameters.get(THREAD_POOL_SIZE_PARAMETER));
+        final int chunkSize = Integer.parseInt(jobParameters.get(CHUNK_SIZE_PARAMETER));
+        postInterestForAccounts(threadPoolSize, chunkSize);
+    }
+
+    /**
+     * Partitioned interest posting: active savings accounts are split into
+     * id-range chunks which are posted on a pool of
+     * <code>threadPoolSize</code> workers, one transaction per chunk. Every
+     * committed chunk is recorded in {@link ScheduledJobRunChunk}, so a run
+     * that is restarted on the same business date continues with the chunks
+     * that have not been committed yet. Accounts that fail are recorded in
+     * {@link ScheduledJobRunFailure}.
+     */
+    @Override
+    public void postInterestForAccounts(final int threadPoolSize, final int chunkSize) throws JobExecutionException {
+        final ScheduledJobDetail jobDetail = this.scheduledJobDetailRepository.findByJobName(JobName.POST_INTEREST_FOR_SAVINGS
+                .toString());
+        final Long jobId = jobDetail.getId();
+        final Date businessDate = DateUtils.getLocalDateOfTenant().toDate();
+        // the chunks that failed in an earlier run on the same day are posted
+        // again by this run, and record their failures anew
+        this.scheduledJobRunFailureRepository.deleteAll(this.scheduledJobRunFailureRepository.findFailures(jobId, businessDate));
+        final Set<Long> completedChunkStarts = new HashSet<>(this.scheduledJobRunChunkRepository.findCompletedChunkStarts(jobId,
+                businessDate));
+        final List<Long> chunkStarts = this.savingAccountReadPlatformService.retrieveActiveSavingsAccountChunkStarts(chunkSize);
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final List<Callable<Integer>> chunkPosters = new ArrayList<>();
+        for (final Long chunkStart : chunkStarts) {
+            if (completedChunkStarts.contains(chunkStart)) {
+                continue;
+            }
+            final Long chunkEnd = chunkStart + chunkSize - 1;
+            chunkPosters.add(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    return postInterestForChunk(jobId, businessDate, chunkStart, chunkEnd);
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            });
+        }
+        logger.info("Posting savings interest for " + chunkPosters.size() + " chunks (" + completedChunkStarts.size()
+                + " already completed) on " + threadPoolSize + " threads");
+
+        final StringBuilder sb = new StringBuilder();
+        int failedCount = 0;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        try {
+            for (final Future<Integer> response : executorService.invokeAll(chunkPosters)) {
+                try {
+                    failedCount += response.get();
+                } catch (final ExecutionException e) {
+                    logger.error("Execution exception while posting savings interest", e);
+                    sb.append("failed to post interest for Savings chunk with message ").append(e.getCause().getMessage());
+                }
+            }
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while posting savings interest", e);
+            Thread.currentThread().interrupt();
+            sb.append("Interrupted while posting savings interest");
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        if (failedCount > 0) {
+            sb.append("failed to post interest for ").append(failedCount).append(" savings accounts, see job_run_failure for job ")
+                    .append(jobId).append(" and business date ").append(new LocalDate(businessDate));
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+    }
+
+    /**
+     * @return the number of accounts of the chunk that failed
+     */
+    private int postInterestForChunk(final Long jobId, final Date businessDate, final Long chunkStart, final Long chunkEnd) {
+        final List<Long> savingsIds = this.savingAccountReadPlatformService.retrieveActiveSavingsAccountIdsInRange(chunkStart, chunkEnd);
+        try {
+            this.transactionTemplate.execute(status -> {
+                for (final Long savingsId : savingsIds) {
+                    postInterest(savingsId);
+                }
+                saveChunk(jobId, businessDate, chunkStart, chunkEnd, savingsIds.size(), 0);
+                return null;
+            });
+            return 0;
+        } catch (final Exception e) {
+            logger.warn("Posting savings interest for chunk " + chunkStart + "-" + chunkEnd
+                    + " failed and was rolled back, retrying account by account", e);
+        }
+
+        // a single failing account rolls back the whole chunk, so the chunk is
+        // posted again with one transaction per account to isolate failures
+        final List<ScheduledJobRunFailure> failures = new ArrayList<>();
+        for (final Long savingsId : savingsIds) {
+            try {
+                this.transactionTemplate.execute(status -> {
+                    postInterest(savingsId);
+                    return null;
+                });
+            } catch (final Exception e) {
+                Throwable realCause = e;
+                if (e.getCause() != null) {
+                    realCause = e.getCause();
+                }
+                failures.add(ScheduledJobRunFailure.instance(jobId, businessDate, ScheduledJobRunFailure.ENTITY_TYPE_SAVINGS_ACCOUNT,
+                        savingsId, realCause.getMessage()));
+            }
+        }
+        this.transactionTemplate.execute(status -> {
+            saveChunk(jobId, businessDate, chunkStart, chunkEnd, savingsIds.size() - failures.size(), failures.size());
+            this.scheduledJobRunFailureRepository.saveAll(failures);
+            return null;
+        });
+        return failures.size();
+    }
+
+    private void postInterest(final Long savingsId) {
+        final SavingsAccount savingsAccount = this.savingAccountAssembler.assembleFrom(savingsId);
+        final boolean postInterestAsOn = false;
+        final LocalDate transactionDate = null;
+        this.savingsAccountWritePlatformService.postInterest(savingsAccount, postInterestAsOn, transactionDate);
+    }
+
+    private void saveChunk(final Long jobId, final Date businessDate, final Long chunkStart, final Long chunkEnd, final int processedCount,
+            final int failedCount) {
+        ScheduledJobRunChunk chunk = this.scheduledJobRunChunkRepository.findChunk(jobId, businessDate, chunkStart);
+        if (chunk == null) {
+            chunk = ScheduledJobRunChunk.instance(jobId, businessDate, chunkStart, chunkEnd);
+        }
+        chunk.markCompleted(processedCount, failedCount);
+        this.scheduledJobRunChunkRepository.save(chunk);
+    }
+
     @CronTarget(jobName = JobName.UPDATE_SAVINGS_DORMANT_ACCOUNTS)
     @Override
     public void updateSavingsDormancyStatus() throws JobExecutionException {
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Splits the searchable values of an entity into the tokens stored in
+ * <code>m_search_index</code>, and a search query into the tokens it has to
+ * match.
+ * <p>
+ * Every position of a value contributes the gram starting there, cut to at
+ * most {@link #GRAM_LENGTH} characters. A query shorter than a gram is then a
+ * prefix lookup on the token column, while a longer one must find all of its
+ * grams on the same entity. The grams only select candidates, the matching
+ * rows are still checked against the original columns.
+ */
+final class SearchIndexTokens {
+
+    static final int GRAM_LENGTH = 3;
+
+    private SearchIndexTokens() {
+        //
+    }
+
+    public static Set<String> tokensOf(final String... values) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        for (final String value : values) {
+            final String normalized = normalize(value);
+            if (normalized == null) {
+                continue;
+            }
+            for (int start = 0; start < normalized.length(); start++) {
+                tokens.add(normalized.substring(start, Math.min(start + GRAM_LENGTH, normalized.length())));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Grams a query has to match, or just the query itself when it is shorter
+     * than a gram and has to be looked up as a prefix.
+     */
+    public static Set<String> queryTokens(final String query) {
+        final String normalized = normalize(query);
+        final Set<String> tokens = new LinkedHashSet<>();
+        if (normalized.length() < GRAM_LENGTH) {
+            tokens.add(normalized);
+            return tokens;
+        }
+        for (int start = 0; start + GRAM_LENGTH <= normalized.length(); start++) {
+            tokens.add(normalized.substring(start, start + GRAM_LENGTH));
+        }
+        return tokens;
+    }
+
+    public static boolean isPrefixQuery(final String query) {
+        return normalize(query).length() < GRAM_LENGTH;
+    }
+
+    /**
+     * Queries carrying their own <code>like</code> wildcards can not be
+     * answered from grams.
+     */
+    public static boolean isIndexable(final String query) {
+        return StringUtils.isNotBlank(query) && !StringUtils.containsAny(query, "%_\\");
+    }
+
+    private static String normalize(final String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+
+/**
+ * Maintains <code>m_search_index</code>, the gram index the {@link SearchReadPlatformService}
+ * answers searches from.
+ * <p>
+ * The index methods are called by the write services once an entity is
+ * created or changed, the entity is read back and indexed after the calling
+ * transaction has committed.
+ */
+public interface SearchIndexWritePlatformService {
+
+    /**
+     * Indexes the client together with its identifiers and accounts, which
+     * share the office hierarchy of the client.
+     */
+    void indexClient(Long clientId);
+
+    void indexClientIdentifier(Long clientIdentifierId);
+
+    void indexGroup(Long groupId);
+
+    void indexLoan(Long loanId);
+
+    void indexSavingsAccount(Long savingsAccountId);
+
+    void rebuildSearchIndex() throws JobExecutionException;
+}
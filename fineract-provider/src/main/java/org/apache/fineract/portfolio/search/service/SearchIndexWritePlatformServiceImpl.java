@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexWritePlatformServiceImpl.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    /**
+     * The searchable entities, each read as its id, the office hierarchy it is
+     * searched under and the values it is found by.
+     */
+    enum SearchIndexSource {
+
+        CLIENT("CLIENT", "m_client", "c.id", "select c.id as entityId, o.hierarchy as hierarchy, c.display_name, c.account_no, "
+                + "c.external_id, c.mobile_no from m_client c join m_office o on o.id = c.office_id "), //
+        CLIENTIDENTIFIER("CLIENTIDENTIFIER", "m_client_identifier", "ci.id", "select ci.id as entityId, o.hierarchy as hierarchy, "
+                + "ci.document_key from m_client_identifier ci join m_client c on ci.client_id = c.id join m_office o on o.id = c.office_id "), //
+        GROUP("GROUP", "m_group", "g.id", "select g.id as entityId, o.hierarchy as hierarchy, g.display_name, g.account_no, "
+                + "g.external_id, cast(g.id as char) from m_group g join m_office o on o.id = g.office_id "), //
+        LOAN("LOAN", "m_loan", "l.id", "select l.id as entityId, o.hierarchy as hierarchy, l.account_no, l.external_id "
+                + "from m_loan l left join m_client c on l.client_id = c.id left join m_office o on o.id = c.office_id "), //
+        SAVING("SAVING", "m_savings_account", "s.id", "select s.id as entityId, o.hierarchy as hierarchy, s.account_no, s.external_id "
+                + "from m_savings_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id ");
+
+        private final String entityType;
+        private final String tableName;
+        private final String idColumn;
+        private final String sql;
+
+        private SearchIndexSource(final String entityType, final String tableName, final String idColumn, final String sql) {
+            this.entityType = entityType;
+            this.tableName = tableName;
+            this.idColumn = idColumn;
+            this.sql = sql;
+        }
+
+        public String getEntityType() {
+            return this.entityType;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate afterCommitTransactionTemplate;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        // the calling transaction is already committed when the index is
+        // written, its resources must not be joined
+        this.afterCommitTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.afterCommitTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void indexClient(final Long clientId) {
+        afterCommit(() -> {
+            reindex(SearchIndexSource.CLIENT, "c.id", clientId);
+            reindex(SearchIndexSource.CLIENTIDENTIFIER, "ci.client_id", clientId);
+            reindex(SearchIndexSource.LOAN, "l.client_id", clientId);
+            reindex(SearchIndexSource.SAVING, "s.client_id", clientId);
+        });
+    }
+
+    @Override
+    public void indexClientIdentifier(final Long clientIdentifierId) {
+        afterCommit(() -> reindex(SearchIndexSource.CLIENTIDENTIFIER, "ci.id", clientIdentifierId));
+    }
+
+    @Override
+    public void indexGroup(final Long groupId) {
+        afterCommit(() -> reindex(SearchIndexSource.GROUP, "g.id", groupId));
+    }
+
+    @Override
+    public void indexLoan(final Long loanId) {
+        afterCommit(() -> reindex(SearchIndexSource.LOAN, "l.id", loanId));
+    }
+
+    @Override
+    public void indexSavingsAccount(final Long savingsAccountId) {
+        afterCommit(() -> reindex(SearchIndexSource.SAVING, "s.id", savingsAccountId));
+    }
+
+    /**
+     * Rebuilds the index in id ranges, so searches keep being answered while
+     * it runs. Until a first rebuild completed searches fall back to scanning
+     * the entity tables.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildSearchIndex() throws JobExecutionException {
+        final Timestamp runStartTime = this.jdbcTemplate.queryForObject("select now()", Timestamp.class);
+        final StringBuilder errorMsg = new StringBuilder();
+        int result = 0;
+        for (final SearchIndexSource source : SearchIndexSource.values()) {
+            final Long maxId = this.jdbcTemplate.queryForObject("select max(id) from " + source.tableName, Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            for (long start = 1; start <= maxId; start += REBUILD_BATCH_SIZE) {
+                final long fromId = start;
+                final long toId = start + REBUILD_BATCH_SIZE - 1;
+                try {
+                    result += this.transactionTemplate.execute(status -> reindexRange(source, fromId, toId));
+                } catch (final RuntimeException e) {
+                    logger.error("Rebuild of search index failed for " + source.getEntityType() + " " + fromId + " to " + toId, e);
+                    errorMsg.append("Rebuild of search index failed for ").append(source.getEntityType()).append(" ids ").append(fromId)
+                            .append(" to ").append(toId).append(" with message ").append(e.getLocalizedMessage()).append(" ");
+                }
+            }
+        }
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+
+        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
+
+        this.jdbcTemplate.update("INSERT INTO job_run_watermark (job_id, watermark) select j.id, ? from job j where j.name = ? "
+                + "ON DUPLICATE KEY UPDATE watermark = VALUES(watermark)", runStartTime, JobName.REBUILD_SEARCH_INDEX.toString());
+    }
+
+    private void afterCommit(final Runnable indexing) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexQuietly(indexing);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                indexQuietly(indexing);
+            }
+        });
+    }
+
+    /**
+     * The entity is already saved, a failure to index it is left for the next
+     * rebuild rather than surfaced to the command.
+     */
+    private void indexQuietly(final Runnable indexing) {
+        try {
+            this.afterCommitTransactionTemplate.execute(status -> {
+                indexing.run();
+                return null;
+            });
+        } catch (final RuntimeException e) {
+            logger.warn("Search index could not be updated, it is corrected by the next run of "
+                    + JobName.REBUILD_SEARCH_INDEX.toString(), e);
+        }
+    }
+
+    private void reindex(final SearchIndexSource source, final String column, final Long id) {
+        final List<IndexedEntity> entities = this.jdbcTemplate.query(source.sql + " where " + column + " = ?", new IndexedEntityMapper(),
+                id);
+        final Set<Long> entityIds = new LinkedHashSet<>();
+        if (source.idColumn.equals(column)) {
+            entityIds.add(id);
+        }
+        for (final IndexedEntity entity : entities) {
+            entityIds.add(entity.entityId);
+        }
+        if (entityIds.isEmpty()) { return; }
+
+        this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id in ("
+                + StringUtils.join(entityIds, ",") + ")", source.getEntityType());
+        insert(source, entities);
+    }
+
+    private int reindexRange(final SearchIndexSource source, final long fromId, final long toId) {
+        this.jdbcTemplate.update("delete from m_search_index where entity_type = ? and entity_id between ? and ?", source.getEntityType(),
+                fromId, toId);
+        final List<IndexedEntity> entities = this.jdbcTemplate.query(source.sql + " where " + source.idColumn + " between ? and ?",
+                new IndexedEntityMapper(), fromId, toId);
+        insert(source, entities);
+        return entities.size();
+    }
+
+    private void insert(final SearchIndexSource source, final List<IndexedEntity> entities) {
+        final List<Object[]> rows = new ArrayList<>();
+        for (final IndexedEntity entity : entities) {
+            for (final String token : entity.tokens) {
+                rows.add(new Object[] { source.getEntityType(), entity.entityId, entity.hierarchy, token });
+            }
+        }
+        if (rows.isEmpty()) { return; }
+        this.jdbcTemplate.batchUpdate(
+                "insert ignore into m_search_index (entity_type, entity_id, office_hierarchy, token) values (?, ?, ?, ?)", rows);
+    }
+
+    private static final class IndexedEntity {
+
+        private final Long entityId;
+        private final String hierarchy;
+        private final Set<String> tokens;
+
+        IndexedEntity(final Long entityId, final String hierarchy, final Set<String> tokens) {
+            this.entityId = entityId;
+            this.hierarchy = hierarchy;
+            this.tokens = tokens;
+        }
+    }
+
+    private static final class IndexedEntityMapper implements RowMapper<IndexedEntity> {
+
+        @Override
+        public IndexedEntity mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long entityId = JdbcSupport.getLong(rs, "entityId");
+            final String hierarchy = rs.getString("hierarchy");
+            final int columnCount = rs.getMetaData().getColumnCount();
+            final String[] values = new String[columnCount - 2];
+            for (int i = 3; i <= columnCount; i++) {
+                values[i - 3] = rs.getString(i);
+            }
+            return new IndexedEntity(entityId, hierarchy, SearchIndexTokens.tokensOf(values));
+        }
+    }
+}
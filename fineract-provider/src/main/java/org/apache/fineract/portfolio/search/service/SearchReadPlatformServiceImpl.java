@@ -22,11 +22,16 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.office.data.OfficeData;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
@@ -41,6 +46,7 @@ import org.apache.fineract.portfolio.search.data.AdHocQuerySearchConditions;
 import org.apache.fineract.portfolio.search.data.AdHocSearchQueryData;
 import org.apache.fineract.portfolio.search.data.SearchConditions;
 import org.apache.fineract.portfolio.search.data.SearchData;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformServiceImpl.SearchIndexSource;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.RowMapper;
@@ -55,6 +61,9 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    // tenants whose search index has been rebuilt once, after which it stays
+    // maintained by the write services
+    private final Set<String> tenantsWithSearchIndex = ConcurrentHashMap.newKeySet();
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
@@ -79,26 +88,57 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
            }else{
             params.addValue("search", "%" + searchConditions.getSearchQuery() + "%");
            }
-        return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions), params, rm);
+
+        // the index only narrows the rows the original conditions are checked
+        // on, so it is skipped until its first rebuild completed
+        String tokenPredicate = null;
+        final String searchQuery = searchConditions.getSearchQuery();
+        if (SearchIndexTokens.isIndexable(searchQuery) && isSearchIndexBuilt()) {
+            final Set<String> tokens = SearchIndexTokens.queryTokens(searchQuery);
+            if (SearchIndexTokens.isPrefixQuery(searchQuery)) {
+                tokenPredicate = "si.token like :tokenPrefix";
+                params.addValue("tokenPrefix", tokens.iterator().next() + "%");
+                params.addValue("tokenCount", 1);
+            } else {
+                tokenPredicate = "si.token in (:tokens)";
+                params.addValue("tokens", new ArrayList<>(tokens));
+                params.addValue("tokenCount", tokens.size());
+            }
+        }
+        return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions, tokenPredicate), params, rm);
+    }
+
+    private boolean isSearchIndexBuilt() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (this.tenantsWithSearchIndex.contains(tenantIdentifier)) { return true; }
+        final Integer rebuilds = this.namedParameterjdbcTemplate.getJdbcOperations().queryForObject(
+                "select count(*) from job_run_watermark w INNER JOIN job j on j.id = w.job_id where j.name = ?", Integer.class,
+                JobName.REBUILD_SEARCH_INDEX.toString());
+        if (rebuilds == null || rebuilds == 0) { return false; }
+        this.tenantsWithSearchIndex.add(tenantIdentifier);
+        return true;
     }
 
     private static final class SearchMapper implements RowMapper<SearchData> {
 
-        public String searchSchema(final SearchConditions searchConditions) {
+        public String searchSchema(final SearchConditions searchConditions, final String tokenPredicate) {
 
             final String union = " union ";
             final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
                     + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
+                    + " from m_client c " + candidates(SearchIndexSource.CLIENT, "c.id", tokenPredicate)
+                    + " join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
 
             final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
                     + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
+                    + " from m_loan l " + candidates(SearchIndexSource.LOAN, "l.id", tokenPredicate)
+                    + " left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
 
 
             final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
                     + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
+                    + " from m_savings_account s " + candidates(SearchIndexSource.SAVING, "s.id", tokenPredicate)
+                    + " left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
                     + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
 
             final String shareMatchSql = " (select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
@@ -108,11 +148,13 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
 
             final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
                     + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
+                    + " from m_client_identifier ci " + candidates(SearchIndexSource.CLIENTIDENTIFIER, "ci.id", tokenPredicate)
+                    + " join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
                     + " where o.hierarchy like :hierarchy and ci.document_key like :search ) ";
             final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
                     + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
+                    + " from m_group g " + candidates(SearchIndexSource.GROUP, "g.id", tokenPredicate)
+                    + " join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
             final StringBuffer sql = new StringBuffer();
 
             if (searchConditions.isClientSearch()) {
@@ -147,6 +189,17 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
             return sql.toString();
         }
 
+        /**
+         * Restricts a branch to the entities having all grams of the query,
+         * shares are not indexed and keep scanning their table.
+         */
+        private static String candidates(final SearchIndexSource source, final String idColumn, final String tokenPredicate) {
+            if (tokenPredicate == null) { return ""; }
+            return " join (select si.entity_id from m_search_index si where si.entity_type = '" + source.getEntityType() + "' and "
+                    + tokenPredicate + " and (si.office_hierarchy is null or si.office_hierarchy like :hierarchy) "
+                    + "group by si.entity_id having count(distinct si.token) >= :tokenCount) si on si.entity_id = " + idColumn + " ";
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
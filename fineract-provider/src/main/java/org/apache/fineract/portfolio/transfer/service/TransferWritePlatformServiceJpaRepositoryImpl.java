@@ -57,6 +57,7 @@ import org.apache.fineract.portfolio.note.service.NoteWritePlatformService;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformService;
 import org.apache.fineract.portfolio.transfer.api.TransferApiConstants;
 import org.apache.fineract.portfolio.transfer.data.TransfersDataValidator;
 import org.apache.fineract.portfolio.transfer.exception.ClientNotAwaitingTransferApprovalException;
@@ -84,6 +85,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
     private final StaffRepositoryWrapper staffRepositoryWrapper;
     private final ClientTransferDetailsRepositoryWrapper clientTransferDetailsRepositoryWrapper;
      private final PlatformSecurityContext context;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
 
     @Autowired
     public TransferWritePlatformServiceJpaRepositoryImpl(final ClientRepositoryWrapper clientRepositoryWrapper,
@@ -94,7 +96,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
             final SavingsAccountRepositoryWrapper savingsAccountRepositoryWrapper,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
             final ClientTransferDetailsRepositoryWrapper clientTransferDetailsRepositoryWrapper,
-            final PlatformSecurityContext context) {
+            final PlatformSecurityContext context, final SearchIndexWritePlatformService searchIndexWritePlatformService) {
         this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.officeRepository = officeRepository;
         this.calendarInstanceRepository = calendarInstanceRepository;
@@ -108,6 +110,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.clientTransferDetailsRepositoryWrapper = clientTransferDetailsRepositoryWrapper;
         this.context = context;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
 
     }
 
@@ -448,6 +451,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
                 client.updateOffice(destinationOffice);
                 client.updateOfficeJoiningDate(client.getProposedTransferDate());
                 client.updateProposedTransferDate(null);
+                this.searchIndexWritePlatformService.indexClient(client.getId());
                 if (client.getGroups().size() == 1) {
                     if (destinationGroup == null) {
                         throw new TransferNotSupportedException(TRANSFER_NOT_SUPPORTED_REASON.CLIENT_DESTINATION_GROUP_NOT_SPECIFIED,
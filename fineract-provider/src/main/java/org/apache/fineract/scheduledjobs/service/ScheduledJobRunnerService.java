@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.scheduledjobs.service;
 
+import java.util.Map;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
 public interface ScheduledJobRunnerService {
@@ -39,4 +40,6 @@ public interface ScheduledJobRunnerService {
     void postDividends() throws JobExecutionException;
 
     void updateTrialBalanceDetails()  throws JobExecutionException;
+
+    void updateTrialBalanceDetails(Map<String, String> jobParameters) throws JobExecutionException;
 }
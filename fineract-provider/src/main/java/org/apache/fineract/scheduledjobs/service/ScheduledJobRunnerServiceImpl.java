@@ -20,15 +20,21 @@ package org.apache.fineract.scheduledjobs.service;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
@@ -45,8 +51,6 @@ import org.apache.fineract.portfolio.savings.service.SavingsAccountChargeReadPla
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountDividendReadPlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountSchedularService;
-import org.joda.time.DateTime;
-import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -54,14 +58,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service(value = "scheduledJobRunnerService")
 public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService {
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
+    private static final String THREAD_POOL_SIZE_PARAMETER = "thread-pool-size";
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final DateTimeFormatter formatterWithTime = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -72,7 +78,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
-    private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
@@ -81,7 +87,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
-            final ShareAccountSchedularService shareAccountSchedularService, final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper) {
+            final ShareAccountSchedularService shareAccountSchedularService, final TransactionTemplate transactionTemplate) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -89,7 +95,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
-        this.trialBalanceRepositoryWrapper=trialBalanceRepositoryWrapper;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
@@ -416,67 +422,127 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
     }
 
+    @Override
     @CronTarget(jobName = JobName.UPDATE_TRAIL_BALANCE_DETAILS)
     public void updateTrialBalanceDetails() throws JobExecutionException {
+        updateTrialBalanceDetails(1);
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.UPDATE_TRAIL_BALANCE_DETAILS)
+    public void updateTrialBalanceDetails(final Map<String, String> jobParameters) throws JobExecutionException {
+        final String threadPoolSize = jobParameters.get(THREAD_POOL_SIZE_PARAMETER);
+        updateTrialBalanceDetails(threadPoolSize == null ? 1 : Integer.parseInt(threadPoolSize));
+    }
+
+    /**
+     * Brings <code>m_trial_balance</code> up to yesterday office by office,
+     * each office in its own transaction on a pool of
+     * <code>threadPoolSize</code> workers: one aggregated insert for all the
+     * days the office is behind, followed by a single ordered pass over the
+     * inserted rows deriving their running closing balances.
+     *
+     * Every office continues from its own last trial balance date, so a run
+     * that failed for some offices is caught up by the next one.
+     */
+    private void updateTrialBalanceDetails(final int threadPoolSize) throws JobExecutionException {
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
-        final StringBuilder tbGapSqlBuilder = new StringBuilder(500);
-        tbGapSqlBuilder.append("select distinct(je.transaction_date) ")
-                .append("from acc_gl_journal_entry je ")
-                .append("where je.transaction_date > (select IFNULL(MAX(created_date),'2010-01-01') from m_trial_balance)");
-
-        final List<Date> tbGaps = jdbcTemplate.queryForList(tbGapSqlBuilder.toString(), Date.class);
-
-        for(Date tbGap : tbGaps) {
-            LocalDate convDate = new DateTime(tbGap).toLocalDate();
-            int days = Days.daysBetween(convDate, DateUtils.getLocalDateOfTenant()).getDays();
-            if(days < 1)
-                continue;
-            final String formattedDate = new SimpleDateFormat("yyyy-MM-dd").format(tbGap);
-            final StringBuilder sqlBuilder = new StringBuilder(600);
-            sqlBuilder.append("Insert Into m_trial_balance(office_id, account_id, Amount, entry_date, created_date,closing_balance) ")
-                    .append("Select je.office_id, je.account_id, sum(if(je.type_enum=1, (-1) * je.amount, je.amount)) ")
-                    .append("as Amount, Date(je.entry_date) as 'Entry_Date', je.transaction_date as 'Created_Date',sum(je.amount) as closing_balance ")
-                    .append("from acc_gl_journal_entry je WHERE je.transaction_date = ? ")
-                    .append("group by je.account_id, je.office_id, je.transaction_date, Date(je.entry_date)");
-
-            final int result = jdbcTemplate.update(sqlBuilder.toString(), new Object[] {
-                    formattedDate
+        final String tillDate = formatter.print(DateUtils.getLocalDateOfTenant());
+        final List<Long> officeIds = jdbcTemplate.queryForList("select id from m_office order by id", Long.class);
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        final List<Callable<Integer>> updaters = new ArrayList<>();
+        for (final Long officeId : officeIds) {
+            updaters.add(() -> {
+                ThreadLocalContextUtil.setTenant(tenant);
+                try {
+                    return this.transactionTemplate.execute(status -> updateTrialBalanceDetails(jdbcTemplate, officeId, tillDate));
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
             });
-            logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
         }
 
-        // Updating closing balance
-        String distinctOfficeQuery = "select distinct(office_id) from m_trial_balance where closing_balance is null group by office_id";
-        final List<Long> officeIds = jdbcTemplate.queryForList(distinctOfficeQuery, new Object[] {}, Long.class);
-
-
-        for(Long officeId : officeIds) {
-            String distinctAccountQuery = "select distinct(account_id) from m_trial_balance where office_id=? and closing_balance is null group by account_id";
-            final List<Long> accountIds = jdbcTemplate.queryForList(distinctAccountQuery, new Object[] {officeId}, Long.class);
-            for(Long accountId : accountIds) {
-                final String closingBalanceQuery = "select closing_balance from m_trial_balance where office_id=? and account_id=? and closing_balance " +
-                        "is not null order by created_date desc, entry_date desc limit 1";
-                List<BigDecimal> closingBalanceData = jdbcTemplate.queryForList(closingBalanceQuery, new Object[] {officeId, accountId}, BigDecimal.class);
-                List<TrialBalance> tbRows = this.trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(officeId, accountId);
-                BigDecimal closingBalance = null;
-                if(!CollectionUtils.isEmpty(closingBalanceData))
-                    closingBalance = closingBalanceData.get(0);
-                if(CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = BigDecimal.ZERO;
-                    for(TrialBalance row : tbRows) {
-                        closingBalance = closingBalance.add(row.getAmount());
-                        row.setClosingBalance(closingBalance);
-                    }
-                } else {
-                    for(TrialBalance tbRow : tbRows) {
-                        closingBalance = closingBalance.add(tbRow.getAmount());
-                        tbRow.setClosingBalance(closingBalance);
-                    }
+        final StringBuilder errorMsg = new StringBuilder();
+        int result = 0;
+        try {
+            final List<Future<Integer>> responses = executorService.invokeAll(updaters);
+            for (int i = 0; i < responses.size(); i++) {
+                try {
+                    result += responses.get(i).get();
+                } catch (final ExecutionException e) {
+                    logger.error("Update of trial balance failed for office " + officeIds.get(i), e.getCause());
+                    errorMsg.append("Update of trial balance failed for office Id:").append(officeIds.get(i)).append(" with message ")
+                            .append(e.getCause().getLocalizedMessage()).append(" ");
                 }
-                this.trialBalanceRepositoryWrapper.save(tbRows);
             }
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while updating trial balance", e);
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interrupted while updating trial balance");
+        } finally {
+            executorService.shutdownNow();
         }
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
 
+        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
     }
 
+    private int updateTrialBalanceDetails(final JdbcTemplate jdbcTemplate, final Long officeId, final String tillDate) {
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        sqlBuilder.append("Insert Into m_trial_balance(office_id, account_id, Amount, entry_date, created_date,closing_balance) ")
+                .append("Select je.office_id, je.account_id, sum(if(je.type_enum=1, (-1) * je.amount, je.amount)) ")
+                .append("as Amount, Date(je.entry_date) as 'Entry_Date', je.transaction_date as 'Created_Date', null as closing_balance ")
+                .append("from acc_gl_journal_entry je WHERE je.office_id = ? ")
+                .append("and je.transaction_date > (select IFNULL(MAX(tb.created_date),'2010-01-01') from m_trial_balance tb where tb.office_id = ?) ")
+                .append("and je.transaction_date < ? ")
+                .append("group by je.account_id, je.office_id, je.transaction_date, Date(je.entry_date)");
+        final int result = jdbcTemplate.update(sqlBuilder.toString(), officeId, officeId, tillDate);
+
+        // closing balance of a new row is the last closing balance of its
+        // account plus the amounts of the new rows up to and including it
+        final Map<Long, BigDecimal> lastClosingBalances = new HashMap<>();
+        final String lastClosingBalanceSql = "select l.account_id, l.closing_balance from m_trial_balance l "
+                + "where l.office_id = ? and l.closing_balance is not null and l.account_id in (select n.account_id from m_trial_balance n "
+                + "where n.office_id = l.office_id and n.closing_balance is null) and not exists (select 1 from m_trial_balance l2 "
+                + "where l2.office_id = l.office_id and l2.account_id = l.account_id and l2.closing_balance is not null "
+                + "and (l2.created_date > l.created_date or (l2.created_date = l.created_date and l2.entry_date > l.entry_date)))";
+        jdbcTemplate.query(lastClosingBalanceSql, (RowCallbackHandler) rs -> lastClosingBalances.put(rs.getLong("account_id"),
+                rs.getBigDecimal("closing_balance")), officeId);
+        final List<Map<String, Object>> newRows = jdbcTemplate.queryForList("select tb.id, tb.account_id, tb.amount from m_trial_balance tb "
+                + "where tb.office_id = ? and tb.closing_balance is null order by tb.account_id, tb.created_date, tb.entry_date", officeId);
+
+        final List<Object[]> closingBalanceUpdates = new ArrayList<>();
+        for (final Map.Entry<Long, BigDecimal> closingBalance : closingBalances(newRows, lastClosingBalances).entrySet()) {
+            closingBalanceUpdates.add(new Object[] { closingBalance.getValue(), closingBalance.getKey() });
+        }
+        jdbcTemplate.batchUpdate("update m_trial_balance set closing_balance = ? where id = ?", closingBalanceUpdates);
+
+        return result;
+    }
+
+    /**
+     * Running closing balances of new trial balance rows, given as
+     * <code>id</code>, <code>account_id</code> and <code>amount</code> and
+     * ordered by account, created date and entry date. Each account starts
+     * from its entry in <code>lastClosingBalances</code>, or zero.
+     *
+     * @return the closing balance of each row by its id
+     */
+    static Map<Long, BigDecimal> closingBalances(final List<Map<String, Object>> newRows, final Map<Long, BigDecimal> lastClosingBalances) {
+        final Map<Long, BigDecimal> closingBalances = new LinkedHashMap<>();
+        Long accountId = null;
+        BigDecimal closingBalance = null;
+        for (final Map<String, Object> row : newRows) {
+            final Long rowAccountId = ((Number) row.get("account_id")).longValue();
+            if (!rowAccountId.equals(accountId)) {
+                accountId = rowAccountId;
+                closingBalance = lastClosingBalances.containsKey(accountId) ? lastClosingBalances.get(accountId) : BigDecimal.ZERO;
+            }
+            closingBalance = closingBalance.add((BigDecimal) row.get("amount"));
+            closingBalances.put(((Number) row.get("id")).longValue(), closingBalance);
+        }
+        return closingBalances;
+    }
 }
@@ -27,6 +27,7 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.security.service.AuthenticationResultCache;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.service.TopicDomainService;
 import org.apache.fineract.useradministration.command.PermissionsCommand;
@@ -57,17 +58,20 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
     private final RoleDataValidator roleCommandFromApiJsonDeserializer;
     private final PermissionsCommandFromApiJsonDeserializer permissionsFromApiJsonDeserializer;
     private final TopicDomainService topicDomainService;
+    private final AuthenticationResultCache authenticationResultCache;
 
     @Autowired
     public RoleWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final RoleRepository roleRepository,
             final PermissionRepository permissionRepository, final RoleDataValidator roleCommandFromApiJsonDeserializer,
-            final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer, final TopicDomainService topicDomainService) {
+            final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer, final TopicDomainService topicDomainService,
+            final AuthenticationResultCache authenticationResultCache) {
         this.context = context;
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.roleCommandFromApiJsonDeserializer = roleCommandFromApiJsonDeserializer;
         this.permissionsFromApiJsonDeserializer = fromApiJsonDeserializer;
         this.topicDomainService = topicDomainService;
+        this.authenticationResultCache = authenticationResultCache;
     }
 
     @Transactional
@@ -136,6 +140,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
             final Map<String, Object> changes = role.update(command);
             if (!changes.isEmpty()) {
                 this.roleRepository.saveAndFlush(role);
+                this.authenticationResultCache.invalidate();
                 if (changes.containsKey("name")) {
                     this.topicDomainService.updateTopic( previousRoleName, role, changes);
                 }
@@ -188,6 +193,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
         if (!changedPermissions.isEmpty()) {
             changes.put("permissions", changedPermissions);
             this.roleRepository.save(role);
+            this.authenticationResultCache.invalidate();
         }
 
         return new CommandProcessingResultBuilder() //
@@ -229,6 +235,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
             this.topicDomainService.deleteTopic(role);
 
             this.roleRepository.delete(role);
+            this.authenticationResultCache.invalidate();
             return new CommandProcessingResultBuilder().withEntityId(roleId).build();
         } catch (final DataIntegrityViolationException e) {
             throw new PlatformDataIntegrityException("error.msg.unknown.data.integrity.issue",
@@ -260,6 +267,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
              */
             role.disableRole();
             this.roleRepository.save(role);
+            this.authenticationResultCache.invalidate();
             return new CommandProcessingResultBuilder().withEntityId(roleId).build();
 
         } catch (final DataIntegrityViolationException e) {
@@ -284,6 +292,7 @@ public class RoleWritePlatformServiceJpaRepositoryImpl implements RoleWritePlatf
 
             role.enableRole();
             this.roleRepository.save(role);
+            this.authenticationResultCache.invalidate();
             return new CommandProcessingResultBuilder().withEntityId(roleId).build();
 
         } catch (final DataIntegrityViolationException e) {
@@ -0,0 +1,38 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `job_run_chunk` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+  `job_id` BIGINT(20) NOT NULL,
+  `business_date` DATE NOT NULL,
+  `chunk_start` BIGINT(20) NOT NULL,
+  `chunk_end` BIGINT(20) NOT NULL,
+  `status` VARCHAR(10) NOT NULL,
+  `processed_count` INT(11) NOT NULL DEFAULT 0,
+  `failed_count` INT(11) NOT NULL DEFAULT 0,
+  `completed_time` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_job_run_chunk` (`job_id`, `business_date`, `chunk_start`),
+  CONSTRAINT `FK_job_run_chunk_job_id` FOREIGN KEY (`job_id`) REFERENCES `job` (`id`)
+);
+
+INSERT IGNORE INTO `job_parameters`(`job_id`,`parameter_name`,`parameter_value`)
+SELECT `id`, 'thread-pool-size', 1 FROM `job` WHERE `name` = 'Post Interest For Savings';
+INSERT IGNORE INTO `job_parameters`(`job_id`,`parameter_name`,`parameter_value`)
+SELECT `id`, 'batch-size', 500 FROM `job` WHERE `name` = 'Post Interest For Savings';
@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `acc_gl_running_balance_checkpoint` (
+  `office_id` BIGINT(20) NOT NULL,
+  `max_journal_entry_id` BIGINT(20) NOT NULL,
+  `created_date` DATETIME NOT NULL,
+  PRIMARY KEY (`office_id`),
+  CONSTRAINT `FK_acc_gl_running_balance_checkpoint_m_office` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`)
+);
+
+ALTER TABLE `acc_gl_journal_entry`
+	ADD INDEX `IDX_running_balance_account` (`account_id`, `entry_date`),
+	ADD INDEX `IDX_running_balance_office_account` (`office_id`, `account_id`, `entry_date`),
+	ADD INDEX `IDX_running_balance_pending` (`is_running_balance_calculated`, `account_id`, `entry_date`);
@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE IF NOT EXISTS `job_run_watermark` (
+  `job_id` BIGINT(20) NOT NULL,
+  `watermark` DATETIME NOT NULL,
+  PRIMARY KEY (`job_id`),
+  CONSTRAINT `FK_job_run_watermark_job_id` FOREIGN KEY (`job_id`) REFERENCES `job` (`id`)
+);
+
+ALTER TABLE `m_loan_transaction` ADD INDEX `IND_m_loan_transaction_created_date` (`created_date`);
+ALTER TABLE `m_loan_repayment_schedule` ADD INDEX `IND_m_loan_repayment_schedule_lastmodified_date` (`lastmodified_date`);
+
+INSERT IGNORE INTO `job_parameters`(`job_id`,`parameter_name`,`parameter_value`)
+SELECT `id`, 'incremental', 'true' FROM `job` WHERE `name` = 'Update Loan Arrears Ageing';
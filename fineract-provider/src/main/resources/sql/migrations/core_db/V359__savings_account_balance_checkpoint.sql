@@ -0,0 +1,38 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+ALTER TABLE `m_savings_account`
+	ADD COLUMN `checkpoint_date` DATE NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_balance_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_deposits_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_withdrawals_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_interest_posted_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_withdrawal_fees_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_annual_fees_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_fees_charge_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_penalty_charge_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_fees_charge_waived_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_penalty_charge_waived_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_overdraft_interest_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_total_withhold_tax_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_interest_period_end_date` DATE NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_interest_closing_balance_derived` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_interest_compounded_derived` DECIMAL(38,20) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_interest_uncompounded_derived` DECIMAL(38,20) NULL DEFAULT NULL,
+	ADD COLUMN `checkpoint_interest_earned_derived` DECIMAL(19,6) NULL DEFAULT NULL;
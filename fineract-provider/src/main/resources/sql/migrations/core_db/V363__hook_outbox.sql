@@ -0,0 +1,40 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `m_hook_outbox` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`hook_id` BIGINT(20) NOT NULL,
+	`entity_name` VARCHAR(45) NOT NULL,
+	`action_name` VARCHAR(45) NOT NULL,
+	`payload` LONGTEXT NOT NULL,
+	`appuser_id` BIGINT(20) NULL DEFAULT NULL,
+	`status_enum` SMALLINT(5) NOT NULL,
+	`attempts` INT(11) NOT NULL DEFAULT 0,
+	`next_attempt_time` DATETIME NOT NULL,
+	`claimed_by` VARCHAR(50) NULL DEFAULT NULL,
+	`last_error` VARCHAR(500) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IND_hook_outbox_hook_status` (`hook_id`, `status_enum`, `next_attempt_time`),
+	INDEX `IND_hook_outbox_status_time` (`status_enum`, `next_attempt_time`),
+	INDEX `IND_hook_outbox_claimed_by` (`claimed_by`),
+	CONSTRAINT `FK_hook_outbox_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
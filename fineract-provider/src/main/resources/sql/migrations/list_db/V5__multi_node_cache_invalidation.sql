@@ -0,0 +1,30 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- evicts and clears done on one API node, polled by the other nodes when the
+-- multi node cache is enabled
+CREATE TABLE `cache_invalidation` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+  `node_id` VARCHAR(36) NOT NULL,
+  `cache_name` VARCHAR(100) NOT NULL,
+  `cache_key` VARCHAR(500) NULL DEFAULT NULL,
+  `created_date` DATETIME NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `IND_cache_invalidation_created_date` (`created_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonObject;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.UriInfo;
+import org.apache.fineract.batch.command.CommandContext;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchApiServiceImplTest {
+
+    @Mock
+    private CommandStrategyProvider strategyProvider;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UriInfo uriInfo;
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default Demo Tenant", "Asia/Kolkata", null);
+    private final RecordingCommandStrategy strategy = new RecordingCommandStrategy();
+    private BatchApiServiceImpl batchApiService;
+
+    @Before
+    public void setUpForEachTestCase() {
+        ThreadLocalContextUtil.setTenant(this.tenant);
+        when(this.strategyProvider.getCommandStrategy(any(CommandContext.class))).thenReturn(this.strategy);
+    }
+
+    @After
+    public void tearDownForEachTestCase() {
+        if (this.batchApiService != null) {
+            this.batchApiService.shutdown();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void givenRootRequestsWithDependentRequestsShouldRunEachTreeOnItsOwnThread() throws Exception {
+        this.batchApiService = startedService(4, 10);
+        this.strategy.rootRequestsArrived = new CountDownLatch(3);
+
+        final List<BatchRequest> requests = new ArrayList<>();
+        requests.add(request(1L, "clients", null, "{}"));
+        requests.add(request(2L, "clients", null, "{}"));
+        requests.add(request(3L, "fail", null, "{}"));
+        requests.add(request(4L, "clients/$.resourceId/identifiers", 1L, "{\"clientId\":\"$.resourceId\"}"));
+        requests.add(request(5L, "identifiers/$.resourceId", 4L, "{\"identifierId\":\"$.resourceId\"}"));
+        requests.add(request(6L, "clients/$.resourceId", 2L, "{\"clientId\":\"$.resourceId\"}"));
+        requests.add(request(7L, "clients/$.resourceId", 3L, "{\"clientId\":\"$.resourceId\"}"));
+
+        final List<BatchResponse> responses = this.batchApiService.handleBatchRequestsInParallel(requests, this.uriInfo);
+
+        assertTrue("root requests did not run at the same time", this.strategy.rootRequestsRanTogether);
+        assertStatusCodes(responses, 200, 200, 400, 200, 200, 200, 409);
+
+        // dependent requests are resolved against their parent's response
+        assertEquals("clients/100/identifiers", this.strategy.relativeUrls.get(4L));
+        assertEquals("{\"clientId\":100}", this.strategy.bodies.get(4L));
+        assertEquals("identifiers/400", this.strategy.relativeUrls.get(5L));
+        assertEquals("clients/200", this.strategy.relativeUrls.get(6L));
+
+        // and run after it on the same thread, with the caller's tenant
+        assertTrue(this.strategy.threadNames.get(1L).startsWith("batch-request-"));
+        assertEquals(this.strategy.threadNames.get(1L), this.strategy.threadNames.get(4L));
+        assertEquals(this.strategy.threadNames.get(1L), this.strategy.threadNames.get(5L));
+        assertEquals(this.strategy.threadNames.get(2L), this.strategy.threadNames.get(6L));
+        for (final FineractPlatformTenant requestTenant : this.strategy.tenants.values()) {
+            assertSame(this.tenant, requestTenant);
+        }
+    }
+
+    @Test
+    public void givenFullQueueShouldRunRootRequestOnCallingThread() throws Exception {
+        this.batchApiService = startedService(1, 1);
+        this.strategy.release = new CountDownLatch(1);
+
+        final List<BatchRequest> requests = new ArrayList<>();
+        // the first request occupies the only thread and the second the queue
+        // until the third, rejected by the pool, releases them
+        requests.add(request(1L, "block", null, "{}"));
+        requests.add(request(2L, "block", null, "{}"));
+        requests.add(request(3L, "release", null, "{}"));
+        requests.add(request(4L, "clients/$.resourceId", 3L, "{\"clientId\":\"$.resourceId\"}"));
+
+        final List<BatchResponse> responses = this.batchApiService.handleBatchRequestsInParallel(requests, this.uriInfo);
+
+        assertStatusCodes(responses, 200, 200, 200, 200);
+        final String callingThread = Thread.currentThread().getName();
+        assertEquals(callingThread, this.strategy.threadNames.get(3L));
+        assertEquals(callingThread, this.strategy.threadNames.get(4L));
+        assertEquals(this.strategy.threadNames.get(1L), this.strategy.threadNames.get(2L));
+        assertEquals("clients/300", this.strategy.relativeUrls.get(4L));
+        assertSame(this.tenant, ThreadLocalContextUtil.getTenant());
+    }
+
+    private BatchApiServiceImpl startedService(final int parallelThreads, final int parallelQueueCapacity) throws Exception {
+        final BatchApiServiceImpl service = new BatchApiServiceImpl(this.strategyProvider, new ResolutionHelper(new FromJsonHelper()),
+                this.transactionTemplate);
+        setField(service, "parallelThreads", parallelThreads);
+        setField(service, "parallelQueueCapacity", parallelQueueCapacity);
+        service.start();
+        return service;
+    }
+
+    private static void setField(final Object target, final String name, final Object value) throws Exception {
+        final Field field = BatchApiServiceImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static BatchRequest request(final Long requestId, final String relativeUrl, final Long reference, final String body) {
+        final BatchRequest request = new BatchRequest();
+        request.setRequestId(requestId);
+        request.setRelativeUrl(relativeUrl);
+        request.setMethod("POST");
+        request.setReference(reference);
+        request.setBody(body);
+        return request;
+    }
+
+    private static void assertStatusCodes(final List<BatchResponse> responses, final Integer... statusCodes) {
+        assertEquals(statusCodes.length, responses.size());
+        for (int i = 0; i < statusCodes.length; i++) {
+            assertEquals(Long.valueOf(i + 1), responses.get(i).getRequestId());
+            assertEquals("status of request " + (i + 1), statusCodes[i], responses.get(i).getStatusCode());
+        }
+    }
+
+    /**
+     * Answers every request with a <code>resourceId</code> of a hundred times
+     * its request id, or fails it if its url starts with <code>fail</code>,
+     * and records where and with what it was executed.
+     */
+    private static final class RecordingCommandStrategy implements CommandStrategy {
+
+        private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+        private final Map<Long, FineractPlatformTenant> tenants = new ConcurrentHashMap<>();
+        private final Map<Long, String> relativeUrls = new ConcurrentHashMap<>();
+        private final Map<Long, String> bodies = new ConcurrentHashMap<>();
+        private volatile CountDownLatch rootRequestsArrived;
+        private volatile boolean rootRequestsRanTogether;
+        private volatile CountDownLatch release;
+
+        @Override
+        public BatchResponse execute(final BatchRequest batchRequest, final UriInfo uriInfo) {
+            final Long requestId = batchRequest.getRequestId();
+            this.threadNames.put(requestId, Thread.currentThread().getName());
+            this.tenants.put(requestId, ThreadLocalContextUtil.getTenant());
+            this.relativeUrls.put(requestId, batchRequest.getRelativeUrl());
+            this.bodies.put(requestId, batchRequest.getBody());
+
+            try {
+                if (batchRequest.getReference() == null && this.rootRequestsArrived != null) {
+                    this.rootRequestsArrived.countDown();
+                    this.rootRequestsRanTogether = this.rootRequestsArrived.await(10, TimeUnit.SECONDS);
+                }
+                if ("block".equals(batchRequest.getRelativeUrl())) {
+                    this.release.await(10, TimeUnit.SECONDS);
+                } else if ("release".equals(batchRequest.getRelativeUrl())) {
+                    this.release.countDown();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            final BatchResponse response = new BatchResponse();
+            response.setRequestId(requestId);
+            if (batchRequest.getRelativeUrl().startsWith("fail")) {
+                response.setStatusCode(400);
+                response.setBody("{\"developerMessage\":\"failed\"}");
+            } else {
+                final JsonObject body = new JsonObject();
+                body.addProperty("resourceId", requestId * 100);
+                response.setStatusCode(200);
+                response.setBody(body.toString());
+            }
+            return response;
+        }
+    }
+}
@@ -18,15 +18,31 @@
  */
 package org.apache.fineract.commands.provider;
 
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.infrastructure.configuration.spring.TestsWithoutDatabaseAndNoJobsConfiguration;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -65,4 +81,154 @@ public class CommandHandlerProviderTest {
     public void shouldThrowUnsupportedCommandException() {
         this.commandHandlerProvider.getHandler("WHATEVER", "DOSOMETHING");
     }
+
+    @Test
+    public void shouldResolveRegisteredHandlerFromDispatchTable() {
+        final NewCommandSourceHandler handler = this.commandHandlerProvider.getHandler("HUMAN", "UPDATE");
+
+        Assert.assertSame(handler, this.commandHandlerProvider.getHandler("HUMAN", "UPDATE"));
+        Assert.assertSame(handler, this.commandHandlerProvider.getHandler(wrapper("UPDATE", "HUMAN", null, "/humans")));
+    }
+
+    @Test
+    public void shouldResolveHandlersOnceOnContextRefresh() {
+        final HandlerContext handlerContext = new HandlerContext(null);
+        final CommandHandlerProvider provider = handlerContext.refreshedProvider();
+
+        final NewCommandSourceHandler handler = provider.getHandler("HUMAN", "UPDATE");
+        Assert.assertSame(handlerContext.handlers.get("validCommandHandler"), handler);
+        Assert.assertSame(handler, provider.getHandler("HUMAN", "UPDATE"));
+        verify(handlerContext.applicationContext, times(1)).getBean("validCommandHandler");
+    }
+
+    @Test
+    public void shouldLookUpHandlerInContextBeforeRefresh() {
+        final HandlerContext handlerContext = new HandlerContext(null);
+        final CommandHandlerProvider provider = new CommandHandlerProvider();
+        provider.setApplicationContext(handlerContext.applicationContext);
+
+        Assert.assertSame(handlerContext.handlers.get("validCommandHandler"), provider.getHandler("HUMAN", "UPDATE"));
+        Assert.assertSame(handlerContext.handlers.get("createNoteCommandHandler"),
+                provider.getHandler(wrapper("CREATE", "CLIENTNOTE", null, "/clients/1/notes/template")));
+    }
+
+    @Test
+    public void shouldResolveVariantHandlers() {
+        final HandlerContext handlerContext = new HandlerContext(null);
+        final CommandHandlerProvider provider = handlerContext.refreshedProvider();
+
+        assertVariantHandler(handlerContext, provider, "createDatatableCommandHandler",
+                new CommandWrapperBuilder().createDBDatatable("{}").build());
+        assertVariantHandler(handlerContext, provider, "updateDatatableCommandHandler",
+                new CommandWrapperBuilder().updateDBDatatable("extra_details", "{}").build());
+        assertVariantHandler(handlerContext, provider, "registerDatatableCommandHandler",
+                new CommandWrapperBuilder().registerDBDatatable("extra_details", "m_client").build());
+        assertVariantHandler(handlerContext, provider, "createDatatableEntryCommandHandler",
+                new CommandWrapperBuilder().createDatatable("extra_details", 1L, null).build());
+        assertVariantHandler(handlerContext, provider, "updateOneToOneDatatableEntryCommandHandler",
+                new CommandWrapperBuilder().updateDatatable("extra_details", 1L, null).build());
+        assertVariantHandler(handlerContext, provider, "updateOneToManyDatatableEntryCommandHandler",
+                new CommandWrapperBuilder().updateDatatable("extra_details", 1L, 2L).build());
+        assertVariantHandler(handlerContext, provider, "deleteOneToOneDatatableEntryCommandHandler",
+                new CommandWrapperBuilder().deleteDatatable("extra_details", 1L, null).build());
+        assertVariantHandler(handlerContext, provider, "deleteOneToManyDatatableEntryCommandHandler",
+                new CommandWrapperBuilder().deleteDatatable("extra_details", 1L, 2L).build());
+        assertVariantHandler(handlerContext, provider, "createNoteCommandHandler",
+                wrapper("CREATE", "LOANNOTE", null, "/loans/1/notes/template"));
+        assertVariantHandler(handlerContext, provider, "deleteNoteCommandHandler",
+                wrapper("DELETE", "CLIENTNOTE", 2L, "/clients/1/notes/2"));
+        assertVariantHandler(handlerContext, provider, "registerSurveyCommandHandler",
+                new CommandWrapperBuilder().registerSurvey("ppi_kenya", "m_client").build());
+        assertVariantHandler(handlerContext, provider, "fullFilSurveyCommandHandler",
+                new CommandWrapperBuilder().fullFilSurvey("ppi_kenya", 1L).build());
+        assertVariantHandler(handlerContext, provider, "updateLoanDisbuseDateCommandHandler",
+                wrapper("UPDATE", "DISBURSEMENTDETAIL", 3L, "/loans/1/disbursements/3"));
+        assertVariantHandler(handlerContext, provider, "addAndDeleteLoanDisburseDetailsCommandHandler",
+                wrapper("UPDATE", "DISBURSEMENTDETAIL", null, "/loans/1/disbursements/editDisbursements"));
+    }
+
+    @Test(expected = UnsupportedCommandException.class)
+    public void shouldThrowUnsupportedCommandExceptionForUnknownVariantAction() {
+        new HandlerContext(null).refreshedProvider().getHandler(wrapper("APPROVE", "CLIENTNOTE", 2L, "/clients/1/notes/2"));
+    }
+
+    @Test
+    public void shouldTimeHandlersByOutcome() {
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final HandlerContext handlerContext = new HandlerContext(meterRegistry);
+        final NewCommandSourceHandler failingHandler = handlerContext.handlers.get("createNoteCommandHandler");
+        when(failingHandler.processCommand(any(JsonCommand.class))).thenThrow(new IllegalStateException("failed"));
+        final CommandHandlerProvider provider = handlerContext.refreshedProvider();
+
+        Assert.assertEquals(Long.valueOf(815L), provider.getHandler("HUMAN", "UPDATE").processCommand(command(815L)).commandId());
+        try {
+            provider.getHandler(wrapper("CREATE", "CLIENTNOTE", null, "/clients/1/notes/template")).processCommand(command(816L));
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+
+        Assert.assertEquals(1, meterRegistry.get("fineract.command.handler").tag("handler", "validCommandHandler")
+                .tag("result", "success").timer().count());
+        Assert.assertEquals(0, meterRegistry.get("fineract.command.handler").tag("handler", "validCommandHandler")
+                .tag("result", "failure").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("fineract.command.handler").tag("handler", "createNoteCommandHandler")
+                .tag("result", "failure").timer().count());
+    }
+
+    private static void assertVariantHandler(final HandlerContext handlerContext, final CommandHandlerProvider provider,
+            final String handlerName, final CommandWrapper wrapper) {
+        Assert.assertSame(handlerName, handlerContext.handlers.get(handlerName), provider.getHandler(wrapper));
+    }
+
+    private static CommandWrapper wrapper(final String actionName, final String entityName, final Long entityId, final String href) {
+        return new CommandWrapper(null, null, null, null, null, actionName, entityName, entityId, null, href, null, null, null, null,
+                null, null);
+    }
+
+    private static JsonCommand command(final Long commandId) {
+        return JsonCommand.fromExistingCommand(commandId, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * An application context holding {@link ValidCommandHandler} and a mock
+     * for every variant handler.
+     */
+    private static final class HandlerContext {
+
+        private static final String[] VARIANT_HANDLER_NAMES = { "createDatatableCommandHandler", "deleteDatatableCommandHandler",
+                "updateDatatableCommandHandler", "createDatatableEntryCommandHandler", "updateOneToManyDatatableEntryCommandHandler",
+                "updateOneToOneDatatableEntryCommandHandler", "deleteOneToManyDatatableEntryCommandHandler",
+                "deleteOneToOneDatatableEntryCommandHandler", "registerDatatableCommandHandler", "createNoteCommandHandler",
+                "updateNoteCommandHandler", "deleteNoteCommandHandler", "registerSurveyCommandHandler", "fullFilSurveyCommandHandler",
+                "updateLoanDisbuseDateCommandHandler", "addAndDeleteLoanDisburseDetailsCommandHandler" };
+
+        private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+        private final Map<String, NewCommandSourceHandler> handlers = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        HandlerContext(final MeterRegistry meterRegistry) {
+            this.handlers.put("validCommandHandler", new ValidCommandHandler());
+            for (final String handlerName : VARIANT_HANDLER_NAMES) {
+                this.handlers.put(handlerName, mock(NewCommandSourceHandler.class));
+            }
+            for (final Map.Entry<String, NewCommandSourceHandler> handler : this.handlers.entrySet()) {
+                when(this.applicationContext.containsBean(handler.getKey())).thenReturn(true);
+                when(this.applicationContext.getBean(handler.getKey())).thenReturn(handler.getValue());
+            }
+            when(this.applicationContext.getBeanNamesForAnnotation(CommandType.class)).thenReturn(new String[] { "validCommandHandler" });
+            when(this.applicationContext.findAnnotationOnBean("validCommandHandler", CommandType.class))
+                    .thenReturn(ValidCommandHandler.class.getAnnotation(CommandType.class));
+            final ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+            when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+            when(this.applicationContext.getBeanProvider(MeterRegistry.class)).thenReturn(meterRegistryProvider);
+        }
+
+        CommandHandlerProvider refreshedProvider() {
+            final CommandHandlerProvider provider = new CommandHandlerProvider();
+            provider.setApplicationContext(this.applicationContext);
+            provider.onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+            return provider;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.junit.Test;
+
+public class PaginationCursorTest {
+
+    private final Map<String, String> sortColumns = PaginationCursor.sortColumns("l.id", "l.account_no");
+
+    @Test
+    public void givenBlankTokenShouldDecodeToFirstPage() {
+        assertNull(PaginationCursor.decode(null));
+        assertNull(PaginationCursor.decode(" "));
+    }
+
+    @Test
+    public void givenSortValueWithSeparatorShouldDecodeWhatWasEncoded() {
+        final PaginationCursor cursor = PaginationCursor.decode(PaginationCursor.encode("000:12", 42L));
+
+        final List<Object> params = new ArrayList<>();
+        assertEquals("(l.account_no > ? or (l.account_no = ? and l.id > ?))", cursor.condition("l.account_no", "l.id", false, params));
+        assertEquals(Arrays.<Object> asList("000:12", "000:12", 42L), params);
+    }
+
+    @Test
+    public void givenNullSortValueShouldDecodeWhatWasEncoded() {
+        final PaginationCursor cursor = PaginationCursor.decode(PaginationCursor.encode(null, 42L));
+
+        final List<Object> params = new ArrayList<>();
+        assertEquals("(l.account_no is not null or l.id > ?)", cursor.condition("l.account_no", "l.id", false, params));
+        assertEquals(Arrays.<Object> asList(42L), params);
+    }
+
+    @Test(expected = PlatformApiDataValidationException.class)
+    public void givenTokenThatIsNotBase64ShouldBeRejected() {
+        PaginationCursor.decode("not a token!");
+    }
+
+    @Test(expected = PlatformApiDataValidationException.class)
+    public void givenTokenWithoutIdShouldBeRejected() {
+        PaginationCursor.decode(PaginationCursor.encode("000012", null));
+    }
+
+    @Test
+    public void givenIdSortShouldOnlyCompareIds() {
+        final PaginationCursor cursor = PaginationCursor.decode(PaginationCursor.encode("42", 42L));
+
+        final List<Object> params = new ArrayList<>();
+        assertEquals("(l.id < ?)", cursor.condition("l.id", "l.id", true, params));
+        assertEquals(Arrays.<Object> asList(42L), params);
+    }
+
+    @Test
+    public void givenDescendingSortShouldIncludeNullSortValuesLast() {
+        final PaginationCursor cursor = PaginationCursor.decode(PaginationCursor.encode("000012", 42L));
+
+        final List<Object> params = new ArrayList<>();
+        assertEquals("(l.account_no < ? or (l.account_no = ? and l.id < ?) or l.account_no is null)",
+                cursor.condition("l.account_no", "l.id", true, params));
+        assertEquals(Arrays.<Object> asList("000012", "000012", 42L), params);
+    }
+
+    @Test
+    public void givenDescendingSortAfterNullSortValueShouldOnlyCompareIdsOfNullSortValues() {
+        final PaginationCursor cursor = PaginationCursor.decode(PaginationCursor.encode(null, 42L));
+
+        final List<Object> params = new ArrayList<>();
+        assertEquals("(l.account_no is null and l.id < ?)", cursor.condition("l.account_no", "l.id", true, params));
+        assertEquals(Arrays.<Object> asList(42L), params);
+    }
+
+    @Test
+    public void givenNoOrderShouldSortById() {
+        assertEquals("l.id", PaginationCursor.sortExpression(null, this.sortColumns, "l.id"));
+        assertEquals("l.id", PaginationCursor.sortExpression(SearchParameters.forPagination(0, 10, null, null), this.sortColumns, "l.id"));
+    }
+
+    @Test
+    public void givenAllowedOrderShouldSortByItsColumn() {
+        assertEquals("l.account_no",
+                PaginationCursor.sortExpression(SearchParameters.forPagination(0, 10, "account_no", "asc"), this.sortColumns, "l.id"));
+        assertEquals("l.account_no",
+                PaginationCursor.sortExpression(SearchParameters.forPagination(0, 10, "l.account_no", "asc"), this.sortColumns, "l.id"));
+    }
+
+    @Test(expected = PlatformApiDataValidationException.class)
+    public void givenOrderByExpressionShouldBeRejected() {
+        PaginationCursor.sortExpression(SearchParameters.forPagination(0, 10, "(select 1)", "asc"), this.sortColumns, "l.id");
+    }
+
+    @Test(expected = PlatformApiDataValidationException.class)
+    public void givenOrderByUnknownColumnShouldBeRejected() {
+        PaginationCursor.sortExpression(SearchParameters.forPagination(0, 10, "external_id", "asc"), this.sortColumns, "l.id");
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that every total of a {@link MoneyAccumulator} is the one the
+ * equivalent chain of {@link Money#plus(BigDecimal)} and
+ * {@link Money#minus(BigDecimal)} calls produces.
+ */
+public class MoneyAccumulatorTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2, null);
+    private final MonetaryCurrency inMultiplesOfFifty = new MonetaryCurrency("KES", 0, 50);
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void givenAmountsAtCurrencyScaleShouldAddInMinorUnits() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.usDollars);
+        Money money = Money.zero(this.usDollars);
+
+        for (final String amount : new String[] { "100.10", "0.01", "2500.99", "-0.11" }) {
+            accumulator.plus(new BigDecimal(amount));
+            money = money.plus(new BigDecimal(amount));
+            assertSameAsMoney(money, accumulator);
+        }
+        assertEquals(new BigDecimal("2600.99"), accumulator.getAmount());
+    }
+
+    @Test
+    public void givenCurrencyInMultiplesShouldRoundEveryPositiveTotal() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.inMultiplesOfFifty);
+        Money money = Money.zero(this.inMultiplesOfFifty);
+
+        accumulator.plus(new BigDecimal("120"));
+        money = money.plus(new BigDecimal("120"));
+        assertSameAsMoney(money, accumulator);
+        assertEquals(new BigDecimal("100"), accumulator.getAmount());
+
+        accumulator.plus(new BigDecimal("30"));
+        money = money.plus(new BigDecimal("30"));
+        assertSameAsMoney(money, accumulator);
+        assertEquals(new BigDecimal("150"), accumulator.getAmount());
+
+        // negative totals are not rounded to multiples, as in Money
+        accumulator.minus(new BigDecimal("180"));
+        money = money.minus(new BigDecimal("180"));
+        assertSameAsMoney(money, accumulator);
+        assertEquals(new BigDecimal("-30"), accumulator.getAmount());
+
+        accumulator.plus(new BigDecimal("110"));
+        money = money.plus(new BigDecimal("110"));
+        assertSameAsMoney(money, accumulator);
+        assertEquals(new BigDecimal("100"), accumulator.getAmount());
+    }
+
+    @Test
+    public void givenOperandsWithOtherScalesShouldRoundLikeMoney() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(Money.of(this.usDollars, new BigDecimal("10.00")));
+        Money money = Money.of(this.usDollars, new BigDecimal("10.00"));
+
+        for (final String amount : new String[] { "1.005", "0.015", "3", "-2.1", "0.333333", "7.25" }) {
+            accumulator.plus(new BigDecimal(amount));
+            money = money.plus(new BigDecimal(amount));
+            assertSameAsMoney(money, accumulator);
+        }
+        for (final String amount : new String[] { "0.125", "4.2", "0.01" }) {
+            accumulator.minus(new BigDecimal(amount));
+            money = money.minus(new BigDecimal(amount));
+            assertSameAsMoney(money, accumulator);
+        }
+    }
+
+    @Test
+    public void givenTotalBeyondMinorUnitRangeShouldContinueInBigDecimal() {
+        final BigDecimal nearLimit = BigDecimal.valueOf(Long.MAX_VALUE >> 1, 2);
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(Money.of(this.usDollars, nearLimit));
+        Money money = Money.of(this.usDollars, nearLimit);
+
+        for (final String amount : new String[] { "0.01", "1000000.00", "0.005", "-1000000.01", "-0.01" }) {
+            accumulator.plus(new BigDecimal(amount));
+            money = money.plus(new BigDecimal(amount));
+            assertSameAsMoney(money, accumulator);
+        }
+
+        final BigDecimal beyondLimit = new BigDecimal("92233720368547758070.00");
+        accumulator.plus(beyondLimit);
+        money = money.plus(beyondLimit);
+        assertSameAsMoney(money, accumulator);
+        accumulator.minus(beyondLimit);
+        money = money.minus(beyondLimit);
+        assertSameAsMoney(money, accumulator);
+    }
+
+    @Test
+    public void givenSubtractionsBelowZeroShouldKeepNegativeTotals() {
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.usDollars);
+        Money money = Money.zero(this.usDollars);
+
+        accumulator.minus(Money.of(this.usDollars, new BigDecimal("10.25")));
+        money = money.minus(Money.of(this.usDollars, new BigDecimal("10.25")));
+        assertSameAsMoney(money, accumulator);
+
+        accumulator.plus(Money.of(this.usDollars, new BigDecimal("3.10")));
+        money = money.plus(Money.of(this.usDollars, new BigDecimal("3.10")));
+        assertSameAsMoney(money, accumulator);
+        assertEquals(new BigDecimal("-7.15"), accumulator.getAmount());
+        assertFalse(accumulator.isGreaterThanZero());
+
+        accumulator.plus(new BigDecimal("7.15"));
+        assertTrue(accumulator.isZero());
+    }
+
+    @Test
+    public void givenUnchangedTotalShouldReuseMoney() {
+        final Money money = Money.of(this.usDollars, new BigDecimal("5.00"));
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(money);
+
+        assertSame(money, accumulator.plus(BigDecimal.ZERO).minus((BigDecimal) null).toMoney());
+        assertSame(accumulator.plus(new BigDecimal("1.00")).toMoney(), accumulator.toMoney());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void givenOtherCurrencyShouldBeRejected() {
+        MoneyAccumulator.zero(this.usDollars).plus(Money.zero(this.inMultiplesOfFifty));
+    }
+
+    private static void assertSameAsMoney(final Money expected, final MoneyAccumulator actual) {
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getAmount(), actual.toMoney().getAmount());
+        assertEquals(expected.isZero(), actual.isZero());
+        assertEquals(expected.isGreaterThanZero(), actual.isGreaterThanZero());
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.charge.domain.Charge;
+import org.apache.fineract.portfolio.charge.domain.ChargeCalculationType;
+import org.apache.fineract.portfolio.charge.domain.ChargePaymentMode;
+import org.apache.fineract.portfolio.charge.domain.ChargeTimeType;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionComparator;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionToRepaymentScheduleMapping;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleStateSnapshot;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.FineractStyleLoanRepaymentScheduleTransactionProcessor;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Checks that replaying the transactions of a loan incrementally, restoring
+ * the transactions before the replay date from their repayment schedule
+ * mappings, ends in the same state as a complete replay.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FineractStyleLoanRepaymentScheduleTransactionProcessorTest {
+
+    private final LocalDate disbursementDate = new LocalDate(2012, 6, 2);
+    private final LocalDate july2nd = new LocalDate(2012, 7, 2);
+    private final LocalDate august2nd = new LocalDate(2012, 8, 2);
+    private final LocalDate september2nd = new LocalDate(2012, 9, 2);
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void givenBackdatedRepaymentIncrementalReplayShouldMatchCompleteReplay() {
+        final LocalDate replayFrom = new LocalDate(2012, 8, 10);
+
+        assertIncrementalReplayMatchesCompleteReplay(backdatedRepayment(replayFrom), backdatedRepayment(replayFrom), replayFrom);
+    }
+
+    @Test
+    public void givenAdjustedRepaymentIncrementalReplayShouldMatchCompleteReplay() {
+        assertIncrementalReplayMatchesCompleteReplay(adjustedRepayment(), adjustedRepayment(), this.august2nd);
+    }
+
+    @Test
+    public void givenInterestWaiverIncrementalReplayShouldMatchCompleteReplay() {
+        final LocalDate replayFrom = new LocalDate(2012, 8, 10);
+
+        assertIncrementalReplayMatchesCompleteReplay(waivedInterest(replayFrom), waivedInterest(replayFrom), replayFrom);
+    }
+
+    @Test
+    public void givenPaidChargeIncrementalReplayShouldMatchCompleteReplay() {
+        final LocalDate replayFrom = new LocalDate(2012, 8, 20);
+
+        assertIncrementalReplayMatchesCompleteReplay(paidCharge(replayFrom), paidCharge(replayFrom), replayFrom);
+    }
+
+    @Test
+    public void givenOverpaymentIncrementalReplayShouldMatchCompleteReplay() {
+        assertIncrementalReplayMatchesCompleteReplay(overpayment(), overpayment(), this.september2nd);
+    }
+
+    /**
+     * Scheduled repayments of the first and last installment, followed by a
+     * backdated partial repayment of the second.
+     */
+    private LoanState backdatedRepayment(final LocalDate backdatedOn) {
+        final LoanState loan = existingLoan(noCharges(), repayment(this.july2nd, "1200.00"), repayment(this.september2nd, "1200.00"));
+        loan.add(repayment(backdatedOn, "300.00"));
+        return loan;
+    }
+
+    /**
+     * Three scheduled repayments, the second one adjusted to half its amount.
+     */
+    private LoanState adjustedRepayment() {
+        final LoanState loan = existingLoan(noCharges(), repayment(this.july2nd, "1200.00"), repayment(this.august2nd, "1200.00"),
+                repayment(this.september2nd, "1200.00"));
+        loan.adjust(1, repayment(this.august2nd, "600.00"));
+        return loan;
+    }
+
+    /**
+     * Interest of the second installment partly waived ahead of its due date,
+     * followed by a backdated repayment after the waiver.
+     */
+    private LoanState waivedInterest(final LocalDate backdatedOn) {
+        final LoanState loan = existingLoan(noCharges(), repayment(this.july2nd, "1200.00"), waiver(new LocalDate(2012, 7, 20), "100.00"),
+                repayment(this.september2nd, "1000.00"));
+        loan.add(repayment(backdatedOn, "500.00"));
+        return loan;
+    }
+
+    /**
+     * A fee due within the second installment is paid by a late repayment,
+     * followed by a backdated repayment after it.
+     */
+    private LoanState paidCharge(final LocalDate backdatedOn) {
+        final Set<LoanCharge> charges = new HashSet<>();
+        charges.add(specifiedDueDateFee(new LocalDate(2012, 7, 25), "50.00"));
+        final LoanState loan = existingLoan(charges, repayment(this.august2nd, "1450.00"), repayment(this.september2nd, "500.00"));
+        loan.add(repayment(backdatedOn, "300.00"));
+        return loan;
+    }
+
+    /**
+     * An overpaying repayment and a fully overpaid one after it, the last one
+     * adjusted.
+     */
+    private LoanState overpayment() {
+        final LoanState loan = existingLoan(noCharges(), repayment(this.july2nd, "1200.00"), repayment(this.august2nd, "2500.00"),
+                repayment(this.september2nd, "50.00"));
+        loan.adjust(2, repayment(this.september2nd, "80.00"));
+        return loan;
+    }
+
+    private void assertIncrementalReplayMatchesCompleteReplay(final LoanState incremental, final LoanState complete,
+            final LocalDate replayFrom) {
+
+        final CountingLoanRepaymentScheduleTransactionProcessor incrementalProcessor = new CountingLoanRepaymentScheduleTransactionProcessor();
+        final boolean verifyReplay = false;
+        final ChangedTransactionDetail incrementalChanges = incrementalProcessor.handleTransaction(this.disbursementDate, replayFrom,
+                verifyReplay, incremental.transactions, this.usDollars, incremental.installments, incremental.charges);
+
+        final CountingLoanRepaymentScheduleTransactionProcessor completeProcessor = new CountingLoanRepaymentScheduleTransactionProcessor();
+        final ChangedTransactionDetail completeChanges = completeProcessor.handleTransaction(this.disbursementDate, complete.transactions,
+                this.usDollars, complete.installments, complete.charges);
+
+        assertNull(LoanRepaymentScheduleStateSnapshot.of(this.usDollars, incremental.installments, incremental.charges).firstDifference(
+                LoanRepaymentScheduleStateSnapshot.of(this.usDollars, complete.installments, complete.charges)));
+
+        assertEquals(completeChanges.getNewTransactionMappings().keySet(), incrementalChanges.getNewTransactionMappings().keySet());
+        for (final Long transactionId : completeChanges.getNewTransactionMappings().keySet()) {
+            assertTrue(LoanTransaction.transactionAmountsMatch(this.usDollars, completeChanges.getNewTransactionMappings().get(transactionId),
+                    incrementalChanges.getNewTransactionMappings().get(transactionId)));
+        }
+        for (int index = 0; index < complete.transactions.size(); index++) {
+            final LoanTransaction completeTransaction = complete.transactions.get(index);
+            final LoanTransaction incrementalTransaction = incremental.transactions.get(index);
+            assertEquals(completeTransaction.isReversed(), incrementalTransaction.isReversed());
+            assertTrue(LoanTransaction.transactionAmountsMatch(this.usDollars, completeTransaction, incrementalTransaction));
+        }
+
+        assertTrue("transactions before " + replayFrom + " were replayed instead of restored",
+                incrementalProcessor.installmentAllocations < completeProcessor.installmentAllocations);
+    }
+
+    /**
+     * Processes the transactions as new ones and then gives them and the
+     * installments ids, as if the loan had been saved.
+     */
+    private LoanState existingLoan(final Set<LoanCharge> charges, final LoanTransaction... transactions) {
+        final LoanState loan = new LoanState(LoanScheduleTestDataHelper.createSimpleLoanSchedule(this.july2nd, this.usDollars), charges,
+                transactions);
+        new FineractStyleLoanRepaymentScheduleTransactionProcessor().handleTransaction(this.disbursementDate, loan.transactions,
+                this.usDollars, loan.installments, loan.charges);
+
+        long id = 1;
+        for (final LoanRepaymentScheduleInstallment installment : loan.installments) {
+            withId(installment, id++);
+        }
+        for (final LoanTransaction transaction : loan.transactions) {
+            withId(transaction, id++);
+        }
+        return loan;
+    }
+
+    private LoanTransaction repayment(final LocalDate transactionDate, final String amount) {
+        return LoanTransaction.repayment(null, new MoneyBuilder().with(this.usDollars).with(amount).build(), null, transactionDate, null,
+                transactionDate.toDateTimeAtStartOfDay().toLocalDateTime(), null);
+    }
+
+    private LoanTransaction waiver(final LocalDate transactionDate, final String amount) {
+        final Money waived = new MoneyBuilder().with(this.usDollars).with(amount).build();
+        return LoanTransaction.waiver(null, null, waived, transactionDate, waived, Money.zero(this.usDollars), transactionDate
+                .toDateTimeAtStartOfDay().toLocalDateTime(), null);
+    }
+
+    private LoanCharge specifiedDueDateFee(final LocalDate dueDate, final String amount) {
+        final BigDecimal loanPrincipal = new BigDecimal("3000.00");
+        final Integer numberOfRepayments = 3;
+        return new LoanCharge(null, mock(Charge.class), loanPrincipal, new BigDecimal(amount), ChargeTimeType.SPECIFIED_DUE_DATE,
+                ChargeCalculationType.FLAT, dueDate, ChargePaymentMode.REGULAR, numberOfRepayments, BigDecimal.ZERO);
+    }
+
+    private static Set<LoanCharge> noCharges() {
+        return new HashSet<>();
+    }
+
+    private static void withId(final AbstractPersistableCustom<Long> entity, final Long id) {
+        try {
+            final Field field = AbstractPersistableCustom.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(entity, id);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class LoanState {
+
+        private final List<LoanRepaymentScheduleInstallment> installments;
+        private final Set<LoanCharge> charges;
+        private final List<LoanTransaction> transactions;
+
+        LoanState(final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges,
+                final LoanTransaction... transactions) {
+            this.installments = new ArrayList<>(installments);
+            this.charges = charges;
+            this.transactions = new ArrayList<>(Arrays.asList(transactions));
+        }
+
+        void add(final LoanTransaction transaction) {
+            this.transactions.add(transaction);
+            Collections.sort(this.transactions, new LoanTransactionComparator());
+        }
+
+        /**
+         * An adjustment reverses the existing transaction, which drops out of
+         * the replay, and adds the new one in its place.
+         */
+        void adjust(final int index, final LoanTransaction transaction) {
+            this.transactions.get(index).reverse();
+            this.transactions.remove(index);
+            add(transaction);
+        }
+    }
+
+    /**
+     * Counts how often a transaction portion is allocated to an installment,
+     * restored transactions are not allocated again.
+     */
+    private static final class CountingLoanRepaymentScheduleTransactionProcessor extends
+            FineractStyleLoanRepaymentScheduleTransactionProcessor {
+
+        private int installmentAllocations = 0;
+
+        @Override
+        protected Money handleTransactionThatIsPaymentInAdvanceOfInstallment(final LoanRepaymentScheduleInstallment currentInstallment,
+                final List<LoanRepaymentScheduleInstallment> installments, final LoanTransaction loanTransaction,
+                final LocalDate transactionDate, final Money paymentInAdvance,
+                final List<LoanTransactionToRepaymentScheduleMapping> transactionMappings) {
+            this.installmentAllocations++;
+            return super.handleTransactionThatIsPaymentInAdvanceOfInstallment(currentInstallment, installments, loanTransaction,
+                    transactionDate, paymentInAdvance, transactionMappings);
+        }
+
+        @Override
+        protected Money handleTransactionThatIsALateRepaymentOfInstallment(final LoanRepaymentScheduleInstallment currentInstallment,
+                final List<LoanRepaymentScheduleInstallment> installments, final LoanTransaction loanTransaction,
+                final Money transactionAmountUnprocessed, final List<LoanTransactionToRepaymentScheduleMapping> transactionMappings) {
+            this.installmentAllocations++;
+            return super.handleTransactionThatIsALateRepaymentOfInstallment(currentInstallment, installments, loanTransaction,
+                    transactionAmountUnprocessed, transactionMappings);
+        }
+
+        @Override
+        protected Money handleTransactionThatIsOnTimePaymentOfInstallment(final LoanRepaymentScheduleInstallment currentInstallment,
+                final LoanTransaction loanTransaction, final Money transactionAmountUnprocessed,
+                final List<LoanTransactionToRepaymentScheduleMapping> transactionMappings) {
+            this.installmentAllocations++;
+            return super.handleTransactionThatIsOnTimePaymentOfInstallment(currentInstallment, loanTransaction,
+                    transactionAmountUnprocessed, transactionMappings);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.apache.fineract.portfolio.savings.SavingsInterestCalculationType;
+import org.apache.fineract.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.apache.fineract.portfolio.savings.domain.interest.PostingPeriod;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Checks that recalculating the balances, the summary and the interest of a
+ * savings account from its {@link SavingsAccountBalanceCheckpoint} ends in the
+ * same state as a full recalculation.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SavingsAccountBalanceCheckpointTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2, null);
+    private final SavingsAccountTransactionSummaryWrapper wrapper = new SavingsAccountTransactionSummaryWrapper();
+
+    private final LocalDate january1st = new LocalDate(2019, 1, 1);
+    private final LocalDate january15th = new LocalDate(2019, 1, 15);
+    private final LocalDate january31st = new LocalDate(2019, 1, 31);
+    private final LocalDate february10th = new LocalDate(2019, 2, 10);
+    private final LocalDate february28th = new LocalDate(2019, 2, 28);
+    private final LocalDate checkpointDate = new LocalDate(2019, 2, 27);
+    private final LocalDate march31st = new LocalDate(2019, 3, 31);
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+
+        Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void givenDepositAfterCheckpointShouldKeepCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = true;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("200.00"), savingsAccount("200.00"),
+                account -> deposit(account, new LocalDate(2019, 3, 5), "300.00"), checkpointKept);
+    }
+
+    @Test
+    public void givenBackdatedDepositShouldInvalidateCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = false;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("200.00"), savingsAccount("200.00"),
+                account -> deposit(account, new LocalDate(2019, 1, 20), "300.00"), checkpointKept);
+    }
+
+    @Test
+    public void givenReversalBeforeCheckpointShouldInvalidateCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = false;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("200.00"), savingsAccount("200.00"),
+                account -> transactionOn(account, this.january15th).reverse(), checkpointKept);
+    }
+
+    @Test
+    public void givenOverdraftShouldKeepCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = true;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("1500.00"), savingsAccount("1500.00"), account -> {
+            withdrawal(account, new LocalDate(2019, 3, 5), "100.00");
+            deposit(account, new LocalDate(2019, 3, 20), "400.00");
+        }, checkpointKept);
+    }
+
+    @Test
+    public void givenInterestRepostedBeforeCheckpointShouldInvalidateCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = false;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("200.00"), savingsAccount("200.00"),
+                account -> repostInterest(account, this.january31st, "11.00"), checkpointKept);
+    }
+
+    @Test
+    public void givenInterestRepostedAfterCheckpointShouldKeepCheckpointAndMatchFullRecalculation() {
+        final boolean checkpointKept = true;
+        assertCheckpointedRecalculationMatchesFullRecalculation(savingsAccount("200.00"), savingsAccount("200.00"),
+                account -> repostInterest(account, this.february28th, "13.00"), checkpointKept);
+    }
+
+    @Test
+    public void givenAmountChangedBeforeCheckpointShouldInvalidateCheckpoint() {
+        final SavingsAccount account = savingsAccount("200.00");
+        recalculate(account);
+        account.updateBalanceCheckpoint(this.checkpointDate);
+
+        transactionOn(account, this.january15th).updateAmount(money("250.00"));
+
+        assertFalse(account.balanceCheckpoint.isValid());
+    }
+
+    @Test
+    public void givenInterestCheckpointShouldOnlyEvaluateLaterPostingPeriodsAndMatchFullCalculation() {
+        final SavingsAccount checkpointed = interestBearingSavingsAccount();
+        final SavingsAccount full = interestBearingSavingsAccount();
+        final LocalDate april1st = new LocalDate(2019, 4, 1);
+        checkpointed.updateBalanceCheckpoint(calculateInterest(checkpointed, april1st), april1st);
+        assertTrue(checkpointed.balanceCheckpoint.hasInterestState());
+
+        deposit(checkpointed, new LocalDate(2019, 4, 10), "700.00");
+        deposit(full, new LocalDate(2019, 4, 10), "700.00");
+        assertTrue(checkpointed.balanceCheckpoint.isValid());
+
+        final LocalDate june30th = new LocalDate(2019, 6, 30);
+        final List<PostingPeriod> checkpointedPostingPeriods = calculateInterest(checkpointed, june30th);
+        final List<PostingPeriod> fullPostingPeriods = calculateInterest(full, june30th);
+
+        final int skippedPostingPeriods = fullPostingPeriods.size() - checkpointedPostingPeriods.size();
+        assertTrue(skippedPostingPeriods > 0);
+        for (int index = 0; index < checkpointedPostingPeriods.size(); index++) {
+            final PostingPeriod expected = fullPostingPeriods.get(skippedPostingPeriods + index);
+            final PostingPeriod actual = checkpointedPostingPeriods.get(index);
+            final String description = "posting period ending " + expected.endDate();
+            assertEquals(description, expected.endDate(), actual.endDate());
+            assertTrue(description, expected.interest().isEqualTo(actual.interest()));
+            assertTrue(description, expected.closingBalance().isEqualTo(actual.closingBalance()));
+        }
+        assertTrue(full.summary.getTotalInterestEarned(this.usDollars).isEqualTo(
+                checkpointed.summary.getTotalInterestEarned(this.usDollars)));
+    }
+
+    @Test
+    public void givenBackdatedDepositShouldCalculateInterestOfAllPostingPeriods() {
+        final SavingsAccount account = interestBearingSavingsAccount();
+        final LocalDate april1st = new LocalDate(2019, 4, 1);
+        final int allPostingPeriods = calculateInterest(account, april1st).size();
+        account.updateBalanceCheckpoint(calculateInterest(account, april1st), april1st);
+
+        deposit(account, new LocalDate(2019, 2, 5), "300.00");
+
+        assertEquals(allPostingPeriods, calculateInterest(account, april1st).size());
+    }
+
+    private void assertCheckpointedRecalculationMatchesFullRecalculation(final SavingsAccount checkpointed, final SavingsAccount full,
+            final Consumer<SavingsAccount> change, final boolean checkpointKept) {
+        recalculate(checkpointed);
+        recalculate(full);
+        checkpointed.updateBalanceCheckpoint(this.checkpointDate);
+        assertTrue(checkpointed.balanceCheckpoint.isValid());
+
+        change.accept(checkpointed);
+        change.accept(full);
+        assertEquals(checkpointKept, checkpointed.balanceCheckpoint.isValid());
+
+        recalculate(checkpointed);
+        recalculate(full);
+
+        final List<SavingsAccountTransaction> checkpointedTransactions = checkpointed.retreiveListOfTransactions();
+        final List<SavingsAccountTransaction> fullTransactions = full.retreiveListOfTransactions();
+        assertEquals(fullTransactions.size(), checkpointedTransactions.size());
+        for (int index = 0; index < fullTransactions.size(); index++) {
+            final SavingsAccountTransaction expected = fullTransactions.get(index);
+            final SavingsAccountTransaction actual = checkpointedTransactions.get(index);
+            final String description = "transaction " + index + " on " + expected.transactionLocalDate();
+            assertEquals(description, expected.transactionLocalDate(), actual.transactionLocalDate());
+            assertEquals(description, expected.isReversed(), actual.isReversed());
+            assertTrue(description, expected.getAmount(this.usDollars).isEqualTo(actual.getAmount(this.usDollars)));
+            assertTrue(description, expected.getRunningBalance(this.usDollars).isEqualTo(actual.getRunningBalance(this.usDollars)));
+            assertTrue(description, expected.getOverdraftAmount(this.usDollars).isEqualTo(actual.getOverdraftAmount(this.usDollars)));
+            assertEquals(description, expected.getEndOfBalanceLocalDate(), actual.getEndOfBalanceLocalDate());
+        }
+
+        for (final Field field : SavingsAccountSummary.class.getDeclaredFields()) {
+            if (field.getType().equals(BigDecimal.class)) {
+                final Money expected = Money.of(this.usDollars, (BigDecimal) valueOf(field, full.summary));
+                final Money actual = Money.of(this.usDollars, (BigDecimal) valueOf(field, checkpointed.summary));
+                assertTrue(field.getName(), expected.isEqualTo(actual));
+            }
+        }
+    }
+
+    private List<PostingPeriod> calculateInterest(final SavingsAccount account, final LocalDate upToInterestCalculationDate) {
+        return account.calculateInterestUsing(new MathContext(12, RoundingMode.HALF_EVEN), upToInterestCalculationDate, false, false,
+                1, null);
+    }
+
+    private void recalculate(final SavingsAccount account) {
+        account.recalculateDailyBalances(Money.zero(this.usDollars), this.march31st);
+        account.summary.updateSummary(this.usDollars, this.wrapper, account.getTransactions(), account.balanceCheckpoint);
+    }
+
+    /**
+     * An account with a deposit, a withdrawal of <code>withdrawn</code> and
+     * monthly interest postings, the checkpoint falls before the second
+     * posting.
+     */
+    private SavingsAccount savingsAccount(final String withdrawn) {
+        final SavingsAccount account = new SavingsAccount();
+        account.currency = this.usDollars;
+        account.summary = new SavingsAccountSummary();
+        account.setHelpers(this.wrapper, null);
+
+        deposit(account, this.january1st, "1000.00");
+        withdrawal(account, this.january15th, withdrawn);
+        account.addTransaction(SavingsAccountTransaction.interestPosting(account, null, this.january31st, money("10.00"), false));
+        deposit(account, this.february10th, "500.00");
+        account.addTransaction(SavingsAccountTransaction.interestPosting(account, null, this.february28th, money("12.00"), false));
+        return account;
+    }
+
+    /**
+     * A savings account earning 10% compounded and posted monthly, with
+     * deposits and withdrawals in the first quarter.
+     */
+    private SavingsAccount interestBearingSavingsAccount() {
+        final SavingsAccount account = new SavingsAccount();
+        account.currency = this.usDollars;
+        account.summary = new SavingsAccountSummary();
+        account.setHelpers(this.wrapper, new SavingsHelper(mock(AccountTransfersReadPlatformService.class)));
+        account.activatedOnDate = this.january1st.toDate();
+        account.nominalAnnualInterestRate = BigDecimal.TEN;
+        account.nominalAnnualInterestRateOverdraft = BigDecimal.ZERO;
+        account.interestCompoundingPeriodType = SavingsCompoundingInterestPeriodType.MONTHLY.getValue();
+        account.interestPostingPeriodType = SavingsPostingInterestPeriodType.MONTHLY.getValue();
+        account.interestCalculationType = SavingsInterestCalculationType.DAILY_BALANCE.getValue();
+        account.interestCalculationDaysInYearType = SavingsInterestCalculationDaysInYearType.DAYS_365.getValue();
+        setValue(account, "depositType", DepositAccountType.SAVINGS_DEPOSIT.getValue());
+
+        deposit(account, this.january1st, "1000.00");
+        withdrawal(account, new LocalDate(2019, 1, 20), "200.00");
+        deposit(account, this.february10th, "500.00");
+        withdrawal(account, new LocalDate(2019, 3, 15), "100.00");
+        return account;
+    }
+
+    private void deposit(final SavingsAccount account, final LocalDate transactionDate, final String amount) {
+        account.addTransaction(SavingsAccountTransaction.deposit(account, null, null, transactionDate, money(amount),
+                transactionDate.toDate(), null));
+    }
+
+    private void withdrawal(final SavingsAccount account, final LocalDate transactionDate, final String amount) {
+        account.addTransaction(SavingsAccountTransaction.withdrawal(account, null, null, transactionDate, money(amount),
+                transactionDate.toDate(), null));
+    }
+
+    private void repostInterest(final SavingsAccount account, final LocalDate postingDate, final String amount) {
+        transactionOn(account, postingDate).reverse();
+        account.addTransaction(SavingsAccountTransaction.interestPosting(account, null, postingDate, money(amount), false));
+    }
+
+    private static SavingsAccountTransaction transactionOn(final SavingsAccount account, final LocalDate transactionDate) {
+        for (final SavingsAccountTransaction transaction : account.getTransactions()) {
+            if (transaction.isNotReversed() && transaction.transactionLocalDate().isEqual(transactionDate)) { return transaction; }
+        }
+        throw new IllegalArgumentException("No transaction on " + transactionDate);
+    }
+
+    private Money money(final String amount) {
+        return Money.of(this.usDollars, new BigDecimal(amount));
+    }
+
+    private static void setValue(final Object target, final String fieldName, final Object value) {
+        try {
+            final Field field = SavingsAccount.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (final NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object valueOf(final Field field, final Object target) {
+        try {
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.scheduledjobs.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+/**
+ * Checks that the single ordered pass deriving the closing balances of new
+ * trial balance rows agrees with the previous computation, which read the new
+ * rows and the last closing balance account by account.
+ */
+public class TrialBalanceClosingBalancesTest {
+
+    private static final Long CASH = 1L;
+    private static final Long LOANS = 2L;
+    private static final Long INCOME = 3L;
+
+    private final LocalDate january1st = new LocalDate(2019, 1, 1);
+    private final LocalDate january2nd = new LocalDate(2019, 1, 2);
+    private final LocalDate january3rd = new LocalDate(2019, 1, 3);
+
+    @Test
+    public void givenAccountsWithAndWithoutEarlierBalanceShouldMatchPerAccountComputation() {
+        final List<Row> rows = new ArrayList<>();
+        rows.add(new Row(11L, LOANS, "-500.00", this.january2nd, this.january2nd));
+        rows.add(new Row(12L, CASH, "250.50", this.january3rd, this.january3rd));
+        rows.add(new Row(13L, CASH, "-100.25", this.january1st, this.january1st));
+        rows.add(new Row(14L, LOANS, "120.00", this.january1st, this.january1st));
+        rows.add(new Row(15L, INCOME, "-20.10", this.january3rd, this.january3rd));
+        rows.add(new Row(16L, CASH, "75.00", this.january1st, this.january2nd));
+        rows.add(new Row(17L, INCOME, "-5.00", this.january2nd, this.january2nd));
+
+        final Map<Long, BigDecimal> lastClosingBalances = new HashMap<>();
+        lastClosingBalances.put(CASH, new BigDecimal("1000.000000"));
+        lastClosingBalances.put(INCOME, new BigDecimal("-300.000000"));
+
+        final Map<Long, BigDecimal> expected = perAccountClosingBalances(rows, lastClosingBalances);
+        final Map<Long, BigDecimal> actual = ScheduledJobRunnerServiceImpl.closingBalances(orderedNewRows(rows), lastClosingBalances);
+
+        assertEquals(expected, actual);
+        assertEquals(new BigDecimal("1225.250000"), actual.get(12L));
+        assertEquals(new BigDecimal("-380.00"), actual.get(11L));
+    }
+
+    @Test
+    public void givenNoNewRowsShouldUpdateNothing() {
+        assertEquals(new HashMap<Long, BigDecimal>(),
+                ScheduledJobRunnerServiceImpl.closingBalances(new ArrayList<Map<String, Object>>(), new HashMap<Long, BigDecimal>()));
+    }
+
+    /**
+     * The rows as read by the job: ordered by account, created date and entry
+     * date.
+     */
+    private static List<Map<String, Object>> orderedNewRows(final List<Row> rows) {
+        final List<Row> ordered = new ArrayList<>(rows);
+        ordered.sort(Comparator.comparing((Row row) -> row.accountId).thenComparing(row -> row.createdDate)
+                .thenComparing(row -> row.entryDate));
+        final List<Map<String, Object>> newRows = new ArrayList<>();
+        for (final Row row : ordered) {
+            final Map<String, Object> newRow = new HashMap<>();
+            newRow.put("id", row.id);
+            newRow.put("account_id", row.accountId);
+            newRow.put("amount", row.amount);
+            newRows.add(newRow);
+        }
+        return newRows;
+    }
+
+    /**
+     * The computation the job used before: for every account, its new rows
+     * ordered by created date and entry date, summed up from the account's
+     * last closing balance.
+     */
+    private static Map<Long, BigDecimal> perAccountClosingBalances(final List<Row> rows, final Map<Long, BigDecimal> lastClosingBalances) {
+        final Set<Long> accountIds = new LinkedHashSet<>();
+        for (final Row row : rows) {
+            accountIds.add(row.accountId);
+        }
+        final Map<Long, BigDecimal> closingBalances = new HashMap<>();
+        for (final Long accountId : accountIds) {
+            final List<Row> tbRows = new ArrayList<>();
+            for (final Row row : rows) {
+                if (row.accountId.equals(accountId)) {
+                    tbRows.add(row);
+                }
+            }
+            tbRows.sort(Comparator.comparing((Row row) -> row.createdDate).thenComparing(row -> row.entryDate));
+            BigDecimal closingBalance = lastClosingBalances.get(accountId);
+            if (closingBalance == null) {
+                closingBalance = BigDecimal.ZERO;
+            }
+            for (final Row tbRow : tbRows) {
+                closingBalance = closingBalance.add(tbRow.amount);
+                closingBalances.put(tbRow.id, closingBalance);
+            }
+        }
+        return closingBalances;
+    }
+
+    private static final class Row {
+
+        private final Long id;
+        private final Long accountId;
+        private final BigDecimal amount;
+        private final LocalDate createdDate;
+        private final LocalDate entryDate;
+
+        Row(final Long id, final Long accountId, final String amount, final LocalDate createdDate, final LocalDate entryDate) {
+            this.id = id;
+            this.accountId = accountId;
+            this.amount = new BigDecimal(amount);
+            this.createdDate = createdDate;
+            this.entryDate = entryDate;
+        }
+    }
+}